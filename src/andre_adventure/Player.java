@@ -8,6 +8,9 @@ import resources.Weapon;
  */
 public class Player extends Sentient {
 
+    // Version of the Java serialized form of this class
+    private static final long serialVersionUID = 1L;
+
     // The current score of the player
     private int score;
 
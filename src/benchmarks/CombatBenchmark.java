@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.util.List;
+
+import resources.*;
+
+/**
+ * CombatBenchmark
+ *
+ * Compares a round of combat against a room full of hostile sentients fought one sentient at a time - a new
+ * list of hostile sentients, then attack, takeDamage and a line of text for each, as the Engine used to - with
+ * the same round fought by the room's Horde. Both roll the same Dice, so both do the same damage.
+ *
+ * Usage: CombatBenchmark [sentients] [rounds]
+ */
+public class CombatBenchmark {
+
+    public static void main(String[] args){
+        int sentients = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+
+        Room room = new Room("Rat Nest", "Nest", "Rats everywhere.");
+        for(int i = 0; i < sentients; i++)
+            room.addSentient(new Sentient("Rat " + i, "A grey rat.", 5, 0.1 * (i % 7), 0, 2 + i % 5, 0.5, i % 10 != 0));
+
+        System.out.println("Sentients: " + sentients + ", rounds: " + rounds);
+
+        for(int repetition = 0; repetition < 5; repetition++){
+            Sentient player = new Sentient("Player", "", Integer.MAX_VALUE, 0.25, 3, 4, 0.6, false);
+            Dice dice = new Dice(1);
+            long start = System.nanoTime();
+
+            for(int r = 0; r < rounds; r++)
+                oneAtATime(room, player, dice, Output.NONE);
+
+            double perObject = (System.nanoTime() - start) / 1e3 / rounds;
+            int lost = Integer.MAX_VALUE - player.getCurrentHitPoints();
+
+            player = new Sentient("Player", "", Integer.MAX_VALUE, 0.25, 3, 4, 0.6, false);
+            dice = new Dice(1);
+            start = System.nanoTime();
+
+            for(int r = 0; r < rounds; r++)
+                room.getHorde().attack(player, dice);
+
+            double horde = (System.nanoTime() - start) / 1e3 / rounds;
+
+            if(Integer.MAX_VALUE - player.getCurrentHitPoints() != lost)
+                throw new RuntimeException("The two ways of fighting did different damage.");
+
+            System.out.printf("one at a time %8.2f us per round, horde %8.2f us per round (%.1fx)%n",
+                    perObject, horde, perObject / horde);
+        }
+    }
+
+    /**
+     * Fights a round the way the Engine did before it had Hordes.
+     */
+    private static void oneAtATime(Room room, Sentient player, Dice dice, Output output){
+        List<Sentient> enemies = room.getHostileSentients();
+
+        for(Sentient s : enemies){
+            output.println("You were attacked by " + s.getName() + ".");
+
+            if(s.attack(player, dice)) {
+                output.println("You were hit.");
+                player.takeDamage(s.getDamage());
+            } else
+                output.println(s.getName() + " missed.");
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CompareResults
+ *
+ * Compares two result files written by JMH with "-rf json" - say, from the commit before a change and the commit
+ * after it - and prints how every benchmark in both moved. A benchmark has regressed if it got slower by more
+ * than the threshold and by more than the errors of the two scores together, so that noise alone isn't
+ * reported. Exits with status 1 if anything regressed, so that it can fail a build.
+ *
+ * Scores are compared as times, so the benchmarks compared must be run in a mode that measures time per
+ * operation, such as AverageTime or SingleShotTime.
+ *
+ * Usage: CompareResults baseline.json candidate.json [threshold percent]
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.err.println("Usage: CompareResults baseline.json candidate.json [threshold percent]");
+            System.exit(2);
+        }
+
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 5;
+
+        Map<String, double[]> baseline = read(args[0]);
+        Map<String, double[]> candidate = read(args[1]);
+
+        int regressions = 0;
+        for(Map.Entry<String, double[]> e : candidate.entrySet()){
+            double[] before = baseline.get(e.getKey());
+            double[] after = e.getValue();
+
+            if(before == null) {
+                System.out.printf(Locale.ROOT, "%-70s %14s %14.3f  new%n", e.getKey(), "", after[0]);
+                continue;
+            }
+
+            double change = (after[0] - before[0]) / before[0] * 100;
+            String verdict = "";
+
+            if(after[0] - before[0] > before[1] + after[1] && change > threshold) {
+                verdict = "REGRESSION";
+                regressions++;
+            } else if(before[0] - after[0] > before[1] + after[1] && -change > threshold) {
+                verdict = "improved";
+            }
+
+            System.out.printf(Locale.ROOT, "%-70s %14.3f %14.3f %+7.1f%%  %s%n", e.getKey(), before[0], after[0], change, verdict);
+        }
+
+        System.out.println(regressions == 0 ? "No regressions." : regressions + " regressions.");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    /**
+     * Returns the score and error of every result in the file passed, by benchmark name, parameters and unit.
+     */
+    private static Map<String, double[]> read(String path) throws IOException {
+        String text = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+        LinkedHashMap<String, double[]> results = new LinkedHashMap<>();
+
+        Object json = new JsonParser(text, path).parse();
+        if(!(json instanceof List))
+            throw new RuntimeException(path + " is not a JMH result file; it should hold an array of results.");
+
+        for(Object o : (List<?>) json){
+            Map<?, ?> result = (Map<?, ?>) o;
+            Map<?, ?> metric = (Map<?, ?>) result.get("primaryMetric");
+
+            StringBuilder key = new StringBuilder((String) result.get("benchmark"));
+            if(result.get("params") != null)
+                key.append(result.get("params"));
+            key.append(' ').append(metric.get("scoreUnit"));
+
+            // JMH writes "NaN" as a string when there were too few iterations to know the error
+            Object error = metric.get("scoreError");
+
+            results.put(key.toString(), new double[]{ ((Number) metric.get("score")).doubleValue(),
+                    error instanceof Number ? ((Number) error).doubleValue() : 0 });
+        }
+
+        return results;
+    }
+
+    /**
+     * Parses JSON text into Maps, Lists, Strings, Doubles, Booleans and nulls.
+     */
+    private static final class JsonParser {
+
+        // The text being parsed, and the index of the next character
+        private final String text;
+        private int at;
+
+        // Where the text came from, for errors
+        private final String source;
+
+        private JsonParser(String _text, String _source){
+            text = _text;
+            source = _source;
+        }
+
+        private Object parse(){
+            Object value = value();
+
+            skipWhitespace();
+            if(at < text.length())
+                throw error("Unexpected text after the end");
+
+            return value;
+        }
+
+        private Object value(){
+            skipWhitespace();
+
+            if(at >= text.length())
+                throw error("Unexpected end");
+
+            char c = text.charAt(at);
+
+            switch(c){
+                case '{': return object();
+                case '[': return array();
+                case '"': return string();
+                case 't': return literal("true", Boolean.TRUE);
+                case 'f': return literal("false", Boolean.FALSE);
+                case 'n': return literal("null", null);
+                default:
+                    if(c == '-' || (c >= '0' && c <= '9'))
+                        return number();
+
+                    throw error("Unexpected '" + c + "'");
+            }
+        }
+
+        private Map<String, Object> object(){
+            LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+            at++;
+
+            skipWhitespace();
+            if(peek() == '}') {
+                at++;
+                return map;
+            }
+
+            while(true){
+                skipWhitespace();
+                if(peek() != '"')
+                    throw error("Expected a name");
+
+                String name = string();
+                expect(':');
+                map.put(name, value());
+
+                skipWhitespace();
+                if(peek() == '}') {
+                    at++;
+                    return map;
+                }
+
+                expect(',');
+            }
+        }
+
+        private List<Object> array(){
+            ArrayList<Object> list = new ArrayList<>();
+            at++;
+
+            skipWhitespace();
+            if(peek() == ']') {
+                at++;
+                return list;
+            }
+
+            while(true){
+                list.add(value());
+
+                skipWhitespace();
+                if(peek() == ']') {
+                    at++;
+                    return list;
+                }
+
+                expect(',');
+            }
+        }
+
+        private String string(){
+            StringBuilder s = new StringBuilder();
+            at++;
+
+            while(true){
+                if(at >= text.length())
+                    throw error("Unterminated string");
+
+                char c = text.charAt(at++);
+
+                if(c == '"')
+                    return s.toString();
+
+                if(c != '\\') {
+                    s.append(c);
+                    continue;
+                }
+
+                if(at >= text.length())
+                    throw error("Unterminated string");
+
+                char escaped = text.charAt(at++);
+                switch(escaped){
+                    case '"': case '\\': case '/': s.append(escaped); break;
+                    case 'b': s.append('\b'); break;
+                    case 'f': s.append('\f'); break;
+                    case 'n': s.append('\n'); break;
+                    case 'r': s.append('\r'); break;
+                    case 't': s.append('\t'); break;
+                    case 'u':
+                        if(at + 4 > text.length())
+                            throw error("Unterminated escape");
+
+                        try {
+                            s.append((char) Integer.parseInt(text.substring(at, at + 4), 16));
+                        } catch(NumberFormatException e) {
+                            throw error("Bad escape");
+                        }
+
+                        at += 4;
+                        break;
+                    default:
+                        throw error("Bad escape '\\" + escaped + "'");
+                }
+            }
+        }
+
+        private Double number(){
+            int start = at;
+
+            while(at < text.length() && "+-0123456789.eE".indexOf(text.charAt(at)) >= 0)
+                at++;
+
+            try {
+                return Double.valueOf(text.substring(start, at));
+            } catch(NumberFormatException e) {
+                throw error("Bad number");
+            }
+        }
+
+        private Object literal(String word, Object value){
+            if(!text.startsWith(word, at))
+                throw error("Unexpected '" + text.charAt(at) + "'");
+
+            at += word.length();
+            return value;
+        }
+
+        private void expect(char c){
+            skipWhitespace();
+
+            if(peek() != c)
+                throw error("Expected '" + c + "'");
+
+            at++;
+        }
+
+        private char peek(){
+            return at < text.length() ? text.charAt(at) : 0;
+        }
+
+        private void skipWhitespace(){
+            while(at < text.length() && Character.isWhitespace(text.charAt(at)))
+                at++;
+        }
+
+        private RuntimeException error(String problem){
+            return new RuntimeException(problem + " at character " + at + " of " + source + ".");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import resources.*;
+
+/**
+ * ContentionBenchmark
+ *
+ * Measures how many items players of a shared game can move per second when they all take and drop at once.
+ * Each player thread takes a random item of a random room and drops it again, over and over, through its own
+ * state of one SharedWorldState. Every count of threads is run twice: with a single lock stripe, so that every
+ * transfer waits for every other as with one big lock, and with the default number of stripes, so that only
+ * transfers touching the same stripes wait.
+ *
+ * The hot case - every thread in the one room - is run as well, where striping can't help.
+ *
+ * Usage: ContentionBenchmark [rooms] [max threads] [milliseconds per run]
+ */
+public class ContentionBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        long millis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+
+        World world = new World();
+        for(int r = 0; r < rooms; r++){
+            world.addRoom("Room " + r, "R" + r, "A busy room.");
+
+            for(int i = 0; i < 8; i++)
+                world.addItem("Item " + r + "-" + i, "Item" + r + "-" + i, "A much wanted item.", "R" + r, true);
+        }
+
+        System.out.println("Rooms: " + rooms + ", cores: " + Runtime.getRuntime().availableProcessors());
+
+        for(int threads = 1; threads <= maxThreads; threads *= 2){
+            double oneLock = run(new SharedWorldState(world, 1), rooms, threads, millis);
+            double striped = run(new SharedWorldState(world), rooms, threads, millis);
+            double hot = run(new SharedWorldState(world), 1, threads, millis);
+
+            System.out.printf("%3d threads: one lock %,12.0f moves/s, striped %,12.0f moves/s, one room %,12.0f moves/s%n",
+                    threads, oneLock, striped, hot);
+        }
+    }
+
+    /**
+     * Runs the players for the time passed, moving items of the first rooms passed, and returns the number of
+     * take and drop transfers made per second.
+     */
+    private static double run(SharedWorldState shared, int rooms, int threads, long millis)
+            throws InterruptedException {
+        // Rooms and names are looked up before the clock starts
+        Room[] room = new Room[rooms];
+        String[][] names = new String[rooms][8];
+        for(int r = 0; r < rooms; r++){
+            room[r] = shared.getWorld().getRoom("R" + r);
+
+            for(int i = 0; i < 8; i++)
+                names[r][i] = "item " + r + "-" + i;
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder moves = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for(int t = 0; t < threads; t++){
+            WorldState state = shared.newPlayerState();
+            Sentient player = new Sentient("Player " + t, "", false);
+
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+
+                while(running.get()){
+                    int r = random.nextInt(rooms);
+                    String name = names[r][random.nextInt(8)];
+
+                    if(state.take(room[r], name, player) != null && state.drop(player, name, room[r]) != null)
+                        count += 2;
+                }
+
+                moves.add(count);
+                done.countDown();
+            }).start();
+        }
+
+        long start = System.nanoTime();
+        Thread.sleep(millis);
+        running.set(false);
+        done.await();
+
+        return moves.sum() / ((System.nanoTime() - start) / 1e9);
+    }
+}
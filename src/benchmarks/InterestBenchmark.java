@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import resources.*;
+
+/**
+ * InterestBenchmark
+ *
+ * Compares publishing events to every player of a shared game with publishing them through an InterestManager,
+ * to only the players in and around the room each event happened in. Players are spread at random over a
+ * square grid of rooms, and each event happens in the room of a random player. Events are flushed away between
+ * runs, so only the cost of fanning them out is measured.
+ *
+ * Usage: InterestBenchmark [rooms] [players] [events] [radius]
+ */
+public class InterestBenchmark {
+
+    public static void main(String[] args){
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int events = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        int radius = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int side = (int) Math.ceil(Math.sqrt(rooms));
+
+        World world = new World();
+        for(int i = 0; i < rooms; i++){
+            world.addRoom("Room", "R" + i, "A room of a large grid.");
+
+            if(i % side != 0)
+                world.addConnection("R" + (i - 1), "R" + i, Direction.EAST, true);
+            if(i >= side)
+                world.addConnection("R" + (i - side), "R" + i, Direction.SOUTH, true);
+        }
+
+        InterestManager interest = new InterestManager(radius);
+        Random random = new Random(1);
+        List<Subscriber> subscribers = new ArrayList<>();
+        Room[] where = new Room[players];
+
+        for(int p = 0; p < players; p++){
+            Subscriber s = new Subscriber(Output.NONE);
+            where[p] = world.getRoom("R" + random.nextInt(rooms));
+            interest.move(s, where[p]);
+            subscribers.add(s);
+        }
+
+        // Everyone listens to one room that no player is in, so that publishing there reaches every player
+        InterestManager everyone = new InterestManager();
+        Room hall = new Room("Hall", "Hall", "Where everyone hears everything.");
+        for(Subscriber s : subscribers)
+            everyone.move(s, hall);
+
+        System.out.println("Rooms: " + rooms + ", players: " + players + ", events: " + events + ", radius: " + radius);
+
+        for(int repetition = 0; repetition < 5; repetition++){
+            long start = System.nanoTime();
+            long sent = 0;
+            for(int e = 0; e < events; e++)
+                sent += everyone.publish(hall, "Something happened.", null);
+            double all = (System.nanoTime() - start) / 1e3 / events;
+            flush(subscribers);
+
+            start = System.nanoTime();
+            long interested = 0;
+            for(int e = 0; e < events; e++)
+                interested += interest.publish(where[random.nextInt(players)], "Something happened.", null);
+            double nearby = (System.nanoTime() - start) / 1e3 / events;
+            flush(subscribers);
+
+            System.out.printf("everyone %8.3f us per event (%d players each), nearby %8.3f us per event (%.1f players each)%n",
+                    all, sent / events, nearby, (double) interested / events);
+        }
+    }
+
+    private static void flush(List<Subscriber> subscribers){
+        for(Subscriber s : subscribers)
+            s.flush();
+    }
+}
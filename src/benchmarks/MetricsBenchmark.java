@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import debug_adventure.SimpleAdventure;
+import resources.*;
+
+/**
+ * MetricsBenchmark
+ *
+ * Measures whether Metrics make games wait for each other. Games are played on more and more threads at once,
+ * every thread playing a game of its own that counts in the same Metrics, and the commands run per second are
+ * compared with the same games played without metrics. What Metrics cost a single game is measured by JMH in
+ * benchmarks.jmh.MetricsBenchmarks.
+ *
+ * Usage: MetricsBenchmark [max threads] [milliseconds per run]
+ */
+public class MetricsBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+
+        World world = SimpleAdventure.createWorld();
+
+        System.out.println("Cores: " + Runtime.getRuntime().availableProcessors());
+
+        for(int threads = 1; threads <= maxThreads; threads *= 2){
+            double without = run(world, null, threads, millis);
+            double with = run(world, new Metrics(), threads, millis);
+
+            System.out.printf("%2d threads: %,12.0f commands/s without metrics, %,12.0f with (%+.1f%%)%n",
+                    threads, without, with, (with - without) / without * 100);
+        }
+    }
+
+    /**
+     * Plays a game on each of the number of threads passed, every one running "look" for as long as passed,
+     * and returns the number of commands run per second by all of them together.
+     */
+    private static double run(World world, Metrics metrics, int threads, long millis) throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder commands = new LongAdder();
+        Thread[] players = new Thread[threads];
+
+        for(int i = 0; i < threads; i++){
+            Engine engine = game(world, metrics);
+
+            players[i] = new Thread(() -> {
+                long count = 0;
+                while(!stop.get()){
+                    engine.execute("look");
+                    count++;
+                }
+
+                commands.add(count);
+            });
+        }
+
+        long start = System.nanoTime();
+        for(Thread t : players)
+            t.start();
+
+        Thread.sleep(millis);
+        stop.set(true);
+
+        for(Thread t : players)
+            t.join();
+
+        return commands.sum() / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static Engine game(World world, Metrics metrics){
+        Engine engine = SimpleAdventure.create(world);
+        engine.setOutput(Output.NONE);
+        engine.setMetrics(metrics);
+        engine.start();
+
+        return engine;
+    }
+}
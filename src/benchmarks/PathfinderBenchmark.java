@@ -0,0 +1,93 @@
+package benchmarks;
+
+import java.util.Random;
+
+import resources.*;
+
+/**
+ * PathfinderBenchmark
+ *
+ * Times the queries of a Pathfinder on a large square grid of rooms, with every tenth connection one-way and
+ * every room given its position on the grid.
+ *
+ * Usage: PathfinderBenchmark [rooms] [queries]
+ */
+public class PathfinderBenchmark {
+
+    public static void main(String[] args){
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int side = (int) Math.ceil(Math.sqrt(rooms));
+        Random random = new Random(1);
+
+        World world = new World();
+        for(int i = 0; i < rooms; i++){
+            world.addRoom("Room", "R" + i, "A room of a very large grid.");
+
+            if(i % side != 0)
+                world.addConnection("R" + (i - 1), "R" + i, Direction.EAST, random.nextInt(10) != 0);
+            if(i >= side)
+                world.addConnection("R" + (i - side), "R" + i, Direction.SOUTH, random.nextInt(10) != 0);
+        }
+
+        Pathfinder pathfinder = new Pathfinder(world);
+
+        long start = System.nanoTime();
+        pathfinder.getComponentCount();
+        System.out.printf("Rooms: %d, graph and components built in %.0f ms%n", rooms, (System.nanoTime() - start) / 1e6);
+
+        for(int i = 0; i < rooms; i++)
+            pathfinder.setPosition("R" + i, i % side, -(i / side), 0);
+
+        String[] from = new String[queries];
+        String[] to = new String[queries];
+        for(int q = 0; q < queries; q++){
+            from[q] = "R" + random.nextInt(rooms);
+            to[q] = "R" + random.nextInt(rooms);
+        }
+
+        // Twice, so the second round runs compiled code; every query misses the cache of paths
+        for(int round = 0; round < 2; round++){
+            Pathfinder p = round == 0 ? pathfinder : copyOf(pathfinder, world, rooms, side);
+            long steps = 0;
+
+            start = System.nanoTime();
+            for(int q = 0; q < queries; q++)
+                steps += Math.max(0, p.getDistance(from[q], to[q]));
+            double bidirectional = (System.nanoTime() - start) / 1e6 / queries;
+
+            start = System.nanoTime();
+            for(int q = 0; q < queries; q++)
+                p.findPathByPosition(from[q], to[q]);
+            double positioned = (System.nanoTime() - start) / 1e6 / queries;
+
+            start = System.nanoTime();
+            for(int q = 0; q < queries; q++)
+                p.isReachable(from[q], to[q]);
+            double reachable = (System.nanoTime() - start) / 1e6 / queries;
+
+            start = System.nanoTime();
+            for(int q = 0; q < queries; q++)
+                p.getRoomsWithin(from[q], 10);
+            double within = (System.nanoTime() - start) / 1e6 / queries;
+
+            System.out.printf("Round %d: average path %d steps%n", round + 1, steps / queries);
+            System.out.printf("  findPath            %8.3f ms per query%n", bidirectional);
+            System.out.printf("  findPathByPosition  %8.3f ms per query%n", positioned);
+            System.out.printf("  isReachable         %8.3f ms per query (cached paths)%n", reachable);
+            System.out.printf("  getRoomsWithin(10)  %8.3f ms per query%n", within);
+        }
+    }
+
+    /**
+     * Makes a fresh Pathfinder over the same world, so that no paths are cached.
+     */
+    private static Pathfinder copyOf(Pathfinder p, World world, int rooms, int side){
+        Pathfinder copy = new Pathfinder(world);
+
+        for(int i = 0; i < rooms; i++)
+            copy.setPosition("R" + i, i % side, -(i / side), 0);
+
+        return copy;
+    }
+}
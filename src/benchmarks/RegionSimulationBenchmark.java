@@ -0,0 +1,66 @@
+package benchmarks;
+
+import resources.*;
+import simulation.RegionSimulation;
+
+/**
+ * RegionSimulationBenchmark
+ *
+ * Times ticks of a RegionSimulation of a large square grid of rooms, with a wandering sentient in every fourth
+ * room, on 1, 2, 4, 8 and 16 threads. Every run uses the same seed and the same regions, so every run must end
+ * with each sentient in the same room; the benchmark checks that it does.
+ *
+ * Usage: RegionSimulationBenchmark [rooms] [ticks] [regions]
+ */
+public class RegionSimulationBenchmark {
+
+    public static void main(String[] args){
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int regions = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int side = (int) Math.ceil(Math.sqrt(rooms));
+
+        World world = new World();
+        for(int i = 0; i < rooms; i++){
+            world.addRoom("Room", "R" + i, "A room of a very large grid.");
+
+            if(i % side != 0)
+                world.addConnection("R" + (i - 1), "R" + i, Direction.EAST, true);
+            if(i >= side)
+                world.addConnection("R" + (i - side), "R" + i, Direction.SOUTH, true);
+            if(i % 4 == 0)
+                world.addSentient("Rat " + i, "A grey rat.", 5, 0.1, 0, 1, 0.5, true, "R" + i);
+        }
+
+        System.out.printf("Rooms: %d, regions: %d, ticks: %d, cores: %d%n", rooms, regions, ticks,
+                Runtime.getRuntime().availableProcessors());
+
+        long expected = 0;
+        double single = 0;
+
+        for(int threads : new int[]{ 1, 2, 4, 8, 16 }){
+            try(RegionSimulation simulation = new RegionSimulation(world, regions, threads, 1)){
+                // A few ticks to compile the code first
+                simulation.run(5);
+
+                long start = System.nanoTime();
+                simulation.run(ticks);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                long checksum = 0;
+                for(int i = 0; i < simulation.getAgentCount(); i++)
+                    checksum = checksum * 31 + simulation.getRoom(i).hashCode();
+
+                if(threads == 1) {
+                    expected = checksum;
+                    single = seconds;
+                } else if(checksum != expected) {
+                    throw new RuntimeException("The simulation on " + threads + " threads ended differently.");
+                }
+
+                System.out.printf("%2d threads: %8.2f ms per tick, %6.1fx, %,d agents, %,d handoffs%n", threads,
+                        seconds * 1000 / ticks, single / seconds, simulation.getAgentCount(), simulation.getHandoffs());
+            }
+        }
+    }
+}
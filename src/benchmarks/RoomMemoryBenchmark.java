@@ -0,0 +1,90 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import resources.*;
+
+/**
+ * RoomMemoryBenchmark
+ *
+ * Measures how much heap the connections between rooms take per room. The world is a square grid of rooms,
+ * each connected to its neighbours both ways, and three ways of keeping the connections are measured:
+ *
+ *     HashMap     a HashMap from Direction to Room for every room, as rooms used to keep their exits
+ *     Room[]      the array indexed by Direction.ordinal() that rooms keep their exits in now
+ *     RoomGraph   a single int array for the whole world
+ *
+ * Sizes are measured from the heap in use after garbage collection, so run with a fixed heap (-Xms = -Xmx)
+ * for steady numbers.
+ *
+ * Usage: RoomMemoryBenchmark [rooms]
+ */
+public class RoomMemoryBenchmark {
+
+    public static void main(String[] args){
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int side = (int) Math.ceil(Math.sqrt(rooms));
+
+        System.out.println("Rooms: " + rooms);
+
+        ArrayList<Room> list = new ArrayList<>(rooms);
+        for(int i = 0; i < rooms; i++)
+            list.add(new Room("Room", "R" + i, "A room of a very large grid."));
+
+        // Connecting the rooms allocates the exit array of each
+        long before = usedMemory();
+        for(int i = 0; i < rooms; i++){
+            if(i % side != 0)
+                list.get(i - 1).addTwoWayConnection(Direction.EAST, list.get(i));
+            if(i >= side)
+                list.get(i - side).addTwoWayConnection(Direction.SOUTH, list.get(i));
+        }
+        long arrays = usedMemory() - before;
+
+        // A HashMap of the same exits for every room, less the list holding them
+        before = usedMemory();
+        ArrayList<HashMap<Direction, Room>> maps = new ArrayList<>(rooms);
+        for(Room r : list)
+            maps.add(r.getRooms());
+        long hashMaps = usedMemory() - before - 4L * rooms;
+        maps = null;
+
+        World world = new World();
+        for(Room r : list)
+            world.addRoom(r.getPublicName(), r.getEngineName(), r.getDescription());
+        for(int i = 0; i < rooms; i++){
+            if(i % side != 0)
+                world.addConnection("R" + (i - 1), "R" + i, Direction.EAST, true);
+            if(i >= side)
+                world.addConnection("R" + (i - side), "R" + i, Direction.SOUTH, true);
+        }
+
+        before = usedMemory();
+        RoomGraph graph = new RoomGraph(world);
+        long roomGraph = usedMemory() - before;
+
+        System.out.printf("HashMap:   %6.1f bytes per room%n", (double) hashMaps / rooms);
+        System.out.printf("Room[]:    %6.1f bytes per room%n", (double) arrays / rooms);
+        System.out.printf("RoomGraph: %6.1f bytes per room%n", (double) roomGraph / rooms);
+
+        // Keep everything reachable until it has been measured
+        if(graph.getRoomCount() != list.size())
+            throw new RuntimeException("The graph lost rooms.");
+    }
+
+    /**
+     * Returns the bytes of heap in use once garbage has been collected.
+     */
+    private static long usedMemory(){
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+
+        for(int i = 0; i < 5; i++){
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+
+        return used;
+    }
+}
@@ -0,0 +1,111 @@
+package benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import resources.*;
+
+/**
+ * SaveFileBenchmark
+ *
+ * Compares saving and loading a large world with SaveFile against plain Java serialization of the same rooms.
+ * The world is a square grid of rooms, with an item in every third room and a sentient in every fifth.
+ *
+ * Usage: SaveFileBenchmark [rooms] [repetitions]
+ */
+public class SaveFileBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Engine engine = createEngine(rooms);
+        Path directory = Files.createTempDirectory("save-benchmark");
+        Path saveFile = directory.resolve(SaveFile.FILE_NAME);
+        Path serialized = directory.resolve("adventure.ser");
+
+        System.out.println("Rooms: " + rooms);
+
+        for(int i = 0; i < repetitions; i++){
+            long start = System.nanoTime();
+            SaveFile.save(engine, saveFile);
+            long saved = System.nanoTime();
+            SaveFile.load(saveFile);
+            long loaded = System.nanoTime();
+
+            System.out.printf("SaveFile:      save %6.0f ms, load %6.0f ms, %,d bytes%n",
+                    (saved - start) / 1e6, (loaded - saved) / 1e6, Files.size(saveFile));
+        }
+
+        // Serialization follows the connections between rooms recursively, so it needs a very deep stack
+        Thread serialization = new Thread(null, () -> {
+            try {
+                for(int i = 0; i < repetitions; i++)
+                    serialize(engine, serialized);
+            } catch(Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, "serialization", 1L << 30);
+        serialization.start();
+        serialization.join();
+
+        Files.deleteIfExists(saveFile);
+        Files.deleteIfExists(serialized);
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Saves and loads the rooms and player of the engine passed with an ObjectOutputStream, printing the times.
+     */
+    private static void serialize(Engine engine, Path path) throws Exception {
+        long start = System.nanoTime();
+
+        try(ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))){
+            out.writeObject(new ArrayList<>(engine.getWorld().getRooms()));
+            out.writeObject(engine.getPlayer());
+        }
+
+        long saved = System.nanoTime();
+
+        try(ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))){
+            in.readObject();
+            in.readObject();
+        }
+
+        long loaded = System.nanoTime();
+
+        System.out.printf("Serialization: save %6.0f ms, load %6.0f ms, %,d bytes%n",
+                (saved - start) / 1e6, (loaded - saved) / 1e6, Files.size(path));
+    }
+
+    /**
+     * Builds an engine playing a square grid of about the number of rooms passed.
+     */
+    private static Engine createEngine(int rooms){
+        int side = (int) Math.ceil(Math.sqrt(rooms));
+        World world = new World();
+
+        for(int i = 0; i < rooms; i++){
+            world.addRoom("Room " + i, "R" + i, "You are in room " + i + " of a very large grid of rooms.");
+
+            if(i % side != 0)
+                world.addConnection("R" + (i - 1), "R" + i, Direction.EAST, true);
+            if(i >= side)
+                world.addConnection("R" + (i - side), "R" + i, Direction.SOUTH, true);
+            if(i % 3 == 0)
+                world.addItem("Stone " + i, "Stone" + i, "A small grey stone.", "R" + i, true);
+            if(i % 5 == 0)
+                world.addSentient("Rat " + i, "A grey rat.", 3, 0.1, 0, 1, 0.5, i % 10 == 0, "R" + i);
+        }
+
+        Engine engine = new Engine(world);
+        engine.addPlayer("Player", 10, 0.25, 3, 4, 0.4);
+
+        return engine;
+    }
+}
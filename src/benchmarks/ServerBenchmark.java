@@ -0,0 +1,137 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import debug_adventure.SimpleAdventure;
+import resources.World;
+import server.GameServer;
+
+/**
+ * ServerBenchmark
+ *
+ * Measures the throughput and latency of the GameServer by connecting a number of simulated players to it on
+ * localhost. Every player sends its commands one at a time, waiting for the prompt before sending the next, and
+ * the time from sending a command to receiving the prompt is recorded as that command's latency.
+ *
+ * Usage: ServerBenchmark [clients] [commands per client]
+ */
+public class ServerBenchmark {
+
+    // The commands each player cycles through. None of them leave the first room, so no player can be killed.
+    private static final String[] COMMANDS = { "take machete", "look", "drop machete", "look at machete" };
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int commands = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        World world = SimpleAdventure.createWorld();
+        GameServer server = new GameServer(0, () -> SimpleAdventure.create(world));
+        server.start();
+
+        long[][] latencies = new long[clients][];
+        Thread[] threads = new Thread[clients];
+        CountDownLatch ready = new CountDownLatch(clients);
+        CountDownLatch go = new CountDownLatch(1);
+
+        for(int i = 0; i < clients; i++){
+            final int client = i;
+            threads[i] = new Thread(() -> latencies[client] = play(server.getPort(), commands, ready, go));
+            threads[i].start();
+        }
+
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+
+        for(Thread t : threads)
+            t.join();
+
+        long elapsed = System.nanoTime() - start;
+        server.stop();
+
+        long[] all = new long[clients * commands];
+        for(int i = 0; i < clients; i++)
+            System.arraycopy(latencies[i], 0, all, i * commands, commands);
+        Arrays.sort(all);
+
+        System.out.println("Clients:            " + clients);
+        System.out.println("Commands:           " + all.length);
+        System.out.printf("Throughput:         %.0f commands/s%n", all.length / (elapsed / 1e9));
+        System.out.printf("Latency p50:        %.1f us%n", percentile(all, 0.50) / 1e3);
+        System.out.printf("Latency p90:        %.1f us%n", percentile(all, 0.90) / 1e3);
+        System.out.printf("Latency p99:        %.1f us%n", percentile(all, 0.99) / 1e3);
+        System.out.printf("Latency p99.9:      %.1f us%n", percentile(all, 0.999) / 1e3);
+        System.out.printf("Latency max:        %.1f us%n", all[all.length - 1] / 1e3);
+    }
+
+    /**
+     * Plays as a single player, returning the latency in nanoseconds of each command sent.
+     *
+     * @param port - port the server is listening on
+     * @param commands - number of commands to send
+     * @param ready - counted down once connected
+     * @param go - waited on before the first command is sent
+     * @return latency of each command
+     */
+    private static long[] play(int port, int commands, CountDownLatch ready, CountDownLatch go){
+        long[] latencies = new long[commands];
+
+        try(Socket socket = new Socket("localhost", port)){
+            socket.setTcpNoDelay(true);
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+
+            readUntilPrompt(in);
+            ready.countDown();
+            go.await();
+
+            for(int i = 0; i < commands; i++){
+                long start = System.nanoTime();
+
+                out.println(COMMANDS[i % COMMANDS.length]);
+                readUntilPrompt(in);
+
+                latencies[i] = System.nanoTime() - start;
+            }
+        } catch(IOException | InterruptedException e) {
+            throw new RuntimeException("Simulated player failed.", e);
+        }
+
+        return latencies;
+    }
+
+    /**
+     * Reads lines until the server sends the prompt.
+     *
+     * @param in - connection to read from
+     * @throws IOException if the connection closes before the prompt arrives
+     */
+    private static void readUntilPrompt(BufferedReader in) throws IOException {
+        String line;
+
+        while((line = in.readLine()) != null)
+            if(line.equals(GameServer.PROMPT))
+                return;
+
+        throw new IOException("The server closed the connection.");
+    }
+
+    /**
+     * Returns the value at the fraction passed of the sorted values.
+     *
+     * @param sorted - values in ascending order
+     * @param fraction - between 0 and 1
+     * @return the percentile
+     */
+    private static long percentile(long[] sorted, double fraction){
+        return sorted[Math.min(sorted.length - 1, (int) (fraction * sorted.length))];
+    }
+}
@@ -0,0 +1,223 @@
+package benchmarks.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import resources.*;
+
+/**
+ * HotPathBenchmarks
+ *
+ * The baseline suite of the engine's hot paths, run by JMH so that runs from two commits can be compared with
+ * CompareResults:
+ *
+ *     tokenize            splitting a command into words
+ *     directionOfTokens   Direction.toDirection on a tokenized command
+ *     directionOfString   Direction.toDirection on a String
+ *     execute             a whole "look" command through Engine.execute
+ *     getConnection       walking a ring of rooms one exit at a time
+ *     addTakeItem         Room.addItem followed by Room.takeItem
+ *     hostileSentients    Room.getHostileSentients of a crowded room, of 10 and 1000 sentients
+ *     combatRound         a round of combat against a crowded room's Horde, of 10 and 1000 sentients
+ *     buildWorld          building a grid world with Engine.addRoom and addConnection, 1k to 1M rooms
+ *
+ * Usage: gradle jmh, which writes build/jmh/results.json. Options for JMH go in -PjmhArgs, so for a fast check
+ * rather than a baseline, leaving out the million room world:
+ *
+ *     gradle jmh -PjmhArgs="HotPathBenchmarks -wi 2 -i 3 -r 200ms -p rooms=1000,100000"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotPathBenchmarks {
+
+    /**
+     * Commands to parse, and a game to run them in.
+     */
+    @State(Scope.Thread)
+    public static class Parsing {
+
+        // Commands to parse, in turn; the first two are directions
+        String[] commands;
+
+        // The tokenizer reused for every command
+        Tokenizer tokens;
+
+        // The number of commands parsed so far, which picks the next one
+        int next;
+
+        // A game of a single room to run commands in
+        Engine engine;
+
+        @Setup
+        public void setUp(){
+            commands = new String[]{ "n", "go north east", "take the old baguette", "look at rat" };
+            tokens = new Tokenizer();
+
+            engine = new Engine();
+            engine.addRoom("Abandoned Apartment", "Apartment", "You are standing in an empty concrete room.");
+            engine.addItem("Old Baguette", "Baguette", "It is cold and hard like iron.", "Apartment", true);
+            engine.addPlayer("Andre", 10, 0.25, 3, 4, 0.4);
+            engine.setOutput(Output.NONE);
+            engine.start();
+        }
+    }
+
+    /**
+     * A ring of rooms, each leading east to the next, and a room to put an item in and take it out of.
+     */
+    @State(Scope.Thread)
+    public static class Rooms {
+
+        // The room the walk round the ring has got to
+        Room at;
+
+        // A room and the item put in it and taken out
+        Room room;
+        Item item;
+
+        @Setup
+        public void setUp(){
+            Room[] ring = new Room[64];
+            for(int i = 0; i < ring.length; i++)
+                ring[i] = new Room("Ring", "Ring" + i, "A room of a ring.");
+            for(int i = 0; i < ring.length; i++)
+                ring[i].addOneWayConnection(Direction.EAST, ring[(i + 1) % ring.length]);
+
+            at = ring[0];
+            room = new Room("Store Room", "Store", "Shelves line the walls.");
+            item = new Item("Old Baguette", "Baguette", "It is cold and hard like iron.");
+        }
+    }
+
+    /**
+     * A room of sentients, nine in every ten of them hostile, and a player who can't die fighting them.
+     */
+    @State(Scope.Thread)
+    public static class Crowd {
+
+        // The number of sentients in the room
+        @Param({ "10", "1000" })
+        int sentients;
+
+        // The crowded room, whose sentients never die
+        Room room;
+
+        // The player fighting them, and the dice of the fight
+        Sentient player;
+        Dice dice;
+
+        @Setup
+        public void setUp(){
+            room = new Room("Rat Nest", "Nest", "Rats everywhere.");
+
+            for(int i = 0; i < sentients; i++)
+                room.addSentient(new Sentient("Rat " + i, "A grey rat.", Integer.MAX_VALUE, 0.1 * (i % 7), 0, 2 + i % 5, 0.5, i % 10 != 0));
+
+            player = new Sentient("Player", "", Integer.MAX_VALUE, 0.25, 3, 4, 0.6, false);
+            dice = new Dice(1);
+        }
+    }
+
+    /**
+     * The size of a world to build.
+     */
+    @State(Scope.Thread)
+    public static class WorldSize {
+
+        // The number of rooms in the world
+        @Param({ "1000", "100000", "1000000" })
+        int rooms;
+    }
+
+    @Benchmark
+    public int tokenize(Parsing p){
+        p.tokens.tokenize(p.commands[p.next++ & 3]);
+        return p.tokens.size();
+    }
+
+    @Benchmark
+    public Direction directionOfTokens(Parsing p){
+        p.tokens.tokenize(p.commands[p.next++ & 1]);
+        return Direction.toDirection(p.tokens, 0, p.tokens.length());
+    }
+
+    @Benchmark
+    public Direction directionOfString(Parsing p){
+        return Direction.toDirection(p.commands[p.next++ & 1]);
+    }
+
+    @Benchmark
+    public Response execute(Parsing p){
+        return p.engine.execute("look");
+    }
+
+    @Benchmark
+    public Room getConnection(Rooms r){
+        r.at = r.at.getConnection(Direction.EAST);
+        return r.at;
+    }
+
+    @Benchmark
+    public Item addTakeItem(Rooms r){
+        r.room.addItem(r.item);
+        return r.room.takeItem("old baguette");
+    }
+
+    @Benchmark
+    public List<Sentient> hostileSentients(Crowd c){
+        return c.room.getHostileSentients();
+    }
+
+    @Benchmark
+    public int combatRound(Crowd c){
+        // Hit points are topped up well before the player could die
+        if(c.player.getCurrentHitPoints() < Integer.MAX_VALUE / 2)
+            c.player.heal(Integer.MAX_VALUE - c.player.getCurrentHitPoints());
+
+        return c.room.getHorde().attack(c.player, c.dice).getDamage();
+    }
+
+    /**
+     * Builds a square grid world of the number of rooms passed, each connected both ways to its neighbours.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public World buildWorld(WorldSize size){
+        int rooms = size.rooms;
+        int side = (int) Math.ceil(Math.sqrt(rooms));
+        Engine engine = new Engine();
+
+        List<String> names = new ArrayList<>(rooms);
+        for(int i = 0; i < rooms; i++){
+            names.add("R" + i);
+            engine.addRoom("Room", names.get(i), "A room of a large grid.");
+        }
+
+        for(int i = 0; i < rooms; i++){
+            if(i % side != 0)
+                engine.addConnection(names.get(i - 1), names.get(i), Direction.EAST, true);
+            if(i >= side)
+                engine.addConnection(names.get(i - side), names.get(i), Direction.SOUTH, true);
+        }
+
+        return engine.getWorld();
+    }
+}
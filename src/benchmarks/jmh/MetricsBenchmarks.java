@@ -0,0 +1,60 @@
+package benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import debug_adventure.SimpleAdventure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import resources.*;
+
+/**
+ * MetricsBenchmarks
+ *
+ * Measures what Metrics cost a single game: a cheap "look", and a "take" then "drop" that counts items, run
+ * through Engine.execute without metrics and with them. How counting from many threads at once scales is
+ * measured by benchmarks.MetricsBenchmark.
+ *
+ * Usage: gradle jmh -PjmhArgs=MetricsBenchmarks
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsBenchmarks {
+
+    // Whether the game counts what it does
+    @Param({ "off", "on" })
+    String metrics;
+
+    // The game the commands are run in
+    Engine engine;
+
+    @Setup
+    public void setUp(){
+        engine = SimpleAdventure.create(SimpleAdventure.createWorld());
+        engine.setOutput(Output.NONE);
+        engine.setMetrics(metrics.equals("on") ? new Metrics() : null);
+        engine.start();
+    }
+
+    @Benchmark
+    public Response look(){
+        return engine.execute("look");
+    }
+
+    @Benchmark
+    public int takeAndDrop(){
+        return engine.execute("take machete").ordinal() + engine.execute("drop machete").ordinal();
+    }
+}
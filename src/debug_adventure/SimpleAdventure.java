@@ -12,24 +12,65 @@ import resources.*;
 public class SimpleAdventure {
 
     public static void main(String[] args){
-        Engine e = new Engine();
+        create().playGame();
+    }
+
+    /**
+     * Builds a new Engine holding the simple adventure, ready to be played.
+     *
+     * @return Engine with the adventure loaded
+     */
+    public static Engine create(){
+        return create(createWorld());
+    }
+
+    /**
+     * Builds a new Engine that plays the World passed, with a player of its own.
+     *
+     * @param world - World built by createWorld()
+     * @return Engine ready to be played
+     */
+    public static Engine create(World world){
+        return addPlayer(new Engine(world));
+    }
+
+    /**
+     * Builds a new Engine that plays a shared game of the adventure, in the same rooms as every other player.
+     *
+     * @param shared - SharedWorldState of a World built by createWorld()
+     * @return Engine ready to be played
+     */
+    public static Engine create(SharedWorldState shared){
+        return addPlayer(new Engine(shared));
+    }
+
+    private static Engine addPlayer(Engine e){
+        e.addPlayer("Andre", 10, 0.25, 3, 4, 0.4);
+
+        return e;
+    }
+
+    /**
+     * Builds the rooms, items and sentients of the simple adventure.
+     *
+     * @return World holding the adventure
+     */
+    public static World createWorld(){
+        World w = new World();
 
         // Add rooms
-        e.addRoom("Abandoned Apartment", "Apartment", "You are standing in an empty concrete room. A large window is open in front of you.");
-        e.addRoom("Outside", "Outside1", "You are standing in an abandoned playground. Rust eats away at the fading yellow metal.");
+        w.addRoom("Abandoned Apartment", "Apartment", "You are standing in an empty concrete room. A large window is open in front of you.");
+        w.addRoom("Outside", "Outside1", "You are standing in an abandoned playground. Rust eats away at the fading yellow metal.");
 
         // Add connections between rooms
-        e.addConnection("Apartment", "Outside1", Direction.NORTH, true);
+        w.addConnection("Apartment", "Outside1", Direction.NORTH, true);
 
         // Add items
-        e.addItem("Machete", "Machete", "A dull, rusty machete.", "Apartment", true);
+        w.addItem("Machete", "Machete", "A dull, rusty machete.", "Apartment", true);
 
         // Add sentients
-        e.addSentient("A Bird", "Bird1", 3, 0.05, 1, 2, 0.5, true, "Outside1");
-
-        // Add the player
-        e.addPlayer("Andre", 10, 0.25, 3, 4, 0.4);
+        w.addSentient("A Bird", "Bird1", 3, 0.05, 1, 2, 0.5, true, "Outside1");
 
-        e.playGame();
+        return w;
     }
 }
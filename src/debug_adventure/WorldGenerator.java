@@ -0,0 +1,426 @@
+package debug_adventure;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import resources.*;
+
+/**
+ * WorldGenerator
+ *
+ * Builds adventures of any size, from a handful of rooms to millions, for testing how the engine scales. Rooms
+ * are laid out in one of several topologies:
+ *
+ *     GRID     every room connected both ways to its neighbours to the north, east, south and west
+ *     TREE     a random tree; each room leads on to up to four rooms to the north, north east, east and north
+ *              west, and back the opposite way to the room it was reached from
+ *     RANDOM   a random graph: a random tree, so that every room can be reached, with extra two way
+ *              connections between random rooms in random directions
+ *     MAZE     a grid with a single path between any two rooms, carved by a random depth first search, with
+ *              one way chutes down to random rooms elsewhere in the maze
+ *
+ * Some rooms hold an item and some a sentient, most of them hostile.
+ *
+ * Generation is done in two steps. The connections are worked out first, as plain numbers of rooms, on one
+ * thread, since the random layouts depend on every connection made before. The rooms, their names, items and
+ * sentients are then made and connected in fixed chunks on every core, each chunk rolling Dice split from the
+ * seed in order and only ever setting the exits of its own rooms, so the World made depends only on the seed -
+ * never on the number of threads. The rooms are added to the World in one go with World.addRooms().
+ *
+ * Usage: WorldGenerator [topology] [rooms] [seed]
+ *     generates a world, then times generating it on more and more threads
+ */
+public class WorldGenerator {
+
+    /**
+     * The ways rooms may be connected.
+     */
+    public enum Topology { GRID, TREE, RANDOM, MAZE }
+
+    // The number of rooms each parallel task makes
+    private static final int CHUNK_SIZE = 1 << 13;
+
+    // Every direction, by ordinal
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // The directions a room of a tree leads on in; their opposites lead back, and never clash with them
+    private static final Direction[] BRANCHES = { Direction.NORTH, Direction.NORTH_EAST, Direction.EAST, Direction.NORTH_WEST };
+
+    // The directions of a grid
+    private static final Direction[] COMPASS = { Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST };
+
+    // What rooms, items and sentients are made of. Names are shared between rooms rather than made for each.
+    private static final String[] ADJECTIVES = { "Dusty", "Damp", "Narrow", "Vaulted", "Crumbling", "Silent", "Flooded", "Gloomy" };
+    private static final String[] PLACES = { "Cellar", "Corridor", "Chamber", "Hall", "Crypt", "Gallery", "Cave", "Storeroom" };
+    private static final String[] DESCRIPTIONS = {
+            "Water drips somewhere out of sight.",
+            "The air is stale and nothing moves.",
+            "Scratches cover the walls.",
+            "Cobwebs hang from every corner.",
+            "Your footsteps echo back at you."
+    };
+    private static final String[] ITEMS = { "Rusty Key", "Old Lantern", "Torn Map", "Bent Spoon", "Iron Bar", "Tin Cup" };
+    private static final String[] SENTIENTS = { "A Rat", "A Bat", "A Ghoul", "A Spider" };
+
+    // Every room name, made from the adjectives and places
+    private static final String[] ROOM_NAMES = new String[ADJECTIVES.length * PLACES.length];
+
+    static {
+        for(int i = 0; i < ROOM_NAMES.length; i++)
+            ROOM_NAMES[i] = ADJECTIVES[i / PLACES.length] + " " + PLACES[i % PLACES.length];
+    }
+
+    // The layout of the rooms
+    private Topology topology;
+
+    // The number of rooms made
+    private int rooms;
+
+    // The chance of a room holding an item, and of it holding a sentient
+    private double itemChance;
+    private double sentientChance;
+
+    // The number of extra connections tried for each room of a RANDOM graph
+    private int extraConnections;
+
+    /**
+     * Creates a generator of worlds of the topology and number of rooms passed.
+     *
+     * @param _topology - Topology of the rooms
+     * @param _rooms - int number of rooms, at least 1
+     */
+    public WorldGenerator(Topology _topology, int _rooms){
+        if(_rooms < 1)
+            throw new RuntimeException("A world needs at least one room.");
+
+        topology = _topology;
+        rooms = _rooms;
+        itemChance = 0.3;
+        sentientChance = 0.1;
+        extraConnections = 2;
+    }
+
+    /**
+     * Generates a World on every core.
+     *
+     * @param seed - long seed of the dice
+     * @return World holding the rooms; players begin in the first
+     */
+    public World generate(long seed){
+        return generate(seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generates a World on the number of threads passed. The World is the same whatever the number of threads.
+     *
+     * @param seed - long seed of the dice
+     * @param threads - int number of threads to use
+     * @return World holding the rooms; players begin in the first
+     */
+    public World generate(long seed, int threads){
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            return generate(seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private World generate(long seed, ForkJoinPool pool){
+        Dice root = new Dice(seed);
+        int[] exits = connect(root.split());
+
+        int chunks = (rooms + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        Dice[] dice = new Dice[chunks];
+        for(int i = 0; i < chunks; i++)
+            dice[i] = root.split();
+
+        Room[] made = new Room[rooms];
+
+        try {
+            // Every room must exist before any can be connected to it
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(i -> makeChunk(i, made, dice[i]))).get();
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(i -> connectChunk(i, made, exits))).get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating.", e);
+        } catch(ExecutionException e) {
+            throw new RuntimeException("Could not generate.", e.getCause());
+        }
+
+        World world = new World();
+        world.addRooms(Arrays.asList(made));
+
+        return world;
+    }
+
+    /*
+     * The connections, worked out as the number of the room each exit leads to
+     */
+
+    /**
+     * Returns the exits of every room: the number of the room that the exit of room r in direction d leads to is
+     * at r * 10 + d.ordinal(), or -1 where there is no exit.
+     */
+    private int[] connect(Dice dice){
+        int[] exits = new int[rooms * DIRECTIONS.length];
+        Arrays.fill(exits, -1);
+
+        switch(topology){
+            case GRID:
+                grid(exits);
+                break;
+            case TREE:
+                tree(exits, dice);
+                break;
+            case RANDOM:
+                randomGraph(exits, dice);
+                break;
+            case MAZE:
+                maze(exits, dice);
+                break;
+        }
+
+        return exits;
+    }
+
+    private void grid(int[] exits){
+        int width = width();
+
+        for(int r = 0; r < rooms; r++){
+            if(r % width + 1 < width && r + 1 < rooms)
+                link(exits, r, Direction.EAST, r + 1);
+
+            if(r + width < rooms)
+                link(exits, r, Direction.SOUTH, r + width);
+        }
+    }
+
+    /**
+     * Numbers the rooms of the tree breadth first: the children of each room follow the children of the room
+     * before it, so every room but the first has a parent before it.
+     */
+    private void tree(int[] exits, Dice dice){
+        int next = 1;
+
+        for(int parent = 0; next < rooms; parent++){
+            int children = 1 + dice.nextInt(BRANCHES.length);
+
+            for(int i = 0; i < children && next < rooms; i++)
+                link(exits, parent, BRANCHES[i], next++);
+        }
+    }
+
+    private void randomGraph(int[] exits, Dice dice){
+        // A random tree first, so that every room can be reached from the first
+        for(int r = 1; r < rooms; r++){
+            boolean linked = false;
+
+            for(int tries = 0; tries < 32 && !linked; tries++)
+                linked = tryLink(exits, dice.nextInt(r), DIRECTIONS[dice.nextInt(DIRECTIONS.length)], r);
+
+            // Every direction of the rooms tried was taken; look for any room before this one with a free exit
+            for(int other = r - 1; other >= 0 && !linked; other--)
+                for(int d = 0; d < DIRECTIONS.length && !linked; d++)
+                    linked = tryLink(exits, other, DIRECTIONS[d], r);
+
+            if(!linked)
+                throw new RuntimeException("Room " + r + " could not be connected to any room before it.");
+        }
+
+        for(int r = 0; r < rooms; r++)
+            for(int i = 0; i < extraConnections; i++)
+                tryLink(exits, r, DIRECTIONS[dice.nextInt(DIRECTIONS.length)], dice.nextInt(rooms));
+    }
+
+    /**
+     * Carves a maze out of a grid with a depth first search from the first room, going to a random unvisited
+     * neighbour until there is none and then backing up, and then adds a chute down from every sixteenth room.
+     */
+    private void maze(int[] exits, Dice dice){
+        int width = width();
+        boolean[] visited = new boolean[rooms];
+        int[] stack = new int[rooms];
+        int[] choices = new int[COMPASS.length];
+        int top = 0;
+
+        stack[top++] = 0;
+        visited[0] = true;
+
+        while(top > 0){
+            int r = stack[top - 1];
+            int count = 0;
+
+            for(int i = 0; i < COMPASS.length; i++){
+                int n = neighbour(r, COMPASS[i], width);
+
+                if(n >= 0 && !visited[n])
+                    choices[count++] = i;
+            }
+
+            if(count == 0) {
+                top--;
+                continue;
+            }
+
+            int i = choices[dice.nextInt(count)];
+            int n = neighbour(r, COMPASS[i], width);
+
+            link(exits, r, COMPASS[i], n);
+            visited[n] = true;
+            stack[top++] = n;
+        }
+
+        // Chutes lead down to another room somewhere in the maze, never back into the room they start in
+        for(int r = 0; r < rooms && rooms > 1; r += 16){
+            int to = dice.nextInt(rooms);
+
+            while(to == r)
+                to = dice.nextInt(rooms);
+
+            exits[r * DIRECTIONS.length + Direction.DOWN.ordinal()] = to;
+        }
+    }
+
+    /**
+     * Returns the room of a grid next to the room passed in the direction passed, or -1 if it is off the grid.
+     */
+    private int neighbour(int r, Direction d, int width){
+        switch(d){
+            case NORTH: return r >= width ? r - width : -1;
+            case SOUTH: return r + width < rooms ? r + width : -1;
+            case EAST: return r % width + 1 < width && r + 1 < rooms ? r + 1 : -1;
+            case WEST: return r % width > 0 ? r - 1 : -1;
+            default: return -1;
+        }
+    }
+
+    private int width(){
+        return (int) Math.ceil(Math.sqrt(rooms));
+    }
+
+    /**
+     * Connects room a to room b in the direction passed and back the opposite way, if both exits are free and
+     * the rooms differ. Returns true if they were connected.
+     */
+    private static boolean tryLink(int[] exits, int a, Direction d, int b){
+        if(a == b || exits[a * DIRECTIONS.length + d.ordinal()] >= 0
+                || exits[b * DIRECTIONS.length + Direction.oppositeDirection(d).ordinal()] >= 0)
+            return false;
+
+        link(exits, a, d, b);
+        return true;
+    }
+
+    private static void link(int[] exits, int a, Direction d, int b){
+        exits[a * DIRECTIONS.length + d.ordinal()] = b;
+        exits[b * DIRECTIONS.length + Direction.oppositeDirection(d).ordinal()] = a;
+    }
+
+    /*
+     * The rooms, made in parallel
+     */
+
+    /**
+     * Makes the rooms of the chunk passed, with their items and sentients.
+     */
+    private void makeChunk(int chunk, Room[] made, Dice dice){
+        int end = Math.min(rooms, (chunk + 1) * CHUNK_SIZE);
+
+        for(int r = chunk * CHUNK_SIZE; r < end; r++){
+            Room room = new Room(ROOM_NAMES[dice.nextInt(ROOM_NAMES.length)], "R" + r,
+                    DESCRIPTIONS[dice.nextInt(DESCRIPTIONS.length)]);
+
+            if(dice.roll(itemChance)) {
+                String name = ITEMS[dice.nextInt(ITEMS.length)];
+                room.addItem(new Item(name, name, "It has seen better days.", true));
+            }
+
+            if(dice.roll(sentientChance)) {
+                String name = SENTIENTS[dice.nextInt(SENTIENTS.length)];
+                room.addSentient(new Sentient(name, "It watches you.", 3 + dice.nextInt(5), 0.1, 0, 1 + dice.nextInt(3),
+                        0.5, !dice.roll(0.2)));
+            }
+
+            made[r] = room;
+        }
+    }
+
+    /**
+     * Sets the exits of the rooms of the chunk passed. Only the rooms of the chunk are changed.
+     */
+    private void connectChunk(int chunk, Room[] made, int[] exits){
+        int end = Math.min(rooms, (chunk + 1) * CHUNK_SIZE);
+
+        for(int r = chunk * CHUNK_SIZE; r < end; r++)
+            for(int d = 0; d < DIRECTIONS.length; d++)
+                if(exits[r * DIRECTIONS.length + d] >= 0)
+                    made[r].addOneWayConnection(DIRECTIONS[d], made[exits[r * DIRECTIONS.length + d]]);
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    /**
+     * Sets the chances of a room holding an item and of it holding a sentient.
+     *
+     * @param _itemChance - double chance between 0 and 1
+     * @param _sentientChance - double chance between 0 and 1
+     */
+    public void setContents(double _itemChance, double _sentientChance){
+        itemChance = _itemChance;
+        sentientChance = _sentientChance;
+    }
+
+    /**
+     * Sets the number of extra connections tried for each room of a RANDOM graph, beyond those that make sure
+     * every room can be reached. Tries that find either exit taken make no connection.
+     *
+     * @param _extraConnections - int number of tries
+     */
+    public void setExtraConnections(int _extraConnections){
+        extraConnections = _extraConnections;
+    }
+
+    public static void main(String[] args){
+        Topology topology = args.length > 0 ? Topology.valueOf(args[0].toUpperCase()) : Topology.MAZE;
+        int rooms = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        WorldGenerator generator = new WorldGenerator(topology, rooms);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        World world = generator.generate(seed);
+        long items = 0;
+        long sentients = 0;
+
+        for(Room r : world.getRooms()){
+            items += r.getItems().size();
+            sentients += r.getSentients().size();
+        }
+
+        System.out.printf("%s of %,d rooms: %,d items, %,d sentients%n", topology, rooms, items, sentients);
+
+        // Time the same world on more and more threads, after a run to compile the code
+        double single = 0;
+
+        for(int threads = 1; ; threads = Math.min(threads * 2, cores)){
+            long start = System.nanoTime();
+            generator.generate(seed, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            if(threads == 1)
+                single = seconds;
+
+            System.out.printf("%2d threads: %6.2f s, %,.0f rooms per second, %.1fx%n",
+                    threads, seconds, rooms / seconds, single / seconds);
+
+            if(threads == cores)
+                break;
+        }
+    }
+}
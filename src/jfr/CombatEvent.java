@@ -0,0 +1,37 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A round of combat in which the enemies of a room attacked the player.
+ */
+@Name("adventure.Combat")
+@Label("Combat")
+@Category("Adventure")
+@Description("A round of combat against the player")
+@StackTrace(false)
+class CombatEvent extends jdk.jfr.Event {
+
+    @Label("Room")
+    @Description("Engine name of the room the combat was in")
+    String room;
+
+    @Label("Enemies")
+    @Description("The number of enemies that attacked")
+    int enemies;
+
+    @Label("Hits")
+    @Description("The number of attacks that hit")
+    int hits;
+
+    @Label("Damage")
+    @Description("The damage done to the player")
+    int damage;
+
+    @Label("Player Killed")
+    boolean playerKilled;
+}
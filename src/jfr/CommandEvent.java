@@ -0,0 +1,26 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A single command run by an Engine, from the moment it was given until the world had responded to it.
+ */
+@Name("adventure.Command")
+@Label("Command")
+@Category("Adventure")
+@Description("A command run by a player")
+@StackTrace(false)
+class CommandEvent extends jdk.jfr.Event {
+
+    @Label("Verb")
+    @Description("The verb the command started with")
+    String verb;
+
+    @Label("Room")
+    @Description("Engine name of the room the player was in")
+    String room;
+}
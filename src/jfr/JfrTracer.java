@@ -0,0 +1,103 @@
+package jfr;
+
+import java.nio.file.Path;
+
+import jdk.jfr.EventType;
+import resources.CombatRound;
+import resources.Metrics;
+import resources.Room;
+import resources.Tracer;
+
+/**
+ * JfrTracer
+ *
+ * Reports what the engine does as Java Flight Recorder events - adventure.Command, adventure.Combat and
+ * adventure.Persistence - so that they show up in a recording next to garbage collections, file I/O and
+ * everything else the JVM did at the same time. Engines find this class by name and use it unless told
+ * otherwise, so starting a recording is all it takes:
+ *
+ *     java -XX:StartFlightRecording=filename=game.jfr,settings=profile server.GameServer
+ *
+ * While no recording has the events enabled, every report is turned away by checking a single flag, and no
+ * event is made.
+ */
+public class JfrTracer implements Tracer {
+
+    // The types of the events, asked whether a recording has enabled them
+    private static final EventType COMMAND = EventType.getEventType(CommandEvent.class);
+    private static final EventType COMBAT = EventType.getEventType(CombatEvent.class);
+    private static final EventType PERSISTENCE = EventType.getEventType(PersistenceEvent.class);
+
+    @Override
+    public Object commandStarted(){
+        if(!COMMAND.isEnabled())
+            return null;
+
+        CommandEvent event = new CommandEvent();
+        event.begin();
+
+        return event;
+    }
+
+    @Override
+    public void commandEnded(Object token, String verb, Room room){
+        CommandEvent event = (CommandEvent) token;
+        event.end();
+
+        if(event.shouldCommit()) {
+            event.verb = verb == null ? Metrics.NOT_UNDERSTOOD : verb;
+            event.room = room == null ? null : room.getEngineName();
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object combatStarted(){
+        if(!COMBAT.isEnabled())
+            return null;
+
+        CombatEvent event = new CombatEvent();
+        event.begin();
+
+        return event;
+    }
+
+    @Override
+    public void combatEnded(Object token, Room room, CombatRound round){
+        CombatEvent event = (CombatEvent) token;
+        event.end();
+
+        if(event.shouldCommit()) {
+            event.room = room.getEngineName();
+            event.enemies = round.getAttackCount();
+            event.hits = round.getHitCount();
+            event.damage = round.getDamage();
+            event.playerKilled = round.isTargetKilled();
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object persistenceStarted(){
+        if(!PERSISTENCE.isEnabled())
+            return null;
+
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+
+        return event;
+    }
+
+    @Override
+    public void persistenceEnded(Object token, String operation, Path path, long bytes){
+        PersistenceEvent event = (PersistenceEvent) token;
+        event.end();
+
+        if(event.shouldCommit()) {
+            event.operation = operation;
+            event.path = path.toString();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
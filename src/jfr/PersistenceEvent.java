@@ -0,0 +1,28 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A game saved to or loaded from a file.
+ */
+@Name("adventure.Persistence")
+@Label("Save or Load")
+@Category("Adventure")
+@Description("A game saved to or loaded from a file")
+class PersistenceEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("save or load")
+    String operation;
+
+    @Label("Path")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,278 @@
+package jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * RecordingAnalyzer
+ *
+ * Summarizes a Flight Recorder recording of a game: the slowest commands, each with how much of it was spent
+ * in garbage collection, the rooms and verbs that took the most time, and the combat, saves and loads that were
+ * recorded. The recording is read one event at a time, so it may be as large as the disk allows.
+ *
+ * Usage: RecordingAnalyzer recording.jfr [number of slowest commands, default 20]
+ */
+public class RecordingAnalyzer {
+
+    // The names of the events read
+    private static final String COMMAND = "adventure.Command";
+    private static final String COMBAT = "adventure.Combat";
+    private static final String PERSISTENCE = "adventure.Persistence";
+    private static final String GC = "jdk.GarbageCollection";
+
+    // The number of slowest commands kept
+    private int slowestCount;
+
+    // The slowest commands so far, the fastest of them first
+    private PriorityQueue<Sample> slowest;
+
+    // The time taken by commands, by the room they were given in and by their verb
+    private Map<String, Stats> rooms;
+    private Map<String, Stats> verbs;
+
+    // The time taken by combat, and by saves and loads by operation
+    private Stats combat;
+    private Map<String, Stats> persistence;
+
+    // The most enemies fought at once, the players killed, and the bytes saved and loaded
+    private int mostEnemies;
+    private int playersKilled;
+    private long persistedBytes;
+
+    // When every garbage collection started and ended
+    private List<Instant[]> collections;
+
+    // The time taken by garbage collection, by their pauses
+    private Stats pauses;
+
+    public RecordingAnalyzer(int _slowestCount){
+        slowestCount = _slowestCount;
+
+        slowest = new PriorityQueue<>(Comparator.comparing((Sample s) -> s.duration));
+        rooms = new HashMap<>();
+        verbs = new HashMap<>();
+        combat = new Stats();
+        persistence = new HashMap<>();
+        collections = new ArrayList<>();
+        pauses = new Stats();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1) {
+            System.err.println("Usage: RecordingAnalyzer recording.jfr [number of slowest commands]");
+            System.exit(2);
+        }
+
+        RecordingAnalyzer analyzer = new RecordingAnalyzer(args.length > 1 ? Integer.parseInt(args[1]) : 20);
+        analyzer.read(Paths.get(args[0]));
+        analyzer.print();
+    }
+
+    /**
+     * Reads every event of the recording passed.
+     *
+     * @param path - Path of the .jfr file
+     * @throws IOException if the recording can't be read
+     */
+    public void read(Path path) throws IOException {
+        try(RecordingFile recording = new RecordingFile(path)){
+            while(recording.hasMoreEvents())
+                add(recording.readEvent());
+        }
+    }
+
+    private void add(RecordedEvent e){
+        switch(e.getEventType().getName()){
+            case COMMAND:
+                Sample s = new Sample(e);
+
+                stats(rooms, s.room).add(s.duration);
+                stats(verbs, s.verb).add(s.duration);
+
+                slowest.add(s);
+                if(slowest.size() > slowestCount)
+                    slowest.poll();
+                break;
+
+            case COMBAT:
+                combat.add(e.getDuration());
+                mostEnemies = Math.max(mostEnemies, e.getInt("enemies"));
+
+                if(e.getBoolean("playerKilled"))
+                    playersKilled++;
+                break;
+
+            case PERSISTENCE:
+                stats(persistence, e.getString("operation")).add(e.getDuration());
+                persistedBytes += e.getLong("bytes");
+                break;
+
+            case GC:
+                collections.add(new Instant[]{ e.getStartTime(), e.getEndTime() });
+                pauses.add(e.getDuration("sumOfPauses"));
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private static Stats stats(Map<String, Stats> map, String key){
+        return map.computeIfAbsent(key == null ? "(none)" : key, k -> new Stats());
+    }
+
+    /**
+     * Writes the summary of everything read so far to System.out.
+     */
+    public void print(){
+        long commands = 0;
+        for(Stats s : verbs.values())
+            commands += s.count;
+
+        System.out.printf(Locale.ROOT, "Commands: %d, garbage collections: %d pausing %.1f ms in all%n%n", commands,
+                pauses.count, pauses.total / 1e6);
+
+        List<Sample> samples = new ArrayList<>(slowest);
+        samples.sort(Comparator.comparing((Sample s) -> s.duration).reversed());
+
+        System.out.println("Slowest commands:");
+        System.out.printf(Locale.ROOT, "  %10s %10s  %-12s %-20s %-24s %s%n", "ms", "in GC ms", "verb", "room", "thread", "started");
+
+        for(Sample s : samples)
+            System.out.printf(Locale.ROOT, "  %10.3f %10.3f  %-12s %-20s %-24s %s%n", s.duration / 1e6,
+                    collecting(s.start, s.end) / 1e6, s.verb, s.room, s.thread, s.start);
+
+        System.out.println();
+        System.out.println("Slowest rooms, by the total time of the commands given in them:");
+        print(rooms);
+
+        System.out.println();
+        System.out.println("Verbs:");
+        print(verbs);
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Combat: %d rounds, %.1f us mean, %.3f ms max, %d enemies at most, %d players killed%n",
+                combat.count, combat.getMean() / 1e3, combat.max / 1e6, mostEnemies, playersKilled);
+
+        for(Map.Entry<String, Stats> e : persistence.entrySet())
+            System.out.printf(Locale.ROOT, "%s: %d, %.3f ms mean, %.3f ms max%n", e.getKey(), e.getValue().count,
+                    e.getValue().getMean() / 1e6, e.getValue().max / 1e6);
+
+        if(!persistence.isEmpty())
+            System.out.printf(Locale.ROOT, "Saved and loaded: %d bytes%n", persistedBytes);
+    }
+
+    private static void print(Map<String, Stats> stats){
+        List<Map.Entry<String, Stats>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort(Comparator.comparing((Map.Entry<String, Stats> e) -> e.getValue().total).reversed());
+
+        System.out.printf(Locale.ROOT, "  %-20s %10s %12s %10s %10s%n", "", "count", "total ms", "mean us", "max ms");
+
+        for(Map.Entry<String, Stats> e : entries)
+            System.out.printf(Locale.ROOT, "  %-20s %10d %12.3f %10.1f %10.3f%n", e.getKey(), e.getValue().count,
+                    e.getValue().total / 1e6, e.getValue().getMean() / 1e3, e.getValue().max / 1e6);
+    }
+
+    /**
+     * Returns the nanoseconds between the times passed during which the JVM was collecting garbage.
+     */
+    private long collecting(Instant start, Instant end){
+        long nanos = 0;
+
+        for(Instant[] c : collections){
+            Instant from = c[0].isAfter(start) ? c[0] : start;
+            Instant to = c[1].isBefore(end) ? c[1] : end;
+
+            if(from.isBefore(to))
+                nanos += Duration.between(from, to).toNanos();
+        }
+
+        return nanos;
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    /**
+     * Returns the number of commands given in the room passed.
+     *
+     * @param engineName - String engine name of the room
+     * @return long number of commands
+     */
+    public long getCommandCount(String engineName){
+        Stats s = rooms.get(engineName);
+
+        return s == null ? 0 : s.count;
+    }
+
+    public long getCombatCount(){
+        return combat.count;
+    }
+
+    public long getPersistedBytes(){
+        return persistedBytes;
+    }
+
+    /**
+     * A single command, kept while it is among the slowest.
+     */
+    private static class Sample {
+
+        private long duration;
+        private Instant start;
+        private Instant end;
+        private String verb;
+        private String room;
+        private String thread;
+
+        private Sample(RecordedEvent e){
+            duration = e.getDuration().toNanos();
+            start = e.getStartTime();
+            end = e.getEndTime();
+            verb = e.getString("verb");
+            room = e.getString("room");
+
+            RecordedThread t = e.getThread();
+            thread = t == null ? "" : t.getJavaName();
+        }
+    }
+
+    /**
+     * The count, total and longest of a number of durations, in nanoseconds.
+     */
+    private static class Stats {
+
+        private long count;
+        private long total;
+        private long max;
+
+        private void add(Duration d){
+            add(d.toNanos());
+        }
+
+        private void add(long nanos){
+            count++;
+            total += nanos;
+            max = Math.max(max, nanos);
+        }
+
+        private double getMean(){
+            return count == 0 ? 0 : (double) total / count;
+        }
+    }
+}
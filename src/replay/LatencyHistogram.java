@@ -0,0 +1,128 @@
+package replay;
+
+/**
+ * LatencyHistogram
+ *
+ * Counts latencies in buckets that grow with the values they hold, the way HdrHistogram does, so any latency
+ * from a nanosecond to centuries is recorded in constant time and fixed memory, to within 1% of its value.
+ * Values below 256 have a bucket each; above that, every doubling of the value is split into 128 buckets.
+ *
+ * A histogram is not thread safe. Each thread records into a histogram of its own, and the histograms are
+ * combined with add() once the threads are done.
+ */
+public class LatencyHistogram {
+
+    // The number of significant bits kept of every value
+    private static final int BITS = 8;
+
+    // The number of buckets each doubling of the value is split into
+    private static final int HALF = 1 << (BITS - 1);
+
+    // The number of values counted in each bucket
+    private long[] counts;
+
+    // The number of values recorded in all
+    private long count;
+
+    // The sum, smallest and largest of the values recorded
+    private long total;
+    private long min;
+    private long max;
+
+    public LatencyHistogram(){
+        counts = new long[(64 - BITS + 2) * HALF];
+        min = Long.MAX_VALUE;
+    }
+
+    /**
+     * Records a single value.
+     *
+     * @param value - long latency, in any unit; negative values are counted as 0
+     */
+    public void record(long value){
+        if(value < 0)
+            value = 0;
+
+        counts[indexOf(value)]++;
+        count++;
+        total += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds every value recorded by the histogram passed to this one.
+     *
+     * @param other - LatencyHistogram to add
+     */
+    public void add(LatencyHistogram other){
+        for(int i = 0; i < counts.length; i++)
+            counts[i] += other.counts[i];
+
+        count += other.count;
+        total += other.total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the value that the percentage of values passed are at or below. The value is the highest that
+     * shares a bucket with the true one, so it is never less than it, and never more than the largest value.
+     *
+     * @param percentile - double between 0 and 100
+     * @return long value, or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile){
+        if(count == 0)
+            return 0;
+
+        long wanted = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+
+        for(int i = 0; i < counts.length; i++){
+            seen += counts[i];
+
+            if(seen >= wanted)
+                return Math.min(highestValueOf(i), max);
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the bucket of the value passed: the value itself below 256, and above that the top eight bits of
+     * the value after the number of bits dropped, which sets how wide the bucket is.
+     */
+    private static int indexOf(long value){
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - BITS);
+
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    private static long highestValueOf(int index){
+        int shift = index < 2 * HALF ? 0 : index / HALF - 1;
+        long top = index - shift * HALF;
+
+        return ((top + 1) << shift) - 1;
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    public long getCount(){
+        return count;
+    }
+
+    public long getMin(){
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax(){
+        return max;
+    }
+
+    public double getMean(){
+        return count == 0 ? 0 : (double) total / count;
+    }
+}
@@ -0,0 +1,415 @@
+package replay;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import debug_adventure.SimpleAdventure;
+import resources.*;
+
+/**
+ * Replay
+ *
+ * Plays recorded transcripts of commands back through Engines, to reproduce what players did and to put load on
+ * the engine. Each line of a transcript is a single command, exactly as the player typed it. A transcript may
+ * hold the commands of many players, interleaved, with each line starting with the name of its session and a
+ * tab:
+ *
+ *     alice	take machete
+ *     bob	n
+ *     alice	look
+ *
+ * Lines without a tab belong to a session named after the transcript. Every session gets an Engine of its own
+ * the first time it appears, and once its game has ended the rest of its commands are skipped.
+ *
+ * Transcripts are streamed a line at a time, so they may be far larger than memory. Each transcript is played
+ * on a thread of its own, in order; several transcripts, or several copies of one, run in parallel.
+ *
+ * Every session rolls Dice seeded from the seed of the replay and the name of the session, so playing the same
+ * transcript again must end in the same state. The state each session ended in is reported as a hash of the
+ * player and of every room as the player sees it; a hash that changes between two builds means the engine no
+ * longer plays the same commands the same way. Players of a shared game interfere with each other in whatever
+ * order their threads run, so only the hashes of unshared games are expected to repeat.
+ *
+ * Usage: Replay [-threads n] [-copies n] [-seed n] [-shared] transcript...
+ *     plays the transcripts in SimpleAdventure; -copies plays every transcript that many times at once
+ */
+public class Replay {
+
+    // Separates the name of a session from its command
+    private static final char SESSION_SEPARATOR = '\t';
+
+    // The constants of the 64 bit FNV-1a hash
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // Builds a new Engine, with a player, for every session
+    private Supplier<Engine> adventure;
+
+    // Mixed with the name of each session to seed its Dice
+    private long seed;
+
+    /**
+     * Creates a replay that plays every session in an Engine of the adventure passed.
+     *
+     * @param _adventure - Supplier of a new Engine with a player, not yet started
+     * @param _seed - long seed of the Dice of every session
+     */
+    public Replay(Supplier<Engine> _adventure, long _seed){
+        adventure = _adventure;
+        seed = _seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int copies = 1;
+        long seed = 0;
+        boolean shared = false;
+        List<Path> transcripts = new ArrayList<>();
+
+        for(int i = 0; i < args.length; i++){
+            switch(args[i]){
+                case "-threads": threads = Integer.parseInt(args[++i]); break;
+                case "-copies": copies = Integer.parseInt(args[++i]); break;
+                case "-seed": seed = Long.parseLong(args[++i]); break;
+                case "-shared": shared = true; break;
+                default: transcripts.add(Paths.get(args[i]));
+            }
+        }
+
+        if(transcripts.isEmpty()) {
+            System.err.println("Usage: Replay [-threads n] [-copies n] [-seed n] [-shared] transcript...");
+            System.exit(2);
+        }
+
+        World world = SimpleAdventure.createWorld();
+        Supplier<Engine> adventure;
+
+        if(shared) {
+            SharedWorldState state = new SharedWorldState(world);
+            adventure = () -> SimpleAdventure.create(state);
+        } else {
+            adventure = () -> SimpleAdventure.create(world);
+        }
+
+        new Replay(adventure, seed).run(transcripts, copies, threads).print(System.out);
+    }
+
+    /**
+     * Plays every transcript passed, each the number of times passed, and waits for them all to finish.
+     *
+     * @param transcripts - Paths of the transcripts to play
+     * @param copies - int number of times to play each transcript at once; copies after the first have "#n"
+     *               added to the names of their sessions
+     * @param threads - int most transcripts to play at once
+     * @return Report of the replay
+     * @throws IOException if a transcript can't be read
+     */
+    public Report run(List<Path> transcripts, int copies, int threads) throws IOException, InterruptedException {
+        List<Callable<Player>> players = new ArrayList<>();
+
+        for(Path transcript : transcripts)
+            for(int copy = 0; copy < copies; copy++)
+                players.add(new Player(transcript, copy)::play);
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, players.size())));
+        Report report = new Report();
+        long start = System.nanoTime();
+
+        try {
+            for(Future<Player> f : pool.invokeAll(players))
+                report.add(f.get());
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+
+            throw new RuntimeException("A transcript could not be replayed.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        report.elapsedNanos = System.nanoTime() - start;
+
+        return report;
+    }
+
+    /**
+     * Returns a hash of the state the game of the Engine passed is in: the player - where they are, their hit
+     * points and what they hold - and every room of the World as the player sees it. Things are hashed in order
+     * of their names, so the hash doesn't depend on the order of any map.
+     *
+     * @param engine - Engine to hash
+     * @return long hash of the game
+     */
+    public static long hash(Engine engine){
+        Sentient player = engine.getPlayer();
+        WorldState state = engine.getState();
+
+        long h = FNV_OFFSET;
+        h = hash(h, player.getName());
+        h = hash(h, player.getCurrentHitPoints());
+        h = hash(h, engine.getCurrentRoom() == null ? "" : engine.getCurrentRoom().getEngineName());
+        h = hash(h, player.getEquippedWeapon() == null ? "" : player.getEquippedWeapon().getPublicName());
+        h = hashItems(h, player.getInventory());
+
+        List<Room> rooms = new ArrayList<>(engine.getWorld().getRooms());
+        rooms.sort(Comparator.comparing(Room::getEngineName));
+
+        for(Room r : rooms){
+            Room seen = state.view(r);
+
+            h = hash(h, seen.getEngineName());
+            h = hash(h, state.isVisited(r) ? 1 : 0);
+            h = hashItems(h, seen.getItems());
+
+            List<Sentient> sentients = new ArrayList<>(seen.getSentients());
+            sentients.sort(Comparator.comparing(Sentient::getName));
+
+            for(Sentient s : sentients){
+                h = hash(h, s.getName());
+                h = hash(h, s.getCurrentHitPoints());
+            }
+        }
+
+        return h;
+    }
+
+    private static long hashItems(long h, Collection<Item> items){
+        List<String> names = new ArrayList<>();
+        for(Item i : items)
+            names.add(i.getPublicName());
+
+        names.sort(null);
+        h = hash(h, names.size());
+
+        for(String name : names)
+            h = hash(h, name);
+
+        return h;
+    }
+
+    private static long hash(long h, String s){
+        for(byte b : s.getBytes(StandardCharsets.UTF_8))
+            h = (h ^ (b & 0xff)) * FNV_PRIME;
+
+        // Ends every string, so that "ab", "c" and "a", "bc" differ
+        return (h ^ 0xff) * FNV_PRIME;
+    }
+
+    private static long hash(long h, long value){
+        for(int i = 0; i < 64; i += 8)
+            h = (h ^ ((value >>> i) & 0xff)) * FNV_PRIME;
+
+        return h;
+    }
+
+    /**
+     * Plays a single copy of a transcript on a single thread, keeping what it measures to itself until it's
+     * done.
+     */
+    private class Player {
+
+        // The transcript played, and the name its sessions are known by
+        private Path transcript;
+        private String name;
+
+        // The sessions of the transcript, by name, in the order they first appeared
+        private LinkedHashMap<String, Session> sessions;
+
+        // The latency of every command played, in nanoseconds
+        private LatencyHistogram latencies;
+
+        private Player(Path _transcript, int copy){
+            transcript = _transcript;
+            name = transcript.getFileName() + (copy == 0 ? "" : "#" + copy);
+
+            sessions = new LinkedHashMap<>();
+            latencies = new LatencyHistogram();
+        }
+
+        private Player play() throws IOException {
+            try(Stream<String> lines = Files.lines(transcript, StandardCharsets.UTF_8)) {
+                lines.forEachOrdered(this::playLine);
+            }
+
+            for(Session s : sessions.values())
+                s.end();
+
+            return this;
+        }
+
+        private void playLine(String line){
+            int tab = line.indexOf(SESSION_SEPARATOR);
+            String sessionName = tab < 0 ? "" : line.substring(0, tab);
+
+            Session session = sessions.get(sessionName);
+            if(session == null) {
+                session = new Session(tab < 0 ? name : name + ":" + sessionName, sessionName);
+                sessions.put(sessionName, session);
+            }
+
+            if(session.engine == null) {
+                session.skipped++;
+                return;
+            }
+
+            String command = tab < 0 ? line : line.substring(tab + 1);
+
+            long start = System.nanoTime();
+            Response response = session.engine.execute(command);
+            latencies.record(System.nanoTime() - start);
+
+            session.commands++;
+
+            if(response.isGameEnded()) {
+                session.ended = true;
+                session.end();
+            }
+        }
+    }
+
+    /**
+     * A single player's game within a transcript.
+     */
+    private class Session {
+
+        // The name reported for the session
+        private String name;
+
+        // The game, or null once it has ended
+        private Engine engine;
+
+        // The numbers of commands played, and skipped because the game had already ended
+        private long commands;
+        private long skipped;
+
+        // The hash of the state the game ended in
+        private long hash;
+
+        // True if the game ended before the transcript did
+        private boolean ended;
+
+        /**
+         * Starts a game for the session. The Dice are seeded by the name the session has in its transcript,
+         * so every copy of a transcript rolls the same.
+         */
+        private Session(String _name, String nameInTranscript){
+            name = _name;
+
+            engine = adventure.get();
+            engine.setOutput(Output.NONE);
+            engine.setDice(new Dice(hash(hash(FNV_OFFSET, seed), nameInTranscript)));
+            engine.start();
+        }
+
+        private void end(){
+            if(engine == null)
+                return;
+
+            hash = hash(engine);
+            engine.quit();
+
+            // The hash is all that is kept, so a transcript of many sessions doesn't keep every game
+            engine = null;
+        }
+    }
+
+    /**
+     * What a replay measured: how many commands were played, how quickly, and the state every session ended in.
+     */
+    public static class Report {
+
+        // The latency of every command played, in nanoseconds
+        private LatencyHistogram latencies;
+
+        // The sessions played, by transcript
+        private List<Session> sessions;
+
+        // The wall clock time of the whole replay
+        private long elapsedNanos;
+
+        private Report(){
+            latencies = new LatencyHistogram();
+            sessions = new ArrayList<>();
+        }
+
+        private void add(Player p){
+            latencies.add(p.latencies);
+            sessions.addAll(p.sessions.values());
+        }
+
+        /**
+         * Writes the report: the throughput and latencies of the replay, then a line for every session.
+         *
+         * @param out - PrintStream to write to
+         */
+        public void print(PrintStream out){
+            out.println("Sessions:           " + sessions.size());
+            out.println("Commands:           " + getCommandCount());
+            out.printf("Throughput:         %.0f commands/s%n", getCommandsPerSecond());
+            out.printf("Latency mean:       %.1f us%n", latencies.getMean() / 1e3);
+
+            out.printf("Latency p50:        %.1f us%n", latencies.getValueAtPercentile(50) / 1e3);
+            out.printf("Latency p90:        %.1f us%n", latencies.getValueAtPercentile(90) / 1e3);
+            out.printf("Latency p99:        %.1f us%n", latencies.getValueAtPercentile(99) / 1e3);
+            out.printf("Latency p99.9:      %.1f us%n", latencies.getValueAtPercentile(99.9) / 1e3);
+            out.printf("Latency p99.99:     %.1f us%n", latencies.getValueAtPercentile(99.99) / 1e3);
+
+            out.printf("Latency max:        %.1f us%n", latencies.getMax() / 1e3);
+            out.println();
+
+            for(Session s : sessions)
+                out.printf("%-30s %10d commands %8d skipped  %016x%s%n", s.name, s.commands, s.skipped, s.hash,
+                        s.ended ? "  ended" : "");
+        }
+
+        /*
+        Getters and Setters are all here:
+         */
+
+        public LatencyHistogram getLatencies(){
+            return latencies;
+        }
+
+        public long getCommandCount(){
+            return latencies.getCount();
+        }
+
+        public double getCommandsPerSecond(){
+            return getCommandCount() / (elapsedNanos / 1e9);
+        }
+
+        public int getSessionCount(){
+            return sessions.size();
+        }
+
+        /**
+         * Returns the hash of the state the session passed ended in.
+         *
+         * @param name - String name of the session, as printed
+         * @return long hash
+         */
+        public long getHash(String name){
+            for(Session s : sessions)
+                if(s.name.equals(name))
+                    return s.hash;
+
+            throw new RuntimeException("No session is named " + name + ".");
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package resources;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Behaviors
+ *
+ * Gives the sentients of a game lives of their own between the player's commands: wandering from room to
+ * room, healing their wounds, and coming back some time after they are killed. Each behavior is a repeating
+ * TimedEvent on the Scheduler of the Engine, so a sentient costs nothing on the ticks it has nothing to do.
+ *
+ * Behaviors change the player's own copy of the world, never the shared World. Where each sentient has got to
+ * is kept in the game itself, and found through the LocationIndex of the player's WorldState, so nothing about
+ * the sentients lives only here: a saved or recovered game can be given behaviors again with the same calls,
+ * and they carry on from wherever the sentients are. Every move, heal and respawn is journaled when the game
+ * is. Chance rolls use the Engine's Dice, so a game with behaviors plays out the same way given the same seed
+ * and commands.
+ */
+public class Behaviors {
+
+    // The engine whose world the sentients live in
+    private Engine engine;
+
+    // The last Sentient object seen for each sentient with a behavior, by lower case name. The object changes
+    // whenever the room it is in is first copied into the player's WorldState, so it is only used to ask the
+    // LocationIndex where to look.
+    private HashMap<String, Sentient> sentients;
+
+    public Behaviors(Engine _engine){
+        engine = _engine;
+        sentients = new HashMap<>();
+    }
+
+    /**
+     * Has the sentient passed move to a room connected to the one it is in, chosen at random, every period
+     * ticks. The player is told when it arrives in or leaves their room.
+     *
+     * @param sentientName - String name of the sentient
+     * @param roomEngineName - String engine name of the room it starts in, where it is looked for first
+     * @param period - long ticks between moves
+     * @return Scheduler.Entry of the behavior, which may be cancelled
+     */
+    public Scheduler.Entry wander(String sentientName, String roomEngineName, long period){
+        String key = track(sentientName, roomEngineName);
+
+        return engine.getScheduler().scheduleRepeating(period, period, tick -> {
+            Room from = find(key);
+
+            if(from == null)
+                return; // Killed; it may yet respawn
+
+            ArrayList<Room> exits = new ArrayList<>();
+            for(Direction d : Direction.values()){
+                Room to = from.getConnection(d);
+
+                if(to != null && !engine.getState().view(to).hasSentient(key))
+                    exits.add(to);
+            }
+
+            if(exits.isEmpty())
+                return;
+
+            Room to = exits.get(engine.getDice().nextInt(exits.size()));
+            Sentient s = engine.getState().edit(from).removeSentient(key);
+            engine.getState().edit(to).addSentient(s);
+            sentients.put(key, s);
+
+            if(engine.getJournal() != null)
+                engine.getJournal().sentientMoved(key, from, to);
+
+            String here = engine.getCurrentRoom().getEngineName();
+            if(from.getEngineName().equals(here))
+                engine.getOutput().println(s.getName() + " leaves.");
+            else if(to.getEngineName().equals(here))
+                engine.getOutput().println(s.getName() + " arrives.");
+        });
+    }
+
+    /**
+     * Heals the sentient passed by the amount passed every period ticks, wherever it has wandered to.
+     *
+     * @param sentientName - String name of the sentient
+     * @param roomEngineName - String engine name of the room it starts in, where it is looked for first
+     * @param amount - int hit points healed each time
+     * @param period - long ticks between heals
+     * @return Scheduler.Entry of the behavior, which may be cancelled
+     */
+    public Scheduler.Entry regenerate(String sentientName, String roomEngineName, int amount, long period){
+        String key = track(sentientName, roomEngineName);
+
+        return engine.getScheduler().scheduleRepeating(period, period, tick -> {
+            Room room = find(key);
+
+            if(room == null)
+                return;
+
+            Sentient s = engine.getState().view(room).getSentient(key);
+
+            if(s.getCurrentHitPoints() < s.getTotalHitPoints()) {
+                Sentient healed = engine.getState().edit(room).getSentient(key);
+                healed.heal(amount);
+                sentients.put(key, healed);
+
+                if(engine.getJournal() != null)
+                    engine.getJournal().sentientHealed(key, room, amount);
+            }
+        });
+    }
+
+    /**
+     * Checks every period ticks whether the sentient passed has been killed, and if so brings it back, alive
+     * and unhurt, in the room passed. It comes back as it is now, or as its corpse was when it died if it has
+     * been killed already, such as in a game that was saved with the sentient dead.
+     *
+     * @param sentientName - String name of the sentient
+     * @param roomEngineName - String engine name of the room it comes back in
+     * @param period - long ticks between checks
+     * @return Scheduler.Entry of the behavior, which may be cancelled
+     */
+    public Scheduler.Entry respawn(String sentientName, String roomEngineName, long period){
+        String key = track(sentientName, roomEngineName);
+        Room home = engine.getWorld().getRoom(roomEngineName);
+        Sentient original = template(key, home);
+
+        if(original == null)
+            throw new RuntimeException("Cannot respawn \"" + sentientName + "\", which isn't in the game, alive or dead.");
+
+        return engine.getScheduler().scheduleRepeating(period, period, tick -> {
+            if(find(key) != null || engine.getState().view(home).hasSentient(key))
+                return;
+
+            Sentient s = original.revived();
+            engine.getState().edit(home).addSentient(s);
+            sentients.put(key, s);
+
+            if(engine.getJournal() != null)
+                engine.getJournal().sentientSpawned(home, s);
+
+            if(roomEngineName.equals(engine.getCurrentRoom().getEngineName()))
+                engine.getOutput().println(original.getName() + " appears.");
+        });
+    }
+
+    /**
+     * Returns the engine name of the room the sentient passed is in.
+     *
+     * @param sentientName - String name of the sentient
+     * @return String engine name of the room, or null if the sentient has no behaviors or isn't alive
+     */
+    public String getLocation(String sentientName){
+        Room room = find(sentientName.toLowerCase());
+
+        return room == null ? null : room.getEngineName();
+    }
+
+    /**
+     * Starts keeping track of the sentient passed, if it isn't tracked already, returning its lower case name.
+     * The sentient is looked for in the room passed first and then, for a game that has gone on without its
+     * behaviors, such as one just loaded, in every room.
+     */
+    private String track(String sentientName, String roomEngineName){
+        Room start = engine.getWorld().getRoom(roomEngineName);
+
+        if(start == null)
+            throw new RuntimeException("Cannot give a behavior to a sentient in a non-existent room.");
+
+        String key = sentientName.toLowerCase();
+
+        if(find(key) != null)
+            return key;
+
+        Sentient s = engine.getState().view(start).getSentient(key);
+
+        for(Room r : engine.getWorld().getRooms()){
+            if(s != null)
+                break;
+
+            s = engine.getState().view(r).getSentient(key);
+        }
+
+        if(s != null)
+            sentients.put(key, s);
+
+        return key;
+    }
+
+    /**
+     * Returns the room of the World that the sentient named is in, or null if it isn't alive in any.
+     */
+    private Room find(String key){
+        Sentient s = sentients.get(key);
+
+        if(s == null || s.isDead())
+            return null;
+
+        Room seen = engine.getState().getLocations().getRoom(s);
+
+        if(seen == null)
+            return null;
+
+        // The room's copy may hold a copy of the sentient made since it was last seen
+        Room room = engine.getWorld().getRoom(seen.getEngineName());
+        Sentient current = engine.getState().view(room).getSentient(key);
+
+        if(current == null || current.isDead())
+            return null;
+
+        sentients.put(key, current);
+
+        return room;
+    }
+
+    /**
+     * Returns the sentient named as it is now, or as it was when it died, looking in the room passed first.
+     */
+    private Sentient template(String key, Room first){
+        Room room = find(key);
+
+        if(room != null)
+            return new Sentient(engine.getState().view(room).getSentient(key));
+
+        String corpseName = Corpse.nameOf(key).toLowerCase();
+        Item corpse = engine.getState().view(first).getItem(corpseName);
+
+        for(Room r : engine.getWorld().getRooms()){
+            if(corpse instanceof Corpse)
+                break;
+
+            corpse = engine.getState().view(r).getItem(corpseName);
+        }
+
+        return corpse instanceof Corpse ? new Sentient(((Corpse) corpse).getSentient()) : null;
+    }
+}
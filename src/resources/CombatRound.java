@@ -0,0 +1,68 @@
+package resources;
+
+/**
+ * CombatRound
+ *
+ * What happened in a round of combat in which a Horde attacked a single target: who attacked, who hit, and how
+ * much damage was done in all. The Engine describes the round to the player from this rather than printing a
+ * line as each attack is made.
+ */
+public class CombatRound {
+
+    // The sentients that attacked, in the order they attacked
+    private Sentient[] attackers;
+
+    // A bit for each attacker, set if its attack hit
+    private long[] hits;
+
+    // The number of attacks that hit
+    private int hitCount;
+
+    // The damage done to the target, after its defense
+    private int damage;
+
+    // True if the target died
+    private boolean targetKilled;
+
+    CombatRound(Sentient[] _attackers, long[] _hits, int _hitCount, int _damage, boolean _targetKilled){
+        attackers = _attackers;
+        hits = _hits;
+        hitCount = _hitCount;
+        damage = _damage;
+        targetKilled = _targetKilled;
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    public int getAttackCount(){
+        return attackers.length;
+    }
+
+    public Sentient getAttacker(int i){
+        return attackers[i];
+    }
+
+    /**
+     * Returns true if the attack of the attacker passed hit.
+     *
+     * @param i - int index of the attacker
+     * @return true if it hit
+     */
+    public boolean isHit(int i){
+        return (hits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public int getHitCount(){
+        return hitCount;
+    }
+
+    public int getDamage(){
+        return damage;
+    }
+
+    public boolean isTargetKilled(){
+        return targetKilled;
+    }
+}
@@ -0,0 +1,15 @@
+package resources;
+
+/**
+ * A command that the player may type, such as "look" or "take". Commands are registered with the Engine
+ * against one or more verbs, and the Engine runs the command whenever a line begins with one of those verbs.
+ */
+public interface Command {
+
+    /**
+     * Runs this command.
+     *
+     * @param tokens - the words of the line that the user typed; word 0 is the verb
+     */
+    void execute(Tokenizer tokens);
+}
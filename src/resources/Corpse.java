@@ -8,6 +8,9 @@ import java.util.Collection;
  */
 public class Corpse extends Item {
 
+    // Version of the Java serialized form of this class
+    private static final long serialVersionUID = 1L;
+
     // The original sentient that was once this corpse
     private Sentient corpse;
 
@@ -16,6 +19,26 @@ public class Corpse extends Item {
         corpse = s;
     }
 
+    /**
+     * Creates a copy of the corpse passed, holding a copy of its sentient, so that looting the copy leaves the
+     * inventory of the original untouched.
+     *
+     * @param c - Corpse to copy
+     */
+    public Corpse(Corpse c){
+        this(new Sentient(c.corpse));
+    }
+
+    /**
+     * Returns the name the corpse of the sentient named will have.
+     *
+     * @param sentientName - String name of the sentient
+     * @return String public name of the corpse
+     */
+    public static String nameOf(String sentientName){
+        return "Corpse of " + sentientName;
+    }
+
     /**
      * Returns the the inventory of the corpse.
      *
@@ -29,4 +52,11 @@ public class Corpse extends Item {
 
         return null;
     }
+
+    /**
+     * Returns the sentient that this corpse once was.
+     *
+     * @return Sentient that died
+     */
+    public Sentient getSentient(){ return corpse; }
 }
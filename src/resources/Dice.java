@@ -0,0 +1,87 @@
+package resources;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Dice
+ *
+ * The source of every chance roll in a game. Each Engine has Dice of its own, so games played at the same time
+ * never wait on one another for random numbers, and Dice made with the same seed roll the same numbers in the
+ * same order: a game started with a recorded seed and given the same commands plays out exactly the same way.
+ *
+ * Dice are not thread safe. Code that rolls from several threads at once should give each thread Dice of its
+ * own with split(), which stays reproducible as long as the splits are made in the same order.
+ */
+public class Dice {
+
+    // The seed these dice were made with
+    private long seed;
+
+    // Where the numbers come from
+    private SplittableRandom random;
+
+    /**
+     * Creates Dice with a seed of their own. The seed can be read with getSeed() to play the game again.
+     */
+    public Dice(){
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates Dice that roll the same numbers as any other Dice made with the seed passed.
+     *
+     * @param _seed - long seed
+     */
+    public Dice(long _seed){
+        seed = _seed;
+        random = new SplittableRandom(_seed);
+    }
+
+    /**
+     * Returns true with the probability passed.
+     *
+     * @param chance - double probability between 0 and 1
+     * @return true if the roll succeeds
+     */
+    public boolean roll(double chance){
+        return random.nextDouble() < chance;
+    }
+
+    /**
+     * Returns a double between 0 (inclusive) and 1 (exclusive).
+     *
+     * @return double roll
+     */
+    public double nextDouble(){
+        return random.nextDouble();
+    }
+
+    /**
+     * Returns an int between 0 (inclusive) and the bound passed (exclusive).
+     *
+     * @param bound - int greater than 0
+     * @return int roll
+     */
+    public int nextInt(int bound){
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Returns new Dice seeded from these, for another thread or another part of a game to roll with. The
+     * seed of the new Dice is the next roll of these, so splitting is as reproducible as rolling.
+     *
+     * @return new Dice
+     */
+    public Dice split(){
+        return new Dice(random.nextLong());
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    public long getSeed(){
+        return seed;
+    }
+}
@@ -6,6 +6,15 @@ package resources;
 public enum Direction {
     NORTH, NORTH_EAST, EAST, SOUTH_EAST, SOUTH, SOUTH_WEST, WEST, NORTH_WEST, UP, DOWN;
 
+    // Every word the player may use for a direction
+    private static final Vocabulary<Direction> WORDS = new Vocabulary<>();
+
+    static {
+        for(String word : new String[]{ "n", "north", "ne", "north east", "e", "east", "se", "south east", "s", "south",
+                "sw", "south west", "w", "west", "nw", "north west", "up", "down" })
+            WORDS.put(word, toDirection(word));
+    }
+
     public static String toString(Direction d){
         switch(d){
             case NORTH:
@@ -78,6 +87,31 @@ public enum Direction {
         return null;
     }
 
+    /**
+     * Returns the direction that corresponds to the characters of the text passed between start (inclusive)
+     * and end (exclusive), ignoring case. A leading "go" is skipped. If the characters don't match a direction,
+     * then this method returns null.
+     *
+     * @param text - text holding the direction
+     * @param start - index of the first character of the direction
+     * @param end - index after the last character of the direction
+     * @return Direction or null
+     */
+    public static Direction toDirection(CharSequence text, int start, int end){
+        Direction d = WORDS.get(text, start, end);
+
+        if(d == null && end - start > 2 && Character.toLowerCase(text.charAt(start)) == 'g' &&
+                Character.toLowerCase(text.charAt(start + 1)) == 'o' && Character.isWhitespace(text.charAt(start + 2))){
+            start += 2;
+            while(start < end && Character.isWhitespace(text.charAt(start)))
+                start++;
+
+            d = WORDS.get(text, start, end);
+        }
+
+        return d;
+    }
+
     /**
      * Returns the opposite direction of the direction passed into this method.
      *
@@ -1,6 +1,11 @@
 package resources;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Engine
@@ -16,17 +21,17 @@ import java.util.*;
  */
 public class Engine {
 
-    // The current room that the player is in
-    private Room currentRoom;
+    // Rounds of combat with more attackers than this are described in a single line
+    private static final int DESCRIBED_ATTACKS = 5;
 
-    // HashMap that stores the rooms, mapping their names to their objects themselves
-    private HashMap<String, Room> roomMap;
+    // The current room that the player is in - always a room of the World, never the player's copy
+    private Room currentRoom;
 
-    // The collection of enemies that the player will have to face
-    private List<Sentient> enemies;
+    // The rooms, items and sentients of the adventure. May be shared with other Engines.
+    private World world;
 
-    // A HashMap that maps what items are in what rooms
-    private HashMap<Item, Room> itemsToRooms;
+    // Everything this player has changed about the World
+    private WorldState state;
 
     // The input (System.in) that the user will use to provide commands.
     private Scanner input;
@@ -45,20 +50,106 @@ public class Engine {
     // spelling, etc) When true, combat will not occur.
     private boolean incompleteCommandFlag;
 
-    public Engine(){
-        roomMap = new HashMap<>();
-        enemies = new LinkedList<>();
-        itemsToRooms = new HashMap<>();
+    // The commands the player may type, keyed by the verb that starts each one
+    private Vocabulary<Command> commands;
+
+    // The verb each word that starts a command stands for, in lower case, for counting and tracing commands
+    private Vocabulary<String> verbs;
+
+    // Splits each line the player types into words. Reused for every line.
+    private Tokenizer tokens;
+
+    // True until the player asks to leave the game
+    private boolean running;
+
+    // Where everything the game says to the player is written
+    private Output output;
+
+    // Where every change to the game is recorded as it happens, or null if the game isn't journaled
+    private Journal journal;
+
+    // Every chance roll of this game is made with these
+    private Dice dice;
+
+    // Runs the events of the world; every completed command is a tick
+    private Scheduler scheduler;
 
-        player = null;
+    // Tells the players nearby what this player does, or null if nobody else plays the same rooms
+    private InterestManager interest;
+
+    // Hears what the players nearby do, or null if nobody else plays the same rooms
+    private Subscriber subscriber;
+
+    // Counts what this game does, or null if nothing is counted
+    private Metrics metrics;
+
+    // Reports commands, combat and saves to a profiler, or null if nothing is reported
+    private Tracer tracer;
+
+    // What the player can reach, for working out what the names they type mean: the items of the current room,
+    // the items they hold, everything they can see, and the corpses of the current room
+    private Predicate<String> inRoom;
+    private Predicate<String> held;
+    private Predicate<String> inSight;
+    private Predicate<String> corpses;
+
+    public Engine(){
+        this(new World());
     }
 
     public Engine(Sentient _player){
-        roomMap = new HashMap<>();
-        enemies = new LinkedList<>();
-        itemsToRooms = new HashMap<>();
+        this(new World(), _player);
+    }
+
+    /**
+     * Creates an Engine that plays the World passed. The World is only ever read, so any number of Engines may
+     * play the same World at once, each with a player of its own.
+     *
+     * @param _world - World to play
+     */
+    public Engine(World _world){
+        this(_world, null);
+    }
+
+    public Engine(World _world, Sentient _player){
+        this(_world, new WorldState(), _player);
+    }
+
+    /**
+     * Creates an Engine that plays a shared game: the player is in the same rooms as every other player of the
+     * SharedWorldState passed, and an item one player takes is gone for the rest.
+     *
+     * @param shared - SharedWorldState of the game
+     */
+    public Engine(SharedWorldState shared){
+        this(shared.getWorld(), shared.newPlayerState(), null);
+
+        interest = shared.getInterest();
+        subscriber = new Subscriber(text -> output.println(text));
+    }
+
+    private Engine(World _world, WorldState _state, Sentient _player){
+        world = _world;
+        state = _state;
+        state.getLocations().setParent(world.getLocations());
+        configDirectory = ".";
+        isSaveEnabled = false;
+        commands = new Vocabulary<>();
+        verbs = new Vocabulary<>();
+        tokens = new Tokenizer();
+        output = Output.CONSOLE;
+        dice = new Dice();
+        scheduler = new Scheduler();
+        tracer = Tracer.DEFAULT;
 
         player = _player;
+
+        inRoom = name -> state.view(currentRoom).hasItem(name);
+        held = name -> player.hasItem(name);
+        inSight = name -> inRoom.test(name) || held.test(name) || state.view(currentRoom).hasSentient(name);
+        corpses = name -> state.view(currentRoom).getItem(name) instanceof Corpse;
+
+        addDefaultCommands();
     }
 
     /*
@@ -73,17 +164,7 @@ public class Engine {
      * @param description - String description of the room itself.
      */
     public void addRoom(String name, String engineName, String description){
-        if(name == null || description == null)
-            throw new RuntimeException("Cannot add a room without a name or description.");
-
-        if(name.isEmpty())
-            throw new RuntimeException("Cannot add a room with an empty String as the name.");
-
-        Room r = new Room(name, engineName, description);
-        roomMap.put(r.getEngineName(), r);
-
-        if(currentRoom == null)
-            currentRoom = r;
+        world.addRoom(name, engineName, description);
     }
 
     /**
@@ -96,18 +177,7 @@ public class Engine {
      * @param isTwoWay - true if the connection from room B to room A is possible.
      */
     public void addConnection(String roomEngineNameA, String roomEngineNameB, Direction direction, boolean isTwoWay){
-        if(roomMap.containsKey(roomEngineNameA) && roomMap.containsKey(roomEngineNameB)){
-            Room roomA = roomMap.get(roomEngineNameA);
-            Room roomB = roomMap.get(roomEngineNameB);
-
-            if(isTwoWay)
-                roomA.addTwoWayConnection(direction, roomB);
-            else
-                roomA.addOneWayConnection(direction, roomB);
-
-        } else {
-            throw new RuntimeException("Both rooms must exist in the engine before adding a connection.");
-        }
+        world.addConnection(roomEngineNameA, roomEngineNameB, direction, isTwoWay);
     }
 
     /**
@@ -120,23 +190,7 @@ public class Engine {
      * @param isTwoWay - true if the connection from room B to room A is possible.
      */
     public void addConnection(String roomEngineNameA, String roomEngineNameB, String direction, boolean isTwoWay){
-        if(roomMap.containsKey(roomEngineNameA) && roomMap.containsKey(roomEngineNameB)){
-            Room roomA = roomMap.get(roomEngineNameA);
-            Room roomB = roomMap.get(roomEngineNameB);
-
-            Direction d = Direction.toDirection(direction);
-
-            if(d == null)
-                throw new RuntimeException("Must provide a valid direction string; provided \"" + direction + "\"");
-
-            if(isTwoWay)
-                roomA.addTwoWayConnection(d, roomB);
-            else
-                roomA.addOneWayConnection(d, roomB);
-
-        } else {
-            throw new RuntimeException("Both rooms must exist in the engine before adding a connection.");
-        }
+        world.addConnection(roomEngineNameA, roomEngineNameB, direction, isTwoWay);
     }
 
 
@@ -150,17 +204,7 @@ public class Engine {
      * @param roomEngineName - String engine name of the room that the item will be added to
      */
     public void addItem(String itemPublicName, String itemEngineName, String itemDescription, String roomEngineName, boolean canBeTaken){
-        Room r = roomMap.get(roomEngineName);
-
-        if(r == null)
-            throw new RuntimeException("Cannot add an item to a non-existent room.");
-
-        Item i = new Item(itemPublicName, itemEngineName, itemDescription, canBeTaken);
-
-        r.addItem(i);
-
-        // Temporarily commented out - I haven't decided if I need this data structure or not yet.
-//        itemsToRooms.put(i, r);
+        world.addItem(itemPublicName, itemEngineName, itemDescription, roomEngineName, canBeTaken);
     }
 
     /**
@@ -190,101 +234,284 @@ public class Engine {
      * @param roomEngineName - String name of the room to add this Sentient to.
      */
     public void addSentient(String name, String description, int hp, double attack, int defense, int damage, double toHit, boolean isHostile, String roomEngineName){
-        Room r = roomMap.get(roomEngineName);
+        world.addSentient(name, description, hp, attack, defense, damage, toHit, isHostile, roomEngineName);
+    }
+
+    /**
+     * Adds a command that the player may type. Whenever a line starts with the verb passed, the command will be
+     * run. Adding a verb that already exists replaces the command that was there before, which lets an adventure
+     * change what any of the default commands do.
+     *
+     * @param verb - String first word of the command, such as "look"
+     * @param command - Command to run
+     */
+    public void addCommand(String verb, Command command){
+        if(verb.indexOf(' ') >= 0)
+            throw new RuntimeException("A verb must be a single word; provided \"" + verb + "\"");
 
-        if(r == null)
-            throw new RuntimeException("Must add Sentient to an already existent room.");
+        commands.put(verb, command);
+        verbs.put(verb, verb.toLowerCase());
+    }
 
-        Sentient s = new Sentient(name, description, hp, attack, defense, damage, toHit, isHostile);
-        r.addSentient(s);
+    /**
+     * Adds the commands that every game is expected to have.
+     */
+    private void addDefaultCommands(){
+        Command exit = tokens -> {
+            output.println("Exiting the game.");
+            quit();
+        };
+        addCommand("exit", exit);
+        addCommand("quit", exit);
+
+        // A direction on its own, like "n" or "north east", is a go command
+        Command direction = tokens -> go(tokens, 0);
+        for(String verb : new String[]{ "n", "ne", "e", "se", "s", "sw", "w", "nw", "north", "east", "south", "west", "up", "down" })
+            addCommand(verb, direction);
+
+        addCommand("go", tokens -> go(tokens, 1));
+        addCommand("look", this::look);
+
+        Command take = this::takeItem;
+        addCommand("take", take);
+        addCommand("get", take);
+
+        addCommand("drop", this::dropItem);
+        addCommand("loot", this::loot);
+        addCommand("save", this::save);
+        addCommand("attack", this::attack);
+        addCommand("help", tokens -> {
+            // TODO: Implement this
+        });
     }
 
     /**
-     * The game loop that runs the whole affair
+     * The game loop that runs the whole affair. Reads commands from System.in until the game ends.
      */
     public void playGame(){
-        // Check to make sure that there is a player of some sort that is ready to be used
-        if(player == null)
-            throw new RuntimeException("Game requires a player to play.");
+        Response response = start();
 
         // Now begin the actual gameplay
         input = new Scanner(System.in);
 
         // The never ending loop that handles everything
-        while(true){
-            System.out.println(currentRoom.getPublicName() + "\n");
-
-            // First check to see if we are in combat:
-            enemies = currentRoom.getHostileSentients();
-
-            // If we are in combat, let the enemies fight the player!
-            if(enemies.size() != 0 && !incompleteCommandFlag){
-                for(Sentient s : enemies){
-                    System.out.println("You were attacked by " + s.getName() + ".");
-
-                    if(s.attack(player)) {
-                        System.out.println("You were hit.");
-                        player.takeDamage(s.getDamage());
-                    } else
-                        System.out.println(s.getName() + " missed.");
-                }
-
-                printHealthStatus();
-
-                if(player.isDead()){
-                    System.out.println("GAME OVER");
-                    return;
-                }
-            }
+        while(!response.isGameEnded()){
+            System.out.print(">");
+            response = execute(input.nextLine());
+        }
 
-            if(!incompleteCommandFlag)
-                incompleteCommandFlag = !incompleteCommandFlag;
+        input.close();
+    }
 
-            // If the current room hasn't been visited, give a description of the room.
-            if(!currentRoom.isVisited()) {
-                printCurrentRoomDescription(); // Print out the description of the current room
-                currentRoom.visit(); // Visit this room so that the description doesn't show up again.
-            }
+    /**
+     * Starts the game, showing the player the room they begin in. This must be called once before any command
+     * is executed.
+     *
+     * @return Response describing how the game stands
+     */
+    public Response start(){
+        // Check to make sure that there is a player of some sort that is ready to be used
+        if(player == null)
+            throw new RuntimeException("Game requires a player to play.");
 
-            System.out.print(">");
+        if(currentRoom == null)
+            currentRoom = world.getStartingRoom();
 
-            String command = input.nextLine();
+        if(currentRoom == null)
+            throw new RuntimeException("Game requires at least one room to play.");
 
-            // The command parser. Takes what command was given and attempts to figure out what the user desired
-            if(command.toLowerCase().equals("exit") || command.toLowerCase().equals("quit")){
-                System.out.println("Exiting the game.");
-                input.close();
-                return; // Just returns to whatever application called this method
-            }
+        running = true;
+        incompleteCommandFlag = false;
 
-            else if(isCommandDirection(command)){
-                go(command);
-            }
+        // Whatever the player picks up is recorded with the rest of what this player has changed
+        player.setLocations(state.getLocations());
 
-            else if(command.startsWith("look")){
-                look(command.replace("look ", ""));
-            }
+        if(interest != null) {
+            interest.move(subscriber, currentRoom);
+            publish(player.getName() + " arrives.");
+        }
 
-            else if(command.startsWith("take") || command.startsWith("get")){
-                takeItem(command);
-            }
+        if(metrics != null)
+            metrics.sessionStarted();
 
-            else if(command.startsWith("drop")){
-                dropItem(command.replace("drop", "").trim());
-            }
+        return takeTurn(Response.DONE);
+    }
 
-            else if(command.startsWith("attack")){
-                // TODO: Implement this
-            }
+    /**
+     * Runs a single command as though the player had typed it, then lets the world respond to it. Everything
+     * the game says is written to the Output of this Engine.
+     *
+     * @param command - String command that the player gave
+     * @return Response describing what became of the command
+     */
+    public Response execute(String command){
+        if(!running)
+            throw new RuntimeException("Game must be started before executing commands.");
 
-            else if(command.startsWith("help")){
-                // TODO: Implement this
-            }
+        if(metrics == null && tracer == null)
+            return play(command);
+
+        Room room = currentRoom;
+        Object trace = tracer == null ? null : tracer.commandStarted();
+        long start = metrics == null ? 0 : System.nanoTime();
+
+        Response response = play(command);
+
+        if(metrics != null)
+            metrics.command(tokens.match(verbs, 0), System.nanoTime() - start);
+
+        if(trace != null)
+            tracer.commandEnded(trace, tokens.match(verbs, 0), room);
+
+        return response;
+    }
+
+    /**
+     * Runs a single command of a game that has started.
+     *
+     * @param command - String command that the player gave
+     * @return Response describing what became of the command
+     */
+    private Response play(String command){
+        incompleteCommandFlag = false;
 
-            else {
-                System.out.println("I don't understand that.");
+        // The command parser. Takes what command was given and attempts to figure out what the user desired
+        if(!runCommand(command)) {
+            output.println("I don't understand that.");
+            incompleteCommandFlag = true;
+            return takeTurn(Response.NOT_UNDERSTOOD);
+        }
+
+        if(!running)
+            return Response.EXITED; // Just returns to whatever called this method
+
+        // A completed command takes a tick, in which the rest of the world may act
+        if(!incompleteCommandFlag)
+            scheduler.advance();
+
+        return takeTurn(incompleteCommandFlag ? Response.INCOMPLETE : Response.DONE);
+    }
+
+    /**
+     * Shows the player where they are and lets any enemies fight. Enemies only fight if the command that was
+     * just run was completed.
+     *
+     * @param response - what became of the command that was just run
+     * @return the response passed, or GAME_OVER if the player died
+     */
+    private Response takeTurn(Response response){
+        output.println(currentRoom.getPublicName() + "\n");
+
+        // First check to see if we are in combat:
+        Horde horde = state.view(currentRoom).getHorde();
+
+        // If we are in combat, let the enemies fight the player!
+        if(horde.size() != 0 && !incompleteCommandFlag){
+            Object trace = tracer == null ? null : tracer.combatStarted();
+            CombatRound round = horde.attack(player, dice);
+
+            if(trace != null)
+                tracer.combatEnded(trace, currentRoom, round);
+
+            if(journal != null && round.getDamage() > 0)
+                journal.damagePlayer(round.getDamage());
+
+            if(metrics != null)
+                metrics.combatRound(round);
+
+            describe(round);
+            printHealthStatus();
+
+            if(player.isDead()){
+                output.println("GAME OVER");
+
+                if(metrics != null)
+                    metrics.playerKilled();
+
+                publish(player.getName() + " has been killed.");
+                quit();
+                endTurn();
+                return Response.GAME_OVER;
             }
+
+            publish(player.getName() + " is under attack.");
         }
+
+        // If the current room hasn't been visited, give a description of the room.
+        if(!state.isVisited(currentRoom)) {
+            printCurrentRoomDescription(); // Print out the description of the current room
+            state.visit(currentRoom); // Visit this room so that the description doesn't show up again.
+
+            if(metrics != null)
+                metrics.roomDiscovered();
+        }
+
+        endTurn();
+        return response;
+    }
+
+    /**
+     * Tells the player how a round of combat went: blow by blow against a few enemies, or in a line against a
+     * horde.
+     *
+     * @param round - CombatRound to describe
+     */
+    private void describe(CombatRound round){
+        if(round.getAttackCount() > DESCRIBED_ATTACKS) {
+            output.println("You were attacked by " + round.getAttackCount() + " enemies. " + round.getHitCount()
+                    + " hit you for " + round.getDamage() + " damage.");
+            return;
+        }
+
+        for(int i = 0; i < round.getAttackCount(); i++){
+            Sentient s = round.getAttacker(i);
+            output.println("You were attacked by " + s.getName() + ".");
+
+            if(round.isHit(i))
+                output.println("You were hit.");
+            else
+                output.println(s.getName() + " missed.");
+        }
+    }
+
+    /**
+     * Writes everything that changed this turn to the journal, if the game is journaled, and tells the player
+     * what the players nearby have done since the last turn, if the game is shared.
+     */
+    private void endTurn(){
+        if(journal != null)
+            journal.endTurn();
+
+        if(subscriber != null)
+            subscriber.flush();
+    }
+
+    /**
+     * Tells the players in and around the current room about something this player did. Does nothing unless
+     * other players play the same rooms.
+     *
+     * @param event - String line of text describing what happened
+     */
+    private void publish(String event){
+        if(interest != null)
+            interest.publish(currentRoom, event, subscriber);
+    }
+
+    /**
+     * Ends the game. In a shared game the player leaves the rooms of the other players, who stop telling them
+     * what happens. Does nothing if the game has already ended.
+     */
+    public void quit(){
+        if(!running)
+            return;
+
+        running = false;
+
+        if(interest != null)
+            interest.leave(subscriber);
+
+        if(metrics != null)
+            metrics.sessionEnded();
     }
 
     /**
@@ -297,23 +524,23 @@ public class Engine {
         switch(player.getCurrentHitPoints()){
             case 7:
             case 6:
-                System.out.println("You have a few scratches");
+                output.println("You have a few scratches");
                 break;
             case 5:
             case 4:
-                System.out.println("You're bleeding a small amount.");
+                output.println("You're bleeding a small amount.");
                 break;
             case 3:
             case 2:
-                System.out.println("You're bleeding a lot.");
+                output.println("You're bleeding a lot.");
                 break;
             case 1:
-                System.out.println("You are on the verge of death.");
+                output.println("You are on the verge of death.");
                 break;
             case 0:
-                System.out.println("You have been killed.");
+                output.println("You have been killed.");
             default:
-                System.out.println("You are feeling healthy.");
+                output.println("You are feeling healthy.");
         }
     }
 
@@ -321,128 +548,456 @@ public class Engine {
      * Prints the description of the current room.
      */
     private void printCurrentRoomDescription(){
-        System.out.println(currentRoom.getDescription() + "\n");
+        output.println(currentRoom.getDescription() + "\n");
 
-        for(Item i : currentRoom.getItems())
-            System.out.println("There is a " + i.getPublicName().toLowerCase() + ".");
+        for(Item i : state.view(currentRoom).getItems())
+            output.println("There is a " + i.getPublicName().toLowerCase() + ".");
     }
 
     /**
-     * Returns true if the line passed is a direction
+     * Finds the command matching the first word of the line passed and runs it. Returns false if no command
+     * starts with that word.
+     *
      * @param line - String command received from the user
-     * @return true if the line is a "go" command
+     * @return true if a command was run
      */
-    private boolean isCommandDirection(String line){
-        if((line.length() == 1 && line.matches("[news]")) || (line.length() == 2 && line.matches("[ns][ew]")) || line.toLowerCase().contains("go")) {
-            line = line.toLowerCase().replace("go", "");
-            return true;
-        }
+    private boolean runCommand(String line){
+        tokens.tokenize(line);
 
-        return false;
+        Command c = tokens.match(commands, 0);
+
+        if(c == null)
+            return false;
+
+        c.execute(tokens);
+        return true;
     }
 
     /**
-     * Parses and runs the command "look" using the line given.
+     * Returns the lower case name of the one item or sentient in scope named by the words from first to the end
+     * of the line, or null if there is no such thing or more than one. Things may be named by their full names,
+     * by their last words or by the beginning of either - see NameIndex. A leading "at" and "the" are skipped,
+     * so "look bird", "look at bird" and "look at the bird" all name the bird. Things the World was never told
+     * the names of, such as an item given to a sentient after the World was built, answer to their full names.
      *
-     * @param line - String command that the user gave
+     * @param tokens - words of the line that the user typed
+     * @param first - index of the first word of the name
+     * @param scope - test of whether a name is in reach
+     * @return String name or null
      */
-    private void look(String line){
-        Scanner s = new Scanner(line);
+    private String findName(Tokenizer tokens, int first, Predicate<String> scope){
+        if(tokens.matches(first, "at"))
+            first++;
+
+        if(tokens.matches(first, "the"))
+            first++;
+
+        int last = tokens.size() - 1;
+        String name = tokens.match(world.getNames(), first, last, scope);
 
+        if(name != null || first > last)
+            return name;
+
+        String typed = tokens.subSequence(tokens.start(first), tokens.end(last)).toString();
+
+        return scope.test(typed) ? typed : null;
+    }
+
+    /**
+     * Parses and runs the command "look" using the line given.
+     *
+     * @param tokens - words of the command that the user gave
+     */
+    private void look(Tokenizer tokens){
         // If the simple look command was run then show the description of the room and any items
         // left inside.
-        if(!s.hasNext()) {
+        if(tokens.size() == 1) {
             printCurrentRoomDescription();
-        } else if(s.next().toLowerCase().equals("at")){
-            String thing = s.next();
-
-            if(thing == null || !currentRoom.hasItem(thing) || !currentRoom.hasSentient(thing)){
-                System.out.println("Look at what?");
-                incompleteCommandFlag = true;
-            } else if (currentRoom.hasItem(thing)) {
-                System.out.println(currentRoom.getItem(thing).getDescription());
-            } else if (player.hasItem(thing)) {
-                System.out.println(player.getItem(thing).getDescription());
-            } else {
-                System.out.println(currentRoom.getSentient(thing).getDescription());
-            }
+            return;
         }
 
-        s.close();
+        String thing = findName(tokens, 1, inSight);
+        Room room = state.view(currentRoom);
+
+        if(thing != null && room.hasItem(thing)) {
+            output.println(room.getItem(thing).getDescription());
+        } else if(thing != null && player.hasItem(thing)) {
+            output.println(player.getItem(thing).getDescription());
+        } else if(thing != null && room.hasSentient(thing)) {
+            output.println(room.getSentient(thing).getDescription());
+        } else {
+            output.println("Look at what?");
+            incompleteCommandFlag = true;
+        }
     }
 
     /**
-     * Makes the player go in the direction passed.
+     * Makes the player go in the direction made from the words starting at the word passed.
      *
-     * @param line - String direction that the player must go
+     * @param tokens - words of the command that the user gave
+     * @param first - index of the first word of the direction
      */
-    private void go(String line){
-        Direction d = Direction.toDirection(line.trim().toLowerCase());
+    private void go(Tokenizer tokens, int first){
+        Direction d = null;
+
+        if(first < tokens.size())
+            d = Direction.toDirection(tokens, tokens.start(first), tokens.end(tokens.size() - 1));
+
+        if(d != null && currentRoom.getConnection(d) != null) {
+            publish(player.getName() + " goes " + Direction.toString(d).toLowerCase() + ".");
 
-        if(d != null && currentRoom.getConnection(d) != null)
             currentRoom = currentRoom.getConnection(d);
-        else
-            System.out.println("It isn't possible to go that way.");
+
+            if(interest != null) {
+                interest.move(subscriber, currentRoom);
+                publish(player.getName() + " arrives.");
+            }
+
+            if(journal != null)
+                journal.go(currentRoom);
+
+            if(metrics != null)
+                metrics.roomEntered();
+        } else
+            output.println("It isn't possible to go that way.");
     }
 
     /**
      * Parses and runs the command "take" using the line given.
      *
-     * @param line - String command that the user gave
+     * @param tokens - words of the command that the user gave
      */
-    private void takeItem(String line){
-        line = line.replace("take", "");
-        line = line.replace("get", "");
-        line = line.trim();
+    private void takeItem(Tokenizer tokens){
+        if(tokens.size() == 1){
+            output.println("Take what?");
+            incompleteCommandFlag = true;
+            return;
+        }
+
+        String name = findName(tokens, 1, inRoom);
+
+        if(name != null && state.view(currentRoom).hasItem(name)){
+            if(state.take(currentRoom, name, player) == null) {
+                output.println("You can't take that.");
+                return;
+            }
+
+            output.println("Taken.");
+            publish(player.getName() + " takes the " + name + ".");
+
+            if(journal != null)
+                journal.take(name);
+
+            if(metrics != null)
+                metrics.itemTaken();
+        } else {
+            output.println("That doesn't seem to be here.");
+        }
+    }
 
-        if(line.isEmpty()){
-            System.out.println("Take what?");
+    /**
+     * Parses and runs the command "drop" using the line given.
+     *
+     * @param tokens - words of the command that the user gave
+     */
+    private void dropItem(Tokenizer tokens){
+        if(tokens.size() == 1){
+            output.println("Drop what?");
             incompleteCommandFlag = true;
             return;
         }
 
-        if(currentRoom.hasItem(line.toLowerCase())){
-            Item i = currentRoom.takeItem(line.toLowerCase());
-            player.addItem(i);
-            System.out.println("Taken.");
+        String name = findName(tokens, 1, held);
+
+        if(name != null && player.hasItem(name)){
+            if(state.drop(player, name, currentRoom) == null) {
+                output.println("There is already one of those here.");
+                return;
+            }
+
+            output.println("Dropped.");
+            publish(player.getName() + " drops the " + name + ".");
+
+            if(journal != null)
+                journal.drop(name);
+
+            if(metrics != null)
+                metrics.itemDropped();
         } else {
-            System.out.println("That doesn't seem to be here.");
+            output.println("You don't have that.");
         }
     }
 
-    private void dropItem(String line){
+    /**
+     * Parses and runs the command "loot" using the line given, taking everything the corpse named holds.
+     *
+     * @param tokens - words of the command that the user gave
+     */
+    private void loot(Tokenizer tokens){
+        if(tokens.size() == 1){
+            output.println("Loot what?");
+            incompleteCommandFlag = true;
+            return;
+        }
+
+        String name = findName(tokens, 1, corpses);
+
+        if(name == null){
+            output.println("There is no corpse like that here.");
+            return;
+        }
+
+        Corpse corpse = (Corpse) state.edit(currentRoom).getItem(name);
+        int looted = 0;
+
+        for(Item i : corpse.lootCorpse()){
+            String itemName = i.getPublicName().toLowerCase();
+
+            if(state.loot(currentRoom, corpse, itemName, player) != null){
+                output.println("You take the " + itemName + ".");
+                publish(player.getName() + " takes the " + itemName + " from the " + name + ".");
+                looted++;
+
+                if(journal != null)
+                    journal.loot(name, itemName);
 
+                if(metrics != null)
+                    metrics.itemLooted();
+            }
+        }
+
+        if(looted == 0)
+            output.println("There is nothing to take.");
     }
 
     /**
-     * Parses and runs the command "drop" using the line given.
+     * Runs the command "save", saving the game if the adventure allows it.
      *
-     * @param line - String command that the user gave
+     * @param tokens - words of the command that the user gave
      */
-    private void drop(String line){
-        // TODO: Implement this
+    private void save(Tokenizer tokens){
+        if(!isSaveEnabled){
+            output.println("Saving isn't allowed in this adventure.");
+            incompleteCommandFlag = true;
+            return;
+        }
+
+        try {
+            saveConfigurationFile();
+            output.println("Saved.");
+        } catch(RuntimeException e) {
+            output.println("The game could not be saved.");
+            incompleteCommandFlag = true;
+        }
     }
 
     /**
      * Parses and runs the command "attack" using the line given.
      *
-     * @param line - String command tha the user gave
+     * @param tokens - words of the command that the user gave
      */
-    private void attack(String line){
+    private void attack(Tokenizer tokens){
         // TODO: Implement this
     }
 
+    /*
+    Getters and Setters are all here:
+     */
+
+    /**
+     * Sets where everything the game says to the player is written.
+     *
+     * @param _output - Output to write to
+     */
+    public void setOutput(Output _output){
+        output = _output;
+    }
+
+    public Output getOutput(){
+        return output;
+    }
+
+    /**
+     * Sets the journal that records every change made to the game. Journal.create() and Journal.recover() set
+     * this themselves.
+     *
+     * @param _journal - Journal to record changes in, or null to stop journaling
+     */
+    public void setJournal(Journal _journal){
+        journal = _journal;
+    }
+
+    public Journal getJournal(){
+        return journal;
+    }
+
+    /**
+     * Sets the metrics that count what this game does. Many Engines may share the same Metrics. Must be set
+     * before the game starts, so that the game is counted as a session.
+     *
+     * @param _metrics - Metrics to count in, or null to count nothing
+     */
+    public void setMetrics(Metrics _metrics){
+        if(running)
+            throw new RuntimeException("Metrics must be set before the game starts.");
+
+        metrics = _metrics;
+    }
+
+    public Metrics getMetrics(){
+        return metrics;
+    }
+
+    /**
+     * Sets where this game reports its commands, combat and saves. Every Engine starts with Tracer.DEFAULT.
+     *
+     * @param _tracer - Tracer to report to, or null to report nothing
+     */
+    public void setTracer(Tracer _tracer){
+        tracer = _tracer;
+    }
+
+    public Tracer getTracer(){
+        return tracer;
+    }
+
+    /**
+     * Sets the Dice that every chance roll of this game is made with. A game given Dice with the same seed and
+     * the same commands plays out exactly the same way.
+     *
+     * @param _dice - Dice to roll
+     */
+    public void setDice(Dice _dice){
+        dice = _dice;
+    }
+
+    public Dice getDice(){
+        return dice;
+    }
+
+    /**
+     * Returns the index of where every item and sentient is, as this player sees them: in a room, held by a
+     * sentient or by the player, or in a corpse.
+     *
+     * @return LocationIndex of this game
+     */
+    public LocationIndex getLocations(){
+        return state.getLocations();
+    }
+
+    /**
+     * Returns what hears the players nearby, so that events can be sent as they happen rather than with the
+     * next turn.
+     *
+     * @return Subscriber of this player, or null if the game isn't shared
+     */
+    public Subscriber getSubscriber(){
+        return subscriber;
+    }
+
+    public Scheduler getScheduler(){
+        return scheduler;
+    }
+
+    /**
+     * Returns the room the player is in, as this player sees it.
+     *
+     * @return Room the player is in
+     */
+    public Room getCurrentRoom(){
+        return currentRoom == null ? null : state.view(currentRoom);
+    }
+
+    public World getWorld(){
+        return world;
+    }
+
+    public WorldState getState(){
+        return state;
+    }
+
+    public Sentient getPlayer(){
+        return player;
+    }
+
+    /**
+     * Moves the player to the room passed without taking a turn. Used when loading a saved game.
+     *
+     * @param room - Room of the World
+     */
+    void restoreCurrentRoom(Room room){
+        currentRoom = room;
+    }
+
+    /**
+     * Sets the directory where the game will be saved.
+     *
+     * @param directory - String path of the directory
+     */
+    public void setConfigDirectory(String directory){
+        configDirectory = directory;
+    }
+
+    public String getConfigDirectory(){
+        return configDirectory;
+    }
+
+    /**
+     * Sets whether the player is allowed to save the game with the "save" command.
+     *
+     * @param saveEnabled - true to allow saving
+     */
+    public void setSaveEnabled(boolean saveEnabled){
+        isSaveEnabled = saveEnabled;
+    }
+
+    public boolean isSaveEnabled(){
+        return isSaveEnabled;
+    }
+
     /**
      * Saves the configuration of this engine at the directory saved above.
      */
     public void saveConfigurationFile(){
-        // TODO: Implement this
+        try {
+            SaveFile.save(this, configurationFile(configDirectory));
+        } catch(IOException e) {
+            throw new RuntimeException("Could not save the game to \"" + configDirectory + "\".", e);
+        }
     }
 
     /**
      * Deletes the configuration file completely. Returns the file to a default configuration.
      */
     public void deleteConfigurationFile(){
-        // TODO: Implement this
+        try {
+            Files.deleteIfExists(configurationFile(configDirectory));
+        } catch(IOException e) {
+            throw new RuntimeException("Could not delete the saved game in \"" + configDirectory + "\".", e);
+        }
+    }
+
+    /**
+     * Loads the game saved in the directory passed into a new Engine. The Engine has the default commands and
+     * saving enabled in the same directory; any commands added to the Engine that saved the game must be added
+     * again.
+     *
+     * @param directory - String path of the directory the game was saved in
+     * @return Engine ready to continue the saved game
+     */
+    public static Engine loadConfigurationFile(String directory){
+        try {
+            Engine e = SaveFile.load(configurationFile(directory));
+            e.setConfigDirectory(directory);
+            e.setSaveEnabled(true);
+
+            return e;
+        } catch(IOException e) {
+            throw new RuntimeException("Could not load the saved game in \"" + directory + "\".", e);
+        }
+    }
+
+    private static Path configurationFile(String directory){
+        return Paths.get(directory, SaveFile.FILE_NAME);
     }
 }
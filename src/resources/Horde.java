@@ -0,0 +1,151 @@
+package resources;
+
+import java.util.ArrayList;
+
+/**
+ * Horde
+ *
+ * The hostile sentients of a room, laid out for fighting many at once. The numbers each sentient fights with
+ * are copied into arrays - one array per number, one entry per sentient - so that a whole round of combat is a
+ * single loop over a few arrays rather than a walk over hundreds of Sentient objects.
+ *
+ * A Room keeps its Horde and makes a new one whenever a sentient joins or leaves it. Changes made to the
+ * numbers of a sentient while it is in a Horde (equipping a weapon, say) are not seen until the room makes a
+ * new Horde; see Room.refreshHorde().
+ *
+ * A Horde belonging to a room of a shared World may be read by many games at once. Only damageAll() changes
+ * a Horde, so it must only be called on the Horde of a player's own copy of a room.
+ */
+public class Horde {
+
+    // The sentients of the horde
+    private Sentient[] members;
+
+    // The chance each member has of hitting, before the toHit of its target
+    private double[] attack;
+
+    // The damage each member deals on a hit
+    private int[] damage;
+
+    // The defense of each member
+    private int[] defense;
+
+    // The chance of hitting each member
+    private double[] toHit;
+
+    // The hit points each member has left
+    private int[] hitPoints;
+
+    /**
+     * Creates a Horde of the sentients passed that are hostile and alive.
+     *
+     * @param sentients - Sentients to choose from
+     */
+    Horde(Iterable<Sentient> sentients){
+        ArrayList<Sentient> hostile = new ArrayList<>();
+
+        for(Sentient s : sentients)
+            if(s.isHostile() && !s.isDead())
+                hostile.add(s);
+
+        int n = hostile.size();
+        members = hostile.toArray(new Sentient[n]);
+        attack = new double[n];
+        damage = new int[n];
+        defense = new int[n];
+        toHit = new double[n];
+        hitPoints = new int[n];
+
+        for(int i = 0; i < n; i++){
+            Sentient s = members[i];
+
+            attack[i] = s.getAttack();
+            damage[i] = s.getDamage();
+            defense[i] = s.getDefense();
+            toHit[i] = s.getToHit();
+            hitPoints[i] = s.getCurrentHitPoints();
+        }
+    }
+
+    /**
+     * Has every member attack the target passed once, in order, with one roll of the dice each - the same
+     * rolls the members would make attacking one at a time - and applies all the damage at once.
+     *
+     * @param target - Sentient being attacked
+     * @param dice - Dice to roll
+     * @return CombatRound describing what happened
+     */
+    public CombatRound attack(Sentient target, Dice dice){
+        int n = members.length;
+        long[] hits = new long[(n + 63) >>> 6];
+        int hitCount = 0;
+        int total = 0;
+
+        double targetToHit = target.getToHit();
+        int targetDefense = target.getDefense();
+
+        for(int i = 0; i < n; i++){
+            if(dice.nextDouble() + attack[i] >= targetToHit) {
+                hits[i >>> 6] |= 1L << i;
+                hitCount++;
+                total += Math.max(0, damage[i] - targetDefense);
+            }
+        }
+
+        target.loseHitPoints(total);
+
+        return new CombatRound(members, hits, hitCount, total, target.isDead());
+    }
+
+    /**
+     * Deals the damage passed to every member at once, less each member's defense, as a blast or a sweep of a
+     * weapon would.
+     *
+     * @param amount - int damage dealt to each member
+     * @return int number of members killed
+     */
+    public int damageAll(int amount){
+        int killed = 0;
+
+        for(int i = 0; i < members.length; i++){
+            int loss = Math.max(0, amount - defense[i]);
+
+            if(loss == 0 || hitPoints[i] <= 0)
+                continue;
+
+            hitPoints[i] -= loss;
+            members[i].loseHitPoints(loss);
+
+            if(hitPoints[i] <= 0)
+                killed++;
+        }
+
+        return killed;
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    public int size(){
+        return members.length;
+    }
+
+    public Sentient getMember(int i){
+        return members[i];
+    }
+
+    /**
+     * Returns the total hit points the members have left.
+     *
+     * @return int hit points
+     */
+    public int getTotalHitPoints(){
+        int total = 0;
+
+        for(int hp : hitPoints)
+            total += Math.max(0, hp);
+
+        return total;
+    }
+}
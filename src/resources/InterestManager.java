@@ -0,0 +1,171 @@
+package resources;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * InterestManager
+ *
+ * Decides which players of a shared game hear about an event. Rather than every event going to every player,
+ * each Subscriber listens to the room its player is in and, with a radius above zero, to the rooms up to that
+ * many exits away. An event published in a room is queued only for the subscribers listening to that room, so
+ * publishing costs time in proportion to the number of players nearby, however many are playing.
+ *
+ * Subscribers are kept in a set for each room that has any, keyed by engine name. When a player moves, the rooms
+ * they no longer hear are left and the rooms they now hear are joined; rooms within reach of both the old and
+ * the new room aren't touched.
+ */
+public class InterestManager {
+
+    // The subscribers listening to each room, by the engine name of the room. Rooms nobody listens to have none.
+    private ConcurrentHashMap<String, Set<Subscriber>> listeners;
+
+    // How many exits away from their own room players hear events
+    private volatile int radius;
+
+    public InterestManager(){
+        this(0);
+    }
+
+    /**
+     * Creates an InterestManager for players that hear events up to the number of exits passed away.
+     *
+     * @param _radius - int number of exits; 0 to hear only the room the player is in
+     */
+    public InterestManager(int _radius){
+        setRadius(_radius);
+
+        listeners = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Moves the subscriber passed to the room passed, so that it hears the events of that room and the rooms
+     * around it. Moving to null stops the subscriber hearing anything.
+     *
+     * @param s - Subscriber to move
+     * @param room - Room the player is now in, or null if the player has left the game
+     */
+    public void move(Subscriber s, Room room){
+        Set<String> now = room == null ? new HashSet<>() : roomsWithin(room, radius);
+
+        synchronized(s) {
+            Set<String> before = s.getRooms();
+
+            for(String name : before)
+                if(!now.contains(name))
+                    listeners.computeIfPresent(name, (k, set) -> {
+                        set.remove(s);
+                        return set.isEmpty() ? null : set;
+                    });
+
+            for(String name : now)
+                if(!before.contains(name))
+                    listeners.compute(name, (k, set) -> {
+                        if(set == null)
+                            set = ConcurrentHashMap.newKeySet();
+
+                        set.add(s);
+                        return set;
+                    });
+
+            before.clear();
+            before.addAll(now);
+        }
+    }
+
+    /**
+     * Stops the subscriber passed hearing any events.
+     *
+     * @param s - Subscriber leaving the game
+     */
+    public void leave(Subscriber s){
+        move(s, null);
+    }
+
+    /**
+     * Queues the event passed for every subscriber listening to the room passed, except the one passed, and
+     * returns how many subscribers it was queued for.
+     *
+     * @param room - Room the event happened in
+     * @param event - String line of text describing the event
+     * @param except - Subscriber that caused the event, who isn't told about it, or null
+     * @return int number of subscribers the event was queued for
+     */
+    public int publish(Room room, String event, Subscriber except){
+        Set<Subscriber> set = listeners.get(room.getEngineName());
+
+        if(set == null)
+            return 0;
+
+        int count = 0;
+        for(Subscriber s : set){
+            if(s != except) {
+                s.deliver(event);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the engine names of the room passed and every room up to the number of exits passed away from it.
+     */
+    private static Set<String> roomsWithin(Room room, int radius){
+        HashSet<String> found = new HashSet<>();
+        found.add(room.getEngineName());
+
+        ArrayDeque<Room> frontier = new ArrayDeque<>();
+        frontier.add(room);
+
+        for(int hop = 0; hop < radius && !frontier.isEmpty(); hop++){
+            for(int i = frontier.size(); i > 0; i--){
+                Room r = frontier.poll();
+
+                for(Direction d : Direction.values()){
+                    Room next = r.getConnection(d);
+
+                    if(next != null && found.add(next.getEngineName()))
+                        frontier.add(next);
+                }
+            }
+        }
+
+        return found;
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    /**
+     * Returns the number of subscribers listening to the room passed.
+     *
+     * @param room - Room of the World
+     * @return int number of subscribers
+     */
+    public int getListenerCount(Room room){
+        Set<Subscriber> set = listeners.get(room.getEngineName());
+
+        return set == null ? 0 : set.size();
+    }
+
+    public int getRadius(){
+        return radius;
+    }
+
+    /**
+     * Sets how many exits away players hear events. Players already in the game hear the new number of rooms
+     * from the next time they move.
+     *
+     * @param _radius - int number of exits, 0 or more
+     */
+    public void setRadius(int _radius){
+        if(_radius < 0)
+            throw new RuntimeException("The radius can't be negative.");
+
+        radius = _radius;
+    }
+}
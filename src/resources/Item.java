@@ -1,9 +1,14 @@
 package resources;
 
+import java.io.Serializable;
+
 /**
  * Item class - represents an item of some sort in a command line text adventure game.
  */
-public class Item {
+public class Item implements Serializable {
+
+    // Version of the Java serialized form of this class
+    private static final long serialVersionUID = 1L;
 
     // The name of this item
     private String publicName;
@@ -38,7 +43,7 @@ public class Item {
     }
 
     public Item(Sentient s){
-        publicName = "Corpse of " + s.getName();
+        publicName = Corpse.nameOf(s.getName());
         description = "This is the corpse of " + s.getName();
         canBeTaken = false;
         quantity = 1;
@@ -48,7 +53,16 @@ public class Item {
      * Prints description of the item.
      */
     public void look(){
-        System.out.println(description);
+        look(Output.CONSOLE);
+    }
+
+    /**
+     * Prints description of the item on the output passed.
+     *
+     * @param output - Output to write to
+     */
+    public void look(Output output){
+        output.println(description);
     }
 
     public String toString(){
@@ -90,6 +104,10 @@ public class Item {
         return quantity;
     }
 
+    public void setQuantity(int _quantity){
+        quantity = _quantity;
+    }
+
     public boolean canBeTaken(){
         return canBeTaken;
     }
@@ -0,0 +1,545 @@
+package resources;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * Journal
+ *
+ * Keeps a game durable without saving the whole game after every command. The Engine records each change the player
+ * makes - moving, taking, dropping and looting items, damage to the player - and each sentient that Behaviors move,
+ * heal or respawn as a small record, and at the end of every turn the records of that turn are appended to the
+ * journal in one sequential write. Damage to other sentients isn't journaled yet: nothing the player can do damages
+ * them until the attack command is implemented. No sentient dies during a game until then either, so there are no
+ * deaths or corpses to journal. Once damage to sentients is journaled, replaying it will make the same corpses,
+ * since a sentient turns into a corpse the moment it dies.
+ *
+ * A journal directory holds numbered snapshots (SaveFiles) and numbered journals:
+ *
+ *     adventure.0.tacfg   the game as it was when journaling began
+ *     adventure.1.tajl    everything that happened after snapshot 0
+ *     adventure.2.tajl    everything that happened after journal 1
+ *
+ * Recovering loads the newest snapshot and replays every later journal on top of it. Compacting starts a new
+ * journal and then, in the background, folds the older journals into a new snapshot and deletes them. If the
+ * game crashes part way through compacting, recovery still works: the old snapshot and journals are only
+ * deleted once the new snapshot has been written, and journals older than the newest snapshot are ignored.
+ *
+ * Each turn is written as a frame holding its length and a CRC32 of its records, so a turn that was only
+ * partly written when the game crashed is recognized and dropped.
+ */
+public class Journal implements AutoCloseable {
+
+    // The version of the format written by this class. Version 2 added the records of behaviors; journals of
+    // version 1 are still replayed.
+    public static final int VERSION = 2;
+
+    // The first four bytes of every journal - "TAJL"
+    private static final int MAGIC = 0x54414A4C;
+
+    // The size of the header of a journal and of each frame in bytes
+    private static final int HEADER_SIZE = 8;
+    private static final int FRAME_HEADER_SIZE = 8;
+
+    // The kinds of record
+    private static final byte GO = 1;
+    private static final byte TAKE = 2;
+    private static final byte DROP = 3;
+    private static final byte PLAYER_DAMAGE = 4;
+    private static final byte LOOT = 6;
+    private static final byte SENTIENT_MOVED = 7;
+    private static final byte SENTIENT_HEALED = 8;
+    private static final byte SENTIENT_SPAWNED = 9;
+
+    // The directory holding the snapshots and journals
+    private Path directory;
+
+    // The number of the journal being written
+    private int generation;
+
+    // The number of the newest snapshot that is complete
+    private volatile int snapshotGeneration;
+
+    // The journal being written
+    private FileChannel channel;
+
+    // The records of the current turn, after room for the frame header
+    private ByteBuffer turn;
+
+    // True if every turn is forced to disk before the command returns
+    private boolean sync;
+
+    // The number of bytes in the current journal
+    private long size;
+
+    // Once the current journal is this large it is compacted; 0 never compacts automatically
+    private long compactionThreshold;
+
+    // Folds journals into snapshots in the background
+    private ExecutorService compactor;
+
+    // The compaction in progress, or null
+    private Future<?> compaction;
+
+    // Checksums each frame
+    private CRC32 crc;
+
+    private Journal(Path _directory, int _snapshotGeneration, int _generation, boolean _sync) throws IOException {
+        directory = _directory;
+        snapshotGeneration = _snapshotGeneration;
+        sync = _sync;
+        compactionThreshold = 0;
+
+        turn = ByteBuffer.allocate(256);
+        turn.position(FRAME_HEADER_SIZE);
+        crc = new CRC32();
+
+        compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "journal-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+
+        open(_generation);
+    }
+
+    /**
+     * Begins journaling the game played by the engine passed. The game is saved as it is now as the first
+     * snapshot, and from then on every change the engine makes is journaled.
+     *
+     * @param engine - Engine to journal
+     * @param directory - Path of an empty or new directory to keep the snapshots and journals in
+     * @param sync - true to force every turn to disk before the command returns
+     * @return the Journal, which is now attached to the engine
+     * @throws IOException if the snapshot or journal can't be written
+     */
+    public static Journal create(Engine engine, Path directory, boolean sync) throws IOException {
+        Files.createDirectories(directory);
+
+        if(latestSnapshot(directory) >= 0)
+            throw new IOException("Directory " + directory + " already holds a journaled game; recover it instead.");
+
+        SaveFile.save(engine, snapshot(directory, 0));
+
+        Journal j = new Journal(directory, 0, 1, sync);
+        engine.setJournal(j);
+
+        return j;
+    }
+
+    /**
+     * Recovers the journaled game in the directory passed: the newest snapshot is loaded and every journal
+     * written after it is replayed. The game carries on journaling in the same directory.
+     *
+     * @param directory - Path of the directory holding the game
+     * @param sync - true to force every turn to disk before the command returns
+     * @return Engine ready to continue the game, with the journal attached
+     * @throws IOException if the game can't be read
+     */
+    public static Engine recover(Path directory, boolean sync) throws IOException {
+        int snapshot = latestSnapshot(directory);
+
+        if(snapshot < 0)
+            throw new IOException("Directory " + directory + " holds no journaled game.");
+
+        Engine engine = SaveFile.load(snapshot(directory, snapshot));
+        int last = replay(engine, directory, snapshot);
+
+        engine.setJournal(new Journal(directory, snapshot, last + 1, sync));
+
+        return engine;
+    }
+
+    /*
+     * Recording - called by the Engine as changes are made
+     */
+
+    void go(Room room){
+        record(GO);
+        putString(room.getEngineName());
+    }
+
+    void take(String itemName){
+        record(TAKE);
+        putString(itemName);
+    }
+
+    void drop(String itemName){
+        record(DROP);
+        putString(itemName);
+    }
+
+    void loot(String corpseName, String itemName){
+        record(LOOT);
+        putString(corpseName);
+        putString(itemName);
+    }
+
+    void damagePlayer(int hitPointsLost){
+        record(PLAYER_DAMAGE);
+        turn.putInt(hitPointsLost);
+    }
+
+    void sentientMoved(String sentientName, Room from, Room to){
+        record(SENTIENT_MOVED);
+        putString(sentientName);
+        putString(from.getEngineName());
+        putString(to.getEngineName());
+    }
+
+    void sentientHealed(String sentientName, Room room, int amount){
+        record(SENTIENT_HEALED);
+        putString(sentientName);
+        putString(room.getEngineName());
+        turn.putInt(amount);
+    }
+
+    /**
+     * Records a new sentient put in the room passed, written out in full as a SaveFile writes it.
+     */
+    void sentientSpawned(Room room, Sentient s){
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try {
+            SaveFile.Writer out = new SaveFile.Writer(Channels.newChannel(bytes));
+            SaveFile.writeSentient(s, out);
+            out.flush();
+        } catch(IOException e) {
+            throw new RuntimeException("Could not journal " + s.getName() + ".", e);
+        }
+
+        record(SENTIENT_SPAWNED);
+        putString(room.getEngineName());
+
+        ensure(bytes.size());
+        turn.put(bytes.toByteArray());
+    }
+
+    /**
+     * Writes the records of the turn that just ended, if there were any, as a single frame.
+     */
+    void endTurn(){
+        int length = turn.position() - FRAME_HEADER_SIZE;
+
+        if(length == 0)
+            return;
+
+        crc.reset();
+        crc.update(turn.array(), FRAME_HEADER_SIZE, length);
+
+        turn.putInt(0, length);
+        turn.putInt(4, (int) crc.getValue());
+        turn.flip();
+
+        try {
+            while(turn.hasRemaining())
+                size += channel.write(turn);
+
+            if(sync)
+                channel.force(false);
+        } catch(IOException e) {
+            throw new RuntimeException("Could not write to the journal in \"" + directory + "\".", e);
+        } finally {
+            turn.clear();
+            turn.position(FRAME_HEADER_SIZE);
+        }
+
+        if(compactionThreshold > 0 && size >= compactionThreshold)
+            compact();
+    }
+
+    /*
+     * Compaction
+     */
+
+    /**
+     * Starts a new journal and folds the journals before it into a new snapshot in the background. Does
+     * nothing if a compaction is already running.
+     */
+    public void compact(){
+        if(compaction != null && !compaction.isDone())
+            return;
+
+        int base = snapshotGeneration;
+        int last = generation;
+
+        try {
+            channel.close();
+            open(last + 1);
+        } catch(IOException e) {
+            throw new RuntimeException("Could not start a new journal in \"" + directory + "\".", e);
+        }
+
+        compaction = compactor.submit(() -> {
+            fold(base, last);
+            return null;
+        });
+    }
+
+    /**
+     * Waits for a compaction in progress to finish.
+     */
+    public void awaitCompaction(){
+        if(compaction == null)
+            return;
+
+        try {
+            compaction.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException e) {
+            throw new RuntimeException("Could not compact the journal in \"" + directory + "\".", e.getCause());
+        }
+    }
+
+    /**
+     * Loads snapshot base, replays the journals after it up to last, saves the result as snapshot last and
+     * deletes what it replaced.
+     */
+    private void fold(int base, int last) throws IOException {
+        Engine engine = SaveFile.load(snapshot(directory, base));
+        replay(engine, directory, base, last);
+
+        SaveFile.save(engine, snapshot(directory, last));
+        snapshotGeneration = last;
+
+        Files.deleteIfExists(snapshot(directory, base));
+        for(int g = base + 1; g <= last; g++)
+            Files.deleteIfExists(journal(directory, g));
+    }
+
+    /**
+     * Finishes any compaction and closes the journal.
+     */
+    @Override
+    public void close(){
+        awaitCompaction();
+        compactor.shutdown();
+
+        try {
+            channel.close();
+        } catch(IOException e) {
+            throw new RuntimeException("Could not close the journal in \"" + directory + "\".", e);
+        }
+    }
+
+    /*
+     * Getters and Setters are all here:
+     */
+
+    /**
+     * Sets how large the current journal may grow before it is compacted automatically.
+     *
+     * @param bytes - size in bytes, or 0 to only compact when compact() is called
+     */
+    public void setCompactionThreshold(long bytes){
+        compactionThreshold = bytes;
+    }
+
+    public long getSize(){
+        return size;
+    }
+
+    public int getGeneration(){
+        return generation;
+    }
+
+    /*
+     * Files
+     */
+
+    private void open(int _generation) throws IOException {
+        generation = _generation;
+        channel = FileChannel.open(journal(directory, generation), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.flip();
+
+        while(header.hasRemaining())
+            channel.write(header);
+
+        size = HEADER_SIZE;
+    }
+
+    private static Path snapshot(Path directory, int generation){
+        return directory.resolve("adventure." + generation + ".tacfg");
+    }
+
+    private static Path journal(Path directory, int generation){
+        return directory.resolve("adventure." + generation + ".tajl");
+    }
+
+    /**
+     * Returns the number of the newest snapshot in the directory, or -1 if there is none.
+     */
+    private static int latestSnapshot(Path directory) throws IOException {
+        int latest = -1;
+
+        if(!Files.isDirectory(directory))
+            return latest;
+
+        try(java.nio.file.DirectoryStream<Path> files = Files.newDirectoryStream(directory, "adventure.*.tacfg")){
+            for(Path p : files){
+                String name = p.getFileName().toString();
+
+                try {
+                    latest = Math.max(latest, Integer.parseInt(name.substring("adventure.".length(), name.length() - ".tacfg".length())));
+                } catch(NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+
+        return latest;
+    }
+
+    /*
+     * Replaying
+     */
+
+    /**
+     * Replays every journal after the snapshot passed, in order, returning the number of the last journal.
+     */
+    private static int replay(Engine engine, Path directory, int snapshot) throws IOException {
+        int g = snapshot;
+
+        while(Files.exists(journal(directory, g + 1)))
+            replayJournal(engine, journal(directory, ++g));
+
+        return g;
+    }
+
+    /**
+     * Replays the journals after the snapshot passed up to and including the last journal passed.
+     */
+    private static void replay(Engine engine, Path directory, int snapshot, int last) throws IOException {
+        for(int g = snapshot + 1; g <= last; g++)
+            if(Files.exists(journal(directory, g)))
+                replayJournal(engine, journal(directory, g));
+    }
+
+    private static void replayJournal(Engine engine, Path path) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+
+        if(in.remaining() < HEADER_SIZE || in.getInt() != MAGIC)
+            throw new IOException("Not a journal: " + path);
+
+        int version = in.getInt();
+        if(version < 1 || version > VERSION)
+            throw new IOException("Cannot replay a journal of version " + version + "; expected version " + VERSION + " or earlier.");
+
+        CRC32 crc = new CRC32();
+
+        while(in.remaining() >= FRAME_HEADER_SIZE){
+            int length = in.getInt();
+            int checksum = in.getInt();
+
+            // A frame cut short or garbled by a crash ends the journal
+            if(length <= 0 || length > in.remaining())
+                break;
+
+            crc.reset();
+            crc.update(in.array(), in.position(), length);
+            if((int) crc.getValue() != checksum)
+                break;
+
+            ByteBuffer frame = in.slice();
+            frame.limit(length);
+            in.position(in.position() + length);
+
+            while(frame.hasRemaining())
+                apply(engine, frame);
+        }
+    }
+
+    /**
+     * Applies a single record to the engine passed.
+     */
+    private static void apply(Engine engine, ByteBuffer in) throws IOException {
+        WorldState state = engine.getState();
+        Room current = engine.getWorld().getRoom(engine.getCurrentRoom().getEngineName());
+
+        byte type = in.get();
+        switch(type){
+            case GO:
+                Room r = engine.getWorld().getRoom(SaveFile.readString(in));
+                engine.restoreCurrentRoom(r);
+                state.visit(r);
+                break;
+            case TAKE:
+                state.take(current, SaveFile.readString(in), engine.getPlayer());
+                break;
+            case DROP:
+                state.drop(engine.getPlayer(), SaveFile.readString(in), current);
+                break;
+            case LOOT:
+                Corpse corpse = (Corpse) state.edit(current).getItem(SaveFile.readString(in));
+                state.loot(current, corpse, SaveFile.readString(in), engine.getPlayer());
+                break;
+            case PLAYER_DAMAGE:
+                engine.getPlayer().loseHitPoints(in.getInt());
+                break;
+            case SENTIENT_MOVED:
+                String moved = SaveFile.readString(in);
+                Room from = engine.getWorld().getRoom(SaveFile.readString(in));
+                Room to = engine.getWorld().getRoom(SaveFile.readString(in));
+                state.edit(to).addSentient(state.edit(from).removeSentient(moved));
+                break;
+            case SENTIENT_HEALED:
+                String healed = SaveFile.readString(in);
+                state.edit(engine.getWorld().getRoom(SaveFile.readString(in))).getSentient(healed).heal(in.getInt());
+                break;
+            case SENTIENT_SPAWNED:
+                Room home = engine.getWorld().getRoom(SaveFile.readString(in));
+                state.edit(home).addSentient(SaveFile.readSentient(in, engine.getWorld()));
+                break;
+            default:
+                throw new IOException("Unknown journal record " + type + ".");
+        }
+    }
+
+    /*
+     * Writing records
+     */
+
+    private void record(byte type){
+        ensure(1);
+        turn.put(type);
+    }
+
+    private void putString(String s){
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+
+        ensure(4 + bytes.length + 4);
+        turn.putInt(bytes.length);
+        turn.put(bytes);
+    }
+
+    /**
+     * Makes sure the turn buffer has room for the number of bytes passed, plus an int that may follow.
+     */
+    private void ensure(int bytes){
+        if(turn.remaining() >= bytes + 4)
+            return;
+
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(turn.capacity() * 2, turn.position() + bytes + 4));
+        turn.flip();
+        bigger.put(turn);
+        turn = bigger;
+    }
+}
@@ -0,0 +1,145 @@
+package resources;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LocationIndex
+ *
+ * Knows where every item and sentient is, so that finding one takes a single lookup rather than a search of
+ * every room. The location of an item is the room it lies in or the sentient holding it; the location of a
+ * sentient is the room it is in or, once it has died, its corpse; the location of a corpse is its room. Rooms
+ * and sentients keep their index up to date themselves as items and sentients come and go, so nothing else has
+ * to.
+ *
+ * Indexes are layered the way rooms are. A World indexes its own rooms; a WorldState indexes only the rooms a
+ * player has changed, along with the player, and asks the index of the World about everything else. Things
+ * are kept by identity - two items of the same name are two things - and a copied sentient is a thing of its
+ * own, found in the copy of its room.
+ *
+ * A MappedWorld loads its rooms as they are needed and keeps no index of them; only the rooms players change
+ * are indexed.
+ */
+public class LocationIndex {
+
+    // The most locations followed to find the room of a thing: an item held by a sentient that has died
+    // and left a corpse is three steps from its room
+    private static final int MAX_DEPTH = 8;
+
+    // Recorded for a thing that this index has taken out of the rooms of the layer beneath it
+    private static final Object NOWHERE = new Object();
+
+    // The location of everything this layer knows about: a Room, a Sentient, a Corpse or NOWHERE
+    private ConcurrentHashMap<Object, Object> locations;
+
+    // The index asked about things this layer knows nothing about, or null
+    private volatile LocationIndex parent;
+
+    public LocationIndex(){
+        this(null);
+    }
+
+    /**
+     * Creates an index layered over the index passed.
+     *
+     * @param _parent - LocationIndex to ask about things this one knows nothing about, or null
+     */
+    public LocationIndex(LocationIndex _parent){
+        parent = _parent;
+
+        locations = new ConcurrentHashMap<>();
+    }
+
+    /*
+     * Recording - called by rooms and sentients as things move
+     */
+
+    void put(Object thing, Object location){
+        locations.put(thing, location);
+    }
+
+    /**
+     * Records that the thing passed is no longer anywhere, because it was taken out of a room or inventory
+     * without being put anywhere else yet.
+     */
+    void remove(Object thing){
+        if(parent == null)
+            locations.remove(thing);
+        else
+            locations.put(thing, NOWHERE);
+    }
+
+    /*
+     * Queries
+     */
+
+    /**
+     * Returns where the item or sentient passed is: the Room it is in, the Sentient holding it, or the Corpse a
+     * dead sentient left.
+     *
+     * @param thing - Item or Sentient to find
+     * @return Room, Sentient or Corpse, or null if it is nowhere this index knows of
+     */
+    public Object getLocation(Object thing){
+        for(LocationIndex index = this; index != null; index = index.parent){
+            Object location = index.locations.get(thing);
+
+            if(location != null)
+                return location == NOWHERE ? null : location;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the room the item or sentient passed is in, whether it lies there, is held by something there or
+     * is held by the corpse of something that died there.
+     *
+     * @param thing - Item or Sentient to find
+     * @return Room, or null if it isn't in any room - such as an item the player holds
+     */
+    public Room getRoom(Object thing){
+        Object location = thing;
+
+        for(int depth = 0; depth < MAX_DEPTH && location != null; depth++){
+            location = getLocation(location);
+
+            if(location instanceof Room)
+                return (Room) location;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the sentient holding the item passed.
+     *
+     * @param item - Item to find
+     * @return Sentient holding it, or null if it isn't held
+     */
+    public Sentient getHolder(Item item){
+        Object location = getLocation(item);
+
+        return location instanceof Sentient ? (Sentient) location : null;
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    public LocationIndex getParent(){
+        return parent;
+    }
+
+    void setParent(LocationIndex _parent){
+        parent = _parent;
+    }
+
+    /**
+     * Returns the number of things recorded in this layer, not counting the layers beneath it.
+     *
+     * @return int number of things
+     */
+    public int size(){
+        return locations.size();
+    }
+}
@@ -0,0 +1,473 @@
+package resources;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * MappedWorld
+ *
+ * A World kept in a memory-mapped file instead of on the heap, for adventures too large to hold in memory.
+ * A room is only built when it is asked for - when a player enters it or looks at it - and the most recently
+ * used rooms are kept in a bounded cache. The rooms connected to a room are not loaded until a player goes
+ * that way.
+ *
+ * The file is laid out as:
+ *
+ *     header   magic number, version, number of rooms, offset of the starting room, offset of the names,
+ *              offset of the index
+ *     rooms    public name, engine name, description, exits, items, sentients
+ *     names    the lower case name of every item and sentient
+ *     index    for every room, the hash of its engine name and the offset of the room, sorted by hash
+ *
+ * Exits are written as the number of exits followed by (direction, engine name) pairs, and items and
+ * sentients are written as they are in a SaveFile. A room is found by a binary search of the index, so the
+ * index never has to be read onto the heap.
+ *
+ * A MappedWorld is read-only; files are made with a MappedWorld.Writer, or from an existing World with write().
+ * Files may be at most 2GB.
+ */
+public class MappedWorld extends World {
+
+    // The version of the format written by this class
+    public static final int VERSION = 1;
+
+    // The first four bytes of every file - "TAMW"
+    private static final int MAGIC = 0x54414D57;
+
+    // The size of the header in bytes
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8 + 8;
+
+    // The index entries hold the hash of an engine name above the offset of the room, which takes 31 bits
+    private static final int OFFSET_BITS = 31;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    // The mapped file. Every read works on a duplicate so that many threads can read at once.
+    private MappedByteBuffer file;
+
+    // The number of rooms in the file
+    private int roomCount;
+
+    // The offset of the starting room, or -1 if there are no rooms
+    private long startingRoomOffset;
+
+    // The offset of the first room, and the offset after the last
+    private long roomsStart;
+    private long roomsEnd;
+
+    // The offset of the index
+    private long indexOffset;
+
+    // The rooms used most recently, by engine name. Guarded by itself.
+    private LinkedHashMap<String, Room> cache;
+
+    private MappedWorld(MappedByteBuffer _file, int cacheSize) throws IOException {
+        file = _file;
+
+        ByteBuffer in = file.duplicate();
+
+        if(in.remaining() < HEADER_SIZE || in.getInt() != MAGIC)
+            throw new IOException("Not a mapped world.");
+
+        int version = in.getInt();
+        if(version != VERSION)
+            throw new IOException("Cannot open a mapped world of version " + version + "; expected version " + VERSION + ".");
+
+        roomCount = in.getInt();
+        startingRoomOffset = in.getLong();
+        long namesOffset = in.getLong();
+        indexOffset = in.getLong();
+
+        roomsStart = HEADER_SIZE;
+        roomsEnd = namesOffset;
+
+        // The names are needed to make sense of what players type, so they are read now
+        in.position((int) namesOffset);
+        for(int count = in.getInt(); count > 0; count--)
+            addName(SaveFile.readString(in));
+
+        cache = new LinkedHashMap<String, Room>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Room> eldest){
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Opens the mapped world in the file passed.
+     *
+     * @param path - Path of the file
+     * @param cacheSize - the most rooms to keep in memory at once
+     * @return MappedWorld reading from the file
+     * @throws IOException if the file can't be read
+     */
+    public static MappedWorld open(Path path, int cacheSize) throws IOException {
+        if(cacheSize < 1)
+            throw new RuntimeException("A mapped world must cache at least one room.");
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            if(channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Mapped world " + path + " is larger than 2GB.");
+
+            // The mapping stays valid after the channel is closed
+            return new MappedWorld(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), cacheSize);
+        }
+    }
+
+    /**
+     * Writes the World passed to a file that can be opened as a MappedWorld.
+     *
+     * @param world - World to write
+     * @param path - Path of the file to write
+     * @throws IOException if the file can't be written
+     */
+    public static void write(World world, Path path) throws IOException {
+        try(Writer out = new Writer(path)){
+            if(world.getStartingRoom() != null)
+                out.addRoom(world.getStartingRoom());
+
+            for(Room r : world.getRooms())
+                if(r != world.getStartingRoom())
+                    out.addRoom(r);
+        }
+    }
+
+    /**
+     * Returns the room with the engine name passed, or null if there is no such room. The room comes from the
+     * cache if it was used recently and is read from the file otherwise.
+     *
+     * @param engineName - String engine name of the room
+     * @return Room or null
+     */
+    @Override
+    public Room getRoom(String engineName){
+        synchronized(cache){
+            Room r = cache.get(engineName);
+
+            if(r != null)
+                return r;
+        }
+
+        long offset = find(engineName);
+
+        if(offset < 0)
+            return null;
+
+        Room r = readRoom(offset);
+
+        synchronized(cache){
+            // Another thread may have loaded the same room meanwhile; keep whichever got there first
+            Room cached = cache.get(engineName);
+
+            if(cached != null)
+                return cached;
+
+            cache.put(engineName, r);
+        }
+
+        return r;
+    }
+
+    /**
+     * Returns every room in the file. Rooms are read one at a time as the collection is iterated, and are not
+     * added to the cache.
+     *
+     * @return Collection of every room
+     */
+    @Override
+    public Collection<Room> getRooms(){
+        return new AbstractCollection<Room>(){
+            @Override
+            public Iterator<Room> iterator(){
+                return new Iterator<Room>(){
+                    private long offset = roomsStart;
+
+                    @Override
+                    public boolean hasNext(){
+                        return offset < roomsEnd;
+                    }
+
+                    @Override
+                    public Room next(){
+                        if(!hasNext())
+                            throw new NoSuchElementException();
+
+                        ByteBuffer in = at(offset);
+                        Room r = readRoom(in);
+                        offset = in.position();
+
+                        return r;
+                    }
+                };
+            }
+
+            @Override
+            public int size(){
+                return roomCount;
+            }
+        };
+    }
+
+    @Override
+    public Room getStartingRoom(){
+        return startingRoomOffset < 0 ? null : getRoom(readRoom(startingRoomOffset).getEngineName());
+    }
+
+    public int getRoomCount(){
+        return roomCount;
+    }
+
+    public int getCachedRoomCount(){
+        synchronized(cache){
+            return cache.size();
+        }
+    }
+
+    /*
+     * A MappedWorld can't be changed
+     */
+
+    @Override
+    public void addRoom(String name, String engineName, String description){
+        throw new RuntimeException("Cannot add a room to a mapped world.");
+    }
+
+    @Override
+    public void addConnection(String roomEngineNameA, String roomEngineNameB, Direction direction, boolean isTwoWay){
+        throw new RuntimeException("Cannot add a connection to a mapped world.");
+    }
+
+    @Override
+    public void addItem(String itemPublicName, String itemEngineName, String itemDescription, String roomEngineName, boolean canBeTaken){
+        throw new RuntimeException("Cannot add an item to a mapped world.");
+    }
+
+    @Override
+    public void addSentient(String name, String description, int hp, double attack, int defense, int damage, double toHit, boolean isHostile, String roomEngineName){
+        throw new RuntimeException("Cannot add a sentient to a mapped world.");
+    }
+
+    @Override
+    public void setStartingRoom(String engineName){
+        throw new RuntimeException("Cannot change the starting room of a mapped world.");
+    }
+
+    /**
+     * Returns the offset of the room with the engine name passed, or -1 if there is no such room.
+     *
+     * @param engineName - String engine name of the room
+     * @return offset or -1
+     */
+    private long find(String engineName){
+        long hash = engineName.hashCode() & 0xFFFFFFFFL;
+        ByteBuffer index = at(indexOffset);
+        int base = index.position();
+
+        // Find the first entry with the hash
+        int low = 0;
+        int high = roomCount;
+
+        while(low < high){
+            int middle = (low + high) >>> 1;
+
+            if((index.getLong(base + middle * 8) >>> OFFSET_BITS) < hash)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        // Engine names that share a hash sit next to each other
+        for(int i = low; i < roomCount; i++){
+            long entry = index.getLong(base + i * 8);
+
+            if((entry >>> OFFSET_BITS) != hash)
+                break;
+
+            long offset = entry & OFFSET_MASK;
+            if(engineName.equals(readEngineName(offset)))
+                return offset;
+        }
+
+        return -1;
+    }
+
+    private String readEngineName(long offset){
+        ByteBuffer in = at(offset);
+
+        skipString(in);
+        return SaveFile.readString(in);
+    }
+
+    private Room readRoom(long offset){
+        return readRoom(at(offset));
+    }
+
+    private Room readRoom(ByteBuffer in){
+        String publicName = SaveFile.readString(in);
+        String engineName = SaveFile.readString(in);
+        String description = SaveFile.readString(in);
+
+        String[] exits = new String[Direction.values().length];
+        for(int count = in.get(); count > 0; count--)
+            exits[in.get()] = SaveFile.readString(in);
+
+        Room r = new Room(publicName, engineName, description, exits, this);
+
+        for(int count = in.getInt(); count > 0; count--)
+            r.addItem(SaveFile.readItem(in, null));
+
+        for(int count = in.getInt(); count > 0; count--)
+            r.addSentient(SaveFile.readSentient(in, null));
+
+        return r;
+    }
+
+    private static void skipString(ByteBuffer in){
+        int length = in.getInt();
+
+        if(length > 0)
+            in.position(in.position() + length);
+    }
+
+    /**
+     * Returns a view of the file starting at the offset passed.
+     */
+    private ByteBuffer at(long offset){
+        ByteBuffer in = file.duplicate();
+        in.position((int) offset);
+
+        return in;
+    }
+
+    /**
+     * Writes a file that can be opened as a MappedWorld, one room at a time, so that a world far too large for
+     * the heap can be written. The first room added is where players start. Only the names of items and
+     * sentients and a small entry per room are kept in memory until the file is closed.
+     */
+    public static class Writer implements AutoCloseable {
+
+        // The channel being written to
+        private FileChannel channel;
+
+        // Buffers the values being written
+        private SaveFile.Writer out;
+
+        // An index entry for each room written: the hash of its engine name above its offset
+        private long[] index;
+
+        // The number of rooms written
+        private int roomCount;
+
+        // The lower case name of every item and sentient written
+        private HashSet<String> names;
+
+        public Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            out = new SaveFile.Writer(channel);
+
+            index = new long[1024];
+            roomCount = 0;
+            names = new HashSet<>();
+
+            // The header is filled in once every room has been written
+            for(int i = 0; i < HEADER_SIZE; i++)
+                out.writeByte(0);
+        }
+
+        /**
+         * Writes the room passed, with its exits, items and sentients.
+         *
+         * @param r - Room to write
+         * @throws IOException if the file can't be written
+         */
+        public void addRoom(Room r) throws IOException {
+            long offset = out.position();
+
+            if(offset > OFFSET_MASK)
+                throw new IOException("A mapped world may be at most 2GB.");
+
+            if(roomCount == index.length)
+                index = Arrays.copyOf(index, index.length * 2);
+
+            index[roomCount++] = ((r.getEngineName().hashCode() & 0xFFFFFFFFL) << OFFSET_BITS) | offset;
+
+            out.writeString(r.getPublicName());
+            out.writeString(r.getEngineName());
+            out.writeString(r.getDescription());
+
+            Map<Direction, Room> exits = r.getRooms();
+            out.writeByte(exits.size());
+            for(Map.Entry<Direction, Room> exit : exits.entrySet()){
+                out.writeByte(exit.getKey().ordinal());
+                out.writeString(exit.getValue().getEngineName());
+            }
+
+            SaveFile.writeItems(r.getItems(), out);
+            for(Item i : r.getItems())
+                names.add(i.getPublicName().toLowerCase());
+
+            out.writeInt(r.getSentients().size());
+            for(Sentient s : r.getSentients()){
+                SaveFile.writeSentient(s, out);
+                names.add(s.getName().toLowerCase());
+                names.add(Corpse.nameOf(s.getName()).toLowerCase());
+
+                for(Item i : s.getInventory())
+                    names.add(i.getPublicName().toLowerCase());
+            }
+        }
+
+        /**
+         * Writes the names and the index, then the header, and closes the file.
+         *
+         * @throws IOException if the file can't be written
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                long namesOffset = out.position();
+
+                out.writeInt(names.size());
+                for(String name : names)
+                    out.writeString(name);
+
+                long indexOffset = out.position();
+
+                Arrays.sort(index, 0, roomCount);
+                for(int i = 0; i < roomCount; i++)
+                    out.writeLong(index[i]);
+
+                out.flush();
+
+                if(out.position() > Integer.MAX_VALUE)
+                    throw new IOException("A mapped world may be at most 2GB.");
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC);
+                header.putInt(VERSION);
+                header.putInt(roomCount);
+                header.putLong(roomCount == 0 ? -1 : HEADER_SIZE);
+                header.putLong(namesOffset);
+                header.putLong(indexOffset);
+                header.flip();
+
+                while(header.hasRemaining())
+                    channel.write(header, header.position());
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
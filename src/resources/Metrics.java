@@ -0,0 +1,471 @@
+package resources;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics
+ *
+ * Counts what the Engines of a game do: how many times each verb was run and how long it took, rounds of
+ * combat, players killed, items taken and dropped, rooms entered, and sessions playing. Any number of Engines,
+ * on any number of threads, may record into the same Metrics; every count is a LongAdder, which spreads
+ * updates from different threads over separate cells rather than having them fight over a single one.
+ *
+ * An Engine records nothing unless it is given Metrics with setMetrics(), and then only checks a single field
+ * on each event, so a game without metrics costs nothing to instrument.
+ *
+ * The metrics can be read through JMX once registered with register(), and written out as text every so often
+ * with startDump().
+ */
+public class Metrics implements MetricsMXBean {
+
+    // The name commands are counted under when they don't start with a verb
+    public static final String NOT_UNDERSTOOD = "(not understood)";
+
+    // How long every run of each verb took, by verb; the count of each is the number of runs
+    private ConcurrentHashMap<String, LatencyCounter> verbs;
+
+    // Makes the counter of a verb seen for the first time; kept so that none is made on every command
+    private Function<String, LatencyCounter> newVerb;
+
+    // Rounds of combat against the player, attacks made in them, attacks that hit, and the damage done
+    private LongAdder combatRounds;
+    private LongAdder attacks;
+    private LongAdder hits;
+    private LongAdder damageTaken;
+
+    // Players who have died
+    private LongAdder playersKilled;
+
+    // Items players have taken from rooms, dropped in rooms, and taken from corpses
+    private LongAdder itemsTaken;
+    private LongAdder itemsDropped;
+    private LongAdder itemsLooted;
+
+    // Moves from one room to another, and rooms a player saw for the first time
+    private LongAdder roomsEntered;
+    private LongAdder roomsDiscovered;
+
+    // Games started, and games started that haven't ended
+    private LongAdder sessionsStarted;
+    private LongAdder activeSessions;
+
+    // Writes the dump every so often, or null if nothing is dumped
+    private ScheduledExecutorService dumper;
+
+    // The name these metrics are registered under with JMX, or null if they aren't
+    private ObjectName jmxName;
+
+    public Metrics(){
+        verbs = new ConcurrentHashMap<>();
+        newVerb = verb -> new LatencyCounter();
+
+        combatRounds = new LongAdder();
+        attacks = new LongAdder();
+        hits = new LongAdder();
+        damageTaken = new LongAdder();
+        playersKilled = new LongAdder();
+        itemsTaken = new LongAdder();
+        itemsDropped = new LongAdder();
+        itemsLooted = new LongAdder();
+        roomsEntered = new LongAdder();
+        roomsDiscovered = new LongAdder();
+        sessionsStarted = new LongAdder();
+        activeSessions = new LongAdder();
+    }
+
+    /*
+     * Recording - called by Engines as things happen
+     */
+
+    /**
+     * Records a single command.
+     *
+     * @param verb - String verb the command started with, or null if it wasn't understood
+     * @param nanos - long time the command took, in nanoseconds
+     */
+    void command(String verb, long nanos){
+        String key = verb == null ? NOT_UNDERSTOOD : verb;
+        LatencyCounter latencies = verbs.get(key);
+
+        if(latencies == null)
+            latencies = verbs.computeIfAbsent(key, newVerb);
+
+        latencies.record(nanos);
+    }
+
+    void combatRound(CombatRound round){
+        combatRounds.increment();
+        attacks.add(round.getAttackCount());
+        hits.add(round.getHitCount());
+        damageTaken.add(round.getDamage());
+    }
+
+    void playerKilled(){
+        playersKilled.increment();
+    }
+
+    void itemTaken(){
+        itemsTaken.increment();
+    }
+
+    void itemDropped(){
+        itemsDropped.increment();
+    }
+
+    void itemLooted(){
+        itemsLooted.increment();
+    }
+
+    void roomEntered(){
+        roomsEntered.increment();
+    }
+
+    void roomDiscovered(){
+        roomsDiscovered.increment();
+    }
+
+    void sessionStarted(){
+        sessionsStarted.increment();
+        activeSessions.increment();
+    }
+
+    void sessionEnded(){
+        activeSessions.decrement();
+    }
+
+    /*
+     * Publishing
+     */
+
+    /**
+     * Registers these metrics with the platform MBean server under the name "resources:type=Metrics,name="
+     * followed by the name passed, so that JMX clients can read them.
+     *
+     * @param name - String name telling these metrics apart from others in the same JVM
+     */
+    public void register(String name){
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("resources:type=Metrics,name=" + ObjectName.quote(name));
+
+            server.registerMBean(this, objectName);
+            jmxName = objectName;
+        } catch(JMException e) {
+            throw new RuntimeException("Metrics could not be registered as " + name + ".", e);
+        }
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server. Does nothing if they aren't registered.
+     */
+    public void unregister(){
+        if(jmxName == null)
+            return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(jmxName);
+        } catch(JMException e) {
+            throw new RuntimeException("Metrics could not be unregistered.", e);
+        } finally {
+            jmxName = null;
+        }
+    }
+
+    /**
+     * Writes the dump to the Output passed every period, on a daemon thread of its own, until stopDump() is
+     * called.
+     *
+     * @param periodMillis - long milliseconds between dumps
+     * @param output - Output to write to
+     */
+    public synchronized void startDump(long periodMillis, Output output){
+        if(dumper != null)
+            throw new RuntimeException("Metrics are already being dumped.");
+
+        dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread t = new Thread(task, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+
+        dumper.scheduleAtFixedRate(() -> output.println(dump()), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopDump(){
+        if(dumper != null)
+            dumper.shutdownNow();
+
+        dumper = null;
+    }
+
+    @Override
+    public String dump(){
+        StringBuilder text = new StringBuilder();
+
+        text.append(String.format(Locale.ROOT, "commands %d (%d not understood), sessions %d active of %d started%n",
+                getCommands(), getCommandsNotUnderstood(), getActiveSessions(), getSessionsStarted()));
+        text.append(String.format(Locale.ROOT, "combat %d rounds, %d attacks, %d hits, %d damage, %d players killed%n",
+                getCombatRounds(), getAttacks(), getHits(), getDamageTaken(), getPlayersKilled()));
+        text.append(String.format(Locale.ROOT, "items %d taken, %d dropped, %d looted; rooms %d entered, %d discovered%n",
+                getItemsTaken(), getItemsDropped(), getItemsLooted(), getRoomsEntered(), getRoomsDiscovered()));
+        text.append(String.format(Locale.ROOT, "%-20s %10s %10s %10s %10s %10s%n", "verb", "count", "mean us", "p50 us", "p99 us", "max us"));
+
+        for(Map.Entry<String, LatencyCounter> e : new TreeMap<>(verbs).entrySet()){
+            LatencyCounter l = e.getValue();
+
+            text.append(String.format(Locale.ROOT, "%-20s %10d %10.1f %10.1f %10.1f %10.1f%n", e.getKey(), l.getCount(),
+                    l.getMean() / 1e3, l.getValueAtPercentile(50) / 1e3, l.getValueAtPercentile(99) / 1e3, l.getMax() / 1e3));
+        }
+
+        return text.toString();
+    }
+
+    @Override
+    public void reset(){
+        verbs.clear();
+
+        for(LongAdder a : new LongAdder[]{ combatRounds, attacks, hits, damageTaken, playersKilled, itemsTaken,
+                itemsDropped, itemsLooted, roomsEntered, roomsDiscovered, sessionsStarted })
+            a.reset();
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    @Override
+    public long getCommands(){
+        long count = 0;
+        for(LatencyCounter l : verbs.values())
+            count += l.getCount();
+
+        return count;
+    }
+
+    @Override
+    public long getCommandsNotUnderstood(){
+        LatencyCounter l = verbs.get(NOT_UNDERSTOOD);
+
+        return l == null ? 0 : l.getCount();
+    }
+
+    @Override
+    public Map<String, Long> getCommandCounts(){
+        TreeMap<String, Long> counts = new TreeMap<>();
+        verbs.forEach((verb, l) -> counts.put(verb, l.getCount()));
+
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getCommandMeanMicros(){
+        TreeMap<String, Double> means = new TreeMap<>();
+        verbs.forEach((verb, l) -> means.put(verb, l.getMean() / 1e3));
+
+        return means;
+    }
+
+    @Override
+    public Map<String, Double> getCommandP99Micros(){
+        TreeMap<String, Double> p99s = new TreeMap<>();
+        verbs.forEach((verb, l) -> p99s.put(verb, l.getValueAtPercentile(99) / 1e3));
+
+        return p99s;
+    }
+
+    /**
+     * Returns the latencies of the verb passed, in nanoseconds.
+     *
+     * @param verb - String verb, or NOT_UNDERSTOOD
+     * @return LatencyCounter of the verb, or null if it has never been run
+     */
+    public LatencyCounter getLatencies(String verb){
+        return verbs.get(verb);
+    }
+
+    @Override
+    public long getCombatRounds(){
+        return combatRounds.sum();
+    }
+
+    @Override
+    public long getAttacks(){
+        return attacks.sum();
+    }
+
+    @Override
+    public long getHits(){
+        return hits.sum();
+    }
+
+    @Override
+    public long getDamageTaken(){
+        return damageTaken.sum();
+    }
+
+    @Override
+    public long getPlayersKilled(){
+        return playersKilled.sum();
+    }
+
+    @Override
+    public long getItemsTaken(){
+        return itemsTaken.sum();
+    }
+
+    @Override
+    public long getItemsDropped(){
+        return itemsDropped.sum();
+    }
+
+    @Override
+    public long getItemsLooted(){
+        return itemsLooted.sum();
+    }
+
+    @Override
+    public long getRoomsEntered(){
+        return roomsEntered.sum();
+    }
+
+    @Override
+    public long getRoomsDiscovered(){
+        return roomsDiscovered.sum();
+    }
+
+    @Override
+    public long getSessionsStarted(){
+        return sessionsStarted.sum();
+    }
+
+    @Override
+    public long getActiveSessions(){
+        return activeSessions.sum();
+    }
+
+    /**
+     * Counts latencies in buckets that grow with the values they hold, so a latency of any size is recorded in
+     * constant time to within about 6% of its value. Every bucket is a LongAdder, so any number of threads may
+     * record at once. Latencies of more than a minute are counted as a minute.
+     */
+    public static class LatencyCounter {
+
+        // The number of significant bits kept of every value
+        private static final int BITS = 5;
+
+        // The number of buckets each doubling of the value is split into
+        private static final int HALF = 1 << (BITS - 1);
+
+        // The number of bits of the largest value counted: 2^36 nanoseconds is a little over a minute
+        private static final int MAX_BITS = 36;
+
+        // The largest value counted
+        private static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+
+        // The number of values counted in each bucket
+        private LongAdder[] counts;
+
+        // The sum of the values recorded
+        private LongAdder total;
+
+        // The largest value recorded
+        private volatile long max;
+
+        private LatencyCounter(){
+            counts = new LongAdder[(MAX_BITS - BITS + 2) * HALF];
+            for(int i = 0; i < counts.length; i++)
+                counts[i] = new LongAdder();
+
+            total = new LongAdder();
+        }
+
+        private void record(long value){
+            value = Math.max(0, Math.min(value, MAX_VALUE));
+
+            counts[indexOf(value)].increment();
+            total.add(value);
+
+            // Only a new largest value is ever written, which after the first few commands is rare
+            if(value > max)
+                raiseMax(value);
+        }
+
+        private synchronized void raiseMax(long value){
+            if(value > max)
+                max = value;
+        }
+
+        /**
+         * Returns the value that the percentage of values passed are at or below, as the highest value of its
+         * bucket.
+         *
+         * @param percentile - double between 0 and 100
+         * @return long value, or 0 if nothing has been recorded
+         */
+        public long getValueAtPercentile(double percentile){
+            long[] snapshot = new long[counts.length];
+            long count = 0;
+
+            for(int i = 0; i < counts.length; i++)
+                count += snapshot[i] = counts[i].sum();
+
+            if(count == 0)
+                return 0;
+
+            long wanted = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+            long seen = 0;
+
+            for(int i = 0; i < snapshot.length; i++){
+                seen += snapshot[i];
+
+                if(seen >= wanted)
+                    return Math.min(highestValueOf(i), max);
+            }
+
+            return max;
+        }
+
+        private static int indexOf(long value){
+            int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - BITS);
+
+            return shift * HALF + (int) (value >>> shift);
+        }
+
+        private static long highestValueOf(int index){
+            int shift = index < 2 * HALF ? 0 : index / HALF - 1;
+            long top = index - shift * HALF;
+
+            return ((top + 1) << shift) - 1;
+        }
+
+        public long getCount(){
+            long count = 0;
+            for(LongAdder a : counts)
+                count += a.sum();
+
+            return count;
+        }
+
+        public double getMean(){
+            long count = getCount();
+
+            return count == 0 ? 0 : (double) total.sum() / count;
+        }
+
+        public long getMax(){
+            return max;
+        }
+    }
+}
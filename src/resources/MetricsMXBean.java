@@ -0,0 +1,71 @@
+package resources;
+
+import java.util.Map;
+
+/**
+ * What Metrics shows through JMX, for jconsole, VisualVM or any other JMX client. Every attribute is a count
+ * since the metrics were created or last reset, except for the number of active sessions.
+ */
+public interface MetricsMXBean {
+
+    long getCommands();
+
+    long getCommandsNotUnderstood();
+
+    /**
+     * Returns the number of times each verb has been run, by verb.
+     *
+     * @return Map of verb to count
+     */
+    Map<String, Long> getCommandCounts();
+
+    /**
+     * Returns the mean time each verb took to run, in microseconds, by verb.
+     *
+     * @return Map of verb to mean latency
+     */
+    Map<String, Double> getCommandMeanMicros();
+
+    /**
+     * Returns the time that 99% of the runs of each verb took no longer than, in microseconds, by verb.
+     *
+     * @return Map of verb to 99th percentile latency
+     */
+    Map<String, Double> getCommandP99Micros();
+
+    long getCombatRounds();
+
+    long getAttacks();
+
+    long getHits();
+
+    long getDamageTaken();
+
+    long getPlayersKilled();
+
+    long getItemsTaken();
+
+    long getItemsDropped();
+
+    long getItemsLooted();
+
+    long getRoomsEntered();
+
+    long getRoomsDiscovered();
+
+    long getSessionsStarted();
+
+    long getActiveSessions();
+
+    /**
+     * Returns every metric as text, as written by the periodic dump.
+     *
+     * @return String of several lines
+     */
+    String dump();
+
+    /**
+     * Sets every count back to zero, except the number of active sessions.
+     */
+    void reset();
+}
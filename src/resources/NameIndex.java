@@ -0,0 +1,302 @@
+package resources;
+
+import java.util.function.Predicate;
+
+/**
+ * NameIndex
+ *
+ * Every name the player may use for the items and sentients of an adventure, compiled into a trie so that what
+ * the player typed is turned into the name of a thing in time proportional to its length, straight out of the
+ * line typed, with nothing allocated.
+ *
+ * Names are kept in lower case, which is how rooms and inventories key what they hold. Besides its full name,
+ * a thing may be called by the last words of its name - "old baguette" is also "baguette", and "corpse of angry
+ * rat" is also "angry rat" and "rat" - and by any beginning of a name or of one of those aliases that only one
+ * thing starts with, so "bag" is enough for the baguette unless something else starts with "bag".
+ *
+ * What counts as only one thing depends on what the player can reach, so every lookup may be given a scope: a
+ * test of whether a name is in reach. A full name in scope always wins; otherwise an alias or a beginning names
+ * a thing only if exactly one thing in scope answers to it. A scope kept in a field and reused makes lookups
+ * allocation-free.
+ */
+public class NameIndex {
+
+    // The lowest and highest characters a name may contain
+    private static final char FIRST_CHAR = ' ';
+    private static final char LAST_CHAR = '~';
+
+    // The number of children each node of the trie may have
+    private static final int WIDTH = LAST_CHAR - FIRST_CHAR + 1;
+
+    // Returned while searching when more than one name was found; compared by identity
+    private static final String SEVERAL = new String("several");
+
+    // The root of the trie - matches the empty word
+    private Node root;
+
+    // The number of full names in the index
+    private int size;
+
+    public NameIndex(){
+        root = new Node();
+        size = 0;
+    }
+
+    /**
+     * Adds the name passed, along with the aliases made from its last words. Case does not matter; the name is
+     * kept in lower case.
+     *
+     * @param name - String name of an item or sentient
+     */
+    public void add(String name){
+        if(name == null || name.isEmpty())
+            throw new RuntimeException("Cannot add an empty name.");
+
+        String lowerCase = name.toLowerCase();
+
+        if(add(lowerCase, 0, lowerCase, true))
+            size++;
+
+        // Every run of last words is an alias: "corpse of angry rat" is also "of angry rat", "angry rat" and "rat"
+        for(int i = lowerCase.indexOf(' '); i >= 0; i = lowerCase.indexOf(' ', i + 1))
+            if(i + 1 < lowerCase.length() && lowerCase.charAt(i + 1) != ' ')
+                add(lowerCase, i + 1, lowerCase, false);
+    }
+
+    /**
+     * Adds the word made of the characters of text from start onwards as a way of calling the name passed.
+     * Returns true if the word was new as a full name.
+     */
+    private boolean add(String text, int start, String name, boolean full){
+        Node node = root;
+        node.summarize(name);
+
+        for(int i = start; i < text.length(); i++){
+            int index = indexOf(text.charAt(i));
+
+            if(index < 0)
+                throw new RuntimeException("Cannot add the name \"" + name + "\"; '" + text.charAt(i) + "' is not a printable character.");
+
+            node = node.child(index);
+            node.summarize(name);
+        }
+
+        return node.refer(name, full);
+    }
+
+    /**
+     * Returns the name that the whole of the text passed calls, whatever is in reach, or null if it calls no
+     * name or more than one.
+     *
+     * @param text - what the player typed
+     * @return lower case name or null
+     */
+    public String resolve(CharSequence text){
+        return resolve(text, 0, text.length(), null);
+    }
+
+    /**
+     * Returns the name of the one thing in scope that the characters of the text passed between start
+     * (inclusive) and end (exclusive) call, or null if they call nothing in scope or more than one thing.
+     *
+     * @param text - text holding what the player typed
+     * @param start - index of the first character
+     * @param end - index after the last character
+     * @param scope - test of whether a name is in reach, or null if everything is
+     * @return lower case name or null
+     */
+    public String resolve(CharSequence text, int start, int end, Predicate<String> scope){
+        if(start >= end)
+            return null;
+
+        Node node = root;
+
+        for(int i = start; i < end && node != null; i++){
+            int index = indexOf(text.charAt(i));
+
+            if(index < 0 || node.children == null)
+                return null;
+
+            node = node.children[index];
+        }
+
+        if(node == null)
+            return null;
+
+        // The word itself: a full name in scope wins, then an alias of a single thing in scope
+        if(node.names != null) {
+            if(node.full && accepts(scope, node.names[0]))
+                return node.names[0];
+
+            String found = null;
+            for(String name : node.names){
+                if(accepts(scope, name)) {
+                    if(found != null)
+                        return null;
+
+                    found = name;
+                }
+            }
+
+            if(found != null)
+                return found;
+        }
+
+        // A beginning of words: most often only one name starts this way, and there is nothing to search
+        if(!node.several)
+            return accepts(scope, node.only) ? node.only : null;
+
+        String found = find(node, scope, null);
+        return found == SEVERAL ? null : found;
+    }
+
+    /**
+     * Returns true if the full name passed is in the index.
+     *
+     * @param name - String name to look for
+     * @return true if the name is known
+     */
+    public boolean contains(CharSequence name){
+        Node node = root;
+
+        for(int i = 0; i < name.length() && node != null; i++){
+            int index = indexOf(name.charAt(i));
+
+            if(index < 0 || node.children == null)
+                return false;
+
+            node = node.children[index];
+        }
+
+        return node != null && node.full;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Searches the words below the node passed for names in scope. Returns the name found so far if no other is
+     * found, or SEVERAL as soon as a second name turns up.
+     */
+    private static String find(Node node, Predicate<String> scope, String found){
+        if(!node.several) {
+            if(!accepts(scope, node.only) || node.only.equals(found))
+                return found;
+
+            return found == null ? node.only : SEVERAL;
+        }
+
+        if(node.names != null)
+            for(String name : node.names)
+                if(accepts(scope, name) && !name.equals(found)) {
+                    if(found != null)
+                        return SEVERAL;
+
+                    found = name;
+                }
+
+        if(node.children != null)
+            for(Node child : node.children)
+                if(child != null && (found = find(child, scope, found)) == SEVERAL)
+                    return SEVERAL;
+
+        return found;
+    }
+
+    private static boolean accepts(Predicate<String> scope, String name){
+        return scope == null || scope.test(name);
+    }
+
+    /**
+     * Returns the index of the child that the character passed leads to, folding upper case letters into lower
+     * case, or -1 if the character can never appear in a name.
+     */
+    private static int indexOf(char c){
+        if(c >= 'A' && c <= 'Z')
+            c += 'a' - 'A';
+
+        if(c < FIRST_CHAR || c > LAST_CHAR)
+            return -1;
+
+        return c - FIRST_CHAR;
+    }
+
+    /**
+     * A single node of the trie. Nodes only allocate their children once a word passes through them.
+     */
+    private static class Node {
+
+        // The nodes reached by each character, or null if no word continues past this node
+        private Node[] children;
+
+        // The names the word ending here calls, the full name first if the word is one; null if none
+        private String[] names;
+
+        // True if the word ending here is a full name
+        private boolean full;
+
+        // The one name called by this word or any word continuing it, or null if there is none
+        private String only;
+
+        // True if this word and the words continuing it call more than one name
+        private boolean several;
+
+        private Node child(int index){
+            if(children == null)
+                children = new Node[WIDTH];
+
+            if(children[index] == null)
+                children[index] = new Node();
+
+            return children[index];
+        }
+
+        /**
+         * Notes that the name passed is called by this word or a word continuing it.
+         */
+        private void summarize(String name){
+            if(only == null)
+                only = name;
+            else if(!only.equals(name))
+                several = true;
+        }
+
+        /**
+         * Notes that the word ending here calls the name passed. Returns true if the word became a full name.
+         */
+        private boolean refer(String name, boolean isFull){
+            if(names == null) {
+                names = new String[]{ name };
+                full = isFull;
+                return isFull;
+            }
+
+            for(int i = 0; i < names.length; i++){
+                if(names[i].equals(name)) {
+                    if(!isFull || full)
+                        return false;
+
+                    // The alias is a full name too; full names go first
+                    names[i] = names[0];
+                    names[0] = name;
+                    full = true;
+                    return true;
+                }
+            }
+
+            String[] more = new String[names.length + 1];
+            System.arraycopy(names, 0, more, 0, names.length);
+            more[names.length] = name;
+
+            if(isFull) {
+                more[names.length] = more[0];
+                more[0] = name;
+                full = true;
+            }
+
+            names = more;
+            return isFull;
+        }
+    }
+}
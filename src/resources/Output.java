@@ -0,0 +1,22 @@
+package resources;
+
+/**
+ * Where the text of a game is written. The Engine writes everything it says to the player through an Output,
+ * so a game can be played on the console, collected into a String, sent over a connection, or thrown away
+ * entirely when nobody is reading.
+ */
+public interface Output {
+
+    // Writes to System.out
+    Output CONSOLE = text -> System.out.println(text);
+
+    // Throws everything away
+    Output NONE = text -> { };
+
+    /**
+     * Writes the text passed, followed by a new line.
+     *
+     * @param text - String to write
+     */
+    void println(String text);
+}
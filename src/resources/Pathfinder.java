@@ -0,0 +1,756 @@
+package resources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pathfinder
+ *
+ * Answers questions about the map of a World: the shortest way from one room to another, whether a room can be
+ * reached at all, and which rooms are within a few steps of one. Every connection counts as one step.
+ *
+ * Queries run over a RoomGraph of the World, so a search touches only int arrays. Alongside the graph the
+ * Pathfinder keeps the connections reversed, the connected components of the map, and its strongly connected
+ * components - the groups of rooms that can all be reached from one another, which one-way connections (like
+ * those of a maze) make smaller than the connected components. These are all built on the first query and
+ * rebuilt on the first query after a connection is added to the World, as are the shortest paths it remembers.
+ *
+ * Rooms may be given positions with setPosition(). Searches with findPathByPosition() then head towards the
+ * destination first (A*), which explores far fewer rooms on large maps. Positions must agree with the map: a
+ * step north, south, east or west changes only x or only y, by at most one; a diagonal step changes x and y by
+ * at most one each; and a step up or down changes only z, by at most one. Positions that leave a room out, or
+ * that put two connected rooms further apart than a step, could lead the search down a longer path, so until
+ * every room has a position that agrees with the map findPathByPosition() searches as findPath() does.
+ *
+ * All methods are synchronized, so a Pathfinder may be shared between threads.
+ */
+public class Pathfinder {
+
+    // The number of shortest paths remembered
+    private static final int PATH_CACHE_SIZE = 1024;
+
+    // Every direction, by ordinal
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // The world whose map this is
+    private World world;
+
+    // World.getConnectionChanges() when the graph was built
+    private long connectionChanges;
+
+    // The map of the world
+    private RoomGraph graph;
+
+    // The connections reversed: the rooms leading into room i are reverseFrom[reverseStart[i]] up to
+    // reverseFrom[reverseStart[i + 1]], each reached by the direction ordinal in reverseDirection
+    private int[] reverseStart;
+    private int[] reverseFrom;
+    private byte[] reverseDirection;
+
+    // The connected component of each room, ignoring which way connections go
+    private int[] components;
+    private int componentCount;
+
+    // The strongly connected component of each room. Components are numbered so that every connection leads
+    // to a component with the same or a lower number.
+    private int[] strongComponents;
+    private int strongComponentCount;
+
+    // The positions given to rooms, by engine name, and the same positions by room id, three ints per room
+    private HashMap<String, int[]> positions;
+    private int[] positionsById;
+    private boolean[] hasPosition;
+
+    // True if any connection goes diagonally, such as north east
+    private boolean diagonal;
+
+    // True once the positions have been checked against the map since they or the map last changed, and true
+    // if every room has a position and no connection joins rooms further apart than a step
+    private boolean positionsChecked;
+    private boolean positionsAgree;
+
+    // The shortest paths found most recently, keyed by the ids of the rooms at each end
+    private LinkedHashMap<Long, List<Direction>> paths;
+
+    // Scratch space for searches. A room has been seen by the current search if its seen entry equals stamp.
+    // Forward searches leave the way back to the source in parent; backward searches leave the way on to the
+    // target in next.
+    private int stamp;
+    private int[] seen;
+    private int[] seenBackward;
+    private int[] distance;
+    private int[] distanceBackward;
+    private int[] parent;
+    private byte[] parentDirection;
+    private int[] next;
+    private byte[] nextDirection;
+    private int[] queue;
+    private int[] queueBackward;
+
+    /**
+     * Creates a Pathfinder for the World passed. Nothing is computed until the first query.
+     *
+     * @param _world - World to answer queries about
+     */
+    public Pathfinder(World _world){
+        world = _world;
+        positions = new HashMap<>();
+
+        paths = new LinkedHashMap<Long, List<Direction>>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<Direction>> eldest){
+                return size() > PATH_CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Finds a shortest path between two rooms, searching outwards from both ends at once.
+     *
+     * @param from - String engine name of the room to start in
+     * @param to - String engine name of the room to end in
+     * @return List of the directions to go, empty if the rooms are the same, or null if there is no path
+     */
+    public synchronized List<Direction> findPath(String from, String to){
+        int source = id(from);
+        int target = id(to);
+
+        // Rooms in different components, or strong components in the wrong order, can't be reached
+        if(!mayReach(source, target))
+            return null;
+
+        Long key = ((long) source << 32) | target;
+        if(paths.containsKey(key))
+            return paths.get(key);
+
+        List<Direction> path = search(source, target);
+        if(path != null)
+            path = Collections.unmodifiableList(path);
+
+        paths.put(key, path);
+
+        return path;
+    }
+
+    /**
+     * Finds a shortest path between two rooms using the positions of the rooms to search towards the
+     * destination first. If any room has no position, or the positions disagree with the map, the path is
+     * found as findPath() finds it.
+     *
+     * @param from - String engine name of the room to start in
+     * @param to - String engine name of the room to end in
+     * @return List of the directions to go, empty if the rooms are the same, or null if there is no path
+     */
+    public synchronized List<Direction> findPathByPosition(String from, String to){
+        int source = id(from);
+        int target = id(to);
+
+        if(!mayReach(source, target))
+            return null;
+
+        if(!positionsAgree())
+            return findPath(from, to);
+
+        return searchByPosition(source, target);
+    }
+
+    /**
+     * Returns the number of steps on a shortest path between two rooms.
+     *
+     * @param from - String engine name of the room to start in
+     * @param to - String engine name of the room to end in
+     * @return int number of steps, or -1 if there is no path
+     */
+    public synchronized int getDistance(String from, String to){
+        List<Direction> path = findPath(from, to);
+
+        return path == null ? -1 : path.size();
+    }
+
+    /**
+     * Returns true if the second room can be reached from the first.
+     *
+     * @param from - String engine name of the room to start in
+     * @param to - String engine name of the room to reach
+     * @return true if there is a path
+     */
+    public synchronized boolean isReachable(String from, String to){
+        int source = id(from);
+        int target = id(to);
+
+        if(strongComponents[source] == strongComponents[target])
+            return true;
+
+        return mayReach(source, target) && findPath(from, to) != null;
+    }
+
+    /**
+     * Returns the engine names of every room that can be reached from the room passed in at most the number of
+     * steps passed, nearest first. The room itself is included.
+     *
+     * @param from - String engine name of the room to start in
+     * @param steps - int greatest number of steps
+     * @return List of engine names
+     */
+    public synchronized List<String> getRoomsWithin(String from, int steps){
+        int source = id(from);
+        ArrayList<String> rooms = new ArrayList<>();
+
+        newSearch();
+        int head = 0, tail = 0;
+        queue[tail++] = source;
+        seen[source] = stamp;
+        distance[source] = 0;
+
+        while(head < tail){
+            int u = queue[head++];
+            rooms.add(graph.getEngineName(u));
+
+            if(distance[u] == steps)
+                continue;
+
+            for(int o = 0; o < RoomGraph.DIRECTIONS; o++){
+                int v = graph.getConnection(u, o);
+
+                if(v >= 0 && seen[v] != stamp){
+                    seen[v] = stamp;
+                    distance[v] = distance[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        return rooms;
+    }
+
+    /**
+     * Gives the room passed a position for findPathByPosition(). Positions are kept when the map changes.
+     *
+     * @param room - String engine name of the room
+     * @param x - int east-west position, increasing eastwards
+     * @param y - int north-south position, increasing northwards
+     * @param z - int height, increasing upwards
+     */
+    public synchronized void setPosition(String room, int x, int y, int z){
+        int id = id(room);
+
+        int[] position = new int[]{ x, y, z };
+
+        positions.put(room, position);
+        place(id, position);
+        positionsChecked = false;
+    }
+
+    private void place(int id, int[] position){
+        System.arraycopy(position, 0, positionsById, 3 * id, 3);
+        hasPosition[id] = true;
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    /**
+     * Returns the number of the connected component of the room passed. Two rooms are in the same component
+     * if there is a way between them, ignoring which way the connections go.
+     *
+     * @param room - String engine name of the room
+     * @return int component number
+     */
+    public synchronized int getComponent(String room){
+        return components[id(room)];
+    }
+
+    public synchronized int getComponentCount(){
+        update();
+        return componentCount;
+    }
+
+    /**
+     * Returns the number of the strongly connected component of the room passed. Two rooms are in the same
+     * strongly connected component if each can be reached from the other.
+     *
+     * @param room - String engine name of the room
+     * @return int component number
+     */
+    public synchronized int getStronglyConnectedComponent(String room){
+        return strongComponents[id(room)];
+    }
+
+    public synchronized int getStronglyConnectedComponentCount(){
+        update();
+        return strongComponentCount;
+    }
+
+    public synchronized RoomGraph getGraph(){
+        update();
+        return graph;
+    }
+
+    /*
+     * Searching
+     */
+
+    /**
+     * Returns false if the target certainly can't be reached from the source.
+     */
+    private boolean mayReach(int source, int target){
+        return components[source] == components[target] && strongComponents[source] >= strongComponents[target];
+    }
+
+    /**
+     * Breadth first search from both ends at once, expanding a whole level of the smaller side each time. Once
+     * the searches meet, the shortest of the paths through the level just expanded is the shortest path.
+     */
+    private List<Direction> search(int source, int target){
+        if(source == target)
+            return Collections.emptyList();
+
+        newSearch();
+        int forwardHead = 0, forwardTail = 0, backwardHead = 0, backwardTail = 0;
+
+        queue[forwardTail++] = source;
+        seen[source] = stamp;
+        distance[source] = 0;
+
+        queueBackward[backwardTail++] = target;
+        seenBackward[target] = stamp;
+        distanceBackward[target] = 0;
+
+        // The room where the searches met on the shortest path found so far
+        int meeting = -1;
+        int best = Integer.MAX_VALUE;
+
+        while(meeting < 0 && forwardHead < forwardTail && backwardHead < backwardTail){
+            if(forwardTail - forwardHead <= backwardTail - backwardHead) {
+                for(int end = forwardTail; forwardHead < end; forwardHead++){
+                    int u = queue[forwardHead];
+
+                    for(int o = 0; o < RoomGraph.DIRECTIONS; o++){
+                        int v = graph.getConnection(u, o);
+
+                        if(v < 0 || seen[v] == stamp)
+                            continue;
+
+                        seen[v] = stamp;
+                        distance[v] = distance[u] + 1;
+                        parent[v] = u;
+                        parentDirection[v] = (byte) o;
+                        queue[forwardTail++] = v;
+
+                        if(seenBackward[v] == stamp && distance[v] + distanceBackward[v] < best) {
+                            best = distance[v] + distanceBackward[v];
+                            meeting = v;
+                        }
+                    }
+                }
+            } else {
+                for(int end = backwardTail; backwardHead < end; backwardHead++){
+                    int u = queueBackward[backwardHead];
+
+                    for(int k = reverseStart[u]; k < reverseStart[u + 1]; k++){
+                        int v = reverseFrom[k];
+
+                        if(seenBackward[v] == stamp)
+                            continue;
+
+                        seenBackward[v] = stamp;
+                        distanceBackward[v] = distanceBackward[u] + 1;
+                        next[v] = u;
+                        nextDirection[v] = reverseDirection[k];
+                        queueBackward[backwardTail++] = v;
+
+                        if(seen[v] == stamp && distance[v] + distanceBackward[v] < best) {
+                            best = distance[v] + distanceBackward[v];
+                            meeting = v;
+                        }
+                    }
+                }
+            }
+        }
+
+        if(meeting < 0)
+            return null;
+
+        ArrayList<Direction> path = new ArrayList<>(best);
+        addPathTo(path, source, meeting);
+
+        for(int v = meeting; v != target; v = next[v])
+            path.add(DIRECTIONS[nextDirection[v]]);
+
+        return path;
+    }
+
+    /**
+     * A* search, taking rooms in order of the steps taken to reach them plus the fewest steps their positions
+     * allow to the target. Of rooms that look equally good, the one furthest from the source is taken first,
+     * which on open maps heads straight for the target rather than widening the search.
+     */
+    private List<Direction> searchByPosition(int source, int target){
+        newSearch();
+
+        // The heap orders rooms by their estimated path length above the steps still to go from them
+        long[] keys = new long[64];
+        int[] rooms = new int[64];
+        int size = 0;
+
+        seen[source] = stamp;
+        distance[source] = 0;
+        keys[0] = key(0, estimate(source, target));
+        rooms[0] = source;
+        size++;
+
+        while(size > 0){
+            int u = rooms[0];
+            size--;
+            siftDown(keys, rooms, keys[size], rooms[size], size);
+
+            // A room may be queued more than once; only its first, shortest, turn counts
+            if(seenBackward[u] == stamp)
+                continue;
+            seenBackward[u] = stamp;
+
+            if(u == target) {
+                ArrayList<Direction> path = new ArrayList<>(distance[u]);
+                addPathTo(path, source, target);
+                return path;
+            }
+
+            for(int o = 0; o < RoomGraph.DIRECTIONS; o++){
+                int v = graph.getConnection(u, o);
+
+                if(v < 0 || seenBackward[v] == stamp || (seen[v] == stamp && distance[v] <= distance[u] + 1))
+                    continue;
+
+                seen[v] = stamp;
+                distance[v] = distance[u] + 1;
+                parent[v] = u;
+                parentDirection[v] = (byte) o;
+
+                if(size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                    rooms = Arrays.copyOf(rooms, size * 2);
+                }
+
+                siftUp(keys, rooms, key(distance[v], estimate(v, target)), v, size++);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns true if every room has a position and no connection leads further than a step by the positions.
+     * The fewest steps the positions allow to the target then never drops by more than one along a connection,
+     * so the first time A* takes a room it has found the shortest way there.
+     */
+    private boolean positionsAgree(){
+        if(positionsChecked)
+            return positionsAgree;
+
+        positionsChecked = true;
+        positionsAgree = false;
+
+        for(int u = 0; u < graph.getRoomCount(); u++){
+            if(!hasPosition[u])
+                return false;
+
+            for(int o = 0; o < RoomGraph.DIRECTIONS; o++){
+                int v = graph.getConnection(u, o);
+
+                if(v >= 0 && (!hasPosition[v] || estimate(u, v) > 1))
+                    return false;
+            }
+        }
+
+        positionsAgree = true;
+
+        return true;
+    }
+
+    private static long key(int steps, int estimate){
+        return ((long) (steps + estimate) << 32) | estimate;
+    }
+
+    /**
+     * Returns the fewest steps the positions of the rooms passed allow between them, or 0 if either has none.
+     */
+    private int estimate(int from, int to){
+        if(!hasPosition[from] || !hasPosition[to])
+            return 0;
+
+        int dx = Math.abs(positionsById[3 * from] - positionsById[3 * to]);
+        int dy = Math.abs(positionsById[3 * from + 1] - positionsById[3 * to + 1]);
+        int dz = Math.abs(positionsById[3 * from + 2] - positionsById[3 * to + 2]);
+
+        // Without diagonal connections every step changes only one coordinate
+        return (diagonal ? Math.max(dx, dy) : dx + dy) + dz;
+    }
+
+    private static void siftUp(long[] keys, int[] rooms, long key, int room, int i){
+        while(i > 0 && keys[(i - 1) / 2] > key){
+            keys[i] = keys[(i - 1) / 2];
+            rooms[i] = rooms[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+
+        keys[i] = key;
+        rooms[i] = room;
+    }
+
+    private static void siftDown(long[] keys, int[] rooms, long key, int room, int size){
+        int i = 0;
+
+        while(2 * i + 1 < size){
+            int child = 2 * i + 1;
+
+            if(child + 1 < size && keys[child + 1] < keys[child])
+                child++;
+
+            if(keys[child] >= key)
+                break;
+
+            keys[i] = keys[child];
+            rooms[i] = rooms[child];
+            i = child;
+        }
+
+        keys[i] = key;
+        rooms[i] = room;
+    }
+
+    /**
+     * Adds the directions from the source to the room passed, following the parents left by a forward search.
+     */
+    private void addPathTo(ArrayList<Direction> path, int source, int room){
+        int start = path.size();
+
+        for(int v = room; v != source; v = parent[v])
+            path.add(DIRECTIONS[parentDirection[v]]);
+
+        Collections.reverse(path.subList(start, path.size()));
+    }
+
+    /*
+     * Building
+     */
+
+    /**
+     * Rebuilds everything if a connection has been added since it was last built.
+     */
+    private void update(){
+        if(graph != null && connectionChanges == world.getConnectionChanges())
+            return;
+
+        connectionChanges = world.getConnectionChanges();
+        graph = new RoomGraph(world);
+        paths.clear();
+
+        int n = graph.getRoomCount();
+
+        buildReverse(n);
+        buildComponents(n);
+        buildStrongComponents(n);
+
+        positionsById = new int[3 * n];
+        hasPosition = new boolean[n];
+        for(Map.Entry<String, int[]> e : positions.entrySet()){
+            int id = graph.getId(e.getKey());
+
+            if(id >= 0)
+                place(id, e.getValue());
+        }
+
+        positionsChecked = false;
+        diagonal = false;
+        for(int u = 0; u < n && !diagonal; u++)
+            for(Direction d : new Direction[]{ Direction.NORTH_EAST, Direction.SOUTH_EAST, Direction.SOUTH_WEST, Direction.NORTH_WEST })
+                diagonal |= graph.getConnection(u, d) >= 0;
+
+        stamp = 0;
+        seen = new int[n];
+        seenBackward = new int[n];
+        distance = new int[n];
+        distanceBackward = new int[n];
+        parent = new int[n];
+        parentDirection = new byte[n];
+        next = new int[n];
+        nextDirection = new byte[n];
+        queue = new int[n];
+        queueBackward = new int[n];
+    }
+
+    /**
+     * Returns the id of the room passed, rebuilding first if the map has changed or the room is new.
+     */
+    private int id(String room){
+        update();
+        int id = graph.getId(room);
+
+        if(id < 0 && world.getRoom(room) != null) {
+            graph = null;
+            update();
+            id = graph.getId(room);
+        }
+
+        if(id < 0)
+            throw new RuntimeException("There is no room with the engine name \"" + room + "\".");
+
+        return id;
+    }
+
+    /**
+     * Starts a new search, so that every room counts as unseen.
+     */
+    private void newSearch(){
+        if(++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(seenBackward, 0);
+            stamp = 1;
+        }
+    }
+
+    private void buildReverse(int n){
+        reverseStart = new int[n + 1];
+
+        for(int u = 0; u < n; u++)
+            for(int o = 0; o < RoomGraph.DIRECTIONS; o++){
+                int v = graph.getConnection(u, o);
+
+                if(v >= 0)
+                    reverseStart[v + 1]++;
+            }
+
+        for(int i = 0; i < n; i++)
+            reverseStart[i + 1] += reverseStart[i];
+
+        reverseFrom = new int[reverseStart[n]];
+        reverseDirection = new byte[reverseStart[n]];
+        int[] next = reverseStart.clone();
+
+        for(int u = 0; u < n; u++)
+            for(int o = 0; o < RoomGraph.DIRECTIONS; o++){
+                int v = graph.getConnection(u, o);
+
+                if(v >= 0) {
+                    reverseFrom[next[v]] = u;
+                    reverseDirection[next[v]++] = (byte) o;
+                }
+            }
+    }
+
+    /**
+     * Finds the connected components with union-find.
+     */
+    private void buildComponents(int n){
+        int[] root = new int[n];
+        for(int i = 0; i < n; i++)
+            root[i] = i;
+
+        for(int u = 0; u < n; u++)
+            for(int o = 0; o < RoomGraph.DIRECTIONS; o++){
+                int v = graph.getConnection(u, o);
+
+                if(v >= 0) {
+                    int a = find(root, u);
+                    int b = find(root, v);
+
+                    if(a != b)
+                        root[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+
+        components = new int[n];
+        componentCount = 0;
+
+        for(int i = 0; i < n; i++){
+            int r = find(root, i);
+            components[i] = r == i ? componentCount++ : components[r];
+        }
+    }
+
+    private static int find(int[] root, int i){
+        while(root[i] != i){
+            root[i] = root[root[i]];
+            i = root[i];
+        }
+
+        return i;
+    }
+
+    /**
+     * Finds the strongly connected components with Tarjan's algorithm, using a stack of its own rather than
+     * recursion so that long corridors of rooms don't overflow the thread's stack. Tarjan's algorithm
+     * finishes a component only after every component it leads to, so numbering them in the order they
+     * finish means connections only ever lead to components with the same or a lower number.
+     */
+    private void buildStrongComponents(int n){
+        int[] index = new int[n];
+        int[] low = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int[] callStack = new int[n];
+        int[] nextExit = new int[n];
+
+        Arrays.fill(index, -1);
+        strongComponents = new int[n];
+        strongComponentCount = 0;
+
+        int counter = 0;
+        int top = 0;
+
+        for(int start = 0; start < n; start++){
+            if(index[start] >= 0)
+                continue;
+
+            int depth = 0;
+            callStack[depth++] = start;
+            index[start] = low[start] = counter++;
+            stack[top++] = start;
+            onStack[start] = true;
+            nextExit[start] = 0;
+
+            while(depth > 0){
+                int u = callStack[depth - 1];
+
+                if(nextExit[u] < RoomGraph.DIRECTIONS) {
+                    int v = graph.getConnection(u, nextExit[u]++);
+
+                    if(v < 0)
+                        continue;
+
+                    if(index[v] < 0) {
+                        index[v] = low[v] = counter++;
+                        stack[top++] = v;
+                        onStack[v] = true;
+                        nextExit[v] = 0;
+                        callStack[depth++] = v;
+                    } else if(onStack[v]) {
+                        low[u] = Math.min(low[u], index[v]);
+                    }
+                } else {
+                    depth--;
+
+                    if(depth > 0)
+                        low[callStack[depth - 1]] = Math.min(low[callStack[depth - 1]], low[u]);
+
+                    if(low[u] == index[u]) {
+                        int v;
+                        do {
+                            v = stack[--top];
+                            onStack[v] = false;
+                            strongComponents[v] = strongComponentCount;
+                        } while(v != u);
+
+                        strongComponentCount++;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package resources;
+
+/**
+ * What became of a command given to the Engine.
+ */
+public enum Response {
+    DONE, INCOMPLETE, NOT_UNDERSTOOD, GAME_OVER, EXITED;
+
+    /**
+     * Returns true if no more commands may be given after this response.
+     *
+     * @return true if the game has ended
+     */
+    public boolean isGameEnded(){
+        return this == GAME_OVER || this == EXITED;
+    }
+}
@@ -4,21 +4,29 @@ import java.util.Collection;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.io.Serializable;
 
 /**
  * A class representing a room for a text-only adventure game.
  *
  */
-public class Room {
+public class Room implements Serializable {
 
-    // Collection of items contained in the room
-    private HashMap<String, Item> items;
+    // Version of the Java serialized form of this class
+    private static final long serialVersionUID = 1L;
+
+    // Collection of items contained in the room. Concurrent, so that players sharing the room can look at it while
+    // others take from it, and so that only one of two players taking the same item gets it.
+    private ConcurrentHashMap<String, Item> items;
 
     // Collection of sentient beings in the room
-    private HashMap<String, Sentient> sentients;
+    private ConcurrentHashMap<String, Sentient> sentients;
 
-    // The collection of connected rooms
-    private HashMap<Direction, Room> connectedRooms;
+    // The connected rooms by direction ordinal, null where there is no exit. Null until the first connection is
+    // added, so a room with no exits costs nothing here.
+    private Room[] connectedRooms;
 
     // The description of this room
     private String description;
@@ -32,25 +40,87 @@ public class Room {
     // This is true if the room has been visited.
     private boolean visited;
 
+    // For a room loaded from a MappedWorld, the engine names of the connected rooms by direction ordinal. The
+    // connected rooms are only loaded from the world when the player goes that way. Null for other rooms.
+    private String[] exits;
+
+    // The world that exits are loaded from
+    private transient World exitWorld;
+
+    // The hostile sentients of this room laid out for combat, made when first needed
+    private transient volatile Horde horde;
+
+    // Where the items and sentients that come and go from this room are recorded, or null if nowhere
+    private transient LocationIndex locations;
+
+    // The world this room was added to, which counts the connections added to its rooms, or null if none
+    private transient World world;
+
     public Room(String _publicName, String _engineName, String _description){
         description = _description;
         engineName = _engineName;
         publicName = _publicName;
 
-        items = new HashMap<>();
-        sentients = new HashMap<>();
-        connectedRooms = new HashMap<>();
+        items = new ConcurrentHashMap<>();
+        sentients = new ConcurrentHashMap<>();
+        connectedRooms = null;
 
         visited = false;
     }
 
+    /**
+     * Creates a room whose connections are loaded from the world passed only when they're needed.
+     *
+     * @param _exits - engine names of the connected rooms by direction ordinal, null where there is no exit
+     * @param _exitWorld - World to load the connected rooms from
+     */
+    Room(String _publicName, String _engineName, String _description, String[] _exits, World _exitWorld){
+        this(_publicName, _engineName, _description);
+
+        exits = _exits;
+        exitWorld = _exitWorld;
+    }
+
+    /**
+     * Creates a copy of the room passed that can be changed without changing the original. The copy has the
+     * same connections as the original, but items and sentients of its own; each sentient and corpse is copied
+     * as well, so that hurting a sentient or looting a corpse in the copy leaves the original unharmed.
+     *
+     * @param r - Room to copy
+     */
+    public Room(Room r){
+        description = r.description;
+        engineName = r.engineName;
+        publicName = r.publicName;
+
+        items = new ConcurrentHashMap<>();
+        sentients = new ConcurrentHashMap<>();
+        connectedRooms = r.connectedRooms;
+        exits = r.exits;
+        exitWorld = r.exitWorld;
+
+        for(Map.Entry<String, Item> e : r.items.entrySet()){
+            Item i = e.getValue();
+            items.put(e.getKey(), i instanceof Corpse ? new Corpse((Corpse) i) : i);
+        }
+
+        for(Map.Entry<String, Sentient> e : r.sentients.entrySet()){
+            Sentient copy = new Sentient(e.getValue());
+            copy.setRoom(this);
+            sentients.put(e.getKey(), copy);
+        }
+
+        visited = r.visited;
+    }
+
     /**
      * Drops the item passed into this room.
      *
      * @param item to drop
      */
     public void dropItem(Item item){
-        items.put(item.getPublicName(), item);
+        items.put(item.getPublicName().toLowerCase(), item);
+        located(item, this);
     }
 
     /**
@@ -59,6 +129,29 @@ public class Room {
      */
     public void addSentient(Sentient s){
         sentients.put(s.getName().toLowerCase(), s);
+        s.setRoom(this);
+        s.setLocations(locations);
+        located(s, this);
+        horde = null;
+    }
+
+    /**
+     * Removes the sentient matching the name requested from this room and returns it, or returns null if it
+     * isn't here.
+     *
+     * @param sentientName - name of the sentient
+     * @return Sentient removed, or null
+     */
+    public Sentient removeSentient(String sentientName){
+        Sentient s = sentients.remove(sentientName.toLowerCase());
+
+        if(s != null) {
+            located(s, null);
+            s.setRoom(null);
+            horde = null;
+        }
+
+        return s;
     }
 
     /**
@@ -69,14 +162,12 @@ public class Room {
      * @return Sentient matchting the name or null.
      */
     public Sentient getSentient(String sentientName){
-        if(sentients.containsKey(sentientName))
-            return sentients.get(sentientName.toLowerCase());
-
-        return null;
+        return sentients.get(sentientName.toLowerCase());
     }
 
     /**
-     * Returns a list of hostile sentients that will attack the player.
+     * Returns a list of hostile sentients that will attack the player. Sentients that die are turned into
+     * corpses as they die, so every sentient returned is alive.
      *
      * @return List of Sentient objects that are hostile to the player.
      */
@@ -84,18 +175,102 @@ public class Room {
         ArrayList<Sentient> list = new ArrayList<>();
 
         // First get all the hostile sentients
-        for(Sentient s : sentients.values()) {
-            if(s.isDead()){ // If a sentient is dead, then drop him from the list.
-                Corpse c = new Corpse(s);
-                items.put(c.getPublicName(), c);
-                sentients.remove(s.getName().toLowerCase());
-            } else if (s.isHostile())
+        for(Sentient s : sentients.values())
+            if(s.isHostile())
                 list.add(s);
-        }
 
         return list;
     }
 
+    /**
+     * Returns the hostile sentients of this room as a Horde, ready to fight. The same Horde is returned until
+     * a sentient joins or leaves the room.
+     *
+     * @return Horde of this room
+     */
+    public Horde getHorde(){
+        Horde h = horde;
+
+        if(h == null) {
+            h = new Horde(sentients.values());
+            horde = h;
+        }
+
+        return h;
+    }
+
+    /**
+     * Makes a new Horde the next time one is needed, so that changes to the sentients of this room are seen.
+     */
+    public void refreshHorde(){
+        horde = null;
+    }
+
+    /**
+     * Turns the sentient passed, which has just died, into a corpse, leaving the corpse in the room as an item.
+     * If the corpse of a sentient of the same name already lies here, such as one that died before it was
+     * respawned, the belongings of the sentient are added to that corpse instead, so that neither corpse hides
+     * the other. Called by the Sentient itself as it dies.
+     *
+     * @param s - Sentient that died
+     * @return Corpse holding the belongings of the sentient, or null if the sentient wasn't in this room
+     */
+    Corpse sentientDied(Sentient s){
+        String key = s.getName().toLowerCase();
+
+        if(!sentients.remove(key, s))
+            return null;
+
+        s.setRoom(null);
+        horde = null;
+
+        Corpse c = new Corpse(s);
+        Item existing = items.putIfAbsent(c.getPublicName().toLowerCase(), c);
+
+        if(existing == null) {
+            located(s, c);
+            located(c, this);
+            return c;
+        }
+
+        // An item that isn't a corpse but is named like one was put there on purpose; the belongings are then
+        // left lying in the room wherever nothing of the same name lies, and kept by the dead sentient otherwise
+        Corpse first = existing instanceof Corpse ? (Corpse) existing : null;
+
+        for(Item i : new ArrayList<>(s.getInventory())){
+            if(first != null) {
+                first.getSentient().addItem(s.dropItem(i.getPublicName()));
+            } else if(items.putIfAbsent(i.getPublicName().toLowerCase(), i) == null) {
+                s.dropItem(i.getPublicName());
+                located(i, this);
+            }
+        }
+
+        located(s, first);
+
+        return first;
+    }
+
+    /**
+     * Turns every dead sentient in this room into a corpse. Sentients are turned into corpses as they die, so
+     * this only finds sentients that were already dead when they were added.
+     *
+     * @return List of the corpses that were made
+     */
+    public List<Corpse> removeDeadSentients(){
+        ArrayList<Corpse> corpses = new ArrayList<>();
+
+        for(Sentient s : new ArrayList<>(sentients.values()))
+            if(s.isDead()) {
+                Corpse c = sentientDied(s);
+
+                if(c != null && !corpses.contains(c))
+                    corpses.add(c);
+            }
+
+        return corpses;
+    }
+
     /**
      * Sets this Room as visited.
      */
@@ -122,7 +297,17 @@ public class Room {
      * @param r - Room that will be connected
      */
     public void addOneWayConnection(Direction d, Room r){
-        connectedRooms.put(d, r);
+        if(exits != null)
+            throw new RuntimeException("Cannot add a connection to a room of a read-only world.");
+
+        if(connectedRooms == null)
+            connectedRooms = new Room[Direction.values().length];
+
+        connectedRooms[d.ordinal()] = r;
+
+        World w = world;
+        if(w != null)
+            w.connectionAdded();
     }
 
     /**
@@ -133,10 +318,25 @@ public class Room {
      * @return Room object or null
      */
     public Room getConnection(Direction d){
-        if(!connectedRooms.containsKey(d))
-            return null;
+        if(exits != null)
+            return exits[d.ordinal()] == null ? null : exitWorld.getRoom(exits[d.ordinal()]);
+
+        return connectedRooms == null ? null : connectedRooms[d.ordinal()];
+    }
+
+    /**
+     * Returns the engine name of the room connected in the direction passed, without loading that room from a
+     * MappedWorld, or null if there is no exit that way.
+     *
+     * @param d - Direction that is requested
+     * @return String engine name or null
+     */
+    String getConnectionName(Direction d){
+        if(exits != null)
+            return exits[d.ordinal()];
 
-        return connectedRooms.get(d);
+        Room r = getConnection(d);
+        return r == null ? null : r.getEngineName();
     }
 
     /**
@@ -147,10 +347,10 @@ public class Room {
      * @throws RuntimeException
      */
     public void addItem(Item i){
-        if(items.containsKey(i.getPublicName().toLowerCase()))
+        if(items.putIfAbsent(i.getPublicName().toLowerCase(), i) != null)
             throw new RuntimeException("Item with name lower case name \"" + i.getPublicName().toLowerCase() + "\" already exists.");
 
-        items.put(i.getPublicName().toLowerCase(), i);
+        located(i, this);
     }
 
     /**
@@ -161,26 +361,72 @@ public class Room {
      * @return Item - the item to take, or null
      */
     public Item takeItem(String itemName){
-        // If the item exists, we will run a couple of checks
-        if(items.containsKey(itemName.toLowerCase())) {
-            Item i = items.get(itemName.toLowerCase());
+        Item i = items.get(itemName.toLowerCase());
 
-            // If the item can't be taken, return null
-            if(!i.canBeTaken())
-                return null;
+        // If the item isn't here or can't be taken, return null
+        if(i == null || !i.canBeTaken())
+            return null;
 
-            // Otherwise, remove the item and return it.
-            items.remove(itemName.toLowerCase());
-            return i;
-        }
+        // Otherwise, remove the item and return it - unless someone else removed it first
+        if(!items.remove(itemName.toLowerCase(), i))
+            return null;
 
-        return null;
+        located(i, null);
+        return i;
+    }
+
+    /**
+     * Records the location of the item or sentient passed in the index of this room, if it has one.
+     *
+     * @param thing - Item or Sentient that moved
+     * @param location - where it is now, or null if it has been taken out of the room
+     */
+    private void located(Object thing, Object location){
+        LocationIndex index = locations;
+
+        if(index == null)
+            return;
+
+        if(location == null)
+            index.remove(thing);
+        else
+            index.put(thing, location);
     }
 
     /*
     Getters and Setters are all here:
      */
 
+    LocationIndex getLocations(){
+        return locations;
+    }
+
+    /**
+     * Sets the index that records where the items and sentients of this room are, recording everything already
+     * here in it.
+     *
+     * @param _locations - LocationIndex of the World or WorldState this room belongs to
+     */
+    void setLocations(LocationIndex _locations){
+        locations = _locations;
+
+        for(Item i : items.values()){
+            located(i, this);
+
+            // The items a corpse holds are recorded as held by the sentient it was
+            if(i instanceof Corpse) {
+                Sentient s = ((Corpse) i).getSentient();
+                s.setLocations(locations);
+                located(s, i);
+            }
+        }
+
+        for(Sentient s : sentients.values()){
+            s.setLocations(locations);
+            located(s, this);
+        }
+    }
+
     public String getPublicName(){
         return publicName;
     }
@@ -195,7 +441,7 @@ public class Room {
      *
      * Returns true if the item passed is contained in this room.
      *
-     * @param itemName - String name of item in lower case
+     * @param itemName - String name of item, in any case
      * @return true if this item is in the room
      */
     public boolean hasItem(String itemName){
@@ -203,10 +449,7 @@ public class Room {
     }
 
     public Item getItem(String itemName){
-        if(items.containsKey(itemName.toLowerCase()))
-            return items.get(itemName.toLowerCase());
-
-        return null;
+        return items.get(itemName.toLowerCase());
     }
 
     public String getDescription() {
@@ -222,14 +465,39 @@ public class Room {
     }
 
     public boolean hasSentient(String sentientName){
-        return sentients.containsKey(sentientName);
+        return sentients.containsKey(sentientName.toLowerCase());
     }
 
+    /**
+     * Returns the rooms connected to this one by direction. The map is made on each call, so moving the player
+     * should use getConnection() instead. For a room loaded from a MappedWorld, this loads every connected room.
+     *
+     * @return HashMap of connected rooms
+     */
     public HashMap<Direction, Room> getRooms(){
-        return connectedRooms;
+        HashMap<Direction, Room> rooms = new HashMap<>();
+
+        for(Direction d : Direction.values()){
+            Room r = getConnection(d);
+
+            if(r != null)
+                rooms.put(d, r);
+        }
+
+        return rooms;
     }
 
     public String getEngineName(){
         return engineName;
     }
+
+    /**
+     * Sets the world this room belongs to, which is told of every connection added to the room from then on.
+     * Called by the World the room is added to.
+     *
+     * @param _world - World the room was added to
+     */
+    void setWorld(World _world){
+        world = _world;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package resources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * RoomGraph
+ *
+ * A compact, read-only copy of the connections between the rooms of a World, for code that walks the map
+ * rather than playing it: finding paths, checking which rooms can be reached, and so on.
+ *
+ * Every room is given a dense int id - its position among the engine names of the World in sorted order - and
+ * the exits of every room are kept in a single int array, DIRECTIONS entries per room indexed by
+ * Direction.ordinal(). Following an exit is two array reads, with no hashing and no Room objects, so a graph
+ * of millions of rooms takes a few tens of bytes per room and stays in a handful of objects.
+ *
+ * A RoomGraph does not follow changes to the World made after it was built.
+ */
+public class RoomGraph {
+
+    // The number of exits each room has room for
+    public static final int DIRECTIONS = Direction.values().length;
+
+    // The engine name of every room, sorted; the id of a room is its position here
+    private String[] names;
+
+    // The id of the room connected to each room in each direction, or -1, at id * DIRECTIONS + ordinal
+    private int[] exits;
+
+    // The world the graph was built from
+    private World world;
+
+    /**
+     * Builds the graph of the World passed. For a MappedWorld every room is read once, but connected rooms are
+     * never loaded.
+     *
+     * @param _world - World to build the graph of
+     */
+    public RoomGraph(World _world){
+        world = _world;
+
+        ArrayList<String> list = new ArrayList<>();
+        for(Room r : world.getRooms())
+            list.add(r.getEngineName());
+
+        names = list.toArray(new String[0]);
+        Arrays.sort(names);
+
+        exits = new int[names.length * DIRECTIONS];
+        Arrays.fill(exits, -1);
+
+        // Ids are looked up through a HashMap while building, which is much faster than searching the names
+        HashMap<String, Integer> ids = new HashMap<>(names.length * 2);
+        for(int i = 0; i < names.length; i++)
+            ids.put(names[i], i);
+
+        Direction[] directions = Direction.values();
+
+        for(Room r : world.getRooms()){
+            int base = ids.get(r.getEngineName()) * DIRECTIONS;
+
+            for(Direction d : directions){
+                String name = r.getConnectionName(d);
+
+                if(name != null)
+                    exits[base + d.ordinal()] = ids.get(name);
+            }
+        }
+    }
+
+    /**
+     * Returns the id of the room connected to the room passed in the direction passed.
+     *
+     * @param id - int id of the room to go from
+     * @param d - Direction to go
+     * @return int id of the connected room, or -1 if there is no exit that way
+     */
+    public int getConnection(int id, Direction d){
+        return exits[id * DIRECTIONS + d.ordinal()];
+    }
+
+    /**
+     * Returns the id of the room connected to the room passed in the direction with the ordinal passed, for
+     * loops over every exit of a room.
+     *
+     * @param id - int id of the room to go from
+     * @param ordinal - int ordinal of the Direction to go
+     * @return int id of the connected room, or -1 if there is no exit that way
+     */
+    public int getConnection(int id, int ordinal){
+        return exits[id * DIRECTIONS + ordinal];
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    /**
+     * Returns the id of the room with the engine name passed.
+     *
+     * @param engineName - String engine name of the room
+     * @return int id, or -1 if the World has no such room
+     */
+    public int getId(String engineName){
+        int id = Arrays.binarySearch(names, engineName);
+
+        return id < 0 ? -1 : id;
+    }
+
+    public String getEngineName(int id){
+        return names[id];
+    }
+
+    /**
+     * Returns the room of the World with the id passed.
+     *
+     * @param id - int id of the room
+     * @return Room
+     */
+    public Room getRoom(int id){
+        return world.getRoom(names[id]);
+    }
+
+    public int getRoomCount(){
+        return names.length;
+    }
+
+    public World getWorld(){
+        return world;
+    }
+}
@@ -0,0 +1,445 @@
+package resources;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SaveFile
+ *
+ * Reads and writes saved games. A saved game is a compact, versioned binary snapshot of everything about an
+ * Engine: every room as the player sees it, the connections between rooms, the items and sentients in each
+ * room, which rooms have been visited, and the player.
+ *
+ * The file is laid out as:
+ *
+ *     header       magic number, version, number of rooms
+ *     rooms        public name, engine name, description, visited, items, sentients
+ *     connections  for each room, the number of exits followed by (direction, room index) pairs
+ *     game         index of the starting room, index of the current room, the player
+ *
+ * Strings are written as the length of their UTF-8 bytes followed by the bytes, with a length of -1 for null.
+ * Rooms refer to each other by their position in the file.
+ *
+ * A game is saved to a temporary file which then replaces the old save in a single move, so a crash while
+ * saving leaves the previous save as it was.
+ */
+public class SaveFile {
+
+    // The name of the file a game is saved to, inside the configuration directory
+    public static final String FILE_NAME = "adventure.tacfg";
+
+    // The version of the format written by this class
+    public static final int VERSION = 1;
+
+    // The first four bytes of every save - "TACF"
+    private static final int MAGIC = 0x54414346;
+
+    // The kinds of item that may be saved
+    private static final byte ITEM = 0;
+    private static final byte WEAPON = 1;
+    private static final byte CORPSE = 2;
+
+    // The size of the buffer used while writing
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Saves the game being played by the engine passed to the path passed, replacing any save already there.
+     *
+     * @param engine - Engine to save
+     * @param path - Path of the file to write
+     * @throws IOException if the file can't be written
+     */
+    public static void save(Engine engine, Path path) throws IOException {
+        Tracer tracer = engine.getTracer();
+        Object trace = tracer == null ? null : tracer.persistenceStarted();
+        long size;
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+
+        try {
+            try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+                Writer out = new Writer(channel);
+                write(engine, out);
+                out.flush();
+
+                channel.force(true);
+                size = channel.position();
+            }
+
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch(AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+
+        if(trace != null)
+            tracer.persistenceEnded(trace, "save", path, size);
+    }
+
+    /**
+     * Loads the game saved at the path passed into a new Engine, with a World of its own.
+     *
+     * @param path - Path of the file to read
+     * @return Engine ready to continue the saved game
+     * @throws IOException if the file can't be read
+     */
+    public static Engine load(Path path) throws IOException {
+        Tracer tracer = Tracer.DEFAULT;
+        Object trace = tracer == null ? null : tracer.persistenceStarted();
+        ByteBuffer in;
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            if(channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Saved game " + path + " is too large to load.");
+
+            in = ByteBuffer.allocate((int) channel.size());
+
+            while(in.hasRemaining())
+                if(channel.read(in) < 0)
+                    throw new IOException("Saved game " + path + " ended early.");
+
+            in.flip();
+        }
+
+        Engine engine = read(in);
+
+        if(trace != null)
+            tracer.persistenceEnded(trace, "load", path, in.capacity());
+
+        return engine;
+    }
+
+    /*
+     * Writing
+     */
+
+    private static void write(Engine engine, Writer out) throws IOException {
+        World world = engine.getWorld();
+        WorldState state = engine.getState();
+
+        ArrayList<Room> rooms = new ArrayList<>(world.getRooms());
+        HashMap<String, Integer> indexes = new HashMap<>();
+
+        for(int i = 0; i < rooms.size(); i++)
+            indexes.put(rooms.get(i).getEngineName(), i);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(rooms.size());
+
+        for(Room template : rooms){
+            Room r = state.view(template);
+
+            out.writeString(r.getPublicName());
+            out.writeString(r.getEngineName());
+            out.writeString(r.getDescription());
+            out.writeBoolean(state.isVisited(template));
+
+            writeItems(r.getItems(), out);
+
+            out.writeInt(r.getSentients().size());
+            for(Sentient s : r.getSentients())
+                writeSentient(s, out);
+        }
+
+        for(Room r : rooms){
+            out.writeByte(r.getRooms().size());
+
+            for(Map.Entry<Direction, Room> exit : r.getRooms().entrySet()){
+                out.writeByte(exit.getKey().ordinal());
+                out.writeInt(indexes.get(exit.getValue().getEngineName()));
+            }
+        }
+
+        Room current = engine.getCurrentRoom() == null ? world.getStartingRoom() : world.getRoom(engine.getCurrentRoom().getEngineName());
+
+        out.writeInt(world.getStartingRoom() == null ? -1 : indexes.get(world.getStartingRoom().getEngineName()));
+        out.writeInt(current == null ? -1 : indexes.get(current.getEngineName()));
+
+        out.writeBoolean(engine.getPlayer() != null);
+        if(engine.getPlayer() != null)
+            writeSentient(engine.getPlayer(), out);
+    }
+
+    static void writeItems(Collection<Item> items, Writer out) throws IOException {
+        out.writeInt(items.size());
+
+        for(Item i : items){
+            if(i instanceof Corpse) {
+                out.writeByte(CORPSE);
+                writeSentient(((Corpse) i).getSentient(), out);
+                continue;
+            }
+
+            out.writeByte(i instanceof Weapon ? WEAPON : ITEM);
+            out.writeString(i.getPublicName());
+            out.writeString(i.getEngineName());
+            out.writeString(i.getDescription());
+            out.writeBoolean(i.canBeTaken());
+            out.writeInt(i.getQuantity());
+
+            if(i instanceof Weapon){
+                out.writeDouble(((Weapon) i).getToHitBonus());
+                out.writeInt(((Weapon) i).getDamageBonus());
+            }
+        }
+    }
+
+    static void writeSentient(Sentient s, Writer out) throws IOException {
+        out.writeString(s.getName());
+        out.writeString(s.getDescription());
+        out.writeInt(s.getCurrentHitPoints());
+        out.writeInt(s.getTotalHitPoints());
+        out.writeDouble(s.getAttack());
+        out.writeInt(s.getDefense());
+        out.writeInt(s.getDamage());
+        out.writeDouble(s.getToHit());
+        out.writeDouble(s.getToHitBonus());
+        out.writeInt(s.getDamageBonus());
+        out.writeBoolean(s.isHostile());
+        out.writeBoolean(s.isDead());
+
+        writeItems(s.getInventory(), out);
+
+        out.writeString(s.getEquippedWeapon() == null ? null : s.getEquippedWeapon().getPublicName().toLowerCase());
+    }
+
+    /*
+     * Reading
+     */
+
+    private static Engine read(ByteBuffer in) throws IOException {
+        if(in.remaining() < 12 || in.getInt() != MAGIC)
+            throw new IOException("Not a saved game.");
+
+        int version = in.getInt();
+        if(version != VERSION)
+            throw new IOException("Cannot load a saved game of version " + version + "; expected version " + VERSION + ".");
+
+        World world = new World();
+        Room[] rooms = new Room[in.getInt()];
+        boolean[] visited = new boolean[rooms.length];
+
+        for(int i = 0; i < rooms.length; i++){
+            String publicName = readString(in);
+            String engineName = readString(in);
+            String description = readString(in);
+
+            world.addRoom(publicName, engineName, description);
+            Room r = rooms[i] = world.getRoom(engineName);
+            visited[i] = readBoolean(in);
+
+            for(int count = in.getInt(); count > 0; count--)
+                r.addItem(readItem(in, world));
+
+            for(int count = in.getInt(); count > 0; count--){
+                Sentient s = readSentient(in, world);
+                r.addSentient(s);
+                world.addSentientName(s.getName());
+            }
+        }
+
+        Direction[] directions = Direction.values();
+
+        for(Room r : rooms)
+            for(int count = in.get(); count > 0; count--)
+                r.addOneWayConnection(directions[in.get()], rooms[in.getInt()]);
+
+        int starting = in.getInt();
+        int current = in.getInt();
+
+        if(starting >= 0)
+            world.setStartingRoom(rooms[starting].getEngineName());
+
+        Sentient player = readBoolean(in) ? readSentient(in, world) : null;
+
+        Engine engine = new Engine(world, player);
+
+        for(int i = 0; i < rooms.length; i++)
+            if(visited[i])
+                engine.getState().visit(rooms[i]);
+
+        if(current >= 0)
+            engine.restoreCurrentRoom(rooms[current]);
+
+        return engine;
+    }
+
+    /**
+     * Reads an item, adding its name to the world passed unless the world is null.
+     */
+    static Item readItem(ByteBuffer in, World world){
+        byte kind = in.get();
+
+        if(kind == CORPSE) {
+            Corpse c = new Corpse(readSentient(in, world));
+            if(world != null)
+                world.addName(c.getPublicName());
+            return c;
+        }
+
+        String publicName = readString(in);
+        String engineName = readString(in);
+        String description = readString(in);
+        boolean canBeTaken = readBoolean(in);
+        int quantity = in.getInt();
+
+        Item i;
+        if(kind == WEAPON)
+            i = new Weapon(publicName, engineName, description, in.getDouble(), in.getInt());
+        else
+            i = new Item(publicName, engineName, description, canBeTaken);
+
+        i.setQuantity(quantity);
+        if(world != null)
+            world.addName(publicName);
+
+        return i;
+    }
+
+    /**
+     * Reads a sentient, adding the names of its items to the world passed unless the world is null.
+     */
+    static Sentient readSentient(ByteBuffer in, World world){
+        Sentient s = new Sentient(readString(in), readString(in), in.getInt(), in.getInt(), in.getDouble(), in.getInt(),
+                in.getInt(), in.getDouble(), in.getDouble(), in.getInt(), readBoolean(in), readBoolean(in));
+
+        for(int count = in.getInt(); count > 0; count--)
+            s.addItem(readItem(in, world));
+
+        String equipped = readString(in);
+        if(equipped != null)
+            s.restoreEquippedWeapon((Weapon) s.getItem(equipped));
+
+        return s;
+    }
+
+    static boolean readBoolean(ByteBuffer in){
+        return in.get() != 0;
+    }
+
+    static String readString(ByteBuffer in){
+        int length = in.getInt();
+
+        if(length < 0)
+            return null;
+
+        if(!in.hasArray()) {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+
+        return s;
+    }
+
+    /**
+     * Writes values into a buffer, handing the buffer to a file channel each time it fills up.
+     */
+    static class Writer {
+
+        // The channel being written to
+        private WritableByteChannel channel;
+
+        // Values waiting to be written
+        private ByteBuffer buffer;
+
+        // The number of bytes handed to the channel so far
+        private long written;
+
+        Writer(WritableByteChannel _channel){
+            channel = _channel;
+            buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            written = 0;
+        }
+
+        /**
+         * Returns the position in the file that the next value will be written at.
+         */
+        long position(){
+            return written + buffer.position();
+        }
+
+        void writeByte(int b) throws IOException {
+            ensure(1);
+            buffer.put((byte) b);
+        }
+
+        void writeBoolean(boolean b) throws IOException {
+            writeByte(b ? 1 : 0);
+        }
+
+        void writeInt(int i) throws IOException {
+            ensure(4);
+            buffer.putInt(i);
+        }
+
+        void writeLong(long l) throws IOException {
+            ensure(8);
+            buffer.putLong(l);
+        }
+
+        void writeDouble(double d) throws IOException {
+            ensure(8);
+            buffer.putDouble(d);
+        }
+
+        void writeString(String s) throws IOException {
+            if(s == null) {
+                writeInt(-1);
+                return;
+            }
+
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+
+            // Long strings are written across as many buffers as it takes
+            for(int offset = 0; offset < bytes.length; ){
+                ensure(1);
+
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        /**
+         * Makes sure there is room in the buffer for the number of bytes passed.
+         */
+        private void ensure(int bytes) throws IOException {
+            if(buffer.remaining() < bytes)
+                flush();
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+
+            while(buffer.hasRemaining())
+                written += channel.write(buffer);
+
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package resources;
+
+import java.util.Arrays;
+
+/**
+ * Scheduler
+ *
+ * Runs TimedEvents when their tick comes. Each Engine has a Scheduler, and every command the player completes
+ * is one tick; advance() runs everything that has come due.
+ *
+ * Events wait in a binary heap ordered by the tick they are due on, so a tick on which nothing is due costs
+ * one look at the top of the heap, and a tick on which k events are due costs k times the logarithm of the
+ * number waiting. Nothing is done for the rooms and sentients of the world that have no events. Events due
+ * on the same tick run in the order they were scheduled.
+ *
+ * A Scheduler is not thread safe; it belongs to the Engine that ticks it.
+ */
+public class Scheduler {
+
+    /**
+     * An event waiting in a Scheduler, which may be cancelled.
+     */
+    public static class Entry {
+
+        // The event to run
+        private TimedEvent event;
+
+        // The tick the event is next due on
+        private long due;
+
+        // Ticks between runs of a repeating event, or 0
+        private long period;
+
+        // Breaks ties between entries due on the same tick: entries scheduled first run first
+        private long sequence;
+
+        // Where the entry sits in the heap, or -1 once it is no longer waiting
+        private int index;
+
+        private Entry(TimedEvent _event, long _due, long _period){
+            event = _event;
+            due = _due;
+            period = _period;
+            index = -1;
+        }
+
+        public long getDue(){
+            return due;
+        }
+
+        public boolean isWaiting(){
+            return index >= 0;
+        }
+    }
+
+    // The current tick
+    private long tick;
+
+    // The waiting entries, as a binary heap ordered by due tick and then by sequence
+    private Entry[] heap;
+
+    // The number of waiting entries
+    private int size;
+
+    // The sequence number given to the next entry scheduled
+    private long nextSequence;
+
+    public Scheduler(){
+        tick = 0;
+        heap = new Entry[16];
+        size = 0;
+    }
+
+    /**
+     * Schedules the event passed to happen once, the number of ticks passed from now.
+     *
+     * @param delay - long ticks from now, at least 1
+     * @param event - TimedEvent to run
+     * @return Entry that can be cancelled
+     */
+    public Entry schedule(long delay, TimedEvent event){
+        return add(new Entry(event, tick + Math.max(1, delay), 0));
+    }
+
+    /**
+     * Schedules the event passed to happen the number of ticks passed from now, and then again every period
+     * ticks until it is cancelled.
+     *
+     * @param delay - long ticks until the first time, at least 1
+     * @param period - long ticks between each time after, at least 1
+     * @param event - TimedEvent to run
+     * @return Entry that can be cancelled
+     */
+    public Entry scheduleRepeating(long delay, long period, TimedEvent event){
+        if(period < 1)
+            throw new RuntimeException("A repeating event must have a period of at least one tick.");
+
+        return add(new Entry(event, tick + Math.max(1, delay), period));
+    }
+
+    /**
+     * Stops the entry passed from running. Does nothing if it has already run or been cancelled.
+     *
+     * @param entry - Entry to cancel
+     */
+    public void cancel(Entry entry){
+        int i = entry.index;
+
+        if(i < 0 || i >= size || heap[i] != entry)
+            return;
+
+        entry.index = -1;
+        size--;
+
+        if(i == size) {
+            heap[size] = null;
+            return;
+        }
+
+        Entry last = heap[size];
+        heap[size] = null;
+        place(last, i);
+        siftDown(i);
+        siftUp(last.index);
+    }
+
+    /**
+     * Moves on one tick, running every event that comes due.
+     *
+     * @return int number of events run
+     */
+    public int advance(){
+        return advanceTo(tick + 1);
+    }
+
+    /**
+     * Moves on to the tick passed, running every event due up to and including it in order. Repeating events
+     * run once for every time they come due.
+     *
+     * @param target - long tick to move to
+     * @return int number of events run
+     */
+    public int advanceTo(long target){
+        int ran = 0;
+
+        while(size > 0 && heap[0].due <= target){
+            Entry e = heap[0];
+            tick = e.due;
+
+            removeTop();
+
+            if(e.period > 0) {
+                e.due += e.period;
+                add(e);
+            }
+
+            e.event.happen(tick);
+            ran++;
+        }
+
+        tick = Math.max(tick, target);
+        return ran;
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    public long getTick(){
+        return tick;
+    }
+
+    /**
+     * Returns the number of events waiting.
+     *
+     * @return int number of entries
+     */
+    public int size(){
+        return size;
+    }
+
+    /*
+     * The heap
+     */
+
+    private Entry add(Entry e){
+        if(size == heap.length)
+            heap = Arrays.copyOf(heap, size * 2);
+
+        e.sequence = nextSequence++;
+        place(e, size++);
+        siftUp(e.index);
+
+        return e;
+    }
+
+    private void removeTop(){
+        heap[0].index = -1;
+        size--;
+
+        Entry last = heap[size];
+        heap[size] = null;
+
+        if(size > 0) {
+            place(last, 0);
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int i){
+        Entry e = heap[i];
+
+        while(i > 0 && before(e, heap[(i - 1) / 2])){
+            place(heap[(i - 1) / 2], i);
+            i = (i - 1) / 2;
+        }
+
+        place(e, i);
+    }
+
+    private void siftDown(int i){
+        Entry e = heap[i];
+
+        while(2 * i + 1 < size){
+            int child = 2 * i + 1;
+
+            if(child + 1 < size && before(heap[child + 1], heap[child]))
+                child++;
+
+            if(!before(heap[child], e))
+                break;
+
+            place(heap[child], i);
+            i = child;
+        }
+
+        place(e, i);
+    }
+
+    private void place(Entry e, int i){
+        heap[i] = e;
+        e.index = i;
+    }
+
+    private static boolean before(Entry a, Entry b){
+        return a.due < b.due || (a.due == b.due && a.sequence < b.sequence);
+    }
+}
@@ -1,12 +1,17 @@
 package resources;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Collection;
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Representation of a Sentient in a text based adventure game.
  */
-public class Sentient {
+public class Sentient implements Serializable {
+
+    // Version of the Java serialized form of this class
+    private static final long serialVersionUID = 1L;
 
     // The name of this Sentient
     private String name;
@@ -41,8 +46,8 @@ public class Sentient {
     // True if this Sentient is hostile - that is, will attack
     private boolean isHostile;
 
-    // The inventory of this Sentient
-    private HashMap<String, Item> inventory;
+    // The inventory of this Sentient. Concurrent, as other players may loot it once it is a corpse.
+    private ConcurrentHashMap<String, Item> inventory;
 
     // The weapon that is currently equipped
     private Weapon equippedWeapon;
@@ -50,6 +55,12 @@ public class Sentient {
     // The description of the Sentient being itself
     private String description;
 
+    // The room this Sentient is in, which is told when it dies; null for the player
+    private transient Room room;
+
+    // Where the items this Sentient picks up and drops are recorded, or null if nowhere
+    private transient LocationIndex locations;
+
     public Sentient(String _name, String _description, int hitPoints, double _attack, int _defense, int _damage, double _toHit, boolean _isHostile){
         name = _name;
         description = _description;
@@ -62,7 +73,7 @@ public class Sentient {
         isHostile = _isHostile;
         isDead = false;
 
-        inventory = new HashMap<>();
+        inventory = new ConcurrentHashMap<>();
 
         equippedWeapon = null;
     }
@@ -77,11 +88,58 @@ public class Sentient {
         toHit = 0.0;
         isDead = false;
 
-        inventory = new HashMap<>();
+        inventory = new ConcurrentHashMap<>();
+
+        equippedWeapon = null;
+    }
+
+    /**
+     * Creates a Sentient exactly as it was when it was saved. Used when loading a saved game.
+     */
+    Sentient(String _name, String _description, int _currentHitPoints, int _totalHitPoints, double _attack, int _defense,
+             int _damage, double _toHit, double _toHitBonus, int _damageBonus, boolean _isHostile, boolean _isDead){
+        name = _name;
+        description = _description;
+        currentHitPoints = _currentHitPoints;
+        totalHitPoints = _totalHitPoints;
+        attack = _attack;
+        defense = _defense;
+        damage = _damage;
+        toHit = _toHit;
+        toHitBonus = _toHitBonus;
+        damageBonus = _damageBonus;
+        isHostile = _isHostile;
+        isDead = _isDead;
+
+        inventory = new ConcurrentHashMap<>();
 
         equippedWeapon = null;
     }
 
+    /**
+     * Creates a copy of the Sentient passed, with an inventory of its own.
+     *
+     * @param s - Sentient to copy
+     */
+    public Sentient(Sentient s){
+        name = s.name;
+        description = s.description;
+        currentHitPoints = s.currentHitPoints;
+        totalHitPoints = s.totalHitPoints;
+        attack = s.attack;
+        defense = s.defense;
+        toHit = s.toHit;
+        toHitBonus = s.toHitBonus;
+        damage = s.damage;
+        damageBonus = s.damageBonus;
+        isHostile = s.isHostile;
+        isDead = s.isDead;
+
+        inventory = new ConcurrentHashMap<>(s.inventory);
+
+        equippedWeapon = s.equippedWeapon;
+    }
+
     /**
      * Adds the item passed into the inventory of this Sentient.
      *
@@ -89,6 +147,10 @@ public class Sentient {
      */
     public void addItem(Item i){
         inventory.put(i.getPublicName().toLowerCase(), i);
+
+        LocationIndex index = locations;
+        if(index != null)
+            index.put(i, this);
     }
 
     /**
@@ -98,7 +160,7 @@ public class Sentient {
      * @return true if the item is held by the Sentient
      */
     public boolean hasItem(String itemName){
-        return inventory.keySet().contains(itemName);
+        return inventory.containsKey(itemName.toLowerCase());
     }
 
     /**
@@ -108,10 +170,7 @@ public class Sentient {
      * @return null or an Item object
      */
     public Item getItem(String itemName){
-        if(!hasItem(itemName))
-            return null;
-
-        return inventory.get(itemName);
+        return inventory.get(itemName.toLowerCase());
     }
 
     /**
@@ -120,10 +179,13 @@ public class Sentient {
      * @return null or the item that is to be dropped
      */
     public Item dropItem(String itemName) {
-        if (hasItem(itemName))
-            return inventory.remove(itemName);
+        Item i = inventory.remove(itemName.toLowerCase());
+
+        LocationIndex index = locations;
+        if(i != null && index != null)
+            index.remove(i);
 
-        return null;
+        return i;
     }
 
     /**
@@ -135,7 +197,7 @@ public class Sentient {
      */
     public boolean equipWeapon(String weaponName){
         Item i;
-        if(inventory.containsKey(weaponName) && (i = inventory.get(weaponName)) instanceof Weapon){
+        if((i = inventory.get(weaponName.toLowerCase())) instanceof Weapon){
             // First we will unequip the current weapon
             equippedWeapon = (Weapon)i;
             toHit -= toHitBonus;
@@ -158,18 +220,42 @@ public class Sentient {
      * Shows the Sentient's inventory.
      */
     public void showInventory(){
+        showInventory(Output.CONSOLE);
+    }
+
+    /**
+     * Shows the Sentient's inventory on the output passed.
+     *
+     * @param output - Output to write to
+     */
+    public void showInventory(Output output){
         for(Item i : inventory.values())
-            System.out.println(i.toString());
+            output.println(i.toString());
     }
 
     /**
-     * Attacks the sentient passed.
+     * Attacks the sentient passed, rolling with Dice of the calling thread. The result can't be reproduced;
+     * games should use attack(Sentient, Dice).
      *
      * @param s - The Sentient to attack
      * @return true if the attack hits.
      */
     public boolean attack(Sentient s){
-        if(Math.random() + attack >= s.toHit)
+        if(ThreadLocalRandom.current().nextDouble() + attack >= s.toHit)
+            return true;
+
+        return false;
+    }
+
+    /**
+     * Attacks the sentient passed, rolling with the Dice passed.
+     *
+     * @param s - The Sentient to attack
+     * @param dice - Dice to roll
+     * @return true if the attack hits.
+     */
+    public boolean attack(Sentient s, Dice dice){
+        if(dice.nextDouble() + attack >= s.toHit)
             return true;
 
         return false;
@@ -185,8 +271,32 @@ public class Sentient {
         if(defense - damage < 0)
             currentHitPoints += (defense - damage);
 
-        if(currentHitPoints <= 0)
+        checkDeath();
+    }
+
+    /**
+     * Takes the number of hit points passed away, with no defense. Used to apply the damage of many attacks at
+     * once once defense has been taken into account for each.
+     *
+     * @param amount - int hit points lost
+     */
+    void loseHitPoints(int amount){
+        currentHitPoints -= amount;
+
+        checkDeath();
+    }
+
+    /**
+     * Marks this Sentient dead once its hit points run out, and tells the room it is in, which turns it into
+     * a corpse.
+     */
+    private void checkDeath(){
+        if(currentHitPoints <= 0 && !isDead) {
             isDead = true;
+
+            if(room != null)
+                room.sentientDied(this);
+        }
     }
 
     /**
@@ -202,6 +312,20 @@ public class Sentient {
             currentHitPoints = totalHitPoints;
     }
 
+    /**
+     * Returns a copy of this Sentient brought back to life with all of its hit points, holding what it holds
+     * now. Used to respawn a sentient that was killed.
+     *
+     * @return new Sentient
+     */
+    Sentient revived(){
+        Sentient s = new Sentient(this);
+        s.currentHitPoints = totalHitPoints;
+        s.isDead = false;
+
+        return s;
+    }
+
     /**
      * Applies the bonus passed to the toHit score
      * @param bonus - The bonus to apply
@@ -271,4 +395,47 @@ public class Sentient {
     public void setDescription(String _description) { description = _description; }
 
     public int getDamage(){ return damage; }
+
+    public int getTotalHitPoints(){ return totalHitPoints; }
+
+    public double getAttack(){ return attack; }
+
+    public int getDefense(){ return defense; }
+
+    public double getToHit(){ return toHit; }
+
+    public double getToHitBonus(){ return toHitBonus; }
+
+    public int getDamageBonus(){ return damageBonus; }
+
+    public Weapon getEquippedWeapon(){ return equippedWeapon; }
+
+    /**
+     * Sets the equipped weapon without applying its bonuses again. Used when loading a saved game, where the
+     * bonuses were saved along with everything else.
+     *
+     * @param weapon - Weapon that was equipped
+     */
+    void restoreEquippedWeapon(Weapon weapon){ equippedWeapon = weapon; }
+
+    /**
+     * Sets the room this Sentient is in. Called by the Room itself.
+     *
+     * @param _room - Room the Sentient is in, or null
+     */
+    void setRoom(Room _room){ room = _room; }
+
+    /**
+     * Sets the index that records where the items this Sentient holds are, recording everything already held in
+     * it. Called by the Room the Sentient is added to, and by the Engine for the player.
+     *
+     * @param _locations - LocationIndex, or null to stop recording
+     */
+    void setLocations(LocationIndex _locations){
+        locations = _locations;
+
+        if(locations != null)
+            for(Item i : inventory.values())
+                locations.put(i, this);
+    }
 }
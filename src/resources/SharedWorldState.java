@@ -0,0 +1,268 @@
+package resources;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * SharedWorldState
+ *
+ * Everything the players of a shared game have changed about a World. Where every player normally has a
+ * WorldState of their own, and so an adventure of their own, the players given states by the same
+ * SharedWorldState play in the same rooms: an item one of them takes is gone for all of them.
+ *
+ * Each player still has their own visited rooms, but changed rooms are copied once and kept here for everyone.
+ * Players hear what the others do nearby through the InterestManager of the game.
+ * The items and sentients of a room are kept in concurrent maps, so players may look at a room while others
+ * change it. Moving an item between a room, a corpse and an inventory holds the locks of everything involved,
+ * so that while it moves the item is never in two places, or in none, to anyone else holding those locks:
+ *
+ *     take    the room and the taker
+ *     drop    the dropper and the room
+ *     loot    the room, the corpse and the looter
+ *
+ * Locks are striped rather than one per room or sentient: a room or sentient is guarded by one of a fixed
+ * number of locks chosen by its hash, which keeps the memory used by locks fixed however large the World is.
+ * When a transfer needs more than one lock they are always taken in the order of their stripes, so two
+ * transfers can never each hold a lock the other is waiting for.
+ */
+public class SharedWorldState {
+
+    // The number of lock stripes used when none is given
+    public static final int DEFAULT_STRIPES = 64;
+
+    // The world being played
+    private World world;
+
+    // The rooms that have been changed, mapping the engine name of each room to the copy every player sees
+    private ConcurrentHashMap<String, Room> changedRooms;
+
+    // The locks guarding rooms and sentients; a power of two in length
+    private ReentrantLock[] stripes;
+
+    // Decides which players hear about what the others do
+    private InterestManager interest;
+
+    // Where the items and sentients of the changed rooms and the players are; asks the World about the rest
+    private LocationIndex locations;
+
+    public SharedWorldState(World _world){
+        this(_world, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates the shared state of the World passed, guarded by the number of locks passed. More stripes make it
+     * less likely that unrelated transfers wait for each other; a single stripe makes every transfer wait for
+     * every other.
+     *
+     * @param _world - World to be played
+     * @param _stripes - int number of locks, rounded up to a power of two
+     */
+    public SharedWorldState(World _world, int _stripes){
+        if(_stripes < 1)
+            throw new RuntimeException("There must be at least one lock stripe.");
+
+        world = _world;
+        changedRooms = new ConcurrentHashMap<>();
+        interest = new InterestManager();
+        locations = new LocationIndex(world.getLocations());
+
+        int count = 1;
+        while(count < _stripes)
+            count <<= 1;
+
+        stripes = new ReentrantLock[count];
+        for(int i = 0; i < stripes.length; i++)
+            stripes[i] = new ReentrantLock();
+    }
+
+    /**
+     * Returns a new state for a player of the shared game, which sees and changes the rooms every other player
+     * does but visits rooms on its own.
+     *
+     * @return WorldState of a new player
+     */
+    public WorldState newPlayerState(){
+        return new PlayerState();
+    }
+
+    /**
+     * Runs the action passed while holding every lock, so that no item moves until it returns. Used to look at
+     * the whole shared game at once, for instance to count or save it.
+     *
+     * @param action - Supplier to run
+     * @param <T> - type of the result
+     * @return the result of the action
+     */
+    public <T> T runExclusively(Supplier<T> action){
+        for(ReentrantLock l : stripes)
+            l.lock();
+
+        try {
+            return action.get();
+        } finally {
+            for(int i = stripes.length - 1; i >= 0; i--)
+                stripes[i].unlock();
+        }
+    }
+
+    /**
+     * Returns the room as every player sees it.
+     *
+     * @param room - Room of the World
+     * @return the shared copy of the room, or the room itself if it hasn't been changed
+     */
+    public Room view(Room room){
+        Room copy = changedRooms.get(room.getEngineName());
+
+        return copy == null ? room : copy;
+    }
+
+    /**
+     * Returns the shared copy of the room passed so that it can be changed, copying the room the first time.
+     * Two players editing a room at once are given the same copy.
+     *
+     * @param room - Room of the World
+     * @return the shared copy of the room
+     */
+    public Room edit(Room room){
+        Room copy = changedRooms.get(room.getEngineName());
+
+        if(copy != null)
+            return copy;
+
+        return changedRooms.computeIfAbsent(room.getEngineName(), k -> {
+            Room r = new Room(room);
+            r.setLocations(locations);
+            return r;
+        });
+    }
+
+    /*
+     * Striped locking
+     */
+
+    /**
+     * Returns the stripe guarding the room passed. Rooms are striped by engine name, as a MappedWorld may load
+     * the same room more than once.
+     */
+    private int stripeOf(Room room){
+        return spread(room.getEngineName().hashCode());
+    }
+
+    /**
+     * Returns the stripe guarding the inventory of the sentient passed.
+     */
+    private int stripeOf(Sentient s){
+        return spread(System.identityHashCode(s));
+    }
+
+    private int spread(int h){
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    /**
+     * Locks the stripes passed in ascending order, skipping repeats, and returns them sorted so that they can be
+     * unlocked with unlock().
+     */
+    private int[] lock(int... held){
+        Arrays.sort(held);
+
+        for(int i = 0; i < held.length; i++)
+            if(i == 0 || held[i] != held[i - 1])
+                stripes[held[i]].lock();
+
+        return held;
+    }
+
+    private void unlock(int[] held){
+        for(int i = held.length - 1; i >= 0; i--)
+            if(i == 0 || held[i] != held[i - 1])
+                stripes[held[i]].unlock();
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    public World getWorld(){
+        return world;
+    }
+
+    public int getChangedRoomCount(){
+        return changedRooms.size();
+    }
+
+    public int getStripeCount(){
+        return stripes.length;
+    }
+
+    public LocationIndex getLocations(){
+        return locations;
+    }
+
+    public InterestManager getInterest(){
+        return interest;
+    }
+
+    /**
+     * The state of a single player of the shared game: rooms are those of the SharedWorldState, visited rooms
+     * are the player's own.
+     */
+    private class PlayerState extends WorldState {
+
+        @Override
+        public Room view(Room room){
+            return SharedWorldState.this.view(room);
+        }
+
+        @Override
+        public Room edit(Room room){
+            return SharedWorldState.this.edit(room);
+        }
+
+        @Override
+        public Item take(Room room, String itemName, Sentient taker){
+            int[] held = lock(stripeOf(room), stripeOf(taker));
+
+            try {
+                return super.take(room, itemName, taker);
+            } finally {
+                unlock(held);
+            }
+        }
+
+        @Override
+        public Item drop(Sentient dropper, String itemName, Room room){
+            int[] held = lock(stripeOf(dropper), stripeOf(room));
+
+            try {
+                return super.drop(dropper, itemName, room);
+            } finally {
+                unlock(held);
+            }
+        }
+
+        @Override
+        public Item loot(Room room, Corpse corpse, String itemName, Sentient looter){
+            int[] held = lock(stripeOf(room), stripeOf(corpse.getSentient()), stripeOf(looter));
+
+            try {
+                return super.loot(room, corpse, itemName, looter);
+            } finally {
+                unlock(held);
+            }
+        }
+
+        @Override
+        public LocationIndex getLocations(){
+            return locations;
+        }
+
+        @Override
+        public int getChangedRoomCount(){
+            return changedRooms.size();
+        }
+    }
+}
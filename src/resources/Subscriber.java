@@ -0,0 +1,110 @@
+package resources;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Subscriber
+ *
+ * A player listening for what other players do nearby, through an InterestManager. Events published to the
+ * rooms the subscriber listens to are queued here rather than written straight away, and written out in
+ * batches: every event queued since the last flush is written to the output as one piece of text, one line per
+ * event.
+ *
+ * Without a flusher, events wait until flush() is called - the Engine flushes at the end of every turn, so the
+ * player sees what happened around them along with the answer to their command. With a flusher, the first event
+ * queued after a flush schedules a flush on it, so a player who isn't typing anything still hears about events
+ * soon after they happen, and the events that pile up while that flush waits to run are written with it.
+ */
+public class Subscriber {
+
+    // Events waiting to be written
+    private ConcurrentLinkedQueue<String> pending;
+
+    // True while a flush has been handed to the flusher and not yet started
+    private AtomicBoolean flushScheduled;
+
+    // Where batches of events are written
+    private volatile Output output;
+
+    // Runs flushes as events arrive, or null to flush only when asked
+    private volatile Executor flusher;
+
+    // The engine names of the rooms this subscriber listens to; guarded by the InterestManager
+    private Set<String> rooms;
+
+    public Subscriber(Output _output){
+        output = _output;
+
+        pending = new ConcurrentLinkedQueue<>();
+        flushScheduled = new AtomicBoolean();
+        rooms = new HashSet<>();
+    }
+
+    /**
+     * Queues the event passed to be written with the next batch.
+     *
+     * @param event - String line of text describing the event
+     */
+    void deliver(String event){
+        pending.add(event);
+
+        Executor f = flusher;
+        if(f != null && flushScheduled.compareAndSet(false, true))
+            f.execute(this::flush);
+    }
+
+    /**
+     * Writes every event waiting, as one batch, and returns how many there were.
+     *
+     * @return int number of events written
+     */
+    public int flush(){
+        flushScheduled.set(false);
+
+        String event = pending.poll();
+        if(event == null)
+            return 0;
+
+        StringBuilder batch = new StringBuilder(event);
+        int count = 1;
+
+        while((event = pending.poll()) != null){
+            batch.append('\n').append(event);
+            count++;
+        }
+
+        output.println(batch.toString());
+
+        return count;
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    Set<String> getRooms(){
+        return rooms;
+    }
+
+    public int getPendingCount(){
+        return pending.size();
+    }
+
+    public void setOutput(Output _output){
+        output = _output;
+    }
+
+    /**
+     * Sets the executor that flushes events as they arrive. Flushes may run on it at any time, so the output
+     * must be safe to write from its threads.
+     *
+     * @param _flusher - Executor to flush on, or null to flush only when flush() is called
+     */
+    public void setFlusher(Executor _flusher){
+        flusher = _flusher;
+    }
+}
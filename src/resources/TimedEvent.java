@@ -0,0 +1,16 @@
+package resources;
+
+/**
+ * Something that happens in the world at a chosen tick rather than because the player typed a command: a
+ * sentient wandering to the next room, a wound healing, a creature coming back to life. Events are scheduled
+ * with a Scheduler.
+ */
+public interface TimedEvent {
+
+    /**
+     * Makes this event happen.
+     *
+     * @param tick - long tick the event is happening on
+     */
+    void happen(long tick);
+}
@@ -0,0 +1,213 @@
+package resources;
+
+import java.util.function.Predicate;
+
+/**
+ * Splits a line typed by the player into words. The characters of the line are copied into a buffer that is
+ * reused for every line, and each word is kept as an offset into that buffer rather than as a String of its
+ * own. Once the buffer has grown to fit the longest line seen, tokenizing a line makes no garbage at all.
+ *
+ * While copying, letters are put into lower case and every run of whitespace becomes a single space. That
+ * means a phrase of several words, such as "old baguette", can be matched against a Vocabulary straight out of
+ * the buffer however the player spaced it.
+ */
+public class Tokenizer implements CharSequence {
+
+    // The normalized characters of the current line
+    private char[] buffer;
+
+    // The number of characters of the buffer in use
+    private int length;
+
+    // The index in the buffer of the first character of each word
+    private int[] starts;
+
+    // The index in the buffer after the last character of each word
+    private int[] ends;
+
+    // The number of words in the current line
+    private int count;
+
+    public Tokenizer(){
+        buffer = new char[64];
+        starts = new int[8];
+        ends = new int[8];
+
+        length = 0;
+        count = 0;
+    }
+
+    /**
+     * Splits the line passed into words, replacing whatever line was tokenized before.
+     *
+     * @param line - the line to split
+     */
+    public void tokenize(CharSequence line){
+        length = 0;
+        count = 0;
+
+        // The normalized line is never longer than the line itself
+        if(buffer.length < line.length())
+            buffer = new char[Math.max(line.length(), buffer.length * 2)];
+
+        boolean inWord = false;
+
+        for(int i = 0; i < line.length(); i++){
+            char c = line.charAt(i);
+
+            if(Character.isWhitespace(c)){
+                if(inWord)
+                    ends[count++] = length;
+
+                inWord = false;
+                continue;
+            }
+
+            if(!inWord){
+                if(count == starts.length)
+                    grow();
+
+                if(length > 0)
+                    buffer[length++] = ' ';
+
+                starts[count] = length;
+                inWord = true;
+            }
+
+            buffer[length++] = Character.toLowerCase(c);
+        }
+
+        if(inWord)
+            ends[count++] = length;
+    }
+
+    /**
+     * Returns the number of words in the current line.
+     *
+     * @return number of words
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Returns the index of the first character of the word requested.
+     *
+     * @param word - index of the word
+     * @return index into this sequence
+     */
+    public int start(int word){
+        return starts[word];
+    }
+
+    /**
+     * Returns the index after the last character of the word requested.
+     *
+     * @param word - index of the word
+     * @return index into this sequence
+     */
+    public int end(int word){
+        return ends[word];
+    }
+
+    /**
+     * Returns true if the word requested is the same as the word passed. The word passed must be in lower case.
+     *
+     * @param word - index of the word
+     * @param s - lower case String to compare against
+     * @return true if the two are the same
+     */
+    public boolean matches(int word, String s){
+        if(word >= count || ends[word] - starts[word] != s.length())
+            return false;
+
+        for(int i = 0; i < s.length(); i++)
+            if(buffer[starts[word] + i] != s.charAt(i))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Looks up the word requested in the vocabulary passed.
+     *
+     * @param vocabulary - Vocabulary to look in
+     * @param word - index of the word
+     * @return the value stored against the word, or null if the word is not in the vocabulary
+     */
+    public <T> T match(Vocabulary<T> vocabulary, int word){
+        return match(vocabulary, word, word);
+    }
+
+    /**
+     * Looks up the phrase made from the words first through last (inclusive) in the vocabulary passed. Returns
+     * null if the phrase is empty or is not in the vocabulary.
+     *
+     * @param vocabulary - Vocabulary to look in
+     * @param first - index of the first word of the phrase
+     * @param last - index of the last word of the phrase
+     * @return the value stored against the phrase or null
+     */
+    public <T> T match(Vocabulary<T> vocabulary, int first, int last){
+        if(first > last || last >= count)
+            return null;
+
+        return vocabulary.get(this, starts[first], ends[last]);
+    }
+
+    /**
+     * Returns the name of the one thing in scope that the phrase made from the words first through last
+     * (inclusive) calls, by its full name, an alias or the beginning of either. Returns null if the phrase is
+     * empty or calls nothing in scope, or more than one thing.
+     *
+     * @param names - NameIndex to look in
+     * @param first - index of the first word of the phrase
+     * @param last - index of the last word of the phrase
+     * @param scope - test of whether a name is in reach, or null if everything is
+     * @return lower case name or null
+     */
+    public String match(NameIndex names, int first, int last, Predicate<String> scope){
+        if(first > last || last >= count)
+            return null;
+
+        return names.resolve(this, starts[first], ends[last], scope);
+    }
+
+    /*
+     * CharSequence over the normalized line
+     */
+
+    @Override
+    public int length(){
+        return length;
+    }
+
+    @Override
+    public char charAt(int index){
+        return buffer[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end){
+        return new String(buffer, start, end - start);
+    }
+
+    @Override
+    public String toString(){
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * Makes room for more words.
+     */
+    private void grow(){
+        int[] newStarts = new int[starts.length * 2];
+        int[] newEnds = new int[ends.length * 2];
+
+        System.arraycopy(starts, 0, newStarts, 0, count);
+        System.arraycopy(ends, 0, newEnds, 0, count);
+
+        starts = newStarts;
+        ends = newEnds;
+    }
+}
@@ -0,0 +1,81 @@
+package resources;
+
+import java.nio.file.Path;
+
+/**
+ * Where the engine reports the commands it runs, the combat it resolves and the games it saves and loads, for
+ * a profiler to line up with everything else the JVM was doing at the time. Each report comes in two halves: the
+ * start returns a token, or null if nothing is being traced right now, and the end is only called with a token
+ * that isn't null. A tracer that isn't tracing therefore costs a single call per report.
+ *
+ * The tracer every Engine starts with is DEFAULT: the events of Java Flight Recorder if the jfr package is
+ * present and the JVM has Flight Recorder (Java 11 and later), and null otherwise.
+ */
+public interface Tracer {
+
+    // The tracer of the JVM, or null if there is none
+    Tracer DEFAULT = find();
+
+    /**
+     * Called before a command runs.
+     *
+     * @return token to pass to commandEnded, or null if the command isn't traced
+     */
+    Object commandStarted();
+
+    /**
+     * Called once a traced command has run.
+     *
+     * @param token - returned by commandStarted
+     * @param verb - String verb the command started with, or null if it wasn't understood
+     * @param room - Room the player was in when the command was given
+     */
+    void commandEnded(Object token, String verb, Room room);
+
+    /**
+     * Called before the enemies of a room attack the player.
+     *
+     * @return token to pass to combatEnded, or null if the combat isn't traced
+     */
+    Object combatStarted();
+
+    /**
+     * Called once the enemies of a room have attacked the player.
+     *
+     * @param token - returned by combatStarted
+     * @param room - Room the combat was in
+     * @param round - CombatRound that was resolved
+     */
+    void combatEnded(Object token, Room room, CombatRound round);
+
+    /**
+     * Called before a game is saved or loaded.
+     *
+     * @return token to pass to persistenceEnded, or null if it isn't traced
+     */
+    Object persistenceStarted();
+
+    /**
+     * Called once a game has been saved or loaded.
+     *
+     * @param token - returned by persistenceStarted
+     * @param operation - "save" or "load"
+     * @param path - Path of the file written or read
+     * @param bytes - long size of the file
+     */
+    void persistenceEnded(Object token, String operation, Path path, long bytes);
+
+    /**
+     * Returns the Flight Recorder tracer of the jfr package, or null if it isn't present or the JVM can't run
+     * it. Loaded by name, so that the engine itself still runs on Java 8.
+     *
+     * @return Tracer or null
+     */
+    static Tracer find(){
+        try {
+            return (Tracer) Class.forName("jfr.JfrTracer").getConstructor().newInstance();
+        } catch(ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package resources;
+
+/**
+ * A case-insensitive table of words, compiled into a trie. A word is looked up in time proportional to its
+ * length rather than to the number of words in the table, and lookups read straight out of the text that was
+ * typed so that no substrings have to be made.
+ *
+ * Words may contain any printable ASCII character, including spaces.
+ *
+ * @param <T> - type of the value stored against each word
+ */
+public class Vocabulary<T> {
+
+    // The lowest and highest characters a word may contain
+    private static final char FIRST_CHAR = ' ';
+    private static final char LAST_CHAR = '~';
+
+    // The number of children each node of the trie may have
+    private static final int WIDTH = LAST_CHAR - FIRST_CHAR + 1;
+
+    // The root of the trie - matches the empty word
+    private Node<T> root;
+
+    // The number of words in this vocabulary
+    private int size;
+
+    public Vocabulary(){
+        root = new Node<>();
+        size = 0;
+    }
+
+    /**
+     * Adds the word passed to this vocabulary, replacing whatever was stored against it before. Case does not
+     * matter - "Look" and "look" are the same word.
+     *
+     * @param word - String word to add
+     * @param value - the value to store against the word
+     */
+    public void put(String word, T value){
+        if(word == null || word.isEmpty())
+            throw new RuntimeException("Cannot add an empty word to a vocabulary.");
+
+        if(value == null)
+            throw new RuntimeException("Cannot add the word \"" + word + "\" without a value.");
+
+        Node<T> node = root;
+
+        for(int i = 0; i < word.length(); i++){
+            int index = indexOf(word.charAt(i));
+
+            if(index < 0)
+                throw new RuntimeException("Cannot add the word \"" + word + "\"; '" + word.charAt(i) + "' is not a printable character.");
+
+            node = node.child(index);
+        }
+
+        if(node.value == null)
+            size++;
+
+        node.value = value;
+    }
+
+    /**
+     * Returns the value stored against the word passed, or null if the word is not in this vocabulary.
+     *
+     * @param word - the word to look up
+     * @return the value or null
+     */
+    public T get(CharSequence word){
+        return get(word, 0, word.length());
+    }
+
+    /**
+     * Returns the value stored against the characters of the text passed between start (inclusive) and end
+     * (exclusive), or null if those characters are not a word in this vocabulary.
+     *
+     * @param text - text holding the word
+     * @param start - index of the first character of the word
+     * @param end - index after the last character of the word
+     * @return the value or null
+     */
+    public T get(CharSequence text, int start, int end){
+        Node<T> node = root;
+
+        for(int i = start; i < end && node != null; i++){
+            int index = indexOf(text.charAt(i));
+
+            if(index < 0 || node.children == null)
+                return null;
+
+            node = node.children[index];
+        }
+
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns true if the word passed is in this vocabulary.
+     *
+     * @param word - the word to look for
+     * @return true if the word is known
+     */
+    public boolean contains(CharSequence word){
+        return get(word) != null;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Returns the index of the child that the character passed leads to, folding upper case letters into lower
+     * case, or -1 if the character can never appear in a word.
+     *
+     * @param c - character to look up
+     * @return index or -1
+     */
+    private static int indexOf(char c){
+        if(c >= 'A' && c <= 'Z')
+            c += 'a' - 'A';
+
+        if(c < FIRST_CHAR || c > LAST_CHAR)
+            return -1;
+
+        return c - FIRST_CHAR;
+    }
+
+    /**
+     * A single node of the trie. Nodes only allocate their children once a word passes through them.
+     */
+    private static class Node<T> {
+
+        // The nodes reached by each character, or null if no word continues past this node
+        private Node<T>[] children;
+
+        // The value of the word ending at this node, or null if no word ends here
+        private T value;
+
+        @SuppressWarnings("unchecked")
+        private Node<T> child(int index){
+            if(children == null)
+                children = (Node<T>[]) new Node<?>[WIDTH];
+
+            if(children[index] == null)
+                children[index] = new Node<>();
+
+            return children[index];
+        }
+    }
+}
@@ -7,6 +7,9 @@ import resources.Item;
  */
 public class Weapon extends Item {
 
+    // Version of the Java serialized form of this class
+    private static final long serialVersionUID = 1L;
+
     // The bonus applied to the player's toHit value
     private double toHitBonus;
 
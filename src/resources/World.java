@@ -0,0 +1,286 @@
+package resources;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * World
+ *
+ * The definition of an adventure: its rooms, the connections between them, and the items and sentients each
+ * room starts with. A World is built once and may then be shared, read-only, by any number of Engines. Each
+ * Engine keeps whatever its player changes in a WorldState of its own, so the rooms of a World are never
+ * changed by playing the game.
+ *
+ * A World must be completely built before any Engine starts playing it.
+ */
+public class World {
+
+    // HashMap that stores the rooms, mapping their names to their objects themselves
+    private HashMap<String, Room> roomMap;
+
+    // The room that players begin in - the first room added
+    private Room startingRoom;
+
+    // The lower case name and aliases of every item and sentient in the adventure, so that the names the player
+    // types can be found without making a new String for each one
+    private NameIndex names;
+
+    // Where every item and sentient of the rooms of this World is
+    private LocationIndex locations;
+
+    // Counts the connections added to the rooms of this World, so that anything computed from the connections
+    // can tell when it is out of date. Only the rooms of this World count here, so building another World
+    // leaves it alone.
+    private AtomicLong connectionChanges;
+
+    public World(){
+        roomMap = new HashMap<>();
+        names = new NameIndex();
+        locations = new LocationIndex();
+        connectionChanges = new AtomicLong();
+
+        startingRoom = null;
+    }
+
+    /**
+     * Adds the room with the name, description, and unique engine name and populates it.
+     *
+     * @param name - String name that the user will see
+     * @param engineName - String name that will be used to identify this specific room
+     * @param description - String description of the room itself.
+     */
+    public void addRoom(String name, String engineName, String description){
+        if(name == null || description == null)
+            throw new RuntimeException("Cannot add a room without a name or description.");
+
+        if(name.isEmpty())
+            throw new RuntimeException("Cannot add a room with an empty String as the name.");
+
+        Room r = new Room(name, engineName, description);
+        r.setLocations(locations);
+        r.setWorld(this);
+        roomMap.put(r.getEngineName(), r);
+
+        if(startingRoom == null)
+            startingRoom = r;
+    }
+
+    /**
+     * Adds every room passed at once, along with the items and sentients already in them and the connections
+     * already made between them. This is the quick way to build a large World: the rooms can be made and
+     * connected on many threads, then added here in one go, and each name of an item or sentient is only added
+     * to the names the player may type once however many rooms hold it.
+     *
+     * @param rooms - List of Rooms, the first of which players begin in if no room has been added before
+     */
+    public void addRooms(List<Room> rooms){
+        HashSet<String> itemNames = new HashSet<>();
+        HashSet<String> sentientNames = new HashSet<>();
+
+        for(Room r : rooms){
+            if(r.getPublicName() == null || r.getPublicName().isEmpty() || r.getDescription() == null)
+                throw new RuntimeException("Cannot add a room without a name or description.");
+
+            roomMap.put(r.getEngineName(), r);
+            r.setWorld(this);
+
+            for(Item i : r.getItems())
+                itemNames.add(i.getPublicName());
+
+            for(Sentient s : r.getSentients())
+                sentientNames.add(s.getName());
+        }
+
+        // Recording where everything is only touches the rooms themselves and a concurrent index
+        rooms.parallelStream().forEach(r -> r.setLocations(locations));
+
+        // The connections made before the rooms were added weren't counted
+        connectionAdded();
+
+        for(String name : itemNames)
+            addName(name);
+
+        for(String name : sentientNames)
+            addSentientName(name);
+
+        if(startingRoom == null && !rooms.isEmpty())
+            startingRoom = rooms.get(0);
+    }
+
+    /**
+     * Adds a connection between two rooms requested. These room names must exist already in the World, and they
+     * must be the Engine room names, NOT the room names that will be given to the player.
+     *
+     * @param roomEngineNameA - Room to connect from
+     * @param roomEngineNameB - Room to connect to
+     * @param direction - Direction from room A's perspective
+     * @param isTwoWay - true if the connection from room B to room A is possible.
+     */
+    public void addConnection(String roomEngineNameA, String roomEngineNameB, Direction direction, boolean isTwoWay){
+        if(roomMap.containsKey(roomEngineNameA) && roomMap.containsKey(roomEngineNameB)){
+            Room roomA = roomMap.get(roomEngineNameA);
+            Room roomB = roomMap.get(roomEngineNameB);
+
+            if(isTwoWay)
+                roomA.addTwoWayConnection(direction, roomB);
+            else
+                roomA.addOneWayConnection(direction, roomB);
+
+        } else {
+            throw new RuntimeException("Both rooms must exist in the engine before adding a connection.");
+        }
+    }
+
+    /**
+     * Adds a connection between two rooms requested. These room names must exist already in the World, and they
+     * must be the Engine room names, NOT the room names that will be shown to the player.
+     *
+     * @param roomEngineNameA - Room to connect from
+     * @param roomEngineNameB - Room to connect to
+     * @param direction - String direction from room A's perspective
+     * @param isTwoWay - true if the connection from room B to room A is possible.
+     */
+    public void addConnection(String roomEngineNameA, String roomEngineNameB, String direction, boolean isTwoWay){
+        Direction d = Direction.toDirection(direction);
+
+        if(d == null)
+            throw new RuntimeException("Must provide a valid direction string; provided \"" + direction + "\"");
+
+        addConnection(roomEngineNameA, roomEngineNameB, d, isTwoWay);
+    }
+
+    /**
+     * Creates and adds an item given the parameters to the room requested. The room MUST exist within the World
+     * before attempting to add an Item to that room.
+     *
+     * @param itemPublicName - String public name of the item itself
+     * @param itemEngineName - String name that the game engine will identify as the item in question
+     * @param itemDescription - String description of the item itself
+     * @param roomEngineName - String engine name of the room that the item will be added to
+     * @param canBeTaken - true if the player can pick the item up
+     */
+    public void addItem(String itemPublicName, String itemEngineName, String itemDescription, String roomEngineName, boolean canBeTaken){
+        Room r = roomMap.get(roomEngineName);
+
+        if(r == null)
+            throw new RuntimeException("Cannot add an item to a non-existent room.");
+
+        Item i = new Item(itemPublicName, itemEngineName, itemDescription, canBeTaken);
+
+        r.addItem(i);
+        addName(itemPublicName);
+    }
+
+    /**
+     * Adds a Sentient to the room requested.
+     *
+     * @param name - String name of Sentient
+     * @param description - String description of the Sentient
+     * @param hp - int Hit points
+     * @param attack - double probability of attack
+     * @param defense - int defense value
+     * @param damage - int damage able to deal
+     * @param toHit - double probability of being hit
+     * @param isHostile - true if the Sentient will attack on sight
+     * @param roomEngineName - String name of the room to add this Sentient to.
+     */
+    public void addSentient(String name, String description, int hp, double attack, int defense, int damage, double toHit, boolean isHostile, String roomEngineName){
+        Room r = roomMap.get(roomEngineName);
+
+        if(r == null)
+            throw new RuntimeException("Must add Sentient to an already existent room.");
+
+        Sentient s = new Sentient(name, description, hp, attack, defense, damage, toHit, isHostile);
+        r.addSentient(s);
+        addSentientName(name);
+    }
+
+    /**
+     * Adds the name passed to the names the player may type.
+     *
+     * @param name - String name of an item or sentient
+     */
+    void addName(String name){
+        names.add(name);
+    }
+
+    /**
+     * Adds the name of the sentient passed to the names the player may type, along with the name of the corpse
+     * it will leave, so that the corpse can be named as soon as the sentient dies.
+     *
+     * @param name - String name of a sentient
+     */
+    void addSentientName(String name){
+        names.add(name);
+        names.add(Corpse.nameOf(name));
+    }
+
+    /**
+     * Counts a connection added to a room of this World. Called by the room.
+     */
+    void connectionAdded(){
+        connectionChanges.incrementAndGet();
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    /**
+     * Returns the room with the engine name passed, or null if there is no such room.
+     *
+     * @param engineName - String engine name of the room
+     * @return Room or null
+     */
+    public Room getRoom(String engineName){
+        return roomMap.get(engineName);
+    }
+
+    public Collection<Room> getRooms(){
+        return roomMap.values();
+    }
+
+    public Room getStartingRoom(){
+        return startingRoom;
+    }
+
+    /**
+     * Sets the room that players begin in. By default this is the first room added.
+     *
+     * @param engineName - String engine name of the room
+     */
+    public void setStartingRoom(String engineName){
+        Room r = roomMap.get(engineName);
+
+        if(r == null)
+            throw new RuntimeException("Cannot start in a non-existent room.");
+
+        startingRoom = r;
+    }
+
+    /**
+     * Returns the index of where the items and sentients of this World are, as the World was built. Players'
+     * changes are indexed by their WorldStates.
+     *
+     * @return LocationIndex of the World
+     */
+    public LocationIndex getLocations(){
+        return locations;
+    }
+
+    /**
+     * Returns a number that changes whenever a connection is added between rooms of this World.
+     *
+     * @return long count of the connections added so far
+     */
+    public long getConnectionChanges(){
+        return connectionChanges.get();
+    }
+
+    public NameIndex getNames(){
+        return names;
+    }
+}
@@ -0,0 +1,160 @@
+package resources;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * WorldState
+ *
+ * Everything a single player has changed about a shared World. A room that the player has never changed is
+ * read straight from the World; the first time the player changes a room (taking an item, killing a sentient)
+ * the room is copied, and from then on the player sees and changes only the copy. Rooms the player has visited
+ * are recorded here as well, so the memory a WorldState uses grows with what the player has done rather than
+ * with the size of the World.
+ *
+ * Rooms are recorded by their engine names rather than by the Room objects themselves, because a MappedWorld
+ * may load the same room more than once.
+ */
+public class WorldState {
+
+    // The rooms this player has changed, mapping the engine name of each room to this player's copy of it
+    private HashMap<String, Room> changedRooms;
+
+    // The engine names of the rooms this player has visited
+    private HashSet<String> visitedRooms;
+
+    // Where the items and sentients of the changed rooms and the player are; asks the World about the rest
+    private LocationIndex locations;
+
+    public WorldState(){
+        changedRooms = new HashMap<>();
+        visitedRooms = new HashSet<>();
+        locations = new LocationIndex();
+    }
+
+    /**
+     * Returns the room as this player sees it. The room returned must not be changed; use edit() for that.
+     *
+     * @param room - Room of the World
+     * @return this player's copy of the room, or the room itself if the player hasn't changed it
+     */
+    public Room view(Room room){
+        Room copy = changedRooms.get(room.getEngineName());
+
+        return copy == null ? room : copy;
+    }
+
+    /**
+     * Returns this player's copy of the room passed so that it can be changed, copying the room the first time.
+     *
+     * @param room - Room of the World
+     * @return this player's copy of the room
+     */
+    public Room edit(Room room){
+        Room copy = changedRooms.get(room.getEngineName());
+
+        if(copy == null) {
+            copy = new Room(room);
+            copy.setLocations(locations);
+            changedRooms.put(room.getEngineName(), copy);
+        }
+
+        return copy;
+    }
+
+    /**
+     * Moves the item named from the room passed into the inventory of the sentient passed.
+     *
+     * @param room - Room of the World to take from
+     * @param itemName - String lower case name of the item
+     * @param taker - Sentient to give the item to
+     * @return the Item taken, or null if it isn't in the room or can't be taken
+     */
+    public Item take(Room room, String itemName, Sentient taker){
+        Item i = edit(room).takeItem(itemName);
+
+        if(i != null)
+            taker.addItem(i);
+
+        return i;
+    }
+
+    /**
+     * Moves the item named from the inventory of the sentient passed into the room passed. Nothing is moved if
+     * the room already holds an item of the same name.
+     *
+     * @param dropper - Sentient holding the item
+     * @param itemName - String lower case name of the item
+     * @param room - Room of the World to drop into
+     * @return the Item dropped, or null if it wasn't dropped
+     */
+    public Item drop(Sentient dropper, String itemName, Room room){
+        Room copy = edit(room);
+
+        if(copy.hasItem(itemName))
+            return null;
+
+        Item i = dropper.dropItem(itemName);
+
+        if(i != null)
+            copy.addItem(i);
+
+        return i;
+    }
+
+    /**
+     * Moves the item named from the corpse passed, lying in the room passed, into the inventory of the sentient
+     * passed.
+     *
+     * @param room - Room of the World the corpse lies in
+     * @param corpse - Corpse of this player's copy of the room, from edit(); a corpse of the World itself is shared
+     *               by every player and must not be looted
+     * @param itemName - String lower case name of the item
+     * @param looter - Sentient to give the item to
+     * @return the Item looted, or null if the corpse doesn't hold it
+     */
+    public Item loot(Room room, Corpse corpse, String itemName, Sentient looter){
+        Item i = corpse.getItem(itemName);
+
+        if(i != null)
+            looter.addItem(i);
+
+        return i;
+    }
+
+    /**
+     * Returns true if this player has visited the room passed.
+     *
+     * @param room - Room of the World
+     * @return true if visited
+     */
+    public boolean isVisited(Room room){
+        return visitedRooms.contains(room.getEngineName());
+    }
+
+    /**
+     * Records that this player has visited the room passed.
+     *
+     * @param room - Room of the World
+     */
+    public void visit(Room room){
+        visitedRooms.add(room.getEngineName());
+    }
+
+    /**
+     * Returns the index of where items and sentients are as this player sees them.
+     *
+     * @return LocationIndex layered over the index of the World
+     */
+    public LocationIndex getLocations(){
+        return locations;
+    }
+
+    public int getChangedRoomCount(){
+        return changedRooms.size();
+    }
+
+    public int getVisitedRoomCount(){
+        return visitedRooms.size();
+    }
+}
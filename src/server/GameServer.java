@@ -0,0 +1,196 @@
+package server;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import debug_adventure.SimpleAdventure;
+import resources.Engine;
+import resources.Metrics;
+import resources.Output;
+import resources.SharedWorldState;
+import resources.World;
+
+/**
+ * GameServer
+ *
+ * Hosts many games at once over TCP. Every connection is given a session of its own, with its own Engine, so
+ * each player has their own position and state. The Engines can all play one shared World, which is only ever
+ * read, so the rooms of the adventure are built once no matter how many players connect. Started with "shared"
+ * after the port, every player plays in the same rooms instead, through a SharedWorldState. Started with
+ * "metrics", what the sessions do is counted, published through JMX and written to the console every minute.
+ * The protocol is plain lines of text, so a game can be played with telnet or netcat:
+ *
+ *     nc localhost 4000
+ *
+ * Each line sent to the server is one command. Once the game has answered a command, the server sends a line
+ * holding only the prompt (">"), which tells the client the game is ready for the next command.
+ *
+ * Sessions run on virtual threads when the JVM has them (Java 21 and later) and on a cached pool of platform
+ * threads otherwise.
+ */
+public class GameServer {
+
+    // The line sent when the game is waiting for the next command
+    public static final String PROMPT = ">";
+
+    // The port that will be used when none is given
+    public static final int DEFAULT_PORT = 4000;
+
+    // How often the metrics are written to the console, when they are kept
+    private static final long METRICS_DUMP_MILLIS = 60000;
+
+    // Builds a new Engine for every session
+    private Supplier<Engine> adventure;
+
+    // The port requested - 0 picks any free port
+    private int port;
+
+    // The socket that connections are accepted on
+    private ServerSocket serverSocket;
+
+    // Runs the sessions, one task per connection
+    private ExecutorService sessions;
+
+    // Accepts connections until the server is stopped
+    private Thread acceptor;
+
+    // The number of sessions currently connected
+    private AtomicInteger activeSessions;
+
+    // Counts what every session does, or null if nothing is counted
+    private Metrics metrics;
+
+    public GameServer(int _port, Supplier<Engine> _adventure){
+        port = _port;
+        adventure = _adventure;
+
+        activeSessions = new AtomicInteger();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+        // Every session plays the same World, each with a player of its own
+        World world = SimpleAdventure.createWorld();
+
+        List<String> options = Arrays.asList(args).subList(Math.min(1, args.length), args.length);
+
+        GameServer server;
+        if(options.contains("shared")) {
+            SharedWorldState shared = new SharedWorldState(world);
+            server = new GameServer(port, () -> SimpleAdventure.create(shared));
+        } else {
+            server = new GameServer(port, () -> SimpleAdventure.create(world));
+        }
+
+        if(options.contains("metrics")) {
+            Metrics metrics = new Metrics();
+            metrics.register("GameServer");
+            metrics.startDump(METRICS_DUMP_MILLIS, Output.CONSOLE);
+
+            server.setMetrics(metrics);
+        }
+
+        server.start();
+
+        System.out.println("Listening on port " + server.getPort() + ".");
+    }
+
+    /**
+     * Opens the server socket and starts accepting connections in the background.
+     *
+     * @throws IOException if the port can't be bound
+     */
+    public void start() throws IOException {
+        if(serverSocket != null)
+            throw new RuntimeException("The server has already been started.");
+
+        serverSocket = new ServerSocket(port);
+        sessions = newSessionExecutor();
+
+        acceptor = new Thread(this::acceptConnections, "game-server-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * Stops accepting connections. Sessions that are already connected are interrupted.
+     */
+    public void stop(){
+        try {
+            serverSocket.close();
+        } catch(IOException e) {
+            // Closing the socket is all that's needed to end the acceptor, so there's nothing left to do
+        }
+
+        sessions.shutdownNow();
+    }
+
+    /**
+     * Accepts connections until the server socket is closed, handing each to a session of its own.
+     */
+    private void acceptConnections(){
+        while(!serverSocket.isClosed()){
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+
+                Engine engine = adventure.get();
+                engine.setMetrics(metrics);
+
+                sessions.execute(new Session(socket, engine, activeSessions, sessions));
+            } catch(IOException e) {
+                if(!serverSocket.isClosed())
+                    System.err.println("Failed to accept a connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns an executor that starts a virtual thread per task if the JVM supports them, or a cached thread
+     * pool if it doesn't.
+     *
+     * @return ExecutorService to run sessions on
+     */
+    private static ExecutorService newSessionExecutor(){
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch(ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Returns the port the server is listening on. Only valid once the server has started.
+     *
+     * @return port number
+     */
+    public int getPort(){
+        return serverSocket.getLocalPort();
+    }
+
+    public int getActiveSessions(){
+        return activeSessions.get();
+    }
+
+    /**
+     * Sets the metrics that every session started from now on counts in.
+     *
+     * @param _metrics - Metrics to count in, or null to count nothing
+     */
+    public void setMetrics(Metrics _metrics){
+        metrics = _metrics;
+    }
+
+    public Metrics getMetrics(){
+        return metrics;
+    }
+}
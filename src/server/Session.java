@@ -0,0 +1,104 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import resources.Engine;
+import resources.Response;
+import resources.Subscriber;
+
+/**
+ * A single player connected to the GameServer. Reads commands from the connection one line at a time, runs
+ * them on the session's own Engine and writes back whatever the game says.
+ */
+class Session implements Runnable {
+
+    // The connection to the player
+    private Socket socket;
+
+    // The game being played in this session
+    private Engine engine;
+
+    // The count of connected sessions, shared with the server
+    private AtomicInteger activeSessions;
+
+    // Sends what other players do nearby while this player isn't typing
+    private Executor flusher;
+
+    Session(Socket _socket, Engine _engine, AtomicInteger _activeSessions, Executor _flusher){
+        socket = _socket;
+        engine = _engine;
+        activeSessions = _activeSessions;
+        flusher = _flusher;
+    }
+
+    @Override
+    public void run(){
+        activeSessions.incrementAndGet();
+
+        try(Socket s = socket;
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8)))){
+
+            // Everything the game says for a command is buffered and sent at once along with the prompt
+            engine.setOutput(out::println);
+
+            // The command loop holds this from the moment a line is read until the prompt for the next one has
+            // been sent, so batches from the flusher are only written while the player is being waited on
+            Object writing = new Object();
+
+            // In a shared game, what other players do nearby is sent as it happens, a batch at a time
+            Subscriber subscriber = engine.getSubscriber();
+            if(subscriber != null) {
+                subscriber.setOutput(text -> {
+                    synchronized(writing) {
+                        out.println(text);
+                        out.flush();
+                    }
+                });
+                subscriber.setFlusher(flusher);
+            }
+
+            Response response;
+            synchronized(writing) {
+                response = engine.start();
+                prompt(out, response);
+            }
+
+            while(!response.isGameEnded()){
+                String line = in.readLine();
+
+                if(line == null)
+                    break; // The player hung up
+
+                synchronized(writing) {
+                    response = engine.execute(line);
+                    prompt(out, response);
+                }
+            }
+        } catch(IOException e) {
+            // The connection was lost - all that's left is to end the session
+        } finally {
+            engine.quit();
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Sends everything the game has said, along with the prompt if the game goes on.
+     */
+    private static void prompt(PrintWriter out, Response response){
+        if(!response.isGameEnded())
+            out.println(GameServer.PROMPT);
+
+        out.flush();
+    }
+}
@@ -0,0 +1,185 @@
+package simulation;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import debug_adventure.SimpleAdventure;
+import resources.*;
+
+/**
+ * CombatSimulator
+ *
+ * Fights two stat blocks against each other many times over to show designers how a match-up plays out. The
+ * fights follow the rules of the game: each round A attacks B and then, if still standing, B attacks A; an
+ * attack hits if a roll plus the attacker's attack reaches the target's toHit, and a hit takes the attacker's
+ * damage less the target's defense. A fight still going after the most rounds allowed is a draw.
+ *
+ * The fights are split into fixed chunks that run in parallel, each rolling Dice split from the seed in
+ * order, so the results depend only on the seed and the number of fights - never on the number of threads.
+ *
+ * Usage: CombatSimulator [fights] [seed]
+ *     fights the player of SimpleAdventure against its bird, then times the same run on more and more threads
+ */
+public class CombatSimulator {
+
+    // The number of fights each parallel task runs
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    // The fighters
+    private StatBlock a;
+    private StatBlock b;
+
+    // The most rounds a fight lasts before it's called a draw
+    private int maxRounds;
+
+    public CombatSimulator(StatBlock _a, StatBlock _b){
+        a = _a;
+        b = _b;
+        maxRounds = 1000;
+    }
+
+    /**
+     * Runs the number of fights passed on every core.
+     *
+     * @param fights - long number of fights
+     * @param seed - long seed of the dice
+     * @return FightStatistics of the fights
+     */
+    public FightStatistics run(long fights, long seed){
+        return run(fights, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the number of fights passed on the number of threads passed.
+     *
+     * @param fights - long number of fights
+     * @param seed - long seed of the dice
+     * @param threads - int number of threads to use
+     * @return FightStatistics of the fights
+     */
+    public FightStatistics run(long fights, long seed, int threads){
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            return run(fights, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private FightStatistics run(long fights, long seed, ForkJoinPool pool){
+        int chunks = (int) ((fights + CHUNK_SIZE - 1) / CHUNK_SIZE);
+
+        Dice root = new Dice(seed);
+        Dice[] dice = new Dice[chunks];
+        for(int i = 0; i < chunks; i++)
+            dice[i] = root.split();
+
+        try {
+            return pool.submit(() -> IntStream.range(0, chunks).parallel()
+                    .mapToObj(i -> runChunk(Math.min(CHUNK_SIZE, fights - (long) i * CHUNK_SIZE), dice[i]))
+                    .reduce(FightStatistics::merge)
+                    .orElseGet(this::newStatistics)).get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while simulating.", e);
+        } catch(ExecutionException e) {
+            throw new RuntimeException("Could not simulate.", e.getCause());
+        }
+    }
+
+    private FightStatistics newStatistics(){
+        return new FightStatistics(maxRounds, a.getHitPoints() + b.getDamage(), b.getHitPoints() + a.getDamage());
+    }
+
+    /**
+     * Runs a chunk of fights on the calling thread.
+     */
+    private FightStatistics runChunk(long fights, Dice dice){
+        FightStatistics statistics = newStatistics();
+
+        for(long i = 0; i < fights; i++)
+            fight(dice, statistics);
+
+        return statistics;
+    }
+
+    /**
+     * Fights once, recording the result in the statistics passed.
+     */
+    private void fight(Dice dice, FightStatistics statistics){
+        int hpA = a.getHitPoints();
+        int hpB = b.getHitPoints();
+        int hitA = Math.max(0, b.getDamage() - a.getDefense());
+        int hitB = Math.max(0, a.getDamage() - b.getDefense());
+
+        for(int round = 1; round <= maxRounds; round++){
+            if(dice.nextDouble() + a.getAttack() >= b.getToHit()) {
+                hpB -= hitB;
+
+                if(hpB <= 0) {
+                    statistics.record(1, round, a.getHitPoints() - hpA, b.getHitPoints() - hpB);
+                    return;
+                }
+            }
+
+            if(dice.nextDouble() + b.getAttack() >= a.getToHit()) {
+                hpA -= hitA;
+
+                if(hpA <= 0) {
+                    statistics.record(2, round, a.getHitPoints() - hpA, b.getHitPoints() - hpB);
+                    return;
+                }
+            }
+        }
+
+        statistics.record(0, maxRounds, a.getHitPoints() - hpA, b.getHitPoints() - hpB);
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    /**
+     * Sets the most rounds a fight may last before it is called a draw.
+     *
+     * @param _maxRounds - int rounds, at least 1
+     */
+    public void setMaxRounds(int _maxRounds){
+        maxRounds = _maxRounds;
+    }
+
+    public static void main(String[] args){
+        long fights = args.length > 0 ? Long.parseLong(args[0]) : 10000000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        World world = SimpleAdventure.createWorld();
+        StatBlock player = new StatBlock(SimpleAdventure.create(world).getPlayer());
+        StatBlock bird = new StatBlock(world.getRoom("Outside1").getSentient("a bird"));
+
+        CombatSimulator simulator = new CombatSimulator(player, bird);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.print(simulator.run(fights, seed).report(player, bird));
+
+        // Time the same fights on more and more threads, after a run to compile the code
+        simulator.run(fights / 10, seed, cores);
+        double single = 0;
+
+        for(int threads = 1; ; threads = Math.min(threads * 2, cores)){
+            long start = System.nanoTime();
+            simulator.run(fights, seed, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            if(threads == 1)
+                single = seconds;
+
+            System.out.printf("%2d threads: %6.2f s, %,.0f fights per second, %.1fx%n",
+                    threads, seconds, fights / seconds, single / seconds);
+
+            if(threads == cores)
+                break;
+        }
+    }
+}
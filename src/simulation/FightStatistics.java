@@ -0,0 +1,183 @@
+package simulation;
+
+/**
+ * FightStatistics
+ *
+ * What happened over many fights between two fighters, A and B: how often each won, how many rounds the fights
+ * lasted, and how much damage each fighter took. Statistics gathered on different threads are combined with
+ * merge().
+ */
+public class FightStatistics {
+
+    // The number of fights
+    private long fights;
+
+    // The number of fights won by each fighter; the rest were draws
+    private long winsA;
+    private long winsB;
+
+    // The number of fights that lasted each number of rounds, by number of rounds
+    private long[] rounds;
+
+    // The number of fights in which each fighter took each amount of damage, by amount of damage
+    private long[] damageTakenA;
+    private long[] damageTakenB;
+
+    /**
+     * Creates empty statistics.
+     *
+     * @param maxRounds - int most rounds a fight can last
+     * @param maxDamageA - int most damage A can take in a fight
+     * @param maxDamageB - int most damage B can take in a fight
+     */
+    FightStatistics(int maxRounds, int maxDamageA, int maxDamageB){
+        rounds = new long[maxRounds + 1];
+        damageTakenA = new long[maxDamageA + 1];
+        damageTakenB = new long[maxDamageB + 1];
+    }
+
+    /**
+     * Records a single fight.
+     *
+     * @param winner - 1 if A won, 2 if B won, 0 for a draw
+     * @param roundCount - int rounds the fight lasted
+     * @param takenA - int damage A took
+     * @param takenB - int damage B took
+     */
+    void record(int winner, int roundCount, int takenA, int takenB){
+        fights++;
+
+        if(winner == 1)
+            winsA++;
+        else if(winner == 2)
+            winsB++;
+
+        rounds[roundCount]++;
+        damageTakenA[takenA]++;
+        damageTakenB[takenB]++;
+    }
+
+    /**
+     * Adds the statistics passed to these.
+     *
+     * @param other - FightStatistics of the same two fighters
+     * @return these statistics
+     */
+    FightStatistics merge(FightStatistics other){
+        fights += other.fights;
+        winsA += other.winsA;
+        winsB += other.winsB;
+
+        for(int i = 0; i < rounds.length; i++)
+            rounds[i] += other.rounds[i];
+        for(int i = 0; i < damageTakenA.length; i++)
+            damageTakenA[i] += other.damageTakenA[i];
+        for(int i = 0; i < damageTakenB.length; i++)
+            damageTakenB[i] += other.damageTakenB[i];
+
+        return this;
+    }
+
+    /**
+     * Returns the smallest value at or below which the fraction passed of the fights fall.
+     *
+     * @param histogram - long[] counts of fights by value
+     * @param fraction - double between 0 and 1, such as 0.5 for the median
+     * @return int value
+     */
+    public static int percentile(long[] histogram, double fraction){
+        long total = 0;
+        for(long count : histogram)
+            total += count;
+
+        long wanted = (long) Math.ceil(fraction * total);
+        long seen = 0;
+
+        for(int i = 0; i < histogram.length; i++){
+            seen += histogram[i];
+
+            if(seen >= wanted && seen > 0)
+                return i;
+        }
+
+        return histogram.length - 1;
+    }
+
+    private static double mean(long[] histogram){
+        long total = 0, sum = 0;
+
+        for(int i = 0; i < histogram.length; i++){
+            total += histogram[i];
+            sum += histogram[i] * i;
+        }
+
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    /**
+     * Returns a few lines describing these statistics, naming the fighters passed.
+     *
+     * @param a - StatBlock of fighter A
+     * @param b - StatBlock of fighter B
+     * @return String report
+     */
+    public String report(StatBlock a, StatBlock b){
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(String.format("%,d fights of %s against %s%n", fights, a.getName(), b.getName()));
+        sb.append(String.format("  %s wins %.2f%%, %s wins %.2f%%, draws %.2f%%%n",
+                a.getName(), 100.0 * getWinRateA(), b.getName(), 100.0 * getWinRateB(), 100.0 * getDrawRate()));
+        sb.append(String.format("  rounds:            mean %.2f, median %d, 90%% %d, 99%% %d%n", mean(rounds),
+                percentile(rounds, 0.5), percentile(rounds, 0.9), percentile(rounds, 0.99)));
+        sb.append(String.format("  damage taken by %s: mean %.2f, median %d, 90%% %d%n", a.getName(), mean(damageTakenA),
+                percentile(damageTakenA, 0.5), percentile(damageTakenA, 0.9)));
+        sb.append(String.format("  damage taken by %s: mean %.2f, median %d, 90%% %d%n", b.getName(), mean(damageTakenB),
+                percentile(damageTakenB, 0.5), percentile(damageTakenB, 0.9)));
+
+        return sb.toString();
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    public long getFights(){
+        return fights;
+    }
+
+    public long getWinsA(){
+        return winsA;
+    }
+
+    public long getWinsB(){
+        return winsB;
+    }
+
+    public long getDraws(){
+        return fights - winsA - winsB;
+    }
+
+    public double getWinRateA(){
+        return fights == 0 ? 0 : (double) winsA / fights;
+    }
+
+    public double getWinRateB(){
+        return fights == 0 ? 0 : (double) winsB / fights;
+    }
+
+    public double getDrawRate(){
+        return fights == 0 ? 0 : (double) getDraws() / fights;
+    }
+
+    public long[] getRoundsHistogram(){
+        return rounds.clone();
+    }
+
+    public long[] getDamageTakenHistogramA(){
+        return damageTakenA.clone();
+    }
+
+    public long[] getDamageTakenHistogramB(){
+        return damageTakenB.clone();
+    }
+}
@@ -0,0 +1,459 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import resources.*;
+
+/**
+ * RegionSimulation
+ *
+ * Simulates the sentients of a whole World at once, tick by tick, on several threads. Every sentient of the
+ * World becomes an agent that wanders: each tick it may move through a random exit of its room, and it heals a
+ * little if it is hurt.
+ *
+ * The map is cut into regions of rooms that lie near one another, and each region owns the agents in its
+ * rooms. A tick runs in two steps, with every region of a step run in parallel:
+ *
+ *     move      each region moves its own agents; an agent that leaves the region is handed to the region it
+ *               enters through that region's lock-free inbox
+ *     receive   each region takes in the agents waiting in its inbox
+ *
+ * so no two threads ever touch the same agent at the same time, and the only place regions meet is the inbox.
+ *
+ * Every agent rolls Dice of its own, split from the seed in a fixed order, and an agent's moves depend only on
+ * its own rolls and the map. A simulation therefore ends the same way for the same seed whatever the number
+ * of regions or threads.
+ *
+ * Made from a World, a simulation works on copies of its sentients and leaves the World alone, which suits
+ * trying out a map. Made from a SharedWorldState, it simulates the sentients of the shared game: at the end of
+ * every tick, on the thread that called tick(), the moves and heals of the tick are written into the shared
+ * rooms while every lock of the state is held, in the order of the agents, and each agent then carries on from
+ * its sentient as the shared game has it. An agent whose sentient has been killed or taken out of its room by
+ * a player stops being simulated, and an agent that would walk into a room holding a sentient of the same name
+ * stays where it was.
+ */
+public class RegionSimulation implements AutoCloseable {
+
+    /**
+     * A sentient being simulated.
+     */
+    private static final class Agent {
+
+        // The number of the agent, in the order the agents were made
+        private final int id;
+
+        // The sentient itself, or a copy of it when simulating a SharedWorldState
+        private Sentient sentient;
+
+        // The dice this agent rolls
+        private final Dice dice;
+
+        // The id of the room the agent is in
+        private int room;
+
+        // The id of the room, and the hit points, the agent had when last written into the SharedWorldState
+        private int applied;
+        private int hitPoints;
+
+        // Whether the agent's sentient has left the shared game, so that it is no longer simulated
+        private boolean gone;
+
+        private Agent(int _id, Sentient _sentient, Dice _dice, int _room){
+            id = _id;
+            sentient = _sentient;
+            dice = _dice;
+            room = _room;
+            applied = _room;
+            hitPoints = _sentient.getCurrentHitPoints();
+        }
+    }
+
+    /**
+     * The rooms of one region and the agents in them.
+     */
+    private final class Region {
+
+        // The agents in the rooms of this region
+        private ArrayList<Agent> agents;
+
+        // Agents handed over by other regions during the move step, taken in during the receive step
+        private ConcurrentLinkedQueue<Agent> inbox;
+
+        // The number of agents this region has handed to other regions
+        private long handoffs;
+
+        private Region(){
+            agents = new ArrayList<>();
+            inbox = new ConcurrentLinkedQueue<>();
+        }
+
+        private Void move(){
+            int[] exits = new int[RoomGraph.DIRECTIONS];
+            int kept = 0;
+
+            for(int i = 0; i < agents.size(); i++){
+                Agent a = agents.get(i);
+                Sentient s = a.sentient;
+
+                if(a.gone)
+                    continue;
+
+                if(s.getCurrentHitPoints() < s.getTotalHitPoints())
+                    s.heal(regeneration);
+
+                if(a.dice.roll(moveChance)) {
+                    int count = 0;
+
+                    for(int o = 0; o < RoomGraph.DIRECTIONS; o++){
+                        int to = graph.getConnection(a.room, o);
+
+                        if(to >= 0)
+                            exits[count++] = to;
+                    }
+
+                    if(count > 0) {
+                        a.room = exits[a.dice.nextInt(count)];
+
+                        Region to = regions[regionOf[a.room]];
+                        if(to != this) {
+                            to.inbox.add(a);
+                            handoffs++;
+                            continue;
+                        }
+                    }
+                }
+
+                agents.set(kept++, a);
+            }
+
+            agents.subList(kept, agents.size()).clear();
+            return null;
+        }
+
+        private Void receive(){
+            Agent a;
+
+            while((a = inbox.poll()) != null)
+                agents.add(a);
+
+            return null;
+        }
+    }
+
+    // The map being simulated
+    private RoomGraph graph;
+
+    // The shared game the results of each tick are written into, or null if the agents are copies
+    private SharedWorldState state;
+
+    // The region each room belongs to, by room id
+    private int[] regionOf;
+
+    // The regions
+    private Region[] regions;
+
+    // Every agent, by id
+    private Agent[] agents;
+
+    // Runs the regions
+    private ExecutorService workers;
+
+    // The step of every region, ready to hand to the workers
+    private List<Callable<Void>> moves;
+    private List<Callable<Void>> receives;
+
+    // The chance each tick that an agent moves
+    private double moveChance;
+
+    // The hit points a hurt agent heals each tick
+    private int regeneration;
+
+    // The number of ticks simulated
+    private long tick;
+
+    /**
+     * Creates a simulation of every sentient of the World passed.
+     *
+     * @param world - World to simulate; its rooms and sentients are copied, not changed
+     * @param regionCount - int number of regions to cut the map into
+     * @param threads - int number of threads to simulate on
+     * @param seed - long seed of the dice of the agents
+     */
+    public RegionSimulation(World world, int regionCount, int threads, long seed){
+        this(world, null, regionCount, threads, seed);
+    }
+
+    /**
+     * Creates a simulation of every sentient of the shared game passed, writing the results of each tick into
+     * its rooms.
+     *
+     * @param _state - SharedWorldState to simulate
+     * @param regionCount - int number of regions to cut the map into
+     * @param threads - int number of threads to simulate on
+     * @param seed - long seed of the dice of the agents
+     */
+    public RegionSimulation(SharedWorldState _state, int regionCount, int threads, long seed){
+        this(_state.getWorld(), _state, regionCount, threads, seed);
+    }
+
+    private RegionSimulation(World world, SharedWorldState _state, int regionCount, int threads, long seed){
+        graph = new RoomGraph(world);
+        state = _state;
+        moveChance = 0.5;
+        regeneration = 1;
+
+        partition(regionCount);
+
+        // Every sentient becomes an agent of the region its room is in, taken in the order of the rooms
+        Dice root = new Dice(seed);
+        ArrayList<Agent> all = new ArrayList<>();
+
+        for(int room = 0; room < graph.getRoomCount(); room++){
+            Room r = state == null ? graph.getRoom(room) : state.view(graph.getRoom(room));
+            ArrayList<Sentient> sentients = new ArrayList<>(r.getSentients());
+            sentients.sort((x, y) -> x.getName().compareTo(y.getName()));
+
+            for(Sentient s : sentients){
+                Agent a = new Agent(all.size(), new Sentient(s), root.split(), room);
+                all.add(a);
+                regions[regionOf[room]].agents.add(a);
+            }
+        }
+
+        agents = all.toArray(new Agent[0]);
+
+        moves = new ArrayList<>();
+        receives = new ArrayList<>();
+        for(Region r : regions){
+            moves.add(r::move);
+            receives.add(r::receive);
+        }
+
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread t = new Thread(runnable, "region-worker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Cuts the map into regions of about the same number of rooms. Rooms are taken in breadth first order, so
+     * each region is a patch of rooms near one another and most moves stay within a region.
+     */
+    private void partition(int regionCount){
+        int n = graph.getRoomCount();
+        int[] order = new int[n];
+        boolean[] seen = new boolean[n];
+        int tail = 0;
+
+        for(int start = 0; start < n; start++){
+            if(seen[start])
+                continue;
+
+            seen[start] = true;
+            int head = tail;
+            order[tail++] = start;
+
+            while(head < tail){
+                int u = order[head++];
+
+                for(int o = 0; o < RoomGraph.DIRECTIONS; o++){
+                    int v = graph.getConnection(u, o);
+
+                    if(v >= 0 && !seen[v]) {
+                        seen[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+            }
+        }
+
+        regionOf = new int[n];
+        for(int i = 0; i < n; i++)
+            regionOf[order[i]] = (int) ((long) i * regionCount / n);
+
+        regions = new Region[regionCount];
+        for(int i = 0; i < regionCount; i++)
+            regions[i] = new Region();
+    }
+
+    /**
+     * Simulates one tick.
+     */
+    public void tick(){
+        runAll(moves);
+        runAll(receives);
+
+        if(state != null)
+            state.runExclusively(this::apply);
+
+        tick++;
+    }
+
+    /**
+     * Simulates the number of ticks passed.
+     *
+     * @param ticks - int number of ticks
+     */
+    public void run(int ticks){
+        for(int i = 0; i < ticks; i++)
+            tick();
+    }
+
+    /**
+     * Writes where every agent has got to, and what it has healed, into the shared game, then has each agent
+     * carry on from its sentient as the shared game has it.
+     */
+    private Void apply(){
+        for(Agent a : agents){
+            if(a.gone)
+                continue;
+
+            String key = a.sentient.getName().toLowerCase();
+            Room from = graph.getRoom(a.applied);
+            Sentient current = state.view(from).getSentient(key);
+
+            if(current == null || current.isDead()) {
+                a.gone = true;
+                continue;
+            }
+
+            if(a.room != a.applied) {
+                Room to = graph.getRoom(a.room);
+
+                if(state.view(to).hasSentient(key))
+                    a.room = a.applied;
+                else
+                    state.edit(to).addSentient(state.edit(from).removeSentient(key));
+            }
+
+            Room now = graph.getRoom(a.room);
+            int healed = a.sentient.getCurrentHitPoints() - a.hitPoints;
+
+            if(healed > 0)
+                state.edit(now).getSentient(key).heal(healed);
+
+            a.sentient = new Sentient(state.view(now).getSentient(key));
+            a.applied = a.room;
+            a.hitPoints = a.sentient.getCurrentHitPoints();
+        }
+
+        return null;
+    }
+
+    private void runAll(List<Callable<Void>> steps){
+        try {
+            for(Future<Void> f : workers.invokeAll(steps))
+                f.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while simulating.", e);
+        } catch(ExecutionException e) {
+            throw new RuntimeException("Could not simulate a region.", e.getCause());
+        }
+    }
+
+    /**
+     * Stops the threads of this simulation.
+     */
+    @Override
+    public void close(){
+        workers.shutdown();
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    /**
+     * Sets the chance each tick that an agent moves.
+     *
+     * @param chance - double between 0 and 1
+     */
+    public void setMoveChance(double chance){
+        moveChance = chance;
+    }
+
+    /**
+     * Sets the hit points a hurt agent heals each tick.
+     *
+     * @param amount - int hit points
+     */
+    public void setRegeneration(int amount){
+        regeneration = amount;
+    }
+
+    public long getTick(){
+        return tick;
+    }
+
+    public int getAgentCount(){
+        return agents.length;
+    }
+
+    public int getRegionCount(){
+        return regions.length;
+    }
+
+    /**
+     * Returns the sentient of the agent passed. It must not be changed while a tick is running. When simulating
+     * a SharedWorldState it is the agent's copy, and the sentient of the shared game is changed instead.
+     *
+     * @param agent - int number of the agent
+     * @return Sentient of the agent
+     */
+    public Sentient getSentient(int agent){
+        return agents[agent].sentient;
+    }
+
+    /**
+     * Returns the engine name of the room the agent passed is in.
+     *
+     * @param agent - int number of the agent
+     * @return String engine name of the room, or null if the agent's sentient has left the shared game
+     */
+    public String getRoom(int agent){
+        return agents[agent].gone ? null : graph.getEngineName(agents[agent].room);
+    }
+
+    /**
+     * Returns the names of the sentients in the room passed, in order.
+     *
+     * @param roomEngineName - String engine name of the room
+     * @return List of sentient names
+     */
+    public List<String> getSentientsIn(String roomEngineName){
+        int room = graph.getId(roomEngineName);
+        ArrayList<String> names = new ArrayList<>();
+
+        for(Region r : regions)
+            for(Agent a : r.agents)
+                if(a.room == room)
+                    names.add(a.sentient.getName());
+
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Returns the number of times an agent has moved from one region to another.
+     *
+     * @return long number of handoffs
+     */
+    public long getHandoffs(){
+        long total = 0;
+
+        for(Region r : regions)
+            total += r.handoffs;
+
+        return total;
+    }
+}
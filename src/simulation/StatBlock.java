@@ -0,0 +1,99 @@
+package simulation;
+
+import resources.*;
+
+/**
+ * StatBlock
+ *
+ * The numbers a fighter fights with, taken from a Sentient or written down by a designer trying out a new
+ * creature. A StatBlock never changes; the with methods return new ones.
+ */
+public class StatBlock {
+
+    // The name of the fighter, for reports
+    private String name;
+
+    // Hit points at the start of a fight
+    private int hitPoints;
+
+    // The chance of hitting, added to a roll and compared to the toHit of the target
+    private double attack;
+
+    // Taken from the damage of each hit this fighter takes
+    private int defense;
+
+    // The damage of each hit this fighter lands
+    private int damage;
+
+    // The roll an attacker needs to hit this fighter
+    private double toHit;
+
+    public StatBlock(String _name, int _hitPoints, double _attack, int _defense, int _damage, double _toHit){
+        name = _name;
+        hitPoints = _hitPoints;
+        attack = _attack;
+        defense = _defense;
+        damage = _damage;
+        toHit = _toHit;
+    }
+
+    /**
+     * Takes the numbers of the Sentient passed, as it is now. The bonuses of an equipped weapon are already part
+     * of the damage and toHit of a Sentient, so they are taken as they are.
+     *
+     * @param s - Sentient to take the numbers of
+     */
+    public StatBlock(Sentient s){
+        this(s.getName(), s.getCurrentHitPoints(), s.getAttack(), s.getDefense(), s.getDamage(), s.getToHit());
+    }
+
+    /**
+     * Returns this fighter holding the weapon passed, as Sentient.equipWeapon() would: the weapon's bonus to hit
+     * is added to toHit and its bonus to damage to damage.
+     *
+     * @param w - Weapon to hold
+     * @return new StatBlock
+     */
+    public StatBlock withWeapon(Weapon w){
+        return new StatBlock(name + " with " + w.getPublicName(), hitPoints, attack, defense,
+                damage + w.getDamageBonus(), toHit + w.getToHitBonus());
+    }
+
+    /**
+     * Returns this fighter with the hit points passed.
+     *
+     * @param _hitPoints - int hit points at the start of a fight
+     * @return new StatBlock
+     */
+    public StatBlock withHitPoints(int _hitPoints){
+        return new StatBlock(name, _hitPoints, attack, defense, damage, toHit);
+    }
+
+    /*
+    Getters and Setters are all here:
+     */
+
+    public String getName(){
+        return name;
+    }
+
+    public int getHitPoints(){
+        return hitPoints;
+    }
+
+    public double getAttack(){
+        return attack;
+    }
+
+    public int getDefense(){
+        return defense;
+    }
+
+    public int getDamage(){
+        return damage;
+    }
+
+    public double getToHit(){
+        return toHit;
+    }
+}
@@ -0,0 +1,129 @@
+package testing;
+
+import org.junit.Assert;
+import resources.*;
+import simulation.*;
+
+/**
+ * Test class for the CombatSimulator class.
+ */
+public class CombatSimulatorTest {
+
+    private StatBlock knight;
+
+    private StatBlock troll;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        knight = new StatBlock("Knight", 20, 0.3, 1, 4, 0.6);
+        troll = new StatBlock("Troll", 30, 0.2, 2, 3, 0.5);
+    }
+
+    @org.junit.Test
+    public void sameAsTheGameTest(){
+        CombatSimulator simulator = new CombatSimulator(knight, troll);
+        FightStatistics statistics = simulator.run(500, 3, 2);
+
+        // The first chunk of fights rolls the first dice split from the seed; fight the same fights as Sentients
+        Dice dice = new Dice(3).split();
+        long wins = 0;
+
+        for(int i = 0; i < 500; i++){
+            Sentient a = new Sentient("Knight", "", 20, 0.3, 1, 4, 0.6, false);
+            Sentient b = new Sentient("Troll", "", 30, 0.2, 2, 3, 0.5, true);
+
+            while(true){
+                if(a.attack(b, dice))
+                    b.takeDamage(a.getDamage());
+                if(b.isDead()) {
+                    wins++;
+                    break;
+                }
+
+                if(b.attack(a, dice))
+                    a.takeDamage(b.getDamage());
+                if(a.isDead())
+                    break;
+            }
+        }
+
+        Assert.assertTrue(statistics.getFights() == 500);
+        Assert.assertTrue(statistics.getWinsA() == wins);
+        Assert.assertTrue(statistics.getDraws() == 0);
+    }
+
+    @org.junit.Test
+    public void equippedWeaponTest(){
+        Weapon sword = new Weapon("Sword", "Sword", "A sword.", 0.1, 2);
+        StatBlock armed = new StatBlock(armedKnight(sword));
+
+        // The bonuses of the weapon are counted once, where the game counts them
+        Assert.assertTrue(armed.getDamage() == 6);
+        Assert.assertTrue(armed.getAttack() == 0.3);
+        Assert.assertTrue(armed.getToHit() == 0.6 + 0.1);
+
+        StatBlock handed = knight.withWeapon(sword);
+        Assert.assertTrue(handed.getDamage() == armed.getDamage());
+        Assert.assertTrue(handed.getAttack() == armed.getAttack());
+        Assert.assertTrue(handed.getToHit() == armed.getToHit());
+
+        FightStatistics statistics = new CombatSimulator(armed, troll).run(500, 5, 2);
+
+        Dice dice = new Dice(5).split();
+        long wins = 0;
+
+        for(int i = 0; i < 500; i++){
+            Sentient a = armedKnight(sword);
+            Sentient b = new Sentient("Troll", "", 30, 0.2, 2, 3, 0.5, true);
+
+            while(true){
+                if(a.attack(b, dice))
+                    b.takeDamage(a.getDamage());
+                if(b.isDead()) {
+                    wins++;
+                    break;
+                }
+
+                if(b.attack(a, dice))
+                    a.takeDamage(b.getDamage());
+                if(a.isDead())
+                    break;
+            }
+        }
+
+        Assert.assertTrue(statistics.getWinsA() == wins);
+    }
+
+    private static Sentient armedKnight(Weapon w){
+        Sentient s = new Sentient("Knight", "", 20, 0.3, 1, 4, 0.6, false);
+        s.addItem(w);
+        s.equipWeapon(w.getPublicName());
+
+        return s;
+    }
+
+    @org.junit.Test
+    public void threadsDontMatterTest(){
+        CombatSimulator simulator = new CombatSimulator(knight, troll.withWeapon(new Weapon("Club", "Club", "A club.", 0.1, 2)));
+
+        FightStatistics one = simulator.run(100000, 11, 1);
+        FightStatistics four = simulator.run(100000, 11, 4);
+
+        Assert.assertTrue(one.getWinsA() == four.getWinsA());
+        Assert.assertTrue(java.util.Arrays.equals(one.getRoundsHistogram(), four.getRoundsHistogram()));
+        Assert.assertTrue(java.util.Arrays.equals(one.getDamageTakenHistogramA(), four.getDamageTakenHistogramA()));
+        Assert.assertTrue(one.getWinRateA() + one.getWinRateB() + one.getDrawRate() > 0.999);
+    }
+
+    @org.junit.Test
+    public void drawTest(){
+        // Neither can hurt the other
+        CombatSimulator simulator = new CombatSimulator(knight, new StatBlock("Wall", 10, 0.0, 10, 0, 0.5));
+        simulator.setMaxRounds(20);
+
+        FightStatistics statistics = simulator.run(1000, 1);
+
+        Assert.assertTrue(statistics.getDraws() == 1000);
+        Assert.assertTrue(FightStatistics.percentile(statistics.getRoundsHistogram(), 0.5) == 20);
+    }
+}
@@ -0,0 +1,190 @@
+package testing;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the Engine class, driving it headless through execute().
+ */
+public class EngineTest {
+
+    private Engine engine;
+
+    private StringBuilder text;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        engine = new Engine();
+
+        engine.addRoom("Abandoned Apartment", "Apartment", "You are standing in an empty concrete room.");
+        engine.addRoom("Outside", "Outside1", "You are standing in an abandoned playground.");
+        engine.addConnection("Apartment", "Outside1", Direction.NORTH, true);
+        engine.addItem("Old Baguette", "Baguette", "It is cold and hard like iron.", "Apartment", true);
+        engine.addItem("Window", "Window", "A large open window.", "Apartment", false);
+        engine.addPlayer("Andre", 10, 0.25, 3, 4, 0.4);
+
+        text = new StringBuilder();
+        engine.setOutput(line -> text.append(line).append('\n'));
+        engine.start();
+        text.setLength(0);
+    }
+
+    @org.junit.Test
+    public void goTest(){
+        Assert.assertTrue(engine.execute("go north") == Response.DONE);
+        Assert.assertTrue(engine.getCurrentRoom().getEngineName().equals("Outside1"));
+
+        Assert.assertTrue(engine.execute("S") == Response.DONE);
+        Assert.assertTrue(engine.getCurrentRoom().getEngineName().equals("Apartment"));
+    }
+
+    @org.junit.Test
+    public void takeTest(){
+        Assert.assertTrue(engine.execute("take old   baguette") == Response.DONE);
+        Assert.assertTrue(engine.getPlayer().hasItem("old baguette"));
+        Assert.assertFalse(engine.getCurrentRoom().hasItem("old baguette"));
+
+        engine.execute("take window");
+        Assert.assertTrue(engine.getCurrentRoom().hasItem("window"));
+    }
+
+    @org.junit.Test
+    public void partialNameTest(){
+        // The last word of a name, or the start of a name, is enough when it can only mean one thing
+        engine.execute("look at the bag");
+        Assert.assertTrue(text.toString().contains("It is cold and hard like iron."));
+
+        engine.execute("take BAGUETTE");
+        Assert.assertTrue(engine.getPlayer().hasItem("old baguette"));
+
+        engine.execute("drop old bag");
+        Assert.assertTrue(engine.getCurrentRoom().hasItem("old baguette"));
+    }
+
+    @org.junit.Test
+    public void lookTest(){
+        engine.execute("look at old baguette");
+        Assert.assertTrue(text.toString().contains("It is cold and hard like iron."));
+
+        Assert.assertTrue(engine.execute("look at nothing") == Response.INCOMPLETE);
+    }
+
+    @org.junit.Test
+    public void commandTest(){
+        Assert.assertTrue(engine.execute("dance") == Response.NOT_UNDERSTOOD);
+
+        engine.addCommand("dance", tokens -> engine.getOutput().println("You dance."));
+        Assert.assertTrue(engine.execute("dance") == Response.DONE);
+        Assert.assertTrue(text.toString().contains("You dance."));
+    }
+
+    @org.junit.Test
+    public void sharedWorldTest(){
+        Engine other = new Engine(engine.getWorld());
+        other.addPlayer("Other", 10, 0.25, 3, 4, 0.4);
+        other.setOutput(Output.NONE);
+        other.start();
+
+        engine.execute("take old baguette");
+
+        Assert.assertFalse(engine.getCurrentRoom().hasItem("old baguette"));
+        Assert.assertTrue(other.getCurrentRoom().hasItem("old baguette"));
+        Assert.assertTrue(engine.getWorld().getRoom("Apartment").hasItem("old baguette"));
+
+        Assert.assertTrue(engine.getState().getChangedRoomCount() == 1);
+        Assert.assertTrue(other.getState().getChangedRoomCount() == 0);
+    }
+
+    @org.junit.Test
+    public void unsharedLootTest(){
+        // A rat that died holding a gem, before anyone started playing
+        World world = engine.getWorld();
+        world.addSentient("Rat", "A grey rat.", 3, 0.5, 0, 5, 0.5, true, "Apartment");
+        Sentient rat = world.getRoom("Apartment").getSentient("rat");
+        rat.addItem(new Item("Gem", "Gem", "It sparkles."));
+        rat.takeDamage(100);
+
+        Engine[] players = { new Engine(world), new Engine(world) };
+        for(Engine e : players){
+            e.addPlayer("Andre", 10, 0.25, 3, 4, 0.4);
+            e.setOutput(Output.NONE);
+            e.start();
+        }
+
+        players[0].execute("loot rat");
+        Assert.assertTrue(players[0].getPlayer().hasItem("gem"));
+
+        // Looting changed only the first player's copy of the corpse
+        Corpse corpse = (Corpse) world.getRoom("Apartment").getItem("corpse of rat");
+        Assert.assertTrue(corpse.getSentient().hasItem("gem"));
+
+        players[1].execute("loot rat");
+        Assert.assertTrue(players[1].getPlayer().hasItem("gem"));
+        Assert.assertTrue(corpse.getSentient().hasItem("gem"));
+    }
+
+    @org.junit.Test
+    public void lootThenDropTest(){
+        // The gem is given to the rat after the World has been built, so the World doesn't know its name
+        World world = engine.getWorld();
+        world.addSentient("Rat", "A grey rat.", 3, 0.5, 0, 5, 0.5, true, "Apartment");
+        Sentient rat = world.getRoom("Apartment").getSentient("rat");
+        rat.addItem(new Item("Gem", "Gem", "It sparkles."));
+        rat.takeDamage(100);
+
+        engine.execute("loot rat");
+        Assert.assertTrue(engine.getPlayer().hasItem("gem"));
+
+        engine.execute("drop gem");
+        Assert.assertFalse(text.toString().contains("You don't have that."));
+        Assert.assertFalse(engine.getPlayer().hasItem("gem"));
+        Assert.assertTrue(engine.getCurrentRoom().hasItem("gem"));
+
+        engine.execute("take  GEM");
+        Assert.assertTrue(engine.getPlayer().hasItem("gem"));
+    }
+
+    /**
+     * Plays a fight in a room of rats with Dice of the seed passed, returning everything the game said.
+     */
+    private String fight(long seed){
+        Engine e = new Engine(engine.getWorld());
+        StringBuilder said = new StringBuilder();
+
+        e.addPlayer("Andre", 1000, 0.25, 3, 4, 0.4);
+        e.setDice(new Dice(seed));
+        e.setOutput(line -> said.append(line).append('\n'));
+        e.start();
+
+        e.execute("n");
+        for(int i = 0; i < 20; i++)
+            e.execute("look");
+
+        return said.toString() + e.getPlayer().getCurrentHitPoints();
+    }
+
+    @org.junit.Test
+    public void diceTest(){
+        engine.getWorld().addSentient("Rat", "A grey rat.", 3, 0.5, 0, 5, 0.5, true, "Outside1");
+        engine.getWorld().addSentient("Big Rat", "A big grey rat.", 3, 0.2, 0, 7, 0.5, true, "Outside1");
+
+        // The same seed and commands play the same game
+        Assert.assertTrue(fight(42).equals(fight(42)));
+        Assert.assertFalse(fight(42).equals(fight(43)));
+
+        Dice dice = new Dice(7);
+        Assert.assertTrue(dice.getSeed() == 7);
+        Assert.assertTrue(dice.split().nextInt(1000) == new Dice(7).split().nextInt(1000));
+    }
+
+    @org.junit.Test
+    public void exitTest(){
+        Assert.assertTrue(engine.execute("quit") == Response.EXITED);
+    }
+
+    @org.junit.Test(expected = RuntimeException.class)
+    public void executeAfterExitTest(){
+        engine.execute("quit");
+        engine.execute("look");
+    }
+}
@@ -0,0 +1,67 @@
+package testing;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the Horde class.
+ */
+public class HordeTest {
+
+    private Room room;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        room = new Room("Rat Nest", "Nest", "Rats everywhere.");
+
+        for(int i = 0; i < 100; i++)
+            room.addSentient(new Sentient("Rat " + i, "A grey rat.", 3 + i % 4, 0.1 * (i % 7), i % 2, 2 + i % 5, 0.5, true));
+
+        room.addSentient(new Sentient("Bird", "A friendly bird.", false));
+    }
+
+    @org.junit.Test
+    public void sameAsOneAtATimeTest(){
+        Sentient player = new Sentient("Andre", "", 100000, 0.25, 3, 4, 0.6, false);
+        Sentient other = new Sentient("Andre", "", 100000, 0.25, 3, 4, 0.6, false);
+
+        Horde horde = room.getHorde();
+        Assert.assertTrue(horde.size() == 100);
+
+        CombatRound round = horde.attack(player, new Dice(5));
+
+        // The same dice rolled by each hostile sentient in turn give the same hits and the same damage
+        Dice dice = new Dice(5);
+        int hits = 0;
+        for(int i = 0; i < horde.size(); i++){
+            Sentient s = horde.getMember(i);
+
+            if(s.attack(other, dice)) {
+                other.takeDamage(s.getDamage());
+                Assert.assertTrue(round.isHit(i));
+                hits++;
+            } else {
+                Assert.assertFalse(round.isHit(i));
+            }
+        }
+
+        Assert.assertTrue(round.getHitCount() == hits);
+        Assert.assertTrue(player.getCurrentHitPoints() == other.getCurrentHitPoints());
+        Assert.assertTrue(100000 - player.getCurrentHitPoints() == round.getDamage());
+    }
+
+    @org.junit.Test
+    public void damageAllTest(){
+        Horde horde = room.getHorde();
+        Assert.assertTrue(room.getHorde() == horde);
+
+        // Rats with 3 hit points and no defense die - every fourth rat - and the rest live
+        int killed = horde.damageAll(3);
+        Assert.assertTrue(killed == 25);
+
+        // The dead became corpses as they died, so the room has a new horde of the living
+        Assert.assertTrue(room.getHorde() != horde);
+        Assert.assertTrue(room.getHorde().size() == 75);
+        Assert.assertTrue(room.hasItem("corpse of rat 0"));
+    }
+}
@@ -0,0 +1,118 @@
+package testing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the InterestManager and Subscriber classes.
+ */
+public class InterestManagerTest {
+
+    private World world;
+
+    private SharedWorldState shared;
+
+    private Engine andre;
+
+    private Engine bob;
+
+    private List<String> heard;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        // A corridor of rooms, west to east
+        world = new World();
+        for(int i = 0; i < 5; i++)
+            world.addRoom("Corridor", "C" + i, "A long corridor.");
+        for(int i = 1; i < 5; i++)
+            world.addConnection("C" + (i - 1), "C" + i, Direction.EAST, true);
+        world.addItem("Lamp", "Lamp", "An oil lamp.", "C0", true);
+
+        shared = new SharedWorldState(world);
+
+        andre = new Engine(shared);
+        andre.addPlayer("Andre", 100, 0.25, 3, 4, 0.4);
+        andre.setOutput(Output.NONE);
+
+        heard = new ArrayList<>();
+        bob = new Engine(shared);
+        bob.addPlayer("Bob", 100, 0.25, 3, 4, 0.4);
+        bob.setOutput(heard::add);
+    }
+
+    @org.junit.Test
+    public void sameRoomTest(){
+        bob.start();
+        andre.start();
+        Assert.assertTrue(shared.getInterest().getListenerCount(world.getRoom("C0")) == 2);
+
+        // Events wait in the queue until Bob's next turn, then come as one batch
+        andre.execute("take lamp");
+        Assert.assertTrue(bob.getSubscriber().getPendingCount() == 2);
+
+        heard.clear();
+        bob.execute("look");
+        Assert.assertTrue(heard.contains("Andre arrives.\nAndre takes the lamp."));
+        Assert.assertTrue(bob.getSubscriber().getPendingCount() == 0);
+
+        // Once Andre leaves, Bob hears nothing more of him
+        andre.execute("e");
+        andre.execute("drop lamp");
+        bob.execute("look");
+        Assert.assertTrue(heard.contains("Andre goes east."));
+        Assert.assertFalse(heard.toString().contains("drops"));
+        Assert.assertTrue(shared.getInterest().getListenerCount(world.getRoom("C0")) == 1);
+    }
+
+    @org.junit.Test
+    public void radiusTest(){
+        shared.getInterest().setRadius(1);
+        bob.start();
+        andre.start();
+
+        // With a radius of one, Bob hears Andre one room away but not two
+        andre.execute("take lamp");
+        andre.execute("e");
+        andre.execute("drop lamp");
+        Assert.assertTrue(bob.getSubscriber().getPendingCount() == 5);
+
+        andre.execute("e");
+        Assert.assertTrue(bob.getSubscriber().getPendingCount() == 6);
+
+        andre.execute("e");
+        Assert.assertTrue(bob.getSubscriber().getPendingCount() == 6);
+
+        // Andre, in the fourth room, listens to the rooms either side of it
+        Assert.assertTrue(shared.getInterest().getListenerCount(world.getRoom("C1")) == 1);
+        Assert.assertTrue(shared.getInterest().getListenerCount(world.getRoom("C2")) == 1);
+        Assert.assertTrue(shared.getInterest().getListenerCount(world.getRoom("C3")) == 1);
+        Assert.assertTrue(shared.getInterest().getListenerCount(world.getRoom("C4")) == 1);
+    }
+
+    @org.junit.Test
+    public void quitTest(){
+        bob.start();
+        andre.start();
+
+        andre.execute("quit");
+        Assert.assertTrue(shared.getInterest().getListenerCount(world.getRoom("C0")) == 1);
+
+        bob.quit();
+        Assert.assertTrue(shared.getInterest().getListenerCount(world.getRoom("C0")) == 0);
+    }
+
+    @org.junit.Test
+    public void flusherTest(){
+        // With a flusher, events are written as they arrive
+        bob.start();
+        bob.getSubscriber().setFlusher(Runnable::run);
+        heard.clear();
+
+        andre.start();
+        Assert.assertTrue(heard.contains("Andre arrives."));
+        Assert.assertTrue(bob.getSubscriber().getPendingCount() == 0);
+    }
+}
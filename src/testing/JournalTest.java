@@ -0,0 +1,141 @@
+package testing;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the Journal class.
+ */
+public class JournalTest {
+
+    private Engine engine;
+
+    private Path directory;
+
+    private Journal journal;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        engine = new Engine();
+
+        engine.addRoom("Abandoned Apartment", "Apartment", "You are standing in an empty concrete room.");
+        engine.addRoom("Outside", "Outside1", "You are standing in an abandoned playground.");
+        engine.addRoom("Forest Maze", "Maze", "Trees surround you.");
+        engine.addConnection("Apartment", "Outside1", Direction.NORTH, true);
+        engine.addConnection("Outside1", "Maze", Direction.EAST, true);
+        engine.addItem("Old Baguette", "Baguette", "It is cold and hard like iron.", "Apartment", true);
+        engine.addItem("Dog Bowl", "Bowl", "A small clay bowl.", "Apartment", true);
+        engine.addSentient("Angry Rat", "A very angry rat.", 5, 0.5, 0, 1, 0.5, true, "Maze");
+        engine.addPlayer("Andre", 100, 0.25, 3, 4, 0.4);
+
+        directory = Files.createTempDirectory("journal-test").resolve("game");
+        engine.setOutput(Output.NONE);
+        engine.start();
+
+        journal = Journal.create(engine, directory, false);
+    }
+
+    private void play(){
+        engine.execute("take old baguette");
+        engine.execute("n");
+        engine.execute("drop old baguette");
+        engine.execute("e");
+        engine.execute("look");
+        engine.execute("look");
+    }
+
+    private void assertSameGame(Engine recovered){
+        Assert.assertTrue(recovered.getCurrentRoom().getEngineName().equals(engine.getCurrentRoom().getEngineName()));
+        Assert.assertTrue(recovered.getPlayer().getCurrentHitPoints() == engine.getPlayer().getCurrentHitPoints());
+        Assert.assertFalse(recovered.getPlayer().hasItem("old baguette"));
+
+        World w = recovered.getWorld();
+        Assert.assertFalse(recovered.getState().view(w.getRoom("Apartment")).hasItem("old baguette"));
+        Assert.assertTrue(recovered.getState().view(w.getRoom("Apartment")).hasItem("dog bowl"));
+        Assert.assertTrue(recovered.getState().view(w.getRoom("Outside1")).hasItem("old baguette"));
+        Assert.assertTrue(recovered.getState().isVisited(w.getRoom("Maze")));
+    }
+
+    @org.junit.Test
+    public void recoverTest() throws Exception {
+        play();
+
+        // Recovering without closing is what happens after a crash
+        Engine recovered = Journal.recover(directory, false);
+
+        assertSameGame(recovered);
+        Assert.assertTrue(recovered.getJournal().getGeneration() == 2);
+
+        recovered.getJournal().close();
+        journal.close();
+    }
+
+    @org.junit.Test
+    public void oneWritePerTurnTest(){
+        long size = journal.getSize();
+
+        // Looking changes nothing, so nothing is written
+        engine.execute("look");
+        Assert.assertTrue(journal.getSize() == size);
+
+        engine.execute("take old baguette");
+        Assert.assertTrue(journal.getSize() > size);
+
+        journal.close();
+    }
+
+    @org.junit.Test
+    public void tornWriteTest() throws Exception {
+        play();
+        journal.close();
+
+        // A turn only partly written when the game crashed is dropped
+        try(FileChannel c = FileChannel.open(directory.resolve("adventure.1.tajl"), StandardOpenOption.APPEND)){
+            ByteBuffer torn = ByteBuffer.allocate(12);
+            torn.putInt(100);
+            torn.putInt(12345);
+            torn.putInt(7);
+            torn.flip();
+            c.write(torn);
+        }
+
+        Engine recovered = Journal.recover(directory, false);
+        assertSameGame(recovered);
+        recovered.getJournal().close();
+    }
+
+    @org.junit.Test
+    public void compactTest() throws Exception {
+        engine.execute("take old baguette");
+        engine.execute("n");
+
+        journal.compact();
+        journal.awaitCompaction();
+
+        Assert.assertTrue(Files.exists(directory.resolve("adventure.1.tacfg")));
+        Assert.assertFalse(Files.exists(directory.resolve("adventure.0.tacfg")));
+        Assert.assertFalse(Files.exists(directory.resolve("adventure.1.tajl")));
+
+        engine.execute("drop old baguette");
+        engine.execute("e");
+        engine.execute("look");
+        engine.execute("look");
+        journal.close();
+
+        Engine recovered = Journal.recover(directory, false);
+        assertSameGame(recovered);
+        recovered.getJournal().close();
+    }
+
+    @org.junit.Test(expected = java.io.IOException.class)
+    public void createTwiceTest() throws Exception {
+        journal.close();
+        Journal.create(engine, directory, false);
+    }
+}
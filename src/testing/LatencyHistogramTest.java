@@ -0,0 +1,67 @@
+package testing;
+
+import org.junit.Assert;
+import replay.LatencyHistogram;
+
+/**
+ * Test class for the LatencyHistogram class.
+ */
+public class LatencyHistogramTest {
+
+    @org.junit.Test
+    public void percentileTest(){
+        LatencyHistogram h = new LatencyHistogram();
+
+        for(long i = 1; i <= 100000; i++)
+            h.record(i * 1000);
+
+        Assert.assertTrue(h.getCount() == 100000);
+        Assert.assertTrue(h.getMin() == 1000);
+        Assert.assertTrue(h.getMax() == 100000000);
+
+        // Every percentile is within 1% of the true value, and never below it
+        for(double p : new double[]{ 1, 50, 90, 99, 99.9 }){
+            long expected = (long) Math.ceil(p * 1000) * 1000;
+            long actual = h.getValueAtPercentile(p);
+
+            Assert.assertTrue(actual >= expected);
+            Assert.assertTrue(actual <= expected * 1.01);
+        }
+
+        Assert.assertTrue(h.getValueAtPercentile(100) == h.getMax());
+    }
+
+    @org.junit.Test
+    public void smallValueTest(){
+        LatencyHistogram h = new LatencyHistogram();
+
+        for(long i = 0; i < 256; i++)
+            h.record(i);
+
+        // Values this small have a bucket each, so they are exact
+        Assert.assertTrue(h.getValueAtPercentile(50) == 127);
+        Assert.assertTrue(h.getValueAtPercentile(0) == 0);
+        Assert.assertTrue(h.getMean() == 127.5);
+
+        h.record(Long.MAX_VALUE);
+        Assert.assertTrue(h.getValueAtPercentile(100) == Long.MAX_VALUE);
+    }
+
+    @org.junit.Test
+    public void addTest(){
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+
+        a.record(10);
+        a.record(20);
+        b.record(5000);
+
+        a.add(b);
+
+        Assert.assertTrue(a.getCount() == 3);
+        Assert.assertTrue(a.getMin() == 10);
+        Assert.assertTrue(a.getMax() == 5000);
+        Assert.assertTrue(a.getValueAtPercentile(50) == 20);
+        Assert.assertTrue(new LatencyHistogram().getValueAtPercentile(50) == 0);
+    }
+}
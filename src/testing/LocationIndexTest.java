@@ -0,0 +1,76 @@
+package testing;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the LocationIndex class.
+ */
+public class LocationIndexTest {
+
+    private World world;
+
+    private Engine engine;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        world = new World();
+        world.addRoom("Abandoned Apartment", "Apartment", "You are standing in an empty concrete room.");
+        world.addRoom("Outside", "Outside1", "You are standing in an abandoned playground.");
+        world.addConnection("Apartment", "Outside1", Direction.NORTH, true);
+        world.addItem("Old Baguette", "Baguette", "It is cold and hard like iron.", "Apartment", true);
+        world.addSentient("Angry Rat", "A very angry rat.", 5, 0.5, 0, 1, 0.5, true, "Outside1");
+
+        engine = new Engine(world);
+        engine.addPlayer("Andre", 1000, 0.25, 3, 4, 0.4);
+        engine.setOutput(Output.NONE);
+        engine.start();
+    }
+
+    @org.junit.Test
+    public void worldTest(){
+        Room apartment = world.getRoom("Apartment");
+        Item baguette = apartment.getItem("old baguette");
+        Sentient rat = world.getRoom("Outside1").getSentient("angry rat");
+
+        Assert.assertTrue(world.getLocations().getLocation(baguette) == apartment);
+        Assert.assertTrue(world.getLocations().getRoom(rat) == world.getRoom("Outside1"));
+        Assert.assertTrue(world.getLocations().getLocation(new Item("Old Baguette", "Other", "Another.")) == null);
+    }
+
+    @org.junit.Test
+    public void moveTest(){
+        Item baguette = world.getRoom("Apartment").getItem("old baguette");
+        LocationIndex locations = engine.getLocations();
+
+        engine.execute("take old baguette");
+        Assert.assertTrue(locations.getHolder(baguette) == engine.getPlayer());
+        Assert.assertTrue(locations.getRoom(baguette) == null);
+
+        // The World, and so every other player, still has the baguette where it was
+        Assert.assertTrue(world.getLocations().getLocation(baguette) == world.getRoom("Apartment"));
+
+        engine.execute("n");
+        engine.execute("drop old baguette");
+        Assert.assertTrue(locations.getRoom(baguette) == engine.getCurrentRoom());
+        Assert.assertTrue(locations.getRoom(baguette).getEngineName().equals("Outside1"));
+    }
+
+    @org.junit.Test
+    public void corpseTest(){
+        Item tooth = new Item("Rat Tooth", "Tooth", "A yellow tooth.");
+        Sentient rat = engine.getState().edit(world.getRoom("Outside1")).getSentient("angry rat");
+        rat.addItem(tooth);
+
+        LocationIndex locations = engine.getLocations();
+        Assert.assertTrue(locations.getHolder(tooth) == rat);
+
+        rat.takeDamage(100);
+        Object corpse = locations.getLocation(rat);
+        Assert.assertTrue(corpse instanceof Corpse);
+
+        // The tooth is still held by the rat, which is now a corpse lying outside
+        Assert.assertTrue(locations.getRoom(tooth) == engine.getState().view(world.getRoom("Outside1")));
+        Assert.assertTrue(locations.getRoom(corpse) == locations.getRoom(tooth));
+    }
+}
@@ -0,0 +1,86 @@
+package testing;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the MappedWorld class.
+ */
+public class MappedWorldTest {
+
+    private MappedWorld world;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        World w = new World();
+
+        w.addRoom("Abandoned Apartment", "Apartment", "You are standing in an empty concrete room.");
+        w.addRoom("Outside", "Outside1", "You are standing in an abandoned playground.");
+        w.addRoom("Bakery", "Bakery", "Chairs and tables are thrown all over the ground.");
+        w.addConnection("Apartment", "Outside1", Direction.NORTH, true);
+        w.addConnection("Outside1", "Bakery", Direction.EAST, false);
+        w.addItem("Old Baguette", "Baguette", "It is cold and hard like iron.", "Bakery", true);
+        w.addSentient("Mean Bird", "A mean bird.", 5, 0.0, 0, 0, 2.0, false, "Outside1");
+        w.setStartingRoom("Outside1");
+
+        Path path = Files.createTempFile("mapped-world-test", ".tamw");
+        MappedWorld.write(w, path);
+
+        world = MappedWorld.open(path, 2);
+        Files.delete(path);
+    }
+
+    @org.junit.Test
+    public void getRoomTest(){
+        Assert.assertTrue(world.getRoomCount() == 3);
+        Assert.assertTrue(world.getRoom("Bakery").hasItem("old baguette"));
+        Assert.assertTrue(world.getRoom("Outside1").hasSentient("mean bird"));
+        Assert.assertTrue(world.getRoom("Nowhere") == null);
+        Assert.assertTrue(world.getStartingRoom().getEngineName().equals("Outside1"));
+    }
+
+    @org.junit.Test
+    public void connectionTest(){
+        Room outside = world.getRoom("Outside1");
+
+        Assert.assertTrue(outside.getConnection(Direction.EAST).getEngineName().equals("Bakery"));
+        Assert.assertTrue(outside.getConnection(Direction.SOUTH).getEngineName().equals("Apartment"));
+        Assert.assertTrue(outside.getConnection(Direction.WEST) == null);
+        Assert.assertTrue(world.getRoom("Bakery").getConnection(Direction.WEST) == null);
+    }
+
+    @org.junit.Test
+    public void cacheTest(){
+        for(Room r : world.getRooms())
+            world.getRoom(r.getEngineName());
+
+        Assert.assertTrue(world.getCachedRoomCount() == 2);
+        Assert.assertTrue(world.getRoom("Bakery") == world.getRoom("Bakery"));
+    }
+
+    @org.junit.Test
+    public void playTest(){
+        Engine engine = new Engine(world);
+        engine.addPlayer("Andre", 10, 0.25, 3, 4, 0.4);
+        engine.setOutput(Output.NONE);
+        engine.start();
+
+        Assert.assertTrue(engine.execute("e") == Response.DONE);
+        Assert.assertTrue(engine.execute("take old baguette") == Response.DONE);
+        Assert.assertTrue(engine.getPlayer().hasItem("old baguette"));
+
+        // The player's change outlives the room being dropped from the cache
+        world.getRoom("Apartment");
+        world.getRoom("Outside1");
+        Assert.assertFalse(engine.getState().view(world.getRoom("Bakery")).hasItem("old baguette"));
+        Assert.assertTrue(world.getRoom("Bakery").hasItem("old baguette"));
+    }
+
+    @org.junit.Test(expected = RuntimeException.class)
+    public void readOnlyTest(){
+        world.addRoom("Shrine", "Shrine", "A grand and majestic shrine.");
+    }
+}
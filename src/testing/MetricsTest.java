@@ -0,0 +1,149 @@
+package testing;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import javax.management.ObjectName;
+
+import debug_adventure.SimpleAdventure;
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the Metrics class.
+ */
+public class MetricsTest {
+
+    private World world;
+
+    private Metrics metrics;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        world = SimpleAdventure.createWorld();
+        metrics = new Metrics();
+    }
+
+    private Engine game(){
+        Engine e = SimpleAdventure.create(world);
+        e.setOutput(Output.NONE);
+        e.setMetrics(metrics);
+        e.start();
+
+        return e;
+    }
+
+    @org.junit.Test
+    public void countTest(){
+        Engine e = game();
+
+        e.execute("take machete");
+        e.execute("drop machete");
+        e.execute("Take machete");
+        e.execute("xyzzy");
+        e.execute("n");
+        e.execute("s");
+
+        Assert.assertTrue(metrics.getCommands() == 6);
+        Assert.assertTrue(metrics.getCommandsNotUnderstood() == 1);
+        Assert.assertTrue(metrics.getCommandCounts().get("take") == 2);
+        Assert.assertTrue(metrics.getCommandCounts().get("drop") == 1);
+        Assert.assertTrue(metrics.getItemsTaken() == 2);
+        Assert.assertTrue(metrics.getItemsDropped() == 1);
+        Assert.assertTrue(metrics.getRoomsEntered() == 2);
+
+        // The starting room and the room to the north
+        Assert.assertTrue(metrics.getRoomsDiscovered() == 2);
+        Assert.assertTrue(metrics.getCombatRounds() == 1);
+        Assert.assertTrue(metrics.getLatencies("take").getValueAtPercentile(100) == metrics.getLatencies("take").getMax());
+
+        Assert.assertTrue(metrics.getActiveSessions() == 1);
+        e.quit();
+        e.quit();
+        Assert.assertTrue(metrics.getActiveSessions() == 0);
+        Assert.assertTrue(metrics.getSessionsStarted() == 1);
+
+        Assert.assertTrue(metrics.dump().contains("take"));
+
+        metrics.reset();
+        Assert.assertTrue(metrics.getCommands() == 0);
+        Assert.assertTrue(metrics.getItemsTaken() == 0);
+    }
+
+    @org.junit.Test
+    public void combatTest(){
+        world.addRoom("Ogre Den", "Den", "It smells of ogre.");
+        world.addConnection("Outside1", "Den", Direction.EAST, true);
+        world.addSentient("An Ogre", "Ogre1", 100, 1.0, 0, 50, 0.5, true, "Den");
+
+        Engine e = game();
+        e.execute("n");
+        Response r = e.execute("e");
+
+        Assert.assertTrue(r == Response.GAME_OVER);
+        Assert.assertTrue(metrics.getCombatRounds() == 2);
+        Assert.assertTrue(metrics.getAttacks() == 2);
+        Assert.assertTrue(metrics.getDamageTaken() >= 47);
+        Assert.assertTrue(metrics.getPlayersKilled() == 1);
+        Assert.assertTrue(metrics.getActiveSessions() == 0);
+    }
+
+    @org.junit.Test
+    public void threadsTest() throws Exception {
+        ArrayList<Thread> threads = new ArrayList<>();
+
+        for(int i = 0; i < 4; i++){
+            Engine e = game();
+            Thread t = new Thread(() -> {
+                for(int j = 0; j < 1000; j++)
+                    e.execute("look");
+            });
+
+            threads.add(t);
+            t.start();
+        }
+
+        for(Thread t : threads)
+            t.join();
+
+        Assert.assertTrue(metrics.getCommandCounts().get("look") == 4000);
+        Assert.assertTrue(metrics.getActiveSessions() == 4);
+    }
+
+    @org.junit.Test
+    public void jmxTest() throws Exception {
+        Engine e = game();
+        e.execute("look");
+
+        metrics.register("MetricsTest");
+
+        try {
+            ObjectName name = new ObjectName("resources:type=Metrics,name=\"MetricsTest\"");
+            Object commands = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Commands");
+
+            Assert.assertTrue(commands.equals(1L));
+        } finally {
+            metrics.unregister();
+        }
+    }
+
+    @org.junit.Test
+    public void disabledTest(){
+        Engine e = SimpleAdventure.create(world);
+        e.setOutput(Output.NONE);
+        e.start();
+        e.execute("take machete");
+
+        Assert.assertTrue(e.getMetrics() == null);
+
+        boolean flag = false;
+
+        try {
+            e.setMetrics(metrics);
+        } catch(RuntimeException ex) {
+            flag = true;
+        }
+
+        Assert.assertTrue(flag);
+        Assert.assertTrue(e.getMetrics() == null);
+    }
+}
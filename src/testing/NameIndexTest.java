@@ -0,0 +1,87 @@
+package testing;
+
+import java.util.HashSet;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the NameIndex class.
+ */
+public class NameIndexTest {
+
+    private NameIndex names;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        names = new NameIndex();
+
+        names.add("Old Baguette");
+        names.add("Fresh Baguette");
+        names.add("Bag of Gold");
+        names.add("Rat");
+        names.add("Corpse of Rat");
+        names.add("Dog Bowl");
+    }
+
+    @org.junit.Test
+    public void fullNameTest(){
+        Assert.assertTrue(names.resolve("old baguette").equals("old baguette"));
+        Assert.assertTrue(names.resolve("OLD Baguette").equals("old baguette"));
+        Assert.assertTrue(names.resolve("rat").equals("rat"));
+        Assert.assertTrue(names.contains("dog bowl"));
+        Assert.assertFalse(names.contains("bowl"));
+        Assert.assertTrue(names.size() == 6);
+    }
+
+    @org.junit.Test
+    public void aliasTest(){
+        Assert.assertTrue(names.resolve("bowl").equals("dog bowl"));
+        Assert.assertTrue(names.resolve("gold").equals("bag of gold"));
+
+        // Two baguettes: "baguette" alone could be either
+        Assert.assertTrue(names.resolve("baguette") == null);
+
+        // Unless only one of them is in reach
+        HashSet<String> room = new HashSet<>();
+        room.add("fresh baguette");
+        Assert.assertTrue(names.resolve("baguette", 0, 8, room::contains).equals("fresh baguette"));
+    }
+
+    @org.junit.Test
+    public void prefixTest(){
+        Assert.assertTrue(names.resolve("old bag").equals("old baguette"));
+        Assert.assertTrue(names.resolve("do").equals("dog bowl"));
+        Assert.assertTrue(names.resolve("bag") == null);
+        Assert.assertTrue(names.resolve("xyz") == null);
+
+        HashSet<String> room = new HashSet<>();
+        room.add("bag of gold");
+        room.add("dog bowl");
+        Assert.assertTrue(names.resolve("bag", 0, 3, room::contains).equals("bag of gold"));
+        Assert.assertTrue(names.resolve("b", 0, 1, room::contains) == null);
+    }
+
+    @org.junit.Test
+    public void scopeTest(){
+        // A full name in reach wins over an alias; once the rat is dead its corpse answers to its name
+        HashSet<String> room = new HashSet<>();
+        room.add("rat");
+        room.add("corpse of rat");
+        Assert.assertTrue(names.resolve("rat", 0, 3, room::contains).equals("rat"));
+
+        room.remove("rat");
+        Assert.assertTrue(names.resolve("rat", 0, 3, room::contains).equals("corpse of rat"));
+
+        room.clear();
+        Assert.assertTrue(names.resolve("rat", 0, 3, room::contains) == null);
+    }
+
+    @org.junit.Test
+    public void rangeTest(){
+        // Names are read straight out of a line of text
+        String line = "take old bag now";
+        Assert.assertTrue(names.resolve(line, 5, 12, null).equals("old baguette"));
+        Assert.assertTrue(names.resolve(line, 5, 5, null) == null);
+    }
+}
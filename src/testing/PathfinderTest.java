@@ -0,0 +1,229 @@
+package testing;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the Pathfinder class.
+ */
+public class PathfinderTest {
+
+    private World world;
+
+    private Pathfinder pathfinder;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        world = new World();
+
+        // The forest maze of the Andre adventure: one-way paths that only lead out through the shrine
+        world.addRoom("Bakery", "Bakery", "An old bakery.");
+        world.addRoom("Forest Maze", "MazeA", "Twisty trees.");
+        world.addRoom("Forest Maze", "MazeB", "Twisty trees.");
+        world.addRoom("Forest Maze", "MazeC", "Twisty trees.");
+        world.addRoom("Forest Maze", "MazeD", "Twisty trees.");
+        world.addRoom("Shrine", "Shrine", "A small stone shrine.");
+        world.addRoom("Island", "Island", "Nothing leads here.");
+
+        world.addConnection("Bakery", "MazeA", Direction.EAST, true);
+        world.addConnection("MazeA", "MazeB", Direction.SOUTH, false);
+        world.addConnection("MazeB", "MazeB", Direction.SOUTH, false);
+        world.addConnection("MazeB", "MazeD", Direction.NORTH, false);
+        world.addConnection("MazeB", "MazeC", Direction.WEST, false);
+        world.addConnection("MazeC", "MazeA", Direction.EAST, false);
+        world.addConnection("MazeC", "MazeB", Direction.SOUTH, false);
+        world.addConnection("MazeC", "Shrine", Direction.SOUTH_EAST, false);
+        world.addConnection("MazeD", "MazeA", Direction.NORTH_WEST, false);
+
+        pathfinder = new Pathfinder(world);
+    }
+
+    /**
+     * Follows the path passed from the room passed, returning the engine name of the room it ends in.
+     */
+    private String walk(String from, List<Direction> path){
+        Room r = world.getRoom(from);
+
+        for(Direction d : path){
+            r = r.getConnection(d);
+            Assert.assertTrue(r != null);
+        }
+
+        return r.getEngineName();
+    }
+
+    @org.junit.Test
+    public void mazeTest(){
+        List<Direction> path = pathfinder.findPath("Bakery", "Shrine");
+
+        Assert.assertTrue(path.size() == 4);
+        Assert.assertTrue(walk("Bakery", path).equals("Shrine"));
+
+        Assert.assertTrue(pathfinder.findPath("Shrine", "Bakery") == null);
+        Assert.assertTrue(pathfinder.findPath("Bakery", "Island") == null);
+        Assert.assertTrue(pathfinder.findPath("MazeB", "MazeB").isEmpty());
+        Assert.assertTrue(pathfinder.getDistance("MazeC", "Bakery") == 2);
+
+        Assert.assertTrue(pathfinder.isReachable("MazeD", "Bakery"));
+        Assert.assertFalse(pathfinder.isReachable("Shrine", "MazeA"));
+
+        // The bakery and the maze all reach one another; the shrine and the island stand alone
+        Assert.assertTrue(pathfinder.getStronglyConnectedComponentCount() == 3);
+        Assert.assertTrue(pathfinder.getStronglyConnectedComponent("Bakery") == pathfinder.getStronglyConnectedComponent("MazeD"));
+        Assert.assertTrue(pathfinder.getComponentCount() == 2);
+        Assert.assertTrue(pathfinder.getComponent("Shrine") == pathfinder.getComponent("Bakery"));
+
+        Assert.assertTrue(pathfinder.getRoomsWithin("Bakery", 1).size() == 2);
+        Assert.assertTrue(pathfinder.getRoomsWithin("Bakery", 3).size() == 5);
+    }
+
+    @org.junit.Test
+    public void invalidateTest(){
+        Assert.assertTrue(pathfinder.findPath("Shrine", "Bakery") == null);
+
+        world.addConnection("Shrine", "Island", Direction.UP, true);
+        world.addConnection("Island", "Bakery", Direction.WEST, false);
+
+        Assert.assertTrue(walk("Shrine", pathfinder.findPath("Shrine", "Bakery")).equals("Bakery"));
+        Assert.assertTrue(pathfinder.getStronglyConnectedComponentCount() == 1);
+
+        world.addRoom("Attic", "Attic", "A new room.");
+        Assert.assertTrue(pathfinder.findPath("Attic", "Bakery") == null);
+
+        // Connections made in another World leave this map alone
+        RoomGraph graph = pathfinder.getGraph();
+        World other = new World();
+        other.addRoom("Hut", "Hut", "A hut.");
+        other.addRoom("Yard", "Yard", "A yard.");
+        other.addConnection("Hut", "Yard", Direction.NORTH, true);
+        Assert.assertTrue(pathfinder.getGraph() == graph);
+
+        world.addConnection("Attic", "Bakery", Direction.DOWN, false);
+        Assert.assertTrue(pathfinder.getGraph() != graph);
+    }
+
+    @org.junit.Test
+    public void randomTest(){
+        Random random = new Random(42);
+        int side = 30;
+        World grid = new World();
+        Pathfinder gridPathfinder = new Pathfinder(grid);
+
+        for(int i = 0; i < side * side; i++)
+            grid.addRoom("Room", "R" + i, "A room.");
+
+        // A grid with gaps and a few one-way links
+        for(int i = 0; i < side * side; i++){
+            if(i % side != 0 && random.nextInt(4) != 0)
+                grid.addConnection("R" + (i - 1), "R" + i, Direction.EAST, random.nextInt(5) != 0);
+            if(i >= side && random.nextInt(4) != 0)
+                grid.addConnection("R" + (i - side), "R" + i, Direction.SOUTH, random.nextInt(5) != 0);
+
+            gridPathfinder.setPosition("R" + i, i % side, -(i / side), 0);
+        }
+
+        for(int q = 0; q < 200; q++){
+            String from = "R" + random.nextInt(side * side);
+            String to = "R" + random.nextInt(side * side);
+            int expected = distance(grid, from, to);
+
+            List<Direction> path = gridPathfinder.findPath(from, to);
+            List<Direction> positioned = gridPathfinder.findPathByPosition(from, to);
+
+            if(expected < 0) {
+                Assert.assertTrue(path == null && positioned == null);
+                Assert.assertFalse(gridPathfinder.isReachable(from, to));
+            } else {
+                Assert.assertTrue(path.size() == expected && positioned.size() == expected);
+                Assert.assertTrue(walkIn(grid, from, path).equals(to));
+                Assert.assertTrue(walkIn(grid, from, positioned).equals(to));
+                Assert.assertTrue(gridPathfinder.isReachable(from, to));
+            }
+        }
+    }
+
+    @org.junit.Test
+    public void mixedPositionsTest(){
+        Random random = new Random(7);
+        int side = 12;
+        World grid = new World();
+        Pathfinder gridPathfinder = new Pathfinder(grid);
+
+        for(int i = 0; i < side * side; i++)
+            grid.addRoom("Room", "R" + i, "A room.");
+
+        for(int i = 0; i < side * side; i++){
+            if(i % side != 0 && random.nextInt(3) != 0)
+                grid.addConnection("R" + (i - 1), "R" + i, Direction.EAST, true);
+            if(i >= side && random.nextInt(3) != 0)
+                grid.addConnection("R" + (i - side), "R" + i, Direction.SOUTH, true);
+
+            // Only some rooms have positions, and a few of those are further from their neighbours than a step
+            if(random.nextInt(2) == 0)
+                gridPathfinder.setPosition("R" + i, (i % side) * (random.nextInt(6) == 0 ? 3 : 1), -(i / side), 0);
+        }
+
+        for(int from = 0; from < side * side; from += 5)
+            for(int to = 0; to < side * side; to += 3){
+                int expected = distance(grid, "R" + from, "R" + to);
+                List<Direction> positioned = gridPathfinder.findPathByPosition("R" + from, "R" + to);
+
+                Assert.assertTrue(expected < 0 ? positioned == null : positioned.size() == expected);
+            }
+
+        // Once every room has a position that agrees with the map, the positions lead the search
+        for(int i = 0; i < side * side; i++)
+            gridPathfinder.setPosition("R" + i, i % side, -(i / side), 0);
+
+        for(int from = 0; from < side * side; from += 5)
+            for(int to = 0; to < side * side; to += 3){
+                int expected = distance(grid, "R" + from, "R" + to);
+                List<Direction> positioned = gridPathfinder.findPathByPosition("R" + from, "R" + to);
+
+                Assert.assertTrue(expected < 0 ? positioned == null : positioned.size() == expected);
+            }
+    }
+
+    private static String walkIn(World w, String from, List<Direction> path){
+        Room r = w.getRoom(from);
+
+        for(Direction d : path)
+            r = r.getConnection(d);
+
+        return r.getEngineName();
+    }
+
+    /**
+     * A plain breadth first search over the rooms themselves.
+     */
+    private static int distance(World w, String from, String to){
+        HashMap<String, Integer> distances = new HashMap<>();
+        ArrayDeque<Room> queue = new ArrayDeque<>();
+
+        distances.put(from, 0);
+        queue.add(w.getRoom(from));
+
+        while(!queue.isEmpty()){
+            Room r = queue.poll();
+
+            if(r.getEngineName().equals(to))
+                return distances.get(to);
+
+            for(Direction d : Direction.values()){
+                Room next = r.getConnection(d);
+
+                if(next != null && !distances.containsKey(next.getEngineName())) {
+                    distances.put(next.getEngineName(), distances.get(r.getEngineName()) + 1);
+                    queue.add(next);
+                }
+            }
+        }
+
+        return -1;
+    }
+}
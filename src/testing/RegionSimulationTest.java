@@ -0,0 +1,114 @@
+package testing;
+
+import org.junit.Assert;
+import resources.*;
+import simulation.*;
+
+/**
+ * Test class for the RegionSimulation class.
+ */
+public class RegionSimulationTest {
+
+    private World world;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        int side = 20;
+        world = new World();
+
+        for(int i = 0; i < side * side; i++){
+            world.addRoom("Room", "R" + i, "A room.");
+
+            if(i % side != 0)
+                world.addConnection("R" + (i - 1), "R" + i, Direction.EAST, true);
+            if(i >= side)
+                world.addConnection("R" + (i - side), "R" + i, Direction.SOUTH, true);
+            if(i % 7 == 0)
+                world.addSentient("Rat " + i, "A grey rat.", 5, 0.1, 0, 1, 0.5, true, "R" + i);
+        }
+    }
+
+    /**
+     * Simulates the world and returns where every agent ended up.
+     */
+    private String simulate(int regions, int threads){
+        try(RegionSimulation simulation = new RegionSimulation(world, regions, threads, 99)){
+            simulation.run(50);
+
+            StringBuilder rooms = new StringBuilder();
+            for(int i = 0; i < simulation.getAgentCount(); i++)
+                rooms.append(simulation.getRoom(i)).append(' ');
+
+            Assert.assertTrue(simulation.getTick() == 50);
+            return rooms.toString();
+        }
+    }
+
+    @org.junit.Test
+    public void deterministicTest(){
+        String one = simulate(1, 1);
+
+        Assert.assertTrue(simulate(8, 4).equals(one));
+        Assert.assertTrue(simulate(3, 2).equals(one));
+    }
+
+    @org.junit.Test
+    public void handoffTest(){
+        try(RegionSimulation simulation = new RegionSimulation(world, 4, 2, 5)){
+            Assert.assertTrue(simulation.getAgentCount() == 58);
+
+            simulation.getSentient(0).takeDamage(3);
+            simulation.run(20);
+
+            // Agents cross between regions, none are lost, and the hurt heal
+            Assert.assertTrue(simulation.getHandoffs() > 0);
+            Assert.assertTrue(simulation.getSentient(0).getCurrentHitPoints() == 5);
+
+            int counted = 0;
+            for(int i = 0; i < 400; i++)
+                counted += simulation.getSentientsIn("R" + i).size();
+            Assert.assertTrue(counted == 58);
+
+            // The world itself is untouched
+            Assert.assertTrue(world.getRoom("R0").hasSentient("rat 0"));
+        }
+    }
+
+    @org.junit.Test
+    public void sharedStateTest(){
+        SharedWorldState state = new SharedWorldState(world);
+        state.edit(world.getRoom("R0")).getSentient("rat 0").takeDamage(3);
+
+        String copied = simulate(4, 2);
+
+        try(RegionSimulation simulation = new RegionSimulation(state, 4, 2, 99)){
+            simulation.run(50);
+
+            // The shared game sees every move and heal, as a simulation of copies would have played it
+            StringBuilder rooms = new StringBuilder();
+            int counted = 0;
+            for(int i = 0; i < simulation.getAgentCount(); i++){
+                String room = simulation.getRoom(i);
+                rooms.append(room).append(' ');
+
+                Sentient s = state.view(world.getRoom(room)).getSentient(simulation.getSentient(i).getName());
+                Assert.assertTrue(s != null && s.getCurrentHitPoints() == 5);
+            }
+            for(int i = 0; i < 400; i++)
+                counted += state.view(world.getRoom("R" + i)).getSentients().size();
+
+            Assert.assertTrue(rooms.toString().equals(copied));
+            Assert.assertTrue(counted == 58);
+            Assert.assertTrue(world.getRoom("R0").hasSentient("rat 0"));
+
+            // A rat a player has killed is no longer simulated
+            String room = simulation.getRoom(1);
+            String name = simulation.getSentient(1).getName();
+            state.edit(world.getRoom(room)).getSentient(name).takeDamage(100);
+            simulation.run(5);
+
+            Assert.assertTrue(simulation.getRoom(1) == null);
+            Assert.assertTrue(state.view(world.getRoom(room)).hasItem(Corpse.nameOf(name)));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package testing;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import debug_adventure.SimpleAdventure;
+import org.junit.Assert;
+import replay.Replay;
+import resources.*;
+
+/**
+ * Test class for the Replay class.
+ */
+public class ReplayTest {
+
+    private World world;
+
+    private Path transcript;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        world = SimpleAdventure.createWorld();
+
+        // Two players in one transcript: one fights the bird until one of them dies, the other wanders
+        StringBuilder lines = new StringBuilder("a\ttake machete\na\tequip machete\na\tn\nb\tlook\nb\tn\n");
+        for(int i = 0; i < 20; i++)
+            lines.append("a\tattack bird\nb\ts\nb\tn\n");
+
+        transcript = Files.createTempFile("replay-test", ".txt");
+        transcript.toFile().deleteOnExit();
+        Files.write(transcript, lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @org.junit.Test
+    public void deterministicTest() throws Exception {
+        Replay replay = new Replay(() -> SimpleAdventure.create(world), 7);
+
+        Replay.Report first = replay.run(Collections.singletonList(transcript), 1, 1);
+        Replay.Report second = replay.run(Collections.singletonList(transcript), 3, 2);
+
+        String a = transcript.getFileName() + ":a";
+        String b = transcript.getFileName() + ":b";
+
+        Assert.assertTrue(first.getSessionCount() == 2);
+        Assert.assertTrue(second.getSessionCount() == 6);
+        Assert.assertTrue(first.getHash(a) != first.getHash(b));
+
+        // Every copy of every replay ends in the same state
+        Assert.assertTrue(second.getHash(a) == first.getHash(a));
+        Assert.assertTrue(second.getHash(transcript.getFileName() + "#2:a") == first.getHash(a));
+        Assert.assertTrue(second.getHash(transcript.getFileName() + "#1:b") == first.getHash(b));
+        Assert.assertTrue(second.getCommandCount() == 3 * first.getCommandCount());
+    }
+
+    @org.junit.Test
+    public void hashTest(){
+        Engine e1 = SimpleAdventure.create(world);
+        Engine e2 = SimpleAdventure.create(world);
+        e1.setOutput(Output.NONE);
+        e2.setOutput(Output.NONE);
+        e1.start();
+        e2.start();
+
+        Assert.assertTrue(Replay.hash(e1) == Replay.hash(e2));
+
+        for(String command : Arrays.asList("take machete", "n")){
+            e1.execute(command);
+            Assert.assertTrue(Replay.hash(e1) != Replay.hash(e2));
+
+            e2.execute(command);
+            Assert.assertTrue(Replay.hash(e1) == Replay.hash(e2));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package testing;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the RoomGraph class.
+ */
+public class RoomGraphTest {
+
+    private World world;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        world = new World();
+
+        world.addRoom("Abandoned Apartment", "Apartment", "You are standing in an empty concrete room.");
+        world.addRoom("Outside", "Outside1", "You are standing in an abandoned playground.");
+        world.addRoom("Forest Maze", "Maze", "Trees surround you.");
+        world.addConnection("Apartment", "Outside1", Direction.NORTH, true);
+        world.addConnection("Outside1", "Maze", Direction.EAST, false);
+    }
+
+    private void assertGraph(RoomGraph graph){
+        int apartment = graph.getId("Apartment");
+        int outside = graph.getId("Outside1");
+        int maze = graph.getId("Maze");
+
+        Assert.assertTrue(graph.getRoomCount() == 3);
+        Assert.assertTrue(graph.getConnection(apartment, Direction.NORTH) == outside);
+        Assert.assertTrue(graph.getConnection(outside, Direction.SOUTH) == apartment);
+        Assert.assertTrue(graph.getConnection(outside, Direction.EAST) == maze);
+        Assert.assertTrue(graph.getConnection(maze, Direction.WEST) == -1);
+        Assert.assertTrue(graph.getId("Nowhere") == -1);
+        Assert.assertTrue(graph.getEngineName(maze).equals("Maze"));
+        Assert.assertTrue(graph.getRoom(outside).getEngineName().equals("Outside1"));
+    }
+
+    @org.junit.Test
+    public void graphTest(){
+        assertGraph(new RoomGraph(world));
+    }
+
+    @org.junit.Test
+    public void mappedGraphTest() throws Exception {
+        Path path = Files.createTempDirectory("room-graph-test").resolve("world.tamap");
+        MappedWorld.write(world, path);
+
+        MappedWorld mapped = MappedWorld.open(path, 1);
+        assertGraph(new RoomGraph(mapped));
+
+        // Building the graph never loads more rooms than the cache holds
+        Assert.assertTrue(mapped.getCachedRoomCount() <= 1);
+    }
+}
@@ -127,4 +127,64 @@ public class RoomTest {
         Assert.assertTrue(i.equals(item2));
         Assert.assertFalse(room2.hasItem("IteM"));
     }
+
+    @org.junit.Test
+    public void copyTest(){
+        room1.addSentient(sentient2);
+        Room copy = new Room(room1);
+
+        copy.takeItem("Item");
+        copy.getSentient("plane").takeDamage(10);
+
+        Assert.assertTrue(room1.hasItem("Item"));
+        Assert.assertFalse(copy.hasItem("Item"));
+        Assert.assertFalse(room1.getSentient("plane").isDead());
+        Assert.assertFalse(copy.hasSentient("plane"));
+        Assert.assertTrue(copy.hasItem("corpse of plane"));
+        Assert.assertFalse(room1.hasItem("corpse of plane"));
+        Assert.assertTrue(copy.getConnection(Direction.WEST) == room2);
+    }
+
+    @org.junit.Test
+    public void deathTest(){
+        room1.addSentient(sentient1);
+        room1.addSentient(sentient2);
+        Assert.assertTrue(room1.getHostileSentients().size() == 1);
+
+        // A sentient turns into a corpse the moment it dies
+        sentient2.takeDamage(10);
+
+        Assert.assertTrue(sentient2.isDead());
+        Assert.assertFalse(room1.hasSentient("plane"));
+        Assert.assertTrue(room1.getItem("corpse of plane") instanceof Corpse);
+        Assert.assertTrue(room1.getHostileSentients().isEmpty());
+        Assert.assertTrue(room1.getSentients().size() == 1);
+
+        // Dying again leaves no second corpse
+        sentient2.takeDamage(10);
+        Assert.assertTrue(room1.getItems().size() == 2);
+    }
+
+    @org.junit.Test
+    public void sameNameDeathTest(){
+        // A cat dies, then another of the same name dies in the same room, as a respawned one would
+        Sentient first = new Sentient("Cat", "A cat.", true);
+        first.addItem(new Item("Collar", "Collar", "A red collar."));
+        room2.addSentient(first);
+        first.takeDamage(10);
+
+        Sentient second = new Sentient("Cat", "A cat.", true);
+        second.addItem(new Item("Bell", "Bell", "A small bell."));
+        room2.addSentient(second);
+        second.takeDamage(10);
+
+        // Neither corpse hides the other's belongings
+        Corpse corpse = (Corpse) room2.getItem("corpse of cat");
+        Assert.assertTrue(corpse.getSentient() == first);
+        Assert.assertTrue(corpse.getSentient().hasItem("collar"));
+        Assert.assertTrue(corpse.getSentient().hasItem("bell"));
+        Assert.assertFalse(second.hasItem("bell"));
+        Assert.assertTrue(room2.getItems().size() == 2);
+        Assert.assertFalse(room2.hasSentient("cat"));
+    }
 }
\ No newline at end of file
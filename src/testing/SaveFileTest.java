@@ -0,0 +1,88 @@
+package testing;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the SaveFile class.
+ */
+public class SaveFileTest {
+
+    private Engine engine;
+
+    private Path directory;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        engine = new Engine();
+
+        engine.addRoom("Abandoned Apartment", "Apartment", "You are standing in an empty concrete room.");
+        engine.addRoom("Outside", "Outside1", "You are standing in an abandoned playground.");
+        engine.addRoom("Forest Maze", "Maze", "Trees surround you.");
+        engine.addConnection("Apartment", "Outside1", Direction.NORTH, true);
+        engine.addConnection("Outside1", "Maze", Direction.EAST, false);
+        engine.addItem("Old Baguette", "Baguette", "It is cold and hard like iron.", "Apartment", true);
+        engine.addItem("Dog Bowl", "Bowl", "A small clay bowl.", "Apartment", true);
+        engine.addSentient("Mean Bird", "A mean bird.", 5, 0.0, 0, 0, 2.0, false, "Outside1");
+        engine.addPlayer("Andre", 10, 0.25, 3, 4, 0.4);
+
+        directory = Files.createTempDirectory("save-file-test");
+        engine.setConfigDirectory(directory.toString());
+        engine.setSaveEnabled(true);
+        engine.setOutput(Output.NONE);
+        engine.start();
+    }
+
+    @org.junit.Test
+    public void saveAndLoadTest(){
+        engine.execute("take old baguette");
+        engine.execute("n");
+        engine.execute("save");
+
+        Engine loaded = Engine.loadConfigurationFile(directory.toString());
+
+        Assert.assertTrue(loaded.getCurrentRoom().getEngineName().equals("Outside1"));
+        Assert.assertTrue(loaded.getPlayer().hasItem("old baguette"));
+        Assert.assertTrue(loaded.getPlayer().getCurrentHitPoints() == engine.getPlayer().getCurrentHitPoints());
+        Assert.assertTrue(loaded.getWorld().getRoom("Apartment").hasItem("dog bowl"));
+        Assert.assertFalse(loaded.getWorld().getRoom("Apartment").hasItem("old baguette"));
+        Assert.assertTrue(loaded.getWorld().getRoom("Outside1").hasSentient("mean bird"));
+        Assert.assertTrue(loaded.getWorld().getStartingRoom().getEngineName().equals("Apartment"));
+
+        // Connections keep their direction and one-way links stay one-way
+        Room outside = loaded.getWorld().getRoom("Outside1");
+        Assert.assertTrue(outside.getConnection(Direction.SOUTH).getEngineName().equals("Apartment"));
+        Assert.assertTrue(outside.getConnection(Direction.EAST).getEngineName().equals("Maze"));
+        Assert.assertTrue(loaded.getWorld().getRoom("Maze").getConnection(Direction.WEST) == null);
+
+        // Visited rooms stay visited, rooms never entered don't
+        Assert.assertTrue(loaded.getState().isVisited(outside));
+        Assert.assertFalse(loaded.getState().isVisited(loaded.getWorld().getRoom("Maze")));
+
+        loaded.setOutput(Output.NONE);
+        loaded.start();
+        Assert.assertTrue(loaded.execute("s") == Response.DONE);
+        Assert.assertTrue(loaded.execute("take dog bowl") == Response.DONE);
+        Assert.assertTrue(loaded.getPlayer().hasItem("dog bowl"));
+    }
+
+    @org.junit.Test
+    public void deleteTest(){
+        engine.saveConfigurationFile();
+        Assert.assertTrue(Files.exists(directory.resolve(SaveFile.FILE_NAME)));
+
+        engine.deleteConfigurationFile();
+        Assert.assertFalse(Files.exists(directory.resolve(SaveFile.FILE_NAME)));
+    }
+
+    @org.junit.Test
+    public void saveDisabledTest(){
+        engine.setSaveEnabled(false);
+
+        Assert.assertTrue(engine.execute("save") == Response.INCOMPLETE);
+        Assert.assertFalse(Files.exists(directory.resolve(SaveFile.FILE_NAME)));
+    }
+}
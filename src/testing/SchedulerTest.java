@@ -0,0 +1,222 @@
+package testing;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the Scheduler and Behaviors classes.
+ */
+public class SchedulerTest {
+
+    private Scheduler scheduler;
+
+    private ArrayList<String> happened;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        scheduler = new Scheduler();
+        happened = new ArrayList<>();
+    }
+
+    @org.junit.Test
+    public void orderTest(){
+        scheduler.schedule(3, tick -> happened.add("c" + tick));
+        scheduler.schedule(1, tick -> happened.add("a" + tick));
+        scheduler.schedule(3, tick -> happened.add("d" + tick));
+        scheduler.schedule(2, tick -> happened.add("b" + tick));
+
+        Assert.assertTrue(scheduler.advance() == 1);
+        Assert.assertTrue(scheduler.advanceTo(10) == 3);
+        Assert.assertTrue(happened.toString().equals("[a1, b2, c3, d3]"));
+        Assert.assertTrue(scheduler.getTick() == 10);
+        Assert.assertTrue(scheduler.size() == 0);
+    }
+
+    @org.junit.Test
+    public void repeatAndCancelTest(){
+        Scheduler.Entry repeating = scheduler.scheduleRepeating(2, 3, tick -> happened.add("r" + tick));
+        Scheduler.Entry once = scheduler.schedule(4, tick -> happened.add("x"));
+
+        scheduler.cancel(once);
+        scheduler.advanceTo(8);
+        Assert.assertTrue(happened.toString().equals("[r2, r5, r8]"));
+
+        scheduler.cancel(repeating);
+        Assert.assertFalse(repeating.isWaiting());
+        scheduler.advanceTo(100);
+        Assert.assertTrue(happened.size() == 3);
+
+        // An event may cancel itself
+        Scheduler.Entry[] self = new Scheduler.Entry[1];
+        self[0] = scheduler.scheduleRepeating(1, 1, tick -> {
+            happened.add("s");
+            scheduler.cancel(self[0]);
+        });
+        scheduler.advanceTo(110);
+        Assert.assertTrue(happened.size() == 4);
+    }
+
+    @org.junit.Test
+    public void manyEventsTest(){
+        // Cancelling in any order leaves the rest in order
+        Scheduler.Entry[] entries = new Scheduler.Entry[1000];
+        for(int i = 0; i < entries.length; i++){
+            long due = (i * 7919L) % 500 + 1;
+            entries[i] = scheduler.schedule(due, tick -> happened.add(Long.toString(tick)));
+        }
+
+        for(int i = 0; i < entries.length; i += 3)
+            scheduler.cancel(entries[i]);
+
+        scheduler.advanceTo(1000);
+
+        Assert.assertTrue(happened.size() == 666);
+        for(int i = 1; i < happened.size(); i++)
+            Assert.assertTrue(Long.parseLong(happened.get(i - 1)) <= Long.parseLong(happened.get(i)));
+    }
+
+    /**
+     * Returns a started game of two rooms with a stray cat outside.
+     */
+    private static Engine catGame(){
+        Engine engine = new Engine();
+
+        engine.addRoom("Abandoned Apartment", "Apartment", "You are standing in an empty concrete room.");
+        engine.addRoom("Outside", "Outside1", "You are standing in an abandoned playground.");
+        engine.addConnection("Apartment", "Outside1", Direction.NORTH, true);
+        engine.addSentient("Cat", "A stray cat.", 5, 0.0, 0, 0, 0.5, false, "Outside1");
+        engine.addPlayer("Andre", 10, 0.25, 3, 4, 0.4);
+        engine.setOutput(Output.NONE);
+        engine.setDice(new Dice(1));
+        engine.start();
+
+        return engine;
+    }
+
+    @org.junit.Test
+    public void behaviorsTest(){
+        Engine engine = catGame();
+
+        Behaviors behaviors = new Behaviors(engine);
+        behaviors.wander("Cat", "Outside1", 2);
+        behaviors.regenerate("Cat", "Outside1", 1, 1);
+        behaviors.respawn("Cat", "Outside1", 5);
+
+        // With one way out of each room, the cat goes back and forth every other tick
+        engine.execute("look");
+        engine.execute("look");
+        Assert.assertTrue(behaviors.getLocation("cat").equals("Apartment"));
+        Assert.assertTrue(engine.getCurrentRoom().hasSentient("cat"));
+        Assert.assertFalse(engine.getWorld().getRoom("Apartment").hasSentient("cat"));
+
+        // Wounds heal a hit point a tick
+        Sentient cat = engine.getCurrentRoom().getSentient("cat");
+        cat.takeDamage(3);
+        engine.execute("look");
+        Assert.assertTrue(cat.getCurrentHitPoints() == 3);
+
+        // Killed, it comes back where it started
+        cat.takeDamage(10);
+        Assert.assertTrue(engine.getCurrentRoom().hasItem("corpse of cat"));
+        for(int i = 0; i < 5; i++)
+            engine.execute("look");
+
+        Assert.assertTrue(behaviors.getLocation("cat").equals("Outside1")
+                || behaviors.getLocation("cat").equals("Apartment"));
+        Assert.assertTrue(engine.getState().view(engine.getWorld().getRoom(behaviors.getLocation("cat"))).hasSentient("cat"));
+    }
+
+    @org.junit.Test
+    public void behaviorsSaveTest() throws Exception {
+        Engine engine = catGame();
+        new Behaviors(engine).wander("Cat", "Outside1", 2);
+
+        engine.execute("look");
+        engine.execute("look");
+
+        Path file = Files.createTempFile("behaviors", ".tacfg");
+        file.toFile().deleteOnExit();
+        SaveFile.save(engine, file);
+
+        // Behaviors given to the loaded game pick the cat up from where it wandered to
+        Engine loaded = SaveFile.load(file);
+        loaded.setOutput(Output.NONE);
+        loaded.setDice(new Dice(1));
+        loaded.start();
+
+        Behaviors behaviors = new Behaviors(loaded);
+        behaviors.wander("Cat", "Outside1", 2);
+        behaviors.respawn("Cat", "Outside1", 5);
+        Assert.assertTrue(behaviors.getLocation("cat").equals("Apartment"));
+
+        loaded.execute("look");
+        loaded.execute("look");
+        Assert.assertTrue(behaviors.getLocation("cat").equals("Outside1"));
+        Assert.assertFalse(loaded.getCurrentRoom().hasSentient("cat"));
+
+        // Killed in the loaded game, it still comes back
+        loaded.getState().edit(loaded.getWorld().getRoom("Outside1")).getSentient("cat").takeDamage(10);
+        Assert.assertTrue(behaviors.getLocation("cat") == null);
+        for(int i = 0; i < 5; i++)
+            loaded.execute("look");
+        Assert.assertTrue(behaviors.getLocation("cat") != null);
+    }
+
+    @org.junit.Test
+    public void behaviorsJournalTest() throws Exception {
+        // Damage to sentients isn't journaled, so the cat is wounded before journaling begins
+        Engine engine = catGame();
+        engine.getState().edit(engine.getWorld().getRoom("Outside1")).getSentient("cat").takeDamage(3);
+
+        Path directory = Files.createTempDirectory("behaviors-journal").resolve("game");
+        Journal journal = Journal.create(engine, directory, false);
+
+        Behaviors behaviors = new Behaviors(engine);
+        behaviors.wander("Cat", "Outside1", 2);
+        behaviors.regenerate("Cat", "Outside1", 1, 1);
+
+        for(int i = 0; i < 3; i++)
+            engine.execute("look");
+
+        // Recovering replays every move and heal
+        assertSameCat(engine, Journal.recover(directory, false), "Apartment");
+        journal.close();
+
+        // Killed before journaling begins, the cat comes back while it is journaled
+        engine = catGame();
+        engine.getState().edit(engine.getWorld().getRoom("Outside1")).getSentient("cat").takeDamage(10);
+
+        directory = Files.createTempDirectory("behaviors-journal").resolve("game");
+        journal = Journal.create(engine, directory, false);
+
+        new Behaviors(engine).respawn("Cat", "Outside1", 2);
+        engine.execute("look");
+        engine.execute("look");
+
+        assertSameCat(engine, Journal.recover(directory, false), "Outside1");
+        journal.close();
+    }
+
+    /**
+     * Checks that the cat of the recovered game is where the cat of the game played is, and as hurt.
+     */
+    private static void assertSameCat(Engine engine, Engine recovered, String catRoom){
+        for(String room : new String[]{ "Apartment", "Outside1" }){
+            Room seen = engine.getState().view(engine.getWorld().getRoom(room));
+            Room replayed = recovered.getState().view(recovered.getWorld().getRoom(room));
+
+            Assert.assertTrue(seen.hasSentient("cat") == replayed.hasSentient("cat"));
+            Assert.assertTrue(seen.hasItem("corpse of cat") == replayed.hasItem("corpse of cat"));
+
+            if(seen.hasSentient("cat"))
+                Assert.assertTrue(seen.getSentient("cat").getCurrentHitPoints() == replayed.getSentient("cat").getCurrentHitPoints());
+        }
+
+        Assert.assertTrue(engine.getState().view(engine.getWorld().getRoom(catRoom)).hasSentient("cat"));
+        recovered.getJournal().close();
+    }
+}
@@ -0,0 +1,205 @@
+package testing;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the SharedWorldState class. The stress tests run many players against the same rooms at once
+ * and check that no item is ever duplicated or lost.
+ */
+public class SharedWorldStateTest {
+
+    private static final int ROOMS = 4;
+
+    private static final int ITEMS_PER_ROOM = 5;
+
+    private static final int LOOT = 5;
+
+    private World world;
+
+    private SharedWorldState shared;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        world = new World();
+
+        for(int r = 0; r < ROOMS; r++){
+            world.addRoom("Room " + r, "R" + r, "A room.");
+
+            for(int i = 0; i < ITEMS_PER_ROOM; i++)
+                world.addItem("Item " + r + "-" + i, "Item" + r + "-" + i, "An item.", "R" + r, true);
+        }
+
+        world.addConnection("R0", "R1", Direction.EAST, true);
+        world.addSentient("Rat", "A rat.", 1, 0.5, 0, 1, 0.5, true, "R0");
+
+        shared = new SharedWorldState(world, 4);
+
+        // The rat dies holding some loot, leaving a corpse every player can loot
+        Sentient rat = shared.edit(world.getRoom("R0")).getSentient("rat");
+        for(int i = 0; i < LOOT; i++)
+            rat.addItem(new Item("Loot " + i, "Loot" + i, "Shiny."));
+        rat.takeDamage(100);
+    }
+
+    @org.junit.Test
+    public void sharedRoomsTest(){
+        Engine a = new Engine(shared);
+        Engine b = new Engine(shared);
+        for(Engine e : new Engine[]{ a, b }){
+            e.addPlayer("Player", 100, 0.25, 3, 4, 0.4);
+            e.setOutput(Output.NONE);
+            e.start();
+        }
+
+        a.execute("take item 0-0");
+        Assert.assertTrue(a.getPlayer().hasItem("item 0-0"));
+
+        // The item is gone for the other player too, and only one of them can have it
+        Assert.assertFalse(b.getCurrentRoom().hasItem("item 0-0"));
+        b.execute("take item 0-0");
+        Assert.assertFalse(b.getPlayer().hasItem("item 0-0"));
+
+        a.execute("loot rat");
+        Assert.assertTrue(a.getPlayer().hasItem("loot 0"));
+        Assert.assertTrue(a.getPlayer().hasItem("loot " + (LOOT - 1)));
+
+        // Rooms visited are each player's own
+        a.execute("e");
+        Assert.assertTrue(a.getState().isVisited(world.getRoom("R1")));
+        Assert.assertFalse(b.getState().isVisited(world.getRoom("R1")));
+    }
+
+    @org.junit.Test
+    public void raceTest() throws Exception {
+        // Two players take the same item at the same moment, over and over: exactly one of them gets it each time
+        final int rounds = 2000;
+        Room room = world.getRoom("R2");
+        Sentient[] players = { new Sentient("A", "", false), new Sentient("B", "", false) };
+        WorldState[] states = { shared.newPlayerState(), shared.newPlayerState() };
+        AtomicInteger[] wins = { new AtomicInteger(), new AtomicInteger() };
+        CyclicBarrier barrier = new CyclicBarrier(2, () -> {
+            // Put the item back before every round
+            for(Sentient p : players)
+                if(p.hasItem("item 2-0"))
+                    shared.edit(room).addItem(p.dropItem("item 2-0"));
+        });
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for(int t = 0; t < 2; t++){
+            final int id = t;
+            threads.add(new Thread(() -> {
+                try {
+                    for(int i = 0; i < rounds; i++){
+                        barrier.await();
+                        if(states[id].take(room, "item 2-0", players[id]) != null)
+                            wins[id].incrementAndGet();
+                    }
+                } catch(Throwable e) {
+                    failure.set(e);
+                }
+            }));
+        }
+
+        for(Thread t : threads)
+            t.start();
+        for(Thread t : threads)
+            t.join();
+
+        Assert.assertTrue(failure.get() == null);
+        Assert.assertTrue(wins[0].get() + wins[1].get() == rounds);
+    }
+
+    @org.junit.Test
+    public void conservationTest() throws Exception {
+        final int threads = 8;
+        final int total = ROOMS * ITEMS_PER_ROOM + LOOT + 1;
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Sentient> players = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for(int t = 0; t < threads; t++){
+            Sentient player = new Sentient("Player " + t, "", false);
+            players.add(player);
+            WorldState state = shared.newPlayerState();
+
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                while(running.get()){
+                    Room room = world.getRoom("R" + random.nextInt(ROOMS));
+                    int r = random.nextInt(ROOMS), i = random.nextInt(ITEMS_PER_ROOM);
+                    String name = "item " + r + "-" + i;
+
+                    switch(random.nextInt(3)){
+                        case 0:
+                            state.take(room, name, player);
+                            break;
+                        case 1:
+                            state.drop(player, name, room);
+                            break;
+                        default:
+                            Room r0 = world.getRoom("R0");
+                            state.loot(r0, (Corpse) state.view(r0).getItem("corpse of rat"), "loot " + random.nextInt(LOOT), player);
+                    }
+                }
+
+                done.countDown();
+            }).start();
+        }
+
+        // Count every item while the players run; with every lock held, each item is in exactly one place
+        long end = System.currentTimeMillis() + 500;
+        int snapshots = 0;
+        while(System.currentTimeMillis() < end){
+            String problem = shared.runExclusively(() -> count(players, total));
+
+            if(problem != null)
+                failure.compareAndSet(null, problem);
+
+            snapshots++;
+            Thread.yield();
+        }
+
+        running.set(false);
+        done.await();
+
+        Assert.assertTrue(failure.get(), failure.get() == null);
+        Assert.assertTrue(count(players, total) == null);
+        Assert.assertTrue(snapshots > 0);
+    }
+
+    /**
+     * Returns a description of what is wrong with the items of the game, or null if every item is held in
+     * exactly one place.
+     */
+    private String count(List<Sentient> players, int total){
+        IdentityHashMap<Item, Boolean> seen = new IdentityHashMap<>();
+        List<Iterable<Item>> places = new ArrayList<>();
+
+        for(int r = 0; r < ROOMS; r++)
+            places.add(shared.view(world.getRoom("R" + r)).getItems());
+        for(Sentient p : players)
+            places.add(p.getInventory());
+        places.add(((Corpse) shared.view(world.getRoom("R0")).getItem("corpse of rat")).lootCorpse());
+
+        for(Iterable<Item> place : places)
+            for(Item i : place)
+                if(seen.put(i, true) != null)
+                    return i.getPublicName() + " is in two places.";
+
+        return seen.size() == total ? null : (total - seen.size()) + " items were lost.";
+    }
+}
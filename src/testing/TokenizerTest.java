@@ -0,0 +1,64 @@
+package testing;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the Tokenizer class.
+ */
+public class TokenizerTest {
+
+    private Tokenizer tokens;
+
+    private Vocabulary<String> names;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        tokens = new Tokenizer();
+
+        names = new Vocabulary<>();
+        names.put("old baguette", "old baguette");
+        names.put("bird", "bird");
+    }
+
+    @org.junit.Test
+    public void tokenizeTest1(){
+        tokens.tokenize("  Look   AT the  Bird ");
+
+        Assert.assertTrue(tokens.size() == 4);
+        Assert.assertTrue(tokens.toString().equals("look at the bird"));
+        Assert.assertTrue(tokens.matches(0, "look"));
+        Assert.assertTrue(tokens.matches(1, "at"));
+        Assert.assertFalse(tokens.matches(2, "at"));
+        Assert.assertFalse(tokens.matches(4, "bird"));
+    }
+
+    @org.junit.Test
+    public void tokenizeTest2(){
+        tokens.tokenize("");
+        Assert.assertTrue(tokens.size() == 0);
+
+        tokens.tokenize("   ");
+        Assert.assertTrue(tokens.size() == 0);
+    }
+
+    @org.junit.Test
+    public void tokenizeTest3(){
+        tokens.tokenize("a b c d e f g h i j k l m n o p q r s t u v w x y z");
+
+        Assert.assertTrue(tokens.size() == 26);
+        Assert.assertTrue(tokens.matches(25, "z"));
+    }
+
+    @org.junit.Test
+    public void matchTest(){
+        tokens.tokenize("take Old   Baguette");
+
+        Assert.assertTrue(tokens.match(names, 1, 2).equals("old baguette"));
+        Assert.assertTrue(tokens.match(names, 2, 2) == null);
+        Assert.assertTrue(tokens.match(names, 2, 1) == null);
+
+        tokens.tokenize("look at bird");
+        Assert.assertTrue(tokens.match(names, 2).equals("bird"));
+    }
+}
@@ -0,0 +1,93 @@
+package testing;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import debug_adventure.SimpleAdventure;
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the reports an Engine makes to its Tracer.
+ */
+public class TracerTest {
+
+    private Engine engine;
+
+    private ArrayList<String> reports;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        reports = new ArrayList<>();
+
+        engine = SimpleAdventure.create();
+        engine.setOutput(Output.NONE);
+        engine.setTracer(new Tracer(){
+            @Override
+            public Object commandStarted(){
+                return "command";
+            }
+
+            @Override
+            public void commandEnded(Object token, String verb, Room room){
+                reports.add(token + " " + verb + " " + room.getEngineName());
+            }
+
+            @Override
+            public Object combatStarted(){
+                return "combat";
+            }
+
+            @Override
+            public void combatEnded(Object token, Room room, CombatRound round){
+                reports.add(token + " " + round.getAttackCount() + " " + room.getEngineName());
+            }
+
+            @Override
+            public Object persistenceStarted(){
+                return "persistence";
+            }
+
+            @Override
+            public void persistenceEnded(Object token, String operation, Path path, long bytes){
+                reports.add(token + " " + operation + " " + (bytes == path.toFile().length()));
+            }
+        });
+    }
+
+    @org.junit.Test
+    public void commandTest(){
+        engine.start();
+        engine.execute("Take machete");
+        engine.execute("xyzzy");
+        engine.execute("n");
+
+        Assert.assertTrue(reports.get(0).equals("command take Apartment"));
+        Assert.assertTrue(reports.get(1).equals("command null Apartment"));
+
+        // The bird attacks as soon as the player arrives, within the command that brought them
+        Assert.assertTrue(reports.get(2).equals("combat 1 Outside1"));
+        Assert.assertTrue(reports.get(3).equals("command n Apartment"));
+        Assert.assertTrue(reports.size() == 4);
+    }
+
+    @org.junit.Test
+    public void saveTest() throws Exception {
+        Path path = Files.createTempDirectory("tracer-test").resolve("game.tacfg");
+
+        engine.start();
+        SaveFile.save(engine, path);
+
+        Assert.assertTrue(reports.get(0).equals("persistence save true"));
+    }
+
+    @org.junit.Test
+    public void noTracerTest(){
+        engine.setTracer(null);
+        engine.start();
+        engine.execute("n");
+
+        Assert.assertTrue(reports.isEmpty());
+    }
+}
@@ -0,0 +1,60 @@
+package testing;
+
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the Vocabulary class.
+ */
+public class VocabularyTest {
+
+    private Vocabulary<String> vocabulary;
+
+    @org.junit.Before
+    public void setUp() throws Exception {
+        vocabulary = new Vocabulary<>();
+
+        vocabulary.put("look", "LOOK");
+        vocabulary.put("l", "LOOK");
+        vocabulary.put("north east", "NORTH_EAST");
+    }
+
+    @org.junit.Test
+    public void getTest1(){
+        Assert.assertTrue(vocabulary.get("look").equals("LOOK"));
+        Assert.assertTrue(vocabulary.get("LoOk").equals("LOOK"));
+        Assert.assertTrue(vocabulary.get("l").equals("LOOK"));
+        Assert.assertTrue(vocabulary.get("north east").equals("NORTH_EAST"));
+    }
+
+    @org.junit.Test
+    public void getTest2(){
+        Assert.assertTrue(vocabulary.get("lo") == null);
+        Assert.assertTrue(vocabulary.get("looks") == null);
+        Assert.assertTrue(vocabulary.get("") == null);
+        Assert.assertTrue(vocabulary.get("north") == null);
+    }
+
+    @org.junit.Test
+    public void getRangeTest(){
+        String line = "  look at bird";
+
+        Assert.assertTrue(vocabulary.get(line, 2, 6).equals("LOOK"));
+        Assert.assertTrue(vocabulary.get(line, 2, 5) == null);
+    }
+
+    @org.junit.Test
+    public void putTest(){
+        vocabulary.put("LOOK", "EXAMINE");
+
+        Assert.assertTrue(vocabulary.get("look").equals("EXAMINE"));
+        Assert.assertTrue(vocabulary.size() == 3);
+    }
+
+    @org.junit.Test
+    public void directionTest(){
+        Assert.assertTrue(Direction.toDirection("go north east", 0, 13) == Direction.NORTH_EAST);
+        Assert.assertTrue(Direction.toDirection("NW", 0, 2) == Direction.NORTH_WEST);
+        Assert.assertTrue(Direction.toDirection("gold", 0, 4) == null);
+    }
+}
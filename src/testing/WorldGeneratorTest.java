@@ -0,0 +1,148 @@
+package testing;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+
+import debug_adventure.WorldGenerator;
+import debug_adventure.WorldGenerator.Topology;
+import org.junit.Assert;
+import resources.*;
+
+/**
+ * Test class for the WorldGenerator class.
+ */
+public class WorldGeneratorTest {
+
+    /**
+     * Returns a description of every room of the World passed, with its exits, items and sentients, in order.
+     */
+    private static String describe(World world, int rooms){
+        StringBuilder text = new StringBuilder();
+
+        for(int r = 0; r < rooms; r++){
+            Room room = world.getRoom("R" + r);
+            text.append(room.getPublicName()).append('|').append(room.getDescription());
+
+            for(Direction d : Direction.values())
+                text.append('|').append(room.getConnection(d) == null ? "" : room.getConnection(d).getEngineName());
+
+            for(Item i : room.getItems())
+                text.append('|').append(i.getPublicName());
+
+            for(Sentient s : room.getSentients())
+                text.append('|').append(s.getName()).append(s.getCurrentHitPoints()).append(s.isHostile());
+
+            text.append('\n');
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Returns the number of rooms that can be reached from the first room of the World passed.
+     */
+    private static int reachable(World world){
+        HashSet<Room> seen = new HashSet<>();
+        ArrayDeque<Room> queue = new ArrayDeque<>();
+
+        seen.add(world.getStartingRoom());
+        queue.add(world.getStartingRoom());
+
+        while(!queue.isEmpty()){
+            Room r = queue.poll();
+
+            for(Direction d : Direction.values()){
+                Room next = r.getConnection(d);
+
+                if(next != null && seen.add(next))
+                    queue.add(next);
+            }
+        }
+
+        return seen.size();
+    }
+
+    /**
+     * Returns the number of exits of the World passed that have no way back the opposite way.
+     */
+    private static int oneWayExits(World world){
+        int oneWay = 0;
+
+        for(Room r : world.getRooms())
+            for(Direction d : Direction.values())
+                if(r.getConnection(d) != null && r.getConnection(d).getConnection(Direction.oppositeDirection(d)) != r)
+                    oneWay++;
+
+        return oneWay;
+    }
+
+    @org.junit.Test
+    public void deterministicTest(){
+        for(Topology t : Topology.values()){
+            WorldGenerator generator = new WorldGenerator(t, 20000);
+
+            String one = describe(generator.generate(42, 1), 20000);
+            String four = describe(generator.generate(42, 4), 20000);
+            String other = describe(generator.generate(43, 4), 20000);
+
+            Assert.assertTrue(one.equals(four));
+            Assert.assertTrue(!one.equals(other));
+        }
+    }
+
+    @org.junit.Test
+    public void topologyTest(){
+        for(Topology t : Topology.values()){
+            World world = new WorldGenerator(t, 10000).generate(7);
+
+            Assert.assertTrue(world.getRooms().size() == 10000);
+            Assert.assertTrue(world.getStartingRoom() == world.getRoom("R0"));
+            Assert.assertTrue(reachable(world) == 10000);
+
+            // Only the chutes of a maze lead one way
+            if(t == Topology.MAZE)
+                Assert.assertTrue(oneWayExits(world) > 0);
+            else
+                Assert.assertTrue(oneWayExits(world) == 0);
+
+            // No exit leads back into the room it leaves
+            for(Room r : world.getRooms())
+                for(Direction d : Direction.values())
+                    Assert.assertTrue(r.getConnection(d) != r);
+        }
+
+        // In small mazes a chute would often fall back into its own room
+        for(long seed = 0; seed < 100; seed++){
+            World maze = new WorldGenerator(Topology.MAZE, 20).generate(seed);
+
+            for(Room r : maze.getRooms())
+                Assert.assertTrue(r.getConnection(Direction.DOWN) != r);
+        }
+
+        // A grid of 100 by 100 rooms, whose first corner leads only east and south
+        World grid = new WorldGenerator(Topology.GRID, 10000).generate(7);
+        Assert.assertTrue(grid.getRoom("R0").getConnection(Direction.EAST) == grid.getRoom("R1"));
+        Assert.assertTrue(grid.getRoom("R0").getConnection(Direction.SOUTH) == grid.getRoom("R100"));
+        Assert.assertTrue(grid.getRoom("R0").getConnection(Direction.NORTH) == null);
+    }
+
+    @org.junit.Test
+    public void playTest(){
+        WorldGenerator generator = new WorldGenerator(Topology.GRID, 100);
+        generator.setContents(1, 0);
+
+        Engine engine = new Engine(generator.generate(3));
+        engine.addPlayer("Andre", 10, 0.25, 3, 4, 0.4);
+        engine.setOutput(Output.NONE);
+        engine.start();
+
+        // Every room holds an item, and the names of all of them can be typed
+        Item item = engine.getCurrentRoom().getItems().iterator().next();
+
+        Assert.assertTrue(engine.execute("take " + item.getPublicName()) == Response.DONE);
+        Assert.assertTrue(engine.getPlayer().hasItem(item.getPublicName()));
+        Assert.assertTrue(engine.getLocations().getHolder(item) == engine.getPlayer());
+        Assert.assertTrue(engine.execute("e") == Response.DONE);
+        Assert.assertTrue(engine.getCurrentRoom() == engine.getWorld().getRoom("R1"));
+    }
+}